@@ -0,0 +1,201 @@
+/**
+ * Copyright (C) 2010-14 diirt developers. See COPYRIGHT.TXT
+ * All rights reserved. Use is subject to license terms. See LICENSE.TXT
+ */
+package org.epics.util.array.benchmark;
+
+import java.util.Random;
+import org.epics.util.array.CollectionNumbers;
+import org.epics.util.array.ListNumber;
+
+/**
+ * Creates the data used by the benchmarks. The element type is given
+ * as a string so that it can be used as a JMH parameter.
+ *
+ * @author carcassi
+ */
+public class BenchmarkData {
+
+    /**
+     * All the element types, as accepted by {@link #createArray(java.lang.String, int, long) }.
+     */
+    public static final String ALL_TYPES = "double,float,long,int,short,byte,ulong,uint,ushort,ubyte";
+
+    private BenchmarkData() {
+        // prevent instances
+    }
+
+    /**
+     * Creates a primitive array of the given type filled with random data.
+     * The unsigned types use the array of the signed type of the same size.
+     *
+     * @param type the element type
+     * @param size the number of elements
+     * @param seed the seed for the random data
+     * @return a new primitive array
+     */
+    public static Object createArray(String type, int size, long seed) {
+        Random rand = new Random(seed);
+        switch (type) {
+            case "double": {
+                double[] array = new double[size];
+                for (int i = 0; i < size; i++) {
+                    array[i] = rand.nextGaussian();
+                }
+                return array;
+            }
+            case "float": {
+                float[] array = new float[size];
+                for (int i = 0; i < size; i++) {
+                    array[i] = (float) rand.nextGaussian();
+                }
+                return array;
+            }
+            case "long":
+            case "ulong": {
+                long[] array = new long[size];
+                for (int i = 0; i < size; i++) {
+                    array[i] = rand.nextLong();
+                }
+                return array;
+            }
+            case "int":
+            case "uint": {
+                int[] array = new int[size];
+                for (int i = 0; i < size; i++) {
+                    array[i] = rand.nextInt();
+                }
+                return array;
+            }
+            case "short":
+            case "ushort": {
+                short[] array = new short[size];
+                for (int i = 0; i < size; i++) {
+                    array[i] = (short) rand.nextInt();
+                }
+                return array;
+            }
+            case "byte":
+            case "ubyte": {
+                byte[] array = new byte[size];
+                rand.nextBytes(array);
+                return array;
+            }
+            default:
+                throw new IllegalArgumentException("Unknown type " + type);
+        }
+    }
+
+    /**
+     * Wraps a primitive array created by {@link #createArray(java.lang.String, int, long) }
+     * in the writable {@code ArrayXxx} of the given type.
+     *
+     * @param type the element type
+     * @param array the primitive array
+     * @return a new list
+     */
+    public static ListNumber wrap(String type, Object array) {
+        switch (type) {
+            case "double":
+                return CollectionNumbers.toListDouble((double[]) array);
+            case "float":
+                return CollectionNumbers.toListFloat((float[]) array);
+            case "long":
+                return CollectionNumbers.toListLong((long[]) array);
+            case "int":
+                return CollectionNumbers.toListInt((int[]) array);
+            case "short":
+                return CollectionNumbers.toListShort((short[]) array);
+            case "byte":
+                return CollectionNumbers.toListByte((byte[]) array);
+            case "ulong":
+                return CollectionNumbers.toListULong((long[]) array);
+            case "uint":
+                return CollectionNumbers.toListUInt((int[]) array);
+            case "ushort":
+                return CollectionNumbers.toListUShort((short[]) array);
+            case "ubyte":
+                return CollectionNumbers.toListUByte((byte[]) array);
+            default:
+                throw new IllegalArgumentException("Unknown type " + type);
+        }
+    }
+
+    /**
+     * Creates a list of the given type filled with random data.
+     *
+     * @param type the element type
+     * @param size the number of elements
+     * @return a new list
+     */
+    public static ListNumber createList(String type, int size) {
+        return wrap(type, createArray(type, size, 0));
+    }
+
+    /**
+     * Sums the elements of the primitive array, converting each element
+     * to double as the list of the same type would.
+     *
+     * @param type the element type
+     * @param array the primitive array
+     * @return the sum
+     */
+    public static double sumArray(String type, Object array) {
+        double sum = 0;
+        switch (type) {
+            case "double":
+                for (double value : (double[]) array) {
+                    sum += value;
+                }
+                return sum;
+            case "float":
+                for (float value : (float[]) array) {
+                    sum += value;
+                }
+                return sum;
+            case "long":
+                for (long value : (long[]) array) {
+                    sum += value;
+                }
+                return sum;
+            case "int":
+                for (int value : (int[]) array) {
+                    sum += value;
+                }
+                return sum;
+            case "short":
+                for (short value : (short[]) array) {
+                    sum += value;
+                }
+                return sum;
+            case "byte":
+                for (byte value : (byte[]) array) {
+                    sum += value;
+                }
+                return sum;
+            case "ulong":
+                for (long value : (long[]) array) {
+                    double converted = (double) (value & 0x7fffffffffffffffL);
+                    sum += value < 0 ? converted + 0x1.0p63 : converted;
+                }
+                return sum;
+            case "uint":
+                for (int value : (int[]) array) {
+                    sum += value & 0xffffffffL;
+                }
+                return sum;
+            case "ushort":
+                for (short value : (short[]) array) {
+                    sum += value & 0xffff;
+                }
+                return sum;
+            case "ubyte":
+                for (byte value : (byte[]) array) {
+                    sum += value & 0xff;
+                }
+                return sum;
+            default:
+                throw new IllegalArgumentException("Unknown type " + type);
+        }
+    }
+}
@@ -0,0 +1,87 @@
+/**
+ * Copyright (C) 2010-14 diirt developers. See COPYRIGHT.TXT
+ * All rights reserved. Use is subject to license terms. See LICENSE.TXT
+ */
+package org.epics.util.array.benchmark;
+
+import java.util.concurrent.TimeUnit;
+import org.epics.util.array.ArrayDouble;
+import org.epics.util.array.CircularBufferDouble;
+import org.epics.util.array.CollectionNumbers;
+import org.epics.util.array.ListDouble;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares a full circular buffer, whose content wraps around the end of
+ * the internal array, with an array of the same size. Also measures the
+ * cost of adding samples and of copying the content.
+ *
+ * @author carcassi
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class CircularBufferBenchmark {
+
+    @Param({"1000", "100000"})
+    public int size;
+
+    private double[] samples;
+    private CircularBufferDouble buffer;
+    private ArrayDouble array;
+
+    @Setup
+    public void setup() {
+        samples = (double[]) BenchmarkData.createArray("double", size, 0);
+        buffer = new CircularBufferDouble(size);
+        // Fill past the capacity so that the content wraps around
+        for (int i = 0; i < size + size / 3; i++) {
+            buffer.addDouble(samples[i % size]);
+        }
+        array = CollectionNumbers.toListDouble(samples);
+    }
+
+    private static double sum(ListDouble list) {
+        double sum = 0;
+        for (int i = 0; i < list.size(); i++) {
+            sum += list.getDouble(i);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public double iterateBuffer() {
+        return sum(buffer);
+    }
+
+    @Benchmark
+    public double iterateArray() {
+        return sum(array);
+    }
+
+    @Benchmark
+    public Object addAllSamples() {
+        for (int i = 0; i < samples.length; i++) {
+            buffer.addDouble(samples[i]);
+        }
+        return buffer;
+    }
+
+    @Benchmark
+    public Object toArray() {
+        return buffer.toArray(new double[size]);
+    }
+}
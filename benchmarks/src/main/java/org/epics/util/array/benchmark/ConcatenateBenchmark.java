@@ -0,0 +1,86 @@
+/**
+ * Copyright (C) 2010-14 diirt developers. See COPYRIGHT.TXT
+ * All rights reserved. Use is subject to license terms. See LICENSE.TXT
+ */
+package org.epics.util.array.benchmark;
+
+import java.util.concurrent.TimeUnit;
+import org.epics.util.array.ListDouble;
+import org.epics.util.array.ListNumber;
+import org.epics.util.array.ListNumbers;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Reads the concatenation of a number of lists with the same total size,
+ * both sequentially and at random positions.
+ *
+ * @author carcassi
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class ConcatenateBenchmark {
+
+    @Param({"1000", "100000"})
+    public int size;
+
+    @Param({"2", "16", "256"})
+    public int pieces;
+
+    @Param({"double", "int", "ubyte"})
+    public String type;
+
+    private ListNumber[] lists;
+    private ListDouble concatenated;
+
+    @Setup
+    public void setup() {
+        lists = new ListNumber[pieces];
+        for (int i = 0; i < pieces; i++) {
+            lists[i] = BenchmarkData.wrap(type, BenchmarkData.createArray(type, size / pieces, i));
+        }
+        concatenated = ListNumbers.concatenate(lists);
+    }
+
+    @Benchmark
+    public Object concatenate() {
+        return ListNumbers.concatenate(lists);
+    }
+
+    @Benchmark
+    public double sequentialRead() {
+        double sum = 0;
+        for (int i = 0; i < concatenated.size(); i++) {
+            sum += concatenated.getDouble(i);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public double randomRead() {
+        double sum = 0;
+        int n = concatenated.size();
+        for (int i = 0; i < n; i++) {
+            sum += concatenated.getDouble((int) ((i * 2654435761L) % n));
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public Object toArray() {
+        return concatenated.toArray(new double[concatenated.size()]);
+    }
+}
@@ -0,0 +1,86 @@
+/**
+ * Copyright (C) 2010-14 diirt developers. See COPYRIGHT.TXT
+ * All rights reserved. Use is subject to license terms. See LICENSE.TXT
+ */
+package org.epics.util.array.benchmark;
+
+import java.lang.reflect.Array;
+import java.util.concurrent.TimeUnit;
+import org.epics.util.array.CollectionNumbers;
+import org.epics.util.array.ListNumber;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Copies an array: with {@link System#arraycopy}, with {@code setAll}
+ * between lists of the same type, with {@code toArray} and with the
+ * conversion to a {@code double[]}.
+ *
+ * @author carcassi
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class CopyBenchmark {
+
+    @Param({"1000", "100000"})
+    public int size;
+
+    @Param({"double", "float", "long", "int", "short", "byte", "ulong", "uint", "ushort", "ubyte"})
+    public String type;
+
+    private Object srcArray;
+    private Object destArray;
+    private ListNumber src;
+    private ListNumber dest;
+    private double[] doubleDest;
+
+    @Setup
+    public void setup() {
+        srcArray = BenchmarkData.createArray(type, size, 0);
+        destArray = BenchmarkData.createArray(type, size, 1);
+        src = BenchmarkData.wrap(type, srcArray);
+        dest = BenchmarkData.wrap(type, destArray);
+        doubleDest = new double[size];
+    }
+
+    @Benchmark
+    public Object systemArraycopy() {
+        System.arraycopy(srcArray, 0, destArray, 0, size);
+        return destArray;
+    }
+
+    @Benchmark
+    public Object setAll() {
+        dest.setAll(0, src);
+        return dest;
+    }
+
+    @Benchmark
+    public Object toArray() {
+        return src.toArray(Array.newInstance(srcArray.getClass().getComponentType(), size));
+    }
+
+    @Benchmark
+    public Object toDoubleArray() {
+        return src.toArray(new double[size]);
+    }
+
+    @Benchmark
+    public Object arrayCopyToDouble() {
+        CollectionNumbers.arrayCopy(src, doubleDest, 0);
+        return doubleDest;
+    }
+}
@@ -0,0 +1,107 @@
+/**
+ * Copyright (C) 2010-14 diirt developers. See COPYRIGHT.TXT
+ * All rights reserved. Use is subject to license terms. See LICENSE.TXT
+ */
+package org.epics.util.array.benchmark;
+
+import java.util.concurrent.TimeUnit;
+import org.epics.util.array.CollectionNumber;
+import org.epics.util.array.IteratorNumber;
+import org.epics.util.array.ListMath;
+import org.epics.util.array.ListNumber;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Sums all the elements of an array: directly on the primitive array,
+ * through the list and through the iterator.
+ * <p>
+ * The wrapper should have no cost as long as the call site sees only one
+ * implementation. The {@code megamorphic} profile reads lists of all types
+ * during setup, so that the calls through {@link ListNumber} and
+ * {@link IteratorNumber} can no longer be inlined: this is the case
+ * of code that handles lists of different types.
+ *
+ * @author carcassi
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class IterationBenchmark {
+
+    @Param({"1000", "100000"})
+    public int size;
+
+    @Param({"double", "float", "long", "int", "short", "byte", "ulong", "uint", "ushort", "ubyte"})
+    public String type;
+
+    @Param({"monomorphic", "megamorphic"})
+    public String profile;
+
+    private Object array;
+    private ListNumber list;
+
+    @Setup
+    public void setup() {
+        array = BenchmarkData.createArray(type, size, 0);
+        list = BenchmarkData.wrap(type, array);
+        if ("megamorphic".equals(profile)) {
+            for (String otherType : BenchmarkData.ALL_TYPES.split(",")) {
+                ListNumber other = BenchmarkData.createList(otherType, 1000);
+                for (int i = 0; i < 20000; i++) {
+                    sumGet(other);
+                    sumIterator(other);
+                }
+            }
+        }
+    }
+
+    private static double sumGet(ListNumber list) {
+        double sum = 0;
+        for (int i = 0; i < list.size(); i++) {
+            sum += list.getDouble(i);
+        }
+        return sum;
+    }
+
+    private static double sumIterator(CollectionNumber collection) {
+        IteratorNumber iter = collection.iterator();
+        double sum = 0;
+        while (iter.hasNext()) {
+            sum += iter.nextDouble();
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public double primitiveArray() {
+        return BenchmarkData.sumArray(type, array);
+    }
+
+    @Benchmark
+    public double listGet() {
+        return sumGet(list);
+    }
+
+    @Benchmark
+    public double iterator() {
+        return sumIterator(list);
+    }
+
+    @Benchmark
+    public double listMathSum() {
+        return ListMath.sum(list);
+    }
+}
@@ -0,0 +1,100 @@
+/**
+ * Copyright (C) 2010-14 diirt developers. See COPYRIGHT.TXT
+ * All rights reserved. Use is subject to license terms. See LICENSE.TXT
+ */
+package org.epics.util.array.benchmark;
+
+import java.util.concurrent.TimeUnit;
+import org.epics.util.array.ListDouble;
+import org.epics.util.array.ListExpression;
+import org.epics.util.array.ListMath;
+import org.epics.util.array.ListNumber;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Reads the result of the {@link ListMath} operations: through the lazy
+ * views, with the {@code xxxInto} methods and with a {@link ListExpression}.
+ *
+ * @author carcassi
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class ListMathBenchmark {
+
+    @Param({"1000", "100000"})
+    public int size;
+
+    @Param({"double", "float", "int", "short", "ushort", "ubyte"})
+    public String type;
+
+    private ListNumber data1;
+    private ListNumber data2;
+    private double[] dest;
+
+    @Setup
+    public void setup() {
+        data1 = BenchmarkData.createList(type, size);
+        data2 = BenchmarkData.wrap(type, BenchmarkData.createArray(type, size, 1));
+        dest = new double[size];
+    }
+
+    private static double sum(ListDouble list) {
+        double sum = 0;
+        for (int i = 0; i < list.size(); i++) {
+            sum += list.getDouble(i);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public double rescaleView() {
+        return sum(ListMath.rescale(data1, 2.5, 1.0));
+    }
+
+    @Benchmark
+    public Object rescaleInto() {
+        ListMath.rescaleInto(data1, 2.5, 1.0, dest, 0);
+        return dest;
+    }
+
+    @Benchmark
+    public double addView() {
+        return sum(ListMath.add(data1, data2));
+    }
+
+    @Benchmark
+    public Object addInto() {
+        ListMath.addInto(data1, data2, dest, 0);
+        return dest;
+    }
+
+    @Benchmark
+    public double chainView() {
+        return sum(ListMath.rescale(ListMath.add(ListMath.multiply(data1, data2), data1), 0.5, 1.0));
+    }
+
+    @Benchmark
+    public Object chainExpression() {
+        ListExpression.of(data1).multiply(data2).add(data1).rescale(0.5, 1.0).evaluate(dest, 0);
+        return dest;
+    }
+
+    @Benchmark
+    public double sum() {
+        return ListMath.sum(data1);
+    }
+}
@@ -0,0 +1,72 @@
+/**
+ * Copyright (C) 2010-14 diirt developers. See COPYRIGHT.TXT
+ * All rights reserved. Use is subject to license terms. See LICENSE.TXT
+ */
+package org.epics.util.array.benchmark;
+
+import java.util.concurrent.TimeUnit;
+import org.epics.util.array.ListNumber;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Sums all the elements of a list that wraps a whole array and of a
+ * sublist of the same size taken from the middle of a bigger array.
+ *
+ * @author carcassi
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class SliceBenchmark {
+
+    @Param({"1000", "100000"})
+    public int size;
+
+    @Param({"double", "float", "long", "int", "short", "byte", "ulong", "uint", "ushort", "ubyte"})
+    public String type;
+
+    private ListNumber whole;
+    private ListNumber slice;
+
+    @Setup
+    public void setup() {
+        whole = BenchmarkData.createList(type, size);
+        slice = BenchmarkData.createList(type, 2 * size).subList(size / 2, size / 2 + size);
+    }
+
+    private static double sum(ListNumber list) {
+        double sum = 0;
+        for (int i = 0; i < list.size(); i++) {
+            sum += list.getDouble(i);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public double wholeArray() {
+        return sum(whole);
+    }
+
+    @Benchmark
+    public double subList() {
+        return sum(slice);
+    }
+
+    @Benchmark
+    public Object createSubList() {
+        return whole.subList(1, size - 1);
+    }
+}
@@ -0,0 +1,74 @@
+/**
+ * Copyright (C) 2010-14 diirt developers. See COPYRIGHT.TXT
+ * All rights reserved. Use is subject to license terms. See LICENSE.TXT
+ */
+package org.epics.util.array.benchmark;
+
+import java.util.concurrent.TimeUnit;
+import org.epics.util.array.ListNumber;
+import org.epics.util.array.ListNumbers;
+import org.epics.util.array.SortedListView;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Sorts a list with {@link ListNumbers#sortedView(org.epics.util.array.ListNumber) },
+ * reads the sorted view and searches it.
+ *
+ * @author carcassi
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class SortedViewBenchmark {
+
+    @Param({"1000", "100000"})
+    public int size;
+
+    @Param({"double", "int", "ushort"})
+    public String type;
+
+    private ListNumber data;
+    private SortedListView sorted;
+
+    @Setup
+    public void setup() {
+        data = BenchmarkData.createList(type, size);
+        sorted = ListNumbers.sortedView(data);
+    }
+
+    @Benchmark
+    public Object sortedView() {
+        return ListNumbers.sortedView(data);
+    }
+
+    @Benchmark
+    public double readSortedView() {
+        double sum = 0;
+        for (int i = 0; i < sorted.size(); i++) {
+            sum += sorted.getDouble(i);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public int binarySearch() {
+        int result = 0;
+        for (int i = 0; i < 100; i++) {
+            result += ListNumbers.binarySearchValueOrLower(sorted, sorted.getDouble((i * 7919) % size));
+        }
+        return result;
+    }
+}
@@ -0,0 +1,286 @@
+/**
+ * Copyright (C) 2010-14 diirt developers. See COPYRIGHT.TXT
+ * All rights reserved. Use is subject to license terms. See LICENSE.TXT
+ */
+package org.epics.util.array;
+
+import java.io.IOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+
+/**
+ * The layout of the files written by {@link ArchiveWriter} and read by
+ * {@link ArchiveReader}.
+ * <p>
+ * The file starts with a 16 byte header: the magic number, the format
+ * version and the byte order of the rest of the file (all three big endian).
+ * It is followed by the records, each made of a 16 byte header (record
+ * marker, type tag and number of elements) and of the elements, padded to
+ * a multiple of 8 bytes so that every record starts aligned. When the writer
+ * is closed, the index is appended: the index marker, the number of records,
+ * the offset, size and type of all the records and a 16 byte footer that points
+ * to the index. If the footer is missing (e.g. the writer was not closed),
+ * the records are found by scanning the file.
+ *
+ * @author carcassi
+ */
+class ArchiveFormat {
+
+    private ArchiveFormat() {
+        // prevent instances
+    }
+
+    static final int MAGIC = 0x45504c41; // "EPLA"
+    static final short VERSION = 1;
+    static final int HEADER_SIZE = 16;
+
+    static final int RECORD_MARKER = 0x52454344; // "RECD"
+    static final int RECORD_HEADER_SIZE = 16;
+
+    static final int INDEX_MARKER = 0x494e4458; // "INDX"
+    static final int FOOTER_MARKER = 0x454e4458; // "ENDX"
+    static final int INDEX_ENTRY_SIZE = 24;
+    static final int FOOTER_SIZE = 16;
+
+    static final int DOUBLE = 1;
+    static final int FLOAT = 2;
+    static final int LONG = 3;
+    static final int INT = 4;
+    static final int SHORT = 5;
+    static final int BYTE = 6;
+    static final int ULONG = 7;
+    static final int UINT = 8;
+    static final int USHORT = 9;
+    static final int UBYTE = 10;
+
+    /**
+     * The type tag for the given list. Lists that are not of one
+     * of the typed classes are stored as doubles.
+     */
+    static int typeOf(ListNumber list) {
+        if (list instanceof ListDouble) {
+            return DOUBLE;
+        } else if (list instanceof ListFloat) {
+            return FLOAT;
+        } else if (list instanceof ListLong) {
+            return LONG;
+        } else if (list instanceof ListInteger) {
+            return INT;
+        } else if (list instanceof ListShort) {
+            return SHORT;
+        } else if (list instanceof ListByte) {
+            return BYTE;
+        } else if (list instanceof ListULong) {
+            return ULONG;
+        } else if (list instanceof ListUInteger) {
+            return UINT;
+        } else if (list instanceof ListUShort) {
+            return USHORT;
+        } else if (list instanceof ListUByte) {
+            return UBYTE;
+        } else {
+            return DOUBLE;
+        }
+    }
+
+    /**
+     * The number of bytes of each element, or -1 if the tag is not valid.
+     */
+    static int elementSize(int type) {
+        switch (type) {
+            case DOUBLE:
+            case LONG:
+            case ULONG:
+                return 8;
+            case FLOAT:
+            case INT:
+            case UINT:
+                return 4;
+            case SHORT:
+            case USHORT:
+                return 2;
+            case BYTE:
+            case UBYTE:
+                return 1;
+            default:
+                return -1;
+        }
+    }
+
+    /**
+     * Whether the type tag is valid and the data of the record is small
+     * enough to be mapped in a single buffer.
+     */
+    static boolean isValid(int type, long count) {
+        return elementSize(type) != -1 && count >= 0 && count * elementSize(type) <= Integer.MAX_VALUE;
+    }
+
+    /**
+     * The number of bytes of the data of a record, including the padding.
+     */
+    static long paddedDataSize(int type, long count) {
+        long bytes = count * elementSize(type);
+        return (bytes + 7) & ~7L;
+    }
+
+    static ByteBuffer writeHeader(ByteOrder order) {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        header.putInt(MAGIC);
+        header.putShort(VERSION);
+        header.put(order == ByteOrder.LITTLE_ENDIAN ? (byte) 1 : (byte) 0);
+        ((Buffer) header).rewind();
+        return header;
+    }
+
+    /**
+     * Reads the header of the file and returns the byte order of the content.
+     */
+    static ByteOrder readHeader(FileChannel channel) throws IOException {
+        ByteBuffer header = read(channel, 0, HEADER_SIZE, ByteOrder.BIG_ENDIAN);
+        if (header == null || header.getInt() != MAGIC) {
+            throw new IOException("Not an archive file");
+        }
+        short version = header.getShort();
+        if (version != VERSION) {
+            throw new IOException("Unsupported archive version " + version);
+        }
+        return header.get() == 1 ? ByteOrder.LITTLE_ENDIAN : ByteOrder.BIG_ENDIAN;
+    }
+
+    /**
+     * The records of an archive file.
+     */
+    static class Records {
+        long[] offsets;
+        int[] types;
+        long[] counts;
+        int size;
+
+        /**
+         * The position right after the last record.
+         */
+        long end;
+
+        Records(int capacity) {
+            offsets = new long[Math.max(capacity, 16)];
+            types = new int[offsets.length];
+            counts = new long[offsets.length];
+        }
+
+        void add(long offset, int type, long count) {
+            if (size == offsets.length) {
+                int capacity = offsets.length * 2;
+                offsets = Arrays.copyOf(offsets, capacity);
+                types = Arrays.copyOf(types, capacity);
+                counts = Arrays.copyOf(counts, capacity);
+            }
+            offsets[size] = offset;
+            types[size] = type;
+            counts[size] = count;
+            size++;
+            end = offset + RECORD_HEADER_SIZE + paddedDataSize(type, count);
+        }
+    }
+
+    /**
+     * Reads the list of records, from the index if present or by scanning
+     * the file otherwise.
+     */
+    static Records readRecords(FileChannel channel, ByteOrder order) throws IOException {
+        Records records = readIndex(channel, order);
+        if (records == null) {
+            records = scanRecords(channel, order);
+        }
+        return records;
+    }
+
+    private static Records readIndex(FileChannel channel, ByteOrder order) throws IOException {
+        long fileSize = channel.size();
+        ByteBuffer footer = read(channel, fileSize - FOOTER_SIZE, FOOTER_SIZE, order);
+        if (footer == null || footer.getInt() != FOOTER_MARKER) {
+            return null;
+        }
+        footer.getInt();
+        long indexOffset = footer.getLong();
+        ByteBuffer indexHeader = read(channel, indexOffset, 8, order);
+        if (indexHeader == null || indexHeader.getInt() != INDEX_MARKER) {
+            return null;
+        }
+        int size = indexHeader.getInt();
+        if (size < 0 || size > Integer.MAX_VALUE / INDEX_ENTRY_SIZE
+                || indexOffset + 8 + (long) INDEX_ENTRY_SIZE * size + FOOTER_SIZE != fileSize) {
+            return null;
+        }
+        ByteBuffer entries = read(channel, indexOffset + 8, INDEX_ENTRY_SIZE * size, order);
+        Records records = new Records(size);
+        records.end = HEADER_SIZE;
+        for (int i = 0; i < size; i++) {
+            long offset = entries.getLong();
+            long count = entries.getLong();
+            int type = entries.getInt();
+            entries.getInt();
+            if (offset < records.end || !isValid(type, count)
+                    || offset + RECORD_HEADER_SIZE + paddedDataSize(type, count) > indexOffset) {
+                return null;
+            }
+            records.add(offset, type, count);
+        }
+        return records;
+    }
+
+    private static Records scanRecords(FileChannel channel, ByteOrder order) throws IOException {
+        long fileSize = channel.size();
+        Records records = new Records(16);
+        records.end = HEADER_SIZE;
+        long offset = HEADER_SIZE;
+        ByteBuffer recordHeader;
+        while ((recordHeader = readRecordHeader(channel, offset, order, fileSize)) != null) {
+            records.add(offset, recordHeader.getInt(), recordHeader.getLong());
+            offset = records.end;
+        }
+        return records;
+    }
+
+    /**
+     * Reads the header of the record at the given offset, positioned after
+     * the marker. Returns null if there is no valid record that
+     * ends before the limit.
+     */
+    private static ByteBuffer readRecordHeader(FileChannel channel, long offset, ByteOrder order, long limit) throws IOException {
+        if (offset < HEADER_SIZE || offset + RECORD_HEADER_SIZE > limit) {
+            return null;
+        }
+        ByteBuffer header = read(channel, offset, RECORD_HEADER_SIZE, order);
+        if (header == null || header.getInt() != RECORD_MARKER) {
+            return null;
+        }
+        int type = header.getInt();
+        long count = header.getLong();
+        if (!isValid(type, count) || offset + RECORD_HEADER_SIZE + paddedDataSize(type, count) > limit) {
+            return null;
+        }
+        ((Buffer) header).position(4);
+        return header;
+    }
+
+    /**
+     * Reads the given number of bytes at the given position, or returns
+     * null if the file is too short.
+     */
+    private static ByteBuffer read(FileChannel channel, long position, int length, ByteOrder order) throws IOException {
+        if (position < 0 || position + length > channel.size()) {
+            return null;
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(length).order(order);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                return null;
+            }
+        }
+        ((Buffer) buffer).flip();
+        return buffer;
+    }
+}
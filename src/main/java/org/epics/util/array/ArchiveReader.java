@@ -0,0 +1,149 @@
+/**
+ * Copyright (C) 2010-14 diirt developers. See COPYRIGHT.TXT
+ * All rights reserved. Use is subject to license terms. See LICENSE.TXT
+ */
+package org.epics.util.array;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Reads the records of an archive file written by {@link ArchiveWriter}.
+ * <p>
+ * Opening the archive only reads its index: the records are memory-mapped
+ * when first requested, and are returned as read-only lists backed
+ * directly by the mapped file (see {@link ByteBufferDouble} and the other
+ * {@code ByteBufferXxx} classes). No data is read until the elements
+ * of the list are accessed, and the pages are managed by the operating
+ * system, so archives much bigger than the heap can be opened.
+ * <p>
+ * The lists returned remain valid after the reader is closed. The content
+ * of the lists is undefined if the file is modified while mapped.
+ * This class is thread-safe.
+ *
+ * @author carcassi
+ */
+public final class ArchiveReader implements Closeable {
+
+    private final FileChannel channel;
+    private final ByteOrder order;
+    private final ArchiveFormat.Records records;
+    private final ListNumber[] lists;
+
+    private ArchiveReader(FileChannel channel, ByteOrder order, ArchiveFormat.Records records) {
+        this.channel = channel;
+        this.order = order;
+        this.records = records;
+        this.lists = new ListNumber[records.size];
+    }
+
+    /**
+     * Opens the given archive file.
+     *
+     * @param file the archive file
+     * @return a new reader
+     * @throws IOException if the file cannot be read or is not an archive
+     */
+    public static ArchiveReader open(Path file) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+        try {
+            ByteOrder order = ArchiveFormat.readHeader(channel);
+            return new ArchiveReader(channel, order, ArchiveFormat.readRecords(channel, order));
+        } catch (IOException | RuntimeException ex) {
+            channel.close();
+            throw ex;
+        }
+    }
+
+    /**
+     * The number of records in the archive.
+     *
+     * @return the number of records
+     */
+    public int size() {
+        return records.size;
+    }
+
+    /**
+     * The number of elements of the given record. This does
+     * not map the record.
+     *
+     * @param index the index of the record
+     * @return the number of elements
+     */
+    public int getSize(int index) {
+        checkIndex(index);
+        return (int) records.counts[index];
+    }
+
+    /**
+     * Returns the given record as a read-only list of the same type
+     * of the list that was written.
+     *
+     * @param index the index of the record
+     * @return a read-only list backed by the file
+     * @throws IOException if the record cannot be mapped
+     */
+    public ListNumber get(int index) throws IOException {
+        checkIndex(index);
+        synchronized (lists) {
+            if (lists[index] == null) {
+                lists[index] = map(index);
+            }
+            return lists[index];
+        }
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= records.size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + records.size);
+        }
+    }
+
+    private ListNumber map(int index) throws IOException {
+        int type = records.types[index];
+        long count = records.counts[index];
+        long offset = records.offsets[index] + ArchiveFormat.RECORD_HEADER_SIZE;
+        ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, offset,
+                count * ArchiveFormat.elementSize(type)).order(order);
+        switch (type) {
+            case ArchiveFormat.DOUBLE:
+                return ByteBufferDouble.wrap(buffer);
+            case ArchiveFormat.FLOAT:
+                return ByteBufferFloat.wrap(buffer);
+            case ArchiveFormat.LONG:
+                return ByteBufferLong.wrap(buffer);
+            case ArchiveFormat.INT:
+                return ByteBufferInteger.wrap(buffer);
+            case ArchiveFormat.SHORT:
+                return ByteBufferShort.wrap(buffer);
+            case ArchiveFormat.BYTE:
+                return ByteBufferByte.wrap(buffer);
+            case ArchiveFormat.ULONG:
+                return ByteBufferULong.wrap(buffer);
+            case ArchiveFormat.UINT:
+                return ByteBufferUInteger.wrap(buffer);
+            case ArchiveFormat.USHORT:
+                return ByteBufferUShort.wrap(buffer);
+            case ArchiveFormat.UBYTE:
+                return ByteBufferUByte.wrap(buffer);
+            default:
+                throw new IOException("Unknown record type " + type);
+        }
+    }
+
+    /**
+     * Closes the file. The records already returned can still be read.
+     *
+     * @throws IOException if the file cannot be closed
+     */
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
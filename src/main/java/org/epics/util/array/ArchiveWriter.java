@@ -0,0 +1,303 @@
+/**
+ * Copyright (C) 2010-14 diirt developers. See COPYRIGHT.TXT
+ * All rights reserved. Use is subject to license terms. See LICENSE.TXT
+ */
+package org.epics.util.array;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.nio.ShortBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Appends lists of numbers to an archive file, which can be read back
+ * with {@link ArchiveReader}.
+ * <p>
+ * Each list is stored as a record that keeps the type of the list
+ * (e.g. a {@link ListUShort} is read back as a {@link ListUShort}); lists
+ * that are not of one of the typed classes are stored as doubles. The index
+ * of the records is written when the writer is closed. If the writer is not
+ * closed, the records written are still readable, but opening the archive
+ * requires a scan of the file.
+ * <p>
+ * This class is not thread-safe.
+ *
+ * @author carcassi
+ */
+public final class ArchiveWriter implements Closeable {
+
+    private static final int CHUNK_SIZE = 64 * 1024;
+
+    private final FileChannel channel;
+    private final ByteOrder order;
+    private final ArchiveFormat.Records records;
+    private final ByteBuffer chunk;
+    private long position;
+
+    private ArchiveWriter(FileChannel channel, ByteOrder order, ArchiveFormat.Records records) {
+        this.channel = channel;
+        this.order = order;
+        this.records = records;
+        this.chunk = ByteBuffer.allocateDirect(CHUNK_SIZE).order(order);
+        this.position = records.end;
+    }
+
+    /**
+     * Creates a new archive, replacing the file if it exists. The data is
+     * written in the native byte order, so that it can be read back
+     * on the same platform with no conversion.
+     *
+     * @param file the archive file
+     * @return a new writer
+     * @throws IOException if the file cannot be written
+     */
+    public static ArchiveWriter create(Path file) throws IOException {
+        return create(file, ByteOrder.nativeOrder());
+    }
+
+    /**
+     * Creates a new archive, replacing the file if it exists, with the
+     * data in the given byte order.
+     *
+     * @param file the archive file
+     * @param order the byte order of the data
+     * @return a new writer
+     * @throws IOException if the file cannot be written
+     */
+    public static ArchiveWriter create(Path file, ByteOrder order) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.READ, StandardOpenOption.TRUNCATE_EXISTING);
+        try {
+            writeFully(channel, ArchiveFormat.writeHeader(order), 0);
+            ArchiveFormat.Records records = new ArchiveFormat.Records(16);
+            records.end = ArchiveFormat.HEADER_SIZE;
+            return new ArchiveWriter(channel, order, records);
+        } catch (IOException | RuntimeException ex) {
+            channel.close();
+            throw ex;
+        }
+    }
+
+    /**
+     * Opens an archive to add records after the existing ones. If the file
+     * does not exist, a new archive is created. The index of the existing
+     * records is removed from the file, and written again when this
+     * writer is closed.
+     *
+     * @param file the archive file
+     * @return a new writer
+     * @throws IOException if the file cannot be written or is not an archive
+     */
+    public static ArchiveWriter openForAppend(Path file) throws IOException {
+        if (!Files.exists(file)) {
+            return create(file);
+        }
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE, StandardOpenOption.READ);
+        try {
+            ByteOrder order = ArchiveFormat.readHeader(channel);
+            ArchiveFormat.Records records = ArchiveFormat.readRecords(channel, order);
+            channel.truncate(records.end);
+            return new ArchiveWriter(channel, order, records);
+        } catch (IOException | RuntimeException ex) {
+            channel.close();
+            throw ex;
+        }
+    }
+
+    /**
+     * The number of records in the archive, including the ones
+     * that were present when the archive was opened.
+     *
+     * @return the number of records
+     */
+    public int size() {
+        return records.size;
+    }
+
+    /**
+     * Appends a list as a new record.
+     *
+     * @param list the list to write
+     * @return the index of the new record
+     * @throws IOException if the data cannot be written
+     */
+    public int write(ListNumber list) throws IOException {
+        if (!channel.isOpen()) {
+            throw new IOException("Archive writer is closed");
+        }
+        int type = ArchiveFormat.typeOf(list);
+        int size = list.size();
+        if (!ArchiveFormat.isValid(type, size)) {
+            throw new IllegalArgumentException("List too big for a single record (" + size + " elements)");
+        }
+
+        long offset = position;
+        ((Buffer) chunk).clear();
+        chunk.putInt(ArchiveFormat.RECORD_MARKER);
+        chunk.putInt(type);
+        chunk.putLong(size);
+        ((Buffer) chunk).flip();
+        writeFully(channel, chunk, offset);
+
+        int elementSize = ArchiveFormat.elementSize(type);
+        int chunkElements = CHUNK_SIZE / elementSize;
+        long dataPosition = offset + ArchiveFormat.RECORD_HEADER_SIZE;
+        for (int from = 0; from < size; from += chunkElements) {
+            int length = Math.min(chunkElements, size - from);
+            ((Buffer) chunk).clear();
+            fill(list, type, from, length);
+            ((Buffer) chunk).limit(length * elementSize);
+            ((Buffer) chunk).position(0);
+            writeFully(channel, chunk, dataPosition);
+            dataPosition += length * elementSize;
+        }
+
+        long padding = ArchiveFormat.paddedDataSize(type, size) - (long) size * elementSize;
+        if (padding > 0) {
+            ((Buffer) chunk).clear();
+            for (int i = 0; i < padding; i++) {
+                chunk.put((byte) 0);
+            }
+            ((Buffer) chunk).flip();
+            writeFully(channel, chunk, dataPosition);
+        }
+
+        records.add(offset, type, size);
+        position = records.end;
+        return records.size - 1;
+    }
+
+    /**
+     * Copies the elements of the list at the beginning of the chunk.
+     */
+    private void fill(ListNumber list, int type, int from, int length) {
+        switch (ArchiveFormat.elementSize(type)) {
+            case 8:
+                if (type == ArchiveFormat.DOUBLE) {
+                    DoubleBuffer view = chunk.asDoubleBuffer();
+                    if (list instanceof ArrayDouble) {
+                        ArrayDouble array = (ArrayDouble) list;
+                        view.put(array.wrappedArray(), array.startIndex() + from, length);
+                    } else {
+                        for (int i = from; i < from + length; i++) {
+                            view.put(list.getDouble(i));
+                        }
+                    }
+                } else {
+                    LongBuffer view = chunk.asLongBuffer();
+                    if (list instanceof ArrayLong) {
+                        ArrayLong array = (ArrayLong) list;
+                        view.put(array.wrappedArray(), array.startIndex() + from, length);
+                    } else if (list instanceof ArrayULong) {
+                        ArrayULong array = (ArrayULong) list;
+                        view.put(array.wrappedArray(), array.startIndex() + from, length);
+                    } else {
+                        for (int i = from; i < from + length; i++) {
+                            view.put(list.getLong(i));
+                        }
+                    }
+                }
+                break;
+            case 4:
+                if (type == ArchiveFormat.FLOAT) {
+                    FloatBuffer view = chunk.asFloatBuffer();
+                    if (list instanceof ArrayFloat) {
+                        ArrayFloat array = (ArrayFloat) list;
+                        view.put(array.wrappedArray(), array.startIndex() + from, length);
+                    } else {
+                        for (int i = from; i < from + length; i++) {
+                            view.put(list.getFloat(i));
+                        }
+                    }
+                } else {
+                    IntBuffer view = chunk.asIntBuffer();
+                    if (list instanceof ArrayInteger) {
+                        ArrayInteger array = (ArrayInteger) list;
+                        view.put(array.wrappedArray(), array.startIndex() + from, length);
+                    } else if (list instanceof ArrayUInteger) {
+                        ArrayUInteger array = (ArrayUInteger) list;
+                        view.put(array.wrappedArray(), array.startIndex() + from, length);
+                    } else {
+                        for (int i = from; i < from + length; i++) {
+                            view.put(list.getInt(i));
+                        }
+                    }
+                }
+                break;
+            case 2:
+                ShortBuffer shortView = chunk.asShortBuffer();
+                if (list instanceof ArrayShort) {
+                    ArrayShort array = (ArrayShort) list;
+                    shortView.put(array.wrappedArray(), array.startIndex() + from, length);
+                } else if (list instanceof ArrayUShort) {
+                    ArrayUShort array = (ArrayUShort) list;
+                    shortView.put(array.wrappedArray(), array.startIndex() + from, length);
+                } else {
+                    for (int i = from; i < from + length; i++) {
+                        shortView.put(list.getShort(i));
+                    }
+                }
+                break;
+            default:
+                if (list instanceof ArrayByte) {
+                    ArrayByte array = (ArrayByte) list;
+                    chunk.put(array.wrappedArray(), array.startIndex() + from, length);
+                } else if (list instanceof ArrayUByte) {
+                    ArrayUByte array = (ArrayUByte) list;
+                    chunk.put(array.wrappedArray(), array.startIndex() + from, length);
+                } else {
+                    for (int i = from; i < from + length; i++) {
+                        chunk.put(list.getByte(i));
+                    }
+                }
+                break;
+        }
+    }
+
+    /**
+     * Writes the index and closes the file.
+     *
+     * @throws IOException if the index cannot be written
+     */
+    @Override
+    public void close() throws IOException {
+        if (!channel.isOpen()) {
+            return;
+        }
+        try {
+            ByteBuffer index = ByteBuffer.allocate(8 + ArchiveFormat.INDEX_ENTRY_SIZE * records.size
+                    + ArchiveFormat.FOOTER_SIZE).order(order);
+            index.putInt(ArchiveFormat.INDEX_MARKER);
+            index.putInt(records.size);
+            for (int i = 0; i < records.size; i++) {
+                index.putLong(records.offsets[i]);
+                index.putLong(records.counts[i]);
+                index.putInt(records.types[i]);
+                index.putInt(0);
+            }
+            index.putInt(ArchiveFormat.FOOTER_MARKER);
+            index.putInt(0);
+            index.putLong(position);
+            ((Buffer) index).flip();
+            writeFully(channel, index, position);
+        } finally {
+            channel.close();
+        }
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer, position);
+        }
+    }
+}
@@ -18,6 +18,12 @@ public final class ArrayDouble extends ListDouble implements Serializable {
     private final int size;
     private final boolean checkBoundaries;
     private final boolean readOnly;
+    // Whether nobody writes the array, not even through another wrapper
+    private final boolean immutable;
+    // Derived from the values, and cached if the array is immutable
+    private transient int hash;
+    private transient boolean hashIsZero;
+    private transient ListProperties properties;
 
     /**
      * Constructs a list containing the values provided by the specified collection
@@ -40,10 +46,29 @@ public final class ArrayDouble extends ListDouble implements Serializable {
      *         (@code{startIndex < 0 || startIndex + size > array.length})
      */
     ArrayDouble(double[] array, int startIndex, int size, boolean readOnly) {
+        this(array, startIndex, size, readOnly, false);
+    }
+
+    /**
+     * A new {@code ArrayDouble} that wraps around the given array, which may
+     * be immutable. Only the lists that wrap an immutable array cache
+     * their hash code and the properties of their values.
+     *
+     * @param array an array
+     * @param startIndex first element
+     * @param size number of elements
+     * @param readOnly if false the wrapper allows writes to the array
+     * @param immutable true if nobody writes the array after this call;
+     *        requires readOnly
+     * @throws IndexOutOfBoundsException if startIndex and size are out of range
+     *         (@code{startIndex < 0 || startIndex + size > array.length})
+     */
+    ArrayDouble(double[] array, int startIndex, int size, boolean readOnly, boolean immutable) {
         if (startIndex < 0 || startIndex + size > array.length)
             throw new IndexOutOfBoundsException("Start index: "+startIndex+", Size: "+size+", Array length: "+array.length);
         this.array = array;
         this.readOnly = readOnly;
+        this.immutable = readOnly && immutable;
         this.startIndex = startIndex;
         this.size = size;
         this.checkBoundaries = startIndex != 0 || size != array.length;
@@ -96,7 +121,7 @@ public final class ArrayDouble extends ListDouble implements Serializable {
 
     @Override
     public ArrayDouble subList(int fromIndex, int toIndex) {
-        return new ArrayDouble(array, fromIndex + startIndex, toIndex - fromIndex, readOnly);
+        return new ArrayDouble(array, fromIndex + startIndex, toIndex - fromIndex, readOnly, immutable);
     }
 
     @Override
@@ -153,6 +178,55 @@ public final class ArrayDouble extends ListDouble implements Serializable {
     boolean isReadOnly() {
         return readOnly;
     }
+
+    /**
+     * Whether nobody can write the array, so that the hash code and the
+     * properties are cached.
+     */
+    boolean isImmutable() {
+        return immutable;
+    }
+
+    @Override
+    public int hashCode() {
+        if (!immutable) {
+            return super.hashCode();
+        }
+        // Racy single check: all threads compute the same value
+        int h = hash;
+        if (h == 0 && !hashIsZero) {
+            h = super.hashCode();
+            if (h == 0) {
+                hashIsZero = true;
+            } else {
+                hash = h;
+            }
+        }
+        return h;
+    }
+
+    /**
+     * The properties of the values, computed once if the array is immutable,
+     * or null if the values can change.
+     */
+    ListProperties properties() {
+        if (!immutable) {
+            return null;
+        }
+        ListProperties current = properties;
+        if (current == null) {
+            current = ListProperties.compute(this);
+            properties = current;
+        }
+        return current;
+    }
+
+    /**
+     * The properties of the values if they were already computed, or null.
+     */
+    ListProperties computedProperties() {
+        return properties;
+    }
     
     /**
      * Returns an unmodifiable {@link ArrayDouble} wrapper for the given {@code double} array.
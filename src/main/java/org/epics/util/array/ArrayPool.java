@@ -0,0 +1,499 @@
+/**
+ * Copyright (C) 2010-14 diirt developers. See COPYRIGHT.TXT
+ * All rights reserved. Use is subject to license terms. See LICENSE.TXT
+ */
+package org.epics.util.array;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A pool of primitive arrays, so that the arrays used on high-rate paths
+ * can be reused instead of being allocated and garbage collected
+ * every time.
+ * <p>
+ * Arrays are grouped in size classes, with lengths that are powers of two
+ * from 16 to the maximum length of the pool: a request for an array is
+ * served by an array of the smallest class that fits, so the array may be
+ * longer than requested. Each thread keeps a few arrays per class
+ * without any synchronization; when its own arrays are used up,
+ * the thread takes them from a pool shared by all threads, which is
+ * accessed with no locks. Arrays longer than the maximum length are
+ * allocated normally and are not pooled.
+ * <p>
+ * An array taken from the pool must be given back with {@link #release(Object) }
+ * (or {@link #release(ListNumber) } for the lists created by the pool)
+ * exactly once, and must not be used after that. A borrowed array contains
+ * the values left by its previous user. Arrays whose length is not one of
+ * the size classes can't come from the pool and are rejected. An array
+ * released twice is detected while it is still kept by the releasing thread
+ * or by the shared pool (i.e. until it is borrowed again). Arrays that are
+ * never released are simply garbage collected: the counters
+ * ({@link #getOutstandingCount() } in particular) can be used to find where
+ * they are not given back. The counters are updated without locks, so while
+ * other threads use the pool they are approximate.
+ *
+ * @author carcassi
+ */
+public final class ArrayPool {
+
+    private static final int MIN_SHIFT = 4;
+    private static final int DOUBLE = 0;
+    private static final int FLOAT = 1;
+    private static final int LONG = 2;
+    private static final int INT = 3;
+    private static final int SHORT = 4;
+    private static final int BYTE = 5;
+    private static final int TYPES = 6;
+
+    private final int nClasses;
+    private final int localArrays;
+    private final int sharedArrays;
+    // For each type and size class, sharedArrays slots
+    private final AtomicReferenceArray<Object> shared;
+    private final ThreadLocal<LocalCache> localCache;
+
+    private final LongAdder borrowCount = new LongAdder();
+    private final LongAdder releaseCount = new LongAdder();
+    private final LongAdder allocationCount = new LongAdder();
+    private final LongAdder discardCount = new LongAdder();
+
+    // The arrays kept by each thread: for each type and size class,
+    // a stack of localArrays slots
+    private static class LocalCache {
+        final Object[] arrays;
+        final int[] counts;
+
+        LocalCache(int nSlots, int localArrays) {
+            arrays = new Object[nSlots * localArrays];
+            counts = new int[nSlots];
+        }
+    }
+
+    /**
+     * Creates a pool for arrays up to 2^20 elements, keeping up to 4 arrays
+     * per size class and type in each thread and 16 in the shared pool.
+     */
+    public ArrayPool() {
+        this(1 << 20, 4, 16);
+    }
+
+    /**
+     * Creates a new pool.
+     *
+     * @param maxLength the length of the largest arrays that are pooled; must be a power of two
+     * @param localArrays the number of arrays per size class and type kept by each thread
+     * @param sharedArrays the number of arrays per size class and type kept in the shared pool
+     */
+    public ArrayPool(int maxLength, final int localArrays, int sharedArrays) {
+        if (maxLength < (1 << MIN_SHIFT) || Integer.bitCount(maxLength) != 1) {
+            throw new IllegalArgumentException("Maximum length must be a power of two of at least " + (1 << MIN_SHIFT) + " (was " + maxLength + ")");
+        }
+        if (localArrays < 0 || sharedArrays < 0) {
+            throw new IllegalArgumentException("Number of arrays can't be negative");
+        }
+        this.nClasses = Integer.numberOfTrailingZeros(maxLength) - MIN_SHIFT + 1;
+        this.localArrays = localArrays;
+        this.sharedArrays = sharedArrays;
+        this.shared = new AtomicReferenceArray<>(TYPES * nClasses * sharedArrays);
+        this.localCache = new ThreadLocal<LocalCache>() {
+            @Override
+            protected LocalCache initialValue() {
+                return new LocalCache(TYPES * nClasses, localArrays);
+            }
+        };
+    }
+
+    /**
+     * The size class that fits the given length, or -1 if the
+     * length is too big to be pooled.
+     */
+    private int sizeClass(int minLength) {
+        if (minLength <= (1 << MIN_SHIFT)) {
+            return 0;
+        }
+        int sizeClass = 32 - Integer.numberOfLeadingZeros(minLength - 1) - MIN_SHIFT;
+        return sizeClass < nClasses ? sizeClass : -1;
+    }
+
+    private static Object newArray(int type, int length) {
+        switch (type) {
+            case DOUBLE: return new double[length];
+            case FLOAT: return new float[length];
+            case LONG: return new long[length];
+            case INT: return new int[length];
+            case SHORT: return new short[length];
+            default: return new byte[length];
+        }
+    }
+
+    private static int typeOf(Object array) {
+        if (array instanceof double[]) {
+            return DOUBLE;
+        } else if (array instanceof float[]) {
+            return FLOAT;
+        } else if (array instanceof long[]) {
+            return LONG;
+        } else if (array instanceof int[]) {
+            return INT;
+        } else if (array instanceof short[]) {
+            return SHORT;
+        } else if (array instanceof byte[]) {
+            return BYTE;
+        } else if (array == null) {
+            throw new NullPointerException();
+        }
+
+        throw new ArrayStoreException("Argument must be an array of primitive numbers");
+    }
+
+    private static int lengthOf(Object array, int type) {
+        switch (type) {
+            case DOUBLE: return ((double[]) array).length;
+            case FLOAT: return ((float[]) array).length;
+            case LONG: return ((long[]) array).length;
+            case INT: return ((int[]) array).length;
+            case SHORT: return ((short[]) array).length;
+            default: return ((byte[]) array).length;
+        }
+    }
+
+    private Object borrow(int type, int minLength) {
+        if (minLength < 0) {
+            throw new IllegalArgumentException("Length can't be negative (was " + minLength + ")");
+        }
+        borrowCount.increment();
+        int sizeClass = sizeClass(minLength);
+        if (sizeClass == -1) {
+            allocationCount.increment();
+            return newArray(type, minLength);
+        }
+
+        // Try the arrays of this thread first
+        int index = type * nClasses + sizeClass;
+        LocalCache local = localCache.get();
+        int count = local.counts[index];
+        if (count > 0) {
+            count--;
+            local.counts[index] = count;
+            Object array = local.arrays[index * localArrays + count];
+            local.arrays[index * localArrays + count] = null;
+            return array;
+        }
+
+        // Then the shared ones
+        int base = index * sharedArrays;
+        for (int i = 0; i < sharedArrays; i++) {
+            Object array = shared.get(base + i);
+            if (array != null && shared.compareAndSet(base + i, array, null)) {
+                return array;
+            }
+        }
+
+        allocationCount.increment();
+        return newArray(type, 1 << (sizeClass + MIN_SHIFT));
+    }
+
+    /**
+     * Takes an array with at least the given length from the pool.
+     *
+     * @param minLength the minimum length of the array
+     * @return an array with at least the given length
+     */
+    public double[] borrowDouble(int minLength) {
+        return (double[]) borrow(DOUBLE, minLength);
+    }
+
+    /**
+     * Takes an array with at least the given length from the pool.
+     *
+     * @param minLength the minimum length of the array
+     * @return an array with at least the given length
+     */
+    public float[] borrowFloat(int minLength) {
+        return (float[]) borrow(FLOAT, minLength);
+    }
+
+    /**
+     * Takes an array with at least the given length from the pool.
+     *
+     * @param minLength the minimum length of the array
+     * @return an array with at least the given length
+     */
+    public long[] borrowLong(int minLength) {
+        return (long[]) borrow(LONG, minLength);
+    }
+
+    /**
+     * Takes an array with at least the given length from the pool.
+     *
+     * @param minLength the minimum length of the array
+     * @return an array with at least the given length
+     */
+    public int[] borrowInt(int minLength) {
+        return (int[]) borrow(INT, minLength);
+    }
+
+    /**
+     * Takes an array with at least the given length from the pool.
+     *
+     * @param minLength the minimum length of the array
+     * @return an array with at least the given length
+     */
+    public short[] borrowShort(int minLength) {
+        return (short[]) borrow(SHORT, minLength);
+    }
+
+    /**
+     * Takes an array with at least the given length from the pool.
+     *
+     * @param minLength the minimum length of the array
+     * @return an array with at least the given length
+     */
+    public byte[] borrowByte(int minLength) {
+        return (byte[]) borrow(BYTE, minLength);
+    }
+
+    /**
+     * Gives an array back to the pool. The array must not be used
+     * after it is released. Arrays longer than the maximum length
+     * are discarded.
+     *
+     * @param array a primitive number array
+     * @throws ArrayStoreException if the argument is not a primitive number array
+     * @throws NullPointerException if the argument is null
+     * @throws IllegalArgumentException if the length of the array is not
+     *         one of the size classes, so that it was not borrowed from the pool
+     * @throws IllegalStateException if the array is already in the pool
+     */
+    public void release(Object array) {
+        int type = typeOf(array);
+        int length = lengthOf(array, type);
+        int sizeClass = sizeClass(length);
+        if (sizeClass == -1) {
+            // Allocated by borrow, but not pooled
+            releaseCount.increment();
+            discardCount.increment();
+            return;
+        }
+        if (length != 1 << (sizeClass + MIN_SHIFT)) {
+            throw new IllegalArgumentException("Array length (" + length + ") is not one of the size classes: the array was not borrowed from the pool");
+        }
+
+        // Look for the same array among the ones that were released
+        // and not borrowed again
+        int index = type * nClasses + sizeClass;
+        LocalCache local = localCache.get();
+        int count = local.counts[index];
+        for (int i = 0; i < count; i++) {
+            if (local.arrays[index * localArrays + i] == array) {
+                throw new IllegalStateException("Array was already released");
+            }
+        }
+        int base = index * sharedArrays;
+        for (int i = 0; i < sharedArrays; i++) {
+            if (shared.get(base + i) == array) {
+                throw new IllegalStateException("Array was already released");
+            }
+        }
+        releaseCount.increment();
+
+        if (count < localArrays) {
+            local.arrays[index * localArrays + count] = array;
+            local.counts[index] = count + 1;
+            return;
+        }
+
+        for (int i = 0; i < sharedArrays; i++) {
+            if (shared.get(base + i) == null && shared.compareAndSet(base + i, null, array)) {
+                return;
+            }
+        }
+        discardCount.increment();
+    }
+
+    /**
+     * Gives the array that backs the list back to the pool. The list must
+     * not be used after it is released.
+     *
+     * @param list a list created by the pool
+     * @throws IllegalArgumentException if the list is not backed by an array
+     */
+    public void release(ListNumber list) {
+        if (list instanceof ArrayDouble) {
+            release(((ArrayDouble) list).wrappedArray());
+        } else if (list instanceof ArrayFloat) {
+            release(((ArrayFloat) list).wrappedArray());
+        } else if (list instanceof ArrayLong) {
+            release(((ArrayLong) list).wrappedArray());
+        } else if (list instanceof ArrayULong) {
+            release(((ArrayULong) list).wrappedArray());
+        } else if (list instanceof ArrayInteger) {
+            release(((ArrayInteger) list).wrappedArray());
+        } else if (list instanceof ArrayUInteger) {
+            release(((ArrayUInteger) list).wrappedArray());
+        } else if (list instanceof ArrayShort) {
+            release(((ArrayShort) list).wrappedArray());
+        } else if (list instanceof ArrayUShort) {
+            release(((ArrayUShort) list).wrappedArray());
+        } else if (list instanceof ArrayByte) {
+            release(((ArrayByte) list).wrappedArray());
+        } else if (list instanceof ArrayUByte) {
+            release(((ArrayUByte) list).wrappedArray());
+        } else if (list == null) {
+            throw new NullPointerException();
+        } else {
+            throw new IllegalArgumentException("List is not backed by an array");
+        }
+    }
+
+    /**
+     * Copies the collection to the given array, if it is big enough;
+     * otherwise, to an array of the same type taken from the pool.
+     * Same as {@link CollectionNumber#toArray(java.lang.Object) }, except
+     * for where the new array comes from: if the returned array is not the one
+     * given, it must be released.
+     *
+     * @param <T> the type of the array
+     * @param coll the collection to copy
+     * @param array the array into which the elements are to
+     *          be stored, if it is big enough
+     * @return an array containing the elements
+     * @throws ArrayStoreException if the type of the specified array
+     *         is not a primitive number array
+     * @throws NullPointerException if the specified array is null
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T toArray(CollectionNumber coll, T array) {
+        int type = typeOf(array);
+        int size = coll.size();
+        if (lengthOf(array, type) < size) {
+            array = (T) borrow(type, size);
+        }
+        return coll.toArray(array);
+    }
+
+    /**
+     * Copies the collection to a new list, backed by an array
+     * taken from the pool. The list must be released once it is not used.
+     *
+     * @param coll the collection to copy
+     * @return a new list with the same values
+     */
+    public ArrayDouble toListDouble(CollectionNumber coll) {
+        int size = coll.size();
+        return new ArrayDouble(coll.toArray(borrowDouble(size)), 0, size, false);
+    }
+
+    /**
+     * Copies the collection to a new list, backed by an array
+     * taken from the pool. The list must be released once it is not used.
+     *
+     * @param coll the collection to copy
+     * @return a new list with the same values
+     */
+    public ArrayFloat toListFloat(CollectionNumber coll) {
+        int size = coll.size();
+        return new ArrayFloat(coll.toArray(borrowFloat(size)), 0, size, false);
+    }
+
+    /**
+     * Copies the collection to a new list, backed by an array
+     * taken from the pool. The list must be released once it is not used.
+     *
+     * @param coll the collection to copy
+     * @return a new list with the same values
+     */
+    public ArrayLong toListLong(CollectionNumber coll) {
+        int size = coll.size();
+        return new ArrayLong(coll.toArray(borrowLong(size)), 0, size, false);
+    }
+
+    /**
+     * Copies the collection to a new list, backed by an array
+     * taken from the pool. The list must be released once it is not used.
+     *
+     * @param coll the collection to copy
+     * @return a new list with the same values
+     */
+    public ArrayInteger toListInt(CollectionNumber coll) {
+        int size = coll.size();
+        return new ArrayInteger(coll.toArray(borrowInt(size)), 0, size, false);
+    }
+
+    /**
+     * Copies the collection to a new list, backed by an array
+     * taken from the pool. The list must be released once it is not used.
+     *
+     * @param coll the collection to copy
+     * @return a new list with the same values
+     */
+    public ArrayShort toListShort(CollectionNumber coll) {
+        int size = coll.size();
+        return new ArrayShort(coll.toArray(borrowShort(size)), 0, size, false);
+    }
+
+    /**
+     * Copies the collection to a new list, backed by an array
+     * taken from the pool. The list must be released once it is not used.
+     *
+     * @param coll the collection to copy
+     * @return a new list with the same values
+     */
+    public ArrayByte toListByte(CollectionNumber coll) {
+        int size = coll.size();
+        return new ArrayByte(coll.toArray(borrowByte(size)), 0, size, false);
+    }
+
+    /**
+     * The number of arrays taken from the pool.
+     *
+     * @return the number of borrowed arrays
+     */
+    public long getBorrowCount() {
+        return borrowCount.sum();
+    }
+
+    /**
+     * The number of arrays given back to the pool.
+     *
+     * @return the number of released arrays
+     */
+    public long getReleaseCount() {
+        return releaseCount.sum();
+    }
+
+    /**
+     * The number of arrays that were borrowed and not yet released. If this
+     * keeps growing, some arrays are not given back to the pool. The count
+     * is approximate while other threads use the pool, and is never negative.
+     *
+     * @return the number of arrays in use
+     */
+    public long getOutstandingCount() {
+        // Read the releases first, so that a concurrent borrow and release
+        // can only make the count bigger
+        long released = getReleaseCount();
+        return Math.max(0, getBorrowCount() - released);
+    }
+
+    /**
+     * The number of arrays that had to be allocated because there was
+     * no array available in the pool.
+     *
+     * @return the number of allocated arrays
+     */
+    public long getAllocationCount() {
+        return allocationCount.sum();
+    }
+
+    /**
+     * The number of released arrays that were not kept, because the pool
+     * was full or they were longer than the maximum length.
+     *
+     * @return the number of discarded arrays
+     */
+    public long getDiscardCount() {
+        return discardCount.sum();
+    }
+}
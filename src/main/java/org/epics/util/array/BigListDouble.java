@@ -0,0 +1,202 @@
+/**
+ * Copyright (C) 2010-14 diirt developers. See COPYRIGHT.TXT
+ * All rights reserved. Use is subject to license terms. See LICENSE.TXT
+ */
+package org.epics.util.array;
+
+/**
+ * An ordered collection of {@code double} elements indexed by a long.
+ *
+ * @author carcassi
+ */
+public abstract class BigListDouble implements BigListNumber {
+
+    @Override
+    public float getFloat(long index) {
+        return (float) getDouble(index);
+    }
+
+    @Override
+    public long getLong(long index) {
+        return (long) getDouble(index);
+    }
+
+    @Override
+    public int getInt(long index) {
+        return (int) getDouble(index);
+    }
+
+    @Override
+    public short getShort(long index) {
+        return (short) getDouble(index);
+    }
+
+    @Override
+    public byte getByte(long index) {
+        return (byte) getDouble(index);
+    }
+
+    @Override
+    public void setDouble(long index, double value) {
+        throw new UnsupportedOperationException("Read only list.");
+    }
+
+    @Override
+    public void setFloat(long index, float value) {
+        setDouble(index, (double) value);
+    }
+
+    @Override
+    public void setLong(long index, long value) {
+        setDouble(index, (double) value);
+    }
+
+    @Override
+    public void setInt(long index, int value) {
+        setDouble(index, (double) value);
+    }
+
+    @Override
+    public void setShort(long index, short value) {
+        setDouble(index, (double) value);
+    }
+
+    @Override
+    public void setByte(long index, byte value) {
+        setDouble(index, (double) value);
+    }
+
+    @Override
+    public void setAll(long index, ListNumber list) {
+        checkRange(index, list.size());
+        if (list instanceof ArrayDouble) {
+            ArrayDouble array = (ArrayDouble) list;
+            copyFrom(array.wrappedArray(), array.startIndex(), index, array.size());
+            return;
+        }
+        for (int i = 0; i < list.size(); i++) {
+            setDouble(index + i, list.getDouble(i));
+        }
+    }
+
+    /**
+     * Copies the given elements of the list to an array.
+     *
+     * @param srcPos the position of the first element to copy
+     * @param dest the destination array
+     * @param destPos the first position to write in the array
+     * @param length the number of elements to copy
+     * @throws IndexOutOfBoundsException if the elements are not in the list
+     *         or do not fit in the array
+     */
+    public void copyTo(long srcPos, double[] dest, int destPos, int length) {
+        checkRange(srcPos, length);
+        checkArray(dest.length, destPos, length);
+        for (int i = 0; i < length; i++) {
+            dest[destPos + i] = getDouble(srcPos + i);
+        }
+    }
+
+    /**
+     * Copies the given elements of an array to the list.
+     *
+     * @param src the source array
+     * @param srcPos the first position to read in the array
+     * @param destPos the position of the first element to change
+     * @param length the number of elements to copy
+     * @throws IndexOutOfBoundsException if the elements are not in the list
+     *         or not in the array
+     * @throws UnsupportedOperationException if the list is read only
+     */
+    public void copyFrom(double[] src, int srcPos, long destPos, int length) {
+        checkRange(destPos, length);
+        checkArray(src.length, srcPos, length);
+        for (int i = 0; i < length; i++) {
+            setDouble(destPos + i, src[srcPos + i]);
+        }
+    }
+
+    void checkRange(long index, int length) {
+        if (index < 0 || length < 0 || index + length > size()) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Elements: " + length + ", Size: " + size());
+        }
+    }
+
+    static void checkArray(int arrayLength, int offset, int length) {
+        if (offset < 0 || length < 0 || offset + length > arrayLength) {
+            throw new IndexOutOfBoundsException("Offset: " + offset + ", Length: " + length + ", Array length: " + arrayLength);
+        }
+    }
+
+    @Override
+    public ListDouble subList(long fromIndex, long toIndex) {
+        if (fromIndex < 0 || toIndex > size() || fromIndex > toIndex) {
+            throw new IndexOutOfBoundsException("fromIndex: " + fromIndex + " toIndex: " + toIndex + ", size: " + size());
+        }
+        if (toIndex - fromIndex > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Window too big (" + (toIndex - fromIndex) + " elements)");
+        }
+        return new Window(this, fromIndex, (int) (toIndex - fromIndex));
+    }
+
+    @Override
+    public String toString() {
+        return "BigListDouble[size=" + size() + "]";
+    }
+
+    /**
+     * A window on a big list, which copies in bulk.
+     */
+    static final class Window extends ListDouble implements BulkCopyDouble {
+
+        private final BigListDouble list;
+        private final long fromIndex;
+        private final int size;
+
+        Window(BigListDouble list, long fromIndex, int size) {
+            this.list = list;
+            this.fromIndex = fromIndex;
+            this.size = size;
+        }
+
+        @Override
+        public double getDouble(int index) {
+            if (index < 0 || index >= size)
+                throw new IndexOutOfBoundsException("Index: "+index+", Size: "+size);
+            return list.getDouble(fromIndex + index);
+        }
+
+        @Override
+        public void setDouble(int index, double value) {
+            if (index < 0 || index >= size)
+                throw new IndexOutOfBoundsException("Index: "+index+", Size: "+size);
+            list.setDouble(fromIndex + index, value);
+        }
+
+        @Override
+        public void setAll(int index, ListNumber values) {
+            if (index < 0 || index + values.size() > size) {
+                throw new IndexOutOfBoundsException("Index: "+index+", Elements: "+values.size()+", Size: "+size);
+            }
+            list.setAll(fromIndex + index, values);
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public ListDouble subList(int fromIndex, int toIndex) {
+            if (fromIndex < 0 || toIndex > size || fromIndex > toIndex) {
+                throw new IndexOutOfBoundsException("fromIndex: " + fromIndex + " toIndex: " + toIndex + ", size: " + size);
+            }
+            return new Window(list, this.fromIndex + fromIndex, toIndex - fromIndex);
+        }
+
+        @Override
+        public void copyTo(int srcPos, double[] dest, int destPos, int length) {
+            list.copyTo(fromIndex + srcPos, dest, destPos, length);
+        }
+    }
+}
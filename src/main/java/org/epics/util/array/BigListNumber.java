@@ -0,0 +1,177 @@
+/**
+ * Copyright (C) 2010-14 diirt developers. See COPYRIGHT.TXT
+ * All rights reserved. Use is subject to license terms. See LICENSE.TXT
+ */
+package org.epics.util.array;
+
+/**
+ * An ordered collection of numeric (primitive) elements indexed by a long,
+ * so that it can hold more than 2^31 elements. It mirrors {@link ListNumber}:
+ * the elements can be accessed as any primitive type, and windows of up
+ * to 2^31 elements can be used wherever a {@link ListNumber} is expected.
+ *
+ * @author carcassi
+ */
+public interface BigListNumber {
+
+    /**
+     * Returns the number of elements in the collection.
+     *
+     * @return the number of elements in the collection
+     */
+    long size();
+
+    /**
+     * Returns the element at the specified position in this list casted to a double.
+     *
+     * @param index position of the element to return
+     * @return the element at the specified position in this list
+     * @throws IndexOutOfBoundsException if the index is out of range
+     *         (<code>index &lt; 0 || index &gt;= size()</code>)
+     */
+    double getDouble(long index);
+
+    /**
+     * Returns the element at the specified position in this list casted to a float.
+     *
+     * @param index position of the element to return
+     * @return the element at the specified position in this list
+     * @throws IndexOutOfBoundsException if the index is out of range
+     *         (<code>index &lt; 0 || index &gt;= size()</code>)
+     */
+    float getFloat(long index);
+
+    /**
+     * Returns the element at the specified position in this list casted to a long.
+     *
+     * @param index position of the element to return
+     * @return the element at the specified position in this list
+     * @throws IndexOutOfBoundsException if the index is out of range
+     *         (<code>index &lt; 0 || index &gt;= size()</code>)
+     */
+    long getLong(long index);
+
+    /**
+     * Returns the element at the specified position in this list casted to an int.
+     *
+     * @param index position of the element to return
+     * @return the element at the specified position in this list
+     * @throws IndexOutOfBoundsException if the index is out of range
+     *         (<code>index &lt; 0 || index &gt;= size()</code>)
+     */
+    int getInt(long index);
+
+    /**
+     * Returns the element at the specified position in this list casted to a short.
+     *
+     * @param index position of the element to return
+     * @return the element at the specified position in this list
+     * @throws IndexOutOfBoundsException if the index is out of range
+     *         (<code>index &lt; 0 || index &gt;= size()</code>)
+     */
+    short getShort(long index);
+
+    /**
+     * Returns the element at the specified position in this list casted to a byte.
+     *
+     * @param index position of the element to return
+     * @return the element at the specified position in this list
+     * @throws IndexOutOfBoundsException if the index is out of range
+     *         (<code>index &lt; 0 || index &gt;= size()</code>)
+     */
+    byte getByte(long index);
+
+    /**
+     * Changes the element at the specified position, casting to the internal representation.
+     *
+     * @param index position of the element to change
+     * @param value the new value
+     * @throws IndexOutOfBoundsException if the index is out of range
+     *         (<code>index &lt; 0 || index &gt;= size()</code>)
+     * @throws UnsupportedOperationException if the list is read only
+     */
+    void setDouble(long index, double value);
+
+    /**
+     * Changes the element at the specified position, casting to the internal representation.
+     *
+     * @param index position of the element to change
+     * @param value the new value
+     * @throws IndexOutOfBoundsException if the index is out of range
+     *         (<code>index &lt; 0 || index &gt;= size()</code>)
+     * @throws UnsupportedOperationException if the list is read only
+     */
+    void setFloat(long index, float value);
+
+    /**
+     * Changes the element at the specified position, casting to the internal representation.
+     *
+     * @param index position of the element to change
+     * @param value the new value
+     * @throws IndexOutOfBoundsException if the index is out of range
+     *         (<code>index &lt; 0 || index &gt;= size()</code>)
+     * @throws UnsupportedOperationException if the list is read only
+     */
+    void setLong(long index, long value);
+
+    /**
+     * Changes the element at the specified position, casting to the internal representation.
+     *
+     * @param index position of the element to change
+     * @param value the new value
+     * @throws IndexOutOfBoundsException if the index is out of range
+     *         (<code>index &lt; 0 || index &gt;= size()</code>)
+     * @throws UnsupportedOperationException if the list is read only
+     */
+    void setInt(long index, int value);
+
+    /**
+     * Changes the element at the specified position, casting to the internal representation.
+     *
+     * @param index position of the element to change
+     * @param value the new value
+     * @throws IndexOutOfBoundsException if the index is out of range
+     *         (<code>index &lt; 0 || index &gt;= size()</code>)
+     * @throws UnsupportedOperationException if the list is read only
+     */
+    void setShort(long index, short value);
+
+    /**
+     * Changes the element at the specified position, casting to the internal representation.
+     *
+     * @param index position of the element to change
+     * @param value the new value
+     * @throws IndexOutOfBoundsException if the index is out of range
+     *         (<code>index &lt; 0 || index &gt;= size()</code>)
+     * @throws UnsupportedOperationException if the list is read only
+     */
+    void setByte(long index, byte value);
+
+    /**
+     * Changes the elements starting at the specified position with the
+     * values of the given list.
+     *
+     * @param index position of the first element to change
+     * @param list the new values
+     * @throws IndexOutOfBoundsException if the list does not fit
+     *         (<code>index &lt; 0 || index + list.size() &gt; size()</code>)
+     * @throws UnsupportedOperationException if the list is read only
+     */
+    void setAll(long index, ListNumber list);
+
+    /**
+     * Returns a view of the portion of this list between the specified
+     * fromIndex, inclusive, and toIndex, exclusive. The view is a regular
+     * {@link ListNumber}, so it can have at most {@code Integer.MAX_VALUE}
+     * elements. Changes to the view are reflected in this list.
+     *
+     * @param fromIndex low endpoint (inclusive) of the window
+     * @param toIndex high endpoint (exclusive) of the window
+     * @return a view of the specified range within this list
+     * @throws IndexOutOfBoundsException for an illegal endpoint index value
+     * @throws IllegalArgumentException if the window has more than
+     *         {@code Integer.MAX_VALUE} elements
+     */
+    ListNumber subList(long fromIndex, long toIndex);
+
+}
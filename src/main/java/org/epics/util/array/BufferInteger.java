@@ -4,10 +4,17 @@
  */
 package org.epics.util.array;
 
+import java.util.Arrays;
+
 /**
  * An implementation of a list on top of buffer. The buffer
  * will start at the initial capacity (default 10) and will continue
- * to grow.
+ * to grow according to its {@link GrowthPolicy} (by default, doubling).
+ * <p>
+ * The content can be handed off as a read-only {@link ArrayInteger} with
+ * {@link #toReadOnlyArray() } without copying: the values already
+ * added are never overwritten, so the array stays unchanged
+ * while the buffer is reused.
  *
  * @author carcassi
  */
@@ -15,6 +22,9 @@ public class BufferInteger extends ListInteger {
 
     private int[] data;
     private int endOffset;
+    private final GrowthPolicy growthPolicy;
+    // Whether the array is referenced by a list returned by toReadOnlyArray
+    private boolean shared;
 
     /**
      * Creates a new buffer.
@@ -29,15 +39,46 @@ public class BufferInteger extends ListInteger {
      * @param initialCapacity initial capacity
      */
     public BufferInteger(int initialCapacity) {
+        this(initialCapacity, GrowthPolicy.doubling());
+    }
+
+    /**
+     * Creates a new buffer.
+     *
+     * @param initialCapacity initial capacity
+     * @param growthPolicy how the buffer grows when full
+     */
+    public BufferInteger(int initialCapacity, GrowthPolicy growthPolicy) {
+        if (growthPolicy == null) {
+            throw new NullPointerException("Growth policy can't be null");
+        }
         data = new int[initialCapacity];
+        this.growthPolicy = growthPolicy;
     }
 
-    private void resize() {
-        int oldSize = data.length;
-        int newSize = oldSize * 2;
-        int[] newData = new int[newSize];
-        System.arraycopy(data, 0, newData, 0, oldSize);
-        data = newData;
+    private void resize(int newCapacity) {
+        data = Arrays.copyOf(data, newCapacity);
+    }
+
+    /**
+     * Makes sure the buffer can hold the given number of elements
+     * without growing.
+     *
+     * @param minCapacity the desired minimum capacity
+     */
+    public void ensureCapacity(int minCapacity) {
+        if (minCapacity > data.length) {
+            resize(growthPolicy.newCapacity(data.length, minCapacity));
+        }
+    }
+
+    /**
+     * Reduces the capacity to the current size.
+     */
+    public void trimToSize() {
+        if (endOffset < data.length) {
+            resize(endOffset);
+        }
     }
 
     /**
@@ -66,26 +107,79 @@ public class BufferInteger extends ListInteger {
      * @param value new value
      */
     public void addInt(int value) {
+        // Grow the buffer if needed
+        if (endOffset == data.length)
+            ensureCapacity(endOffset + 1);
+
         data[endOffset] = value;
         endOffset++;
+    }
 
-        // Grow the buffer if needed
-        if (endOffset == data.length)
-            resize();
+    /**
+     * Adds the given values of the array.
+     *
+     * @param values the new values
+     * @param offset the index of the first value in the array
+     * @param length the number of values to add
+     */
+    public void addAll(int[] values, int offset, int length) {
+        if (offset < 0 || length < 0 || offset + length > values.length) {
+            throw new IndexOutOfBoundsException("Offset: " + offset + ", Length: " + length + ", Array length: " + values.length);
+        }
+        ensureCapacity(endOffset + length);
+        System.arraycopy(values, offset, data, endOffset, length);
+        endOffset += length;
+    }
 
+    /**
+     * Adds all the values of the list.
+     *
+     * @param list the new values
+     */
+    public void addAll(ListNumber list) {
+        if (list instanceof ArrayInteger) {
+            ArrayInteger array = (ArrayInteger) list;
+            addAll(array.wrappedArray(), array.startIndex(), array.size());
+        } else if (list instanceof BufferInteger) {
+            BufferInteger buffer = (BufferInteger) list;
+            addAll(buffer.data, 0, buffer.endOffset);
+        } else {
+            int length = list.size();
+            ensureCapacity(endOffset + length);
+            for (int i = 0; i < length; i++) {
+                data[endOffset + i] = list.getInt(i);
+            }
+            endOffset += length;
+        }
+    }
+
+    /**
+     * Returns the current content as a read-only list that shares the
+     * buffer's array. Values added later do not modify the list; if the buffer
+     * is cleared, it continues on a new array.
+     *
+     * @return the content of the buffer
+     */
+    public ArrayInteger toReadOnlyArray() {
+        shared = true;
+        return new ArrayInteger(data, 0, endOffset, true, true);
     }
 
     /**
      * Removes all values from the buffer.
      */
     public void clear() {
+        if (shared) {
+            data = new int[data.length];
+            shared = false;
+        }
         endOffset = 0;
     }
 
     /**
-     * The maximum capacity for this buffer.
+     * The current capacity of the buffer.
      *
-     * @return maximum capacity
+     * @return current capacity
      */
     public int getCurrentCapacity() {
         return data.length;
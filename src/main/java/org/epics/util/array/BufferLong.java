@@ -0,0 +1,187 @@
+/**
+ * Copyright (C) 2010-14 diirt developers. See COPYRIGHT.TXT
+ * All rights reserved. Use is subject to license terms. See LICENSE.TXT
+ */
+package org.epics.util.array;
+
+import java.util.Arrays;
+
+/**
+ * An implementation of a list on top of buffer. The buffer
+ * will start at the initial capacity (default 10) and will continue
+ * to grow according to its {@link GrowthPolicy} (by default, doubling).
+ * <p>
+ * The content can be handed off as a read-only {@link ArrayLong} with
+ * {@link #toReadOnlyArray() } without copying: the values already
+ * added are never overwritten, so the array stays unchanged
+ * while the buffer is reused.
+ *
+ * @author carcassi
+ */
+public class BufferLong extends ListLong {
+
+    private long[] data;
+    private int endOffset;
+    private final GrowthPolicy growthPolicy;
+    // Whether the array is referenced by a list returned by toReadOnlyArray
+    private boolean shared;
+
+    /**
+     * Creates a new buffer.
+     */
+    public BufferLong() {
+        this(10);
+    }
+
+    /**
+     * Creates a new buffer.
+     *
+     * @param initialCapacity initial capacity
+     */
+    public BufferLong(int initialCapacity) {
+        this(initialCapacity, GrowthPolicy.doubling());
+    }
+
+    /**
+     * Creates a new buffer.
+     *
+     * @param initialCapacity initial capacity
+     * @param growthPolicy how the buffer grows when full
+     */
+    public BufferLong(int initialCapacity, GrowthPolicy growthPolicy) {
+        if (growthPolicy == null) {
+            throw new NullPointerException("Growth policy can't be null");
+        }
+        data = new long[initialCapacity];
+        this.growthPolicy = growthPolicy;
+    }
+
+    private void resize(int newCapacity) {
+        data = Arrays.copyOf(data, newCapacity);
+    }
+
+    /**
+     * Makes sure the buffer can hold the given number of elements
+     * without growing.
+     *
+     * @param minCapacity the desired minimum capacity
+     */
+    public void ensureCapacity(int minCapacity) {
+        if (minCapacity > data.length) {
+            resize(growthPolicy.newCapacity(data.length, minCapacity));
+        }
+    }
+
+    /**
+     * Reduces the capacity to the current size.
+     */
+    public void trimToSize() {
+        if (endOffset < data.length) {
+            resize(endOffset);
+        }
+    }
+
+    /**
+     * {@inheritDoc }
+     */
+    @Override
+    public long getLong(int index) {
+        if (index >= endOffset) {
+            throw new ArrayIndexOutOfBoundsException(index);
+        }
+        return data[index];
+    }
+
+    /**
+     * {@inheritDoc }
+     */
+    @Override
+    public int size() {
+        int size = endOffset;
+        return size;
+    }
+
+    /**
+     * Adds a new value.
+     *
+     * @param value new value
+     */
+    public void addLong(long value) {
+        // Grow the buffer if needed
+        if (endOffset == data.length)
+            ensureCapacity(endOffset + 1);
+
+        data[endOffset] = value;
+        endOffset++;
+    }
+
+    /**
+     * Adds the given values of the array.
+     *
+     * @param values the new values
+     * @param offset the index of the first value in the array
+     * @param length the number of values to add
+     */
+    public void addAll(long[] values, int offset, int length) {
+        if (offset < 0 || length < 0 || offset + length > values.length) {
+            throw new IndexOutOfBoundsException("Offset: " + offset + ", Length: " + length + ", Array length: " + values.length);
+        }
+        ensureCapacity(endOffset + length);
+        System.arraycopy(values, offset, data, endOffset, length);
+        endOffset += length;
+    }
+
+    /**
+     * Adds all the values of the list.
+     *
+     * @param list the new values
+     */
+    public void addAll(ListNumber list) {
+        if (list instanceof ArrayLong) {
+            ArrayLong array = (ArrayLong) list;
+            addAll(array.wrappedArray(), array.startIndex(), array.size());
+        } else if (list instanceof BufferLong) {
+            BufferLong buffer = (BufferLong) list;
+            addAll(buffer.data, 0, buffer.endOffset);
+        } else {
+            int length = list.size();
+            ensureCapacity(endOffset + length);
+            for (int i = 0; i < length; i++) {
+                data[endOffset + i] = list.getLong(i);
+            }
+            endOffset += length;
+        }
+    }
+
+    /**
+     * Returns the current content as a read-only list that shares the
+     * buffer's array. Values added later do not modify the list; if the buffer
+     * is cleared, it continues on a new array.
+     *
+     * @return the content of the buffer
+     */
+    public ArrayLong toReadOnlyArray() {
+        shared = true;
+        return new ArrayLong(data, 0, endOffset, true, true);
+    }
+
+    /**
+     * Removes all values from the buffer.
+     */
+    public void clear() {
+        if (shared) {
+            data = new long[data.length];
+            shared = false;
+        }
+        endOffset = 0;
+    }
+
+    /**
+     * The current capacity of the buffer.
+     *
+     * @return current capacity
+     */
+    public int getCurrentCapacity() {
+        return data.length;
+    }
+}
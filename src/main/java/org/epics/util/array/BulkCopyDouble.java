@@ -0,0 +1,28 @@
+/**
+ * Copyright (C) 2010-14 diirt developers. See COPYRIGHT.TXT
+ * All rights reserved. Use is subject to license terms. See LICENSE.TXT
+ */
+package org.epics.util.array;
+
+/**
+ * A list that can copy a range of its elements, converted to double, faster
+ * than element by element: through the bulk operations of its storage, or
+ * one segment, chunk or list at a time. This allows
+ * {@link CollectionNumbers#arrayCopy(org.epics.util.array.ListNumber, int, double[], int, int) }
+ * to dispatch to all these implementations with a single check.
+ *
+ * @author carcassi
+ */
+interface BulkCopyDouble {
+
+    /**
+     * Copies the elements from {@code srcPos} to {@code srcPos + length}
+     * into the array, starting at {@code destPos}.
+     *
+     * @param srcPos starting position in the list
+     * @param dest the destination array
+     * @param destPos starting position in the destination array
+     * @param length the number of elements to be copied
+     */
+    void copyTo(int srcPos, double[] dest, int destPos, int length);
+}
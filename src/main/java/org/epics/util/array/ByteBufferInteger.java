@@ -0,0 +1,183 @@
+/**
+ * Copyright (C) 2010-14 diirt developers. See COPYRIGHT.TXT
+ * All rights reserved. Use is subject to license terms. See LICENSE.TXT
+ */
+package org.epics.util.array;
+
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+
+/**
+ * Non-resizable {@link ListInteger} implementation backed by a {@link ByteBuffer}.
+ * <p>
+ * When the buffer is direct, the data is stored outside the Java heap:
+ * large data sets can be kept without adding to the garbage collection work.
+ */
+public final class ByteBufferInteger extends ListInteger {
+
+    private final IntBuffer buffer;
+    private final boolean readOnly;
+
+    /**
+     * A new {@code ByteBufferInteger} that wraps around the given buffer. The list
+     * starts at index 0 of the buffer, and its size is the capacity of the
+     * buffer.
+     *
+     * @param buffer a buffer
+     * @param readOnly if false the wrapper allows writes to the buffer
+     */
+    ByteBufferInteger(IntBuffer buffer, boolean readOnly) {
+        this.buffer = buffer;
+        this.readOnly = readOnly;
+    }
+
+    /**
+     * Allocates a new direct buffer, in native byte order, that can hold
+     * the given number of elements.
+     *
+     * @param size number of elements
+     * @return a new zero-filled, writable list
+     * @throws IllegalArgumentException if the size is negative or the buffer
+     *         would be bigger than 2GB
+     */
+    public static ByteBufferInteger allocateDirect(int size) {
+        int bytes = CollectionNumbers.directBufferBytes(size, Integer.BYTES);
+        return wrap(ByteBuffer.allocateDirect(bytes).order(ByteOrder.nativeOrder()));
+    }
+
+    /**
+     * Wraps the remaining content of the buffer (between position and limit) as
+     * a list of {@code int}s, using the byte order of the buffer. The list is
+     * writable unless the buffer is read-only. Changes to the position
+     * or the limit of the buffer do not affect the list.
+     *
+     * @param buffer a byte buffer
+     * @return a new wrapper
+     */
+    public static ByteBufferInteger wrap(ByteBuffer buffer) {
+        return new ByteBufferInteger(buffer.slice().order(buffer.order()).asIntBuffer(), buffer.isReadOnly());
+    }
+
+    /**
+     * Copies the given collection in a new direct buffer.
+     *
+     * @param coll the collection whose values will be placed in this list
+     * @return a new writable list
+     */
+    public static ByteBufferInteger copyOf(CollectionNumber coll) {
+        ByteBufferInteger list = allocateDirect(coll.size());
+        int[] data = coll.toArray(new int[coll.size()]);
+        list.range(0, data.length).put(data);
+        return list;
+    }
+
+    /**
+     * Returns a read-only wrapper on the same buffer.
+     *
+     * @return a read-only list
+     */
+    public ByteBufferInteger asReadOnly() {
+        return new ByteBufferInteger(buffer.asReadOnlyBuffer(), true);
+    }
+
+    @Override
+    public final IteratorInteger iterator() {
+        return new IteratorInteger() {
+
+            private int index;
+
+            @Override
+            public boolean hasNext() {
+                return index < buffer.capacity();
+            }
+
+            @Override
+            public int nextInt() {
+                return buffer.get(index++);
+            }
+        };
+    }
+
+    @Override
+    public final int size() {
+        return buffer.capacity();
+    }
+
+    @Override
+    public int getInt(int index) {
+        return buffer.get(index);
+    }
+
+    @Override
+    public void setInt(int index, int value) {
+        if (!readOnly) {
+            buffer.put(index, value);
+        } else {
+            throw new UnsupportedOperationException("Read only list.");
+        }
+    }
+
+    @Override
+    public ByteBufferInteger subList(int fromIndex, int toIndex) {
+        if (fromIndex < 0 || toIndex > size() || fromIndex > toIndex) {
+            throw new IndexOutOfBoundsException("fromIndex: " + fromIndex + " toIndex: " + toIndex + ", size: " + size() );
+        }
+        return new ByteBufferInteger(range(fromIndex, toIndex).slice(), readOnly);
+    }
+
+    @Override
+    public void setAll(int index, ListNumber list) {
+        if (list instanceof ArrayInteger || list instanceof ByteBufferInteger) {
+            if (readOnly) {
+                throw new UnsupportedOperationException("Read only list.");
+            }
+            if (index < 0 || index + list.size() > size()) {
+                throw new IndexOutOfBoundsException("Index: "+index+", Elements: "+list.size()+", Size: "+size());
+            }
+            IntBuffer target = range(index, index + list.size());
+            if (list instanceof ArrayInteger) {
+                ArrayInteger other = (ArrayInteger) list;
+                target.put(other.wrappedArray(), other.startIndex(), other.size());
+            } else {
+                target.put(((ByteBufferInteger) list).range(0, list.size()));
+            }
+        } else {
+            super.setAll(index, list);
+        }
+    }
+
+    @Override
+    public <T> T toArray(T array) {
+        if (array instanceof int[]) {
+            int[] result;
+            if (((int[]) array).length < size()) {
+                result = new int[size()];
+            } else {
+                result = (int[]) array;
+            }
+            copyTo(0, result, 0, size());
+            return (T) result;
+        }
+        return super.toArray(array);
+    }
+
+    /**
+     * Copies the elements with a bulk operation.
+     */
+    void copyTo(int srcPos, int[] dest, int destPos, int length) {
+        range(srcPos, srcPos + length).get(dest, destPos, length);
+    }
+
+    /**
+     * A duplicate of the buffer with position and limit set to the given range.
+     */
+    private IntBuffer range(int fromIndex, int toIndex) {
+        IntBuffer range = buffer.duplicate();
+        // Cast to Buffer so that the code links on Java 8
+        ((Buffer) range).limit(toIndex);
+        ((Buffer) range).position(fromIndex);
+        return range;
+    }
+}
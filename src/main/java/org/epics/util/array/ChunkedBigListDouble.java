@@ -0,0 +1,148 @@
+/**
+ * Copyright (C) 2010-14 diirt developers. See COPYRIGHT.TXT
+ * All rights reserved. Use is subject to license terms. See LICENSE.TXT
+ */
+package org.epics.util.array;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * A {@link BigListDouble} backed by {@code double[]} chunks on the heap.
+ * The chunk size is a power of two, so that an element is found
+ * with a shift and a mask. The list is initialized with zeros, and each
+ * chunk is only allocated when one of its elements is first changed.
+ * <p>
+ * The chunks are installed with a compare-and-set, so that threads
+ * writing disjoint elements (e.g. filling separate ranges in parallel)
+ * never lose each other's writes to a newly allocated chunk. As for arrays,
+ * the visibility of the values to other threads requires the usual
+ * synchronization.
+ * <p>
+ * Only {@code double} is provided, as for {@link DirectBigListDouble}:
+ * large lists are typically the result of a computation, and the other
+ * types can be read through the {@link BigListNumber} conversions.
+ *
+ * @author carcassi
+ */
+public final class ChunkedBigListDouble extends BigListDouble {
+
+    private final long size;
+    private final int chunkShift;
+    private final int chunkMask;
+    private final AtomicReferenceArray<double[]> chunks;
+
+    /**
+     * Creates a new list of the given size, with chunks of 2^20 elements.
+     *
+     * @param size the number of elements
+     */
+    public ChunkedBigListDouble(long size) {
+        this(size, 1 << 20);
+    }
+
+    /**
+     * Creates a new list of the given size.
+     *
+     * @param size the number of elements
+     * @param chunkSize the number of elements in each chunk; must be a power of two
+     */
+    public ChunkedBigListDouble(long size, int chunkSize) {
+        if (size < 0) {
+            throw new IllegalArgumentException("Size can't be negative (was " + size + ")");
+        }
+        if (chunkSize < 1 || Integer.bitCount(chunkSize) != 1) {
+            throw new IllegalArgumentException("Chunk size must be a power of two (was " + chunkSize + ")");
+        }
+        this.size = size;
+        this.chunkShift = Integer.numberOfTrailingZeros(chunkSize);
+        this.chunkMask = chunkSize - 1;
+        long nChunks = (size + chunkMask) >>> chunkShift;
+        if (nChunks > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Too many chunks (" + nChunks + "): use a bigger chunk size");
+        }
+        this.chunks = new AtomicReferenceArray<>((int) nChunks);
+    }
+
+    private double[] chunkForWrite(int chunk) {
+        double[] data = chunks.get(chunk);
+        if (data == null) {
+            // The last chunk only holds the remaining elements
+            long chunkLength = Math.min(chunkMask + 1, size - ((long) chunk << chunkShift));
+            data = new double[(int) chunkLength];
+            if (!chunks.compareAndSet(chunk, null, data)) {
+                // Another thread installed the chunk first: use that one
+                data = chunks.get(chunk);
+            }
+        }
+        return data;
+    }
+
+    @Override
+    public long size() {
+        return size;
+    }
+
+    @Override
+    public double getDouble(long index) {
+        if (index < 0 || index >= size)
+            throw new IndexOutOfBoundsException("Index: "+index+", Size: "+size);
+        double[] data = chunks.get((int) (index >>> chunkShift));
+        return data == null ? 0.0 : data[(int) index & chunkMask];
+    }
+
+    @Override
+    public void setDouble(long index, double value) {
+        if (index < 0 || index >= size)
+            throw new IndexOutOfBoundsException("Index: "+index+", Size: "+size);
+        chunkForWrite((int) (index >>> chunkShift))[(int) index & chunkMask] = value;
+    }
+
+    @Override
+    public void setAll(long index, ListNumber list) {
+        checkRange(index, list.size());
+        int srcPos = 0;
+        int length = list.size();
+        while (length > 0) {
+            int chunkOffset = (int) index & chunkMask;
+            int n = Math.min(length, chunkMask + 1 - chunkOffset);
+            CollectionNumbers.arrayCopy(list, srcPos, chunkForWrite((int) (index >>> chunkShift)), chunkOffset, n);
+            index += n;
+            srcPos += n;
+            length -= n;
+        }
+    }
+
+    @Override
+    public void copyTo(long srcPos, double[] dest, int destPos, int length) {
+        checkRange(srcPos, length);
+        checkArray(dest.length, destPos, length);
+        while (length > 0) {
+            int chunkOffset = (int) srcPos & chunkMask;
+            int n = Math.min(length, chunkMask + 1 - chunkOffset);
+            double[] data = chunks.get((int) (srcPos >>> chunkShift));
+            if (data == null) {
+                Arrays.fill(dest, destPos, destPos + n, 0.0);
+            } else {
+                System.arraycopy(data, chunkOffset, dest, destPos, n);
+            }
+            srcPos += n;
+            destPos += n;
+            length -= n;
+        }
+    }
+
+    @Override
+    public void copyFrom(double[] src, int srcPos, long destPos, int length) {
+        checkRange(destPos, length);
+        checkArray(src.length, srcPos, length);
+        while (length > 0) {
+            int chunkOffset = (int) destPos & chunkMask;
+            int n = Math.min(length, chunkMask + 1 - chunkOffset);
+            System.arraycopy(src, srcPos, chunkForWrite((int) (destPos >>> chunkShift)), chunkOffset, n);
+            srcPos += n;
+            destPos += n;
+            length -= n;
+        }
+    }
+}
@@ -0,0 +1,236 @@
+/**
+ * Copyright (C) 2010-14 diirt developers. See COPYRIGHT.TXT
+ * All rights reserved. Use is subject to license terms. See LICENSE.TXT
+ */
+package org.epics.util.array;
+
+import java.util.Arrays;
+
+/**
+ * An implementation of a list on top of a buffer made of fixed size chunks.
+ * The buffer grows by adding new chunks: the values already added are
+ * never copied, and no large contiguous array is ever allocated.
+ * This is meant for buffers that can become very large, where
+ * doubling and copying a single array (as {@link BufferDouble} does)
+ * would require large temporary allocations.
+ * <p>
+ * The chunk size is a power of two, so that an element is found
+ * with a shift and a mask instead of a division.
+ *
+ * @author carcassi
+ */
+public class ChunkedBufferDouble extends ListDouble implements BulkCopyDouble {
+
+    private final int chunkShift;
+    private final int chunkMask;
+    private double[][] chunks;
+    private int nChunks;
+    private int endOffset;
+
+    /**
+     * Creates a new buffer with chunks of 4096 elements.
+     */
+    public ChunkedBufferDouble() {
+        this(4096);
+    }
+
+    /**
+     * Creates a new buffer.
+     *
+     * @param chunkSize the number of elements in each chunk; must be a power of two
+     */
+    public ChunkedBufferDouble(int chunkSize) {
+        if (chunkSize < 1 || Integer.bitCount(chunkSize) != 1) {
+            throw new IllegalArgumentException("Chunk size must be a power of two (was " + chunkSize + ")");
+        }
+        chunkShift = Integer.numberOfTrailingZeros(chunkSize);
+        chunkMask = chunkSize - 1;
+        chunks = new double[8][];
+    }
+
+    private void addChunk() {
+        if (nChunks == chunks.length) {
+            // Only the references to the chunks are copied
+            chunks = Arrays.copyOf(chunks, nChunks * 2);
+        }
+        if (chunks[nChunks] == null) {
+            chunks[nChunks] = new double[chunkMask + 1];
+        }
+        nChunks++;
+    }
+
+    /**
+     * {@inheritDoc }
+     */
+    @Override
+    public double getDouble(int index) {
+        if (index < 0 || index >= endOffset) {
+            throw new ArrayIndexOutOfBoundsException(index);
+        }
+        return chunks[index >>> chunkShift][index & chunkMask];
+    }
+
+    /**
+     * {@inheritDoc }
+     */
+    @Override
+    public int size() {
+        return endOffset;
+    }
+
+    /**
+     * Adds a new value.
+     *
+     * @param value new value
+     */
+    public void addDouble(double value) {
+        if (endOffset == Integer.MAX_VALUE) {
+            throw new IllegalStateException("Buffer is full");
+        }
+        int chunk = endOffset >>> chunkShift;
+        if (chunk == nChunks) {
+            addChunk();
+        }
+        chunks[chunk][endOffset & chunkMask] = value;
+        endOffset++;
+    }
+
+    /**
+     * Adds the given values of the array.
+     *
+     * @param values the new values
+     * @param offset the index of the first value in the array
+     * @param length the number of values to add
+     */
+    public void addAll(double[] values, int offset, int length) {
+        if (offset < 0 || length < 0 || offset + length > values.length) {
+            throw new IndexOutOfBoundsException("Offset: " + offset + ", Length: " + length + ", Array length: " + values.length);
+        }
+        if (endOffset + length < 0) {
+            throw new IllegalStateException("Buffer is full");
+        }
+        // Fill the last chunk, then the new ones
+        while (length > 0) {
+            int chunk = endOffset >>> chunkShift;
+            if (chunk == nChunks) {
+                addChunk();
+            }
+            int chunkOffset = endOffset & chunkMask;
+            int n = Math.min(length, chunkMask + 1 - chunkOffset);
+            System.arraycopy(values, offset, chunks[chunk], chunkOffset, n);
+            endOffset += n;
+            offset += n;
+            length -= n;
+        }
+    }
+
+    /**
+     * Adds all the values of the list.
+     *
+     * @param list the new values
+     */
+    public void addAll(ListNumber list) {
+        if (list instanceof ArrayDouble) {
+            ArrayDouble array = (ArrayDouble) list;
+            addAll(array.wrappedArray(), array.startIndex(), array.size());
+        } else if (list == this) {
+            // The values are copied one chunk at a time: copying from
+            // the chunks themselves would see the values being added
+            int length = endOffset;
+            for (int chunk = 0; length > 0; chunk++) {
+                int n = Math.min(length, chunkMask + 1);
+                addAll(chunks[chunk], 0, n);
+                length -= n;
+            }
+        } else {
+            int length = list.size();
+            if (endOffset + length < 0) {
+                throw new IllegalStateException("Buffer is full");
+            }
+            int srcPos = 0;
+            while (length > 0) {
+                int chunk = endOffset >>> chunkShift;
+                if (chunk == nChunks) {
+                    addChunk();
+                }
+                int chunkOffset = endOffset & chunkMask;
+                int n = Math.min(length, chunkMask + 1 - chunkOffset);
+                CollectionNumbers.arrayCopy(list, srcPos, chunks[chunk], chunkOffset, n);
+                endOffset += n;
+                srcPos += n;
+                length -= n;
+            }
+        }
+    }
+
+    /**
+     * Removes all values from the buffer. The chunks are kept to be reused.
+     */
+    public void clear() {
+        endOffset = 0;
+        nChunks = 0;
+    }
+
+    /**
+     * Removes all values from the buffer and releases the chunks.
+     */
+    public void clearAndTrim() {
+        clear();
+        chunks = new double[8][];
+    }
+
+    /**
+     * The current capacity of the buffer, which grows
+     * one chunk at a time. The chunks kept by {@link #clear() } are counted.
+     *
+     * @return current capacity
+     */
+    public int getCurrentCapacity() {
+        long allocated = 0;
+        for (double[] chunk : chunks) {
+            if (chunk != null) {
+                allocated++;
+            }
+        }
+        return (int) Math.min(Integer.MAX_VALUE, allocated << chunkShift);
+    }
+
+    @Override
+    public <T> T toArray(T array) {
+        if (array instanceof double[]) {
+            double[] doubleArray;
+            if (((double[]) array).length < size()) {
+                doubleArray = new double[size()];
+            } else {
+                doubleArray = (double[]) array;
+            }
+            copyTo(0, doubleArray, 0, size());
+            return (T) doubleArray;
+        }
+        return super.toArray(array);
+    }
+
+    /**
+     * Copies the elements with one {@code System.arraycopy} call
+     * for each chunk.
+     *
+     * @param srcPos starting position in the list
+     * @param dest the destination array
+     * @param destPos starting position in the destination array
+     * @param length the number of elements to be copied
+     * @throws IndexOutOfBoundsException if copying would cause
+     *         access of data outside the list or array bounds
+     */
+    @Override
+    public void copyTo(int srcPos, double[] dest, int destPos, int length) {
+        CollectionNumbers.checkArrayCopy(size(), srcPos, dest.length, destPos, length);
+        while (length > 0) {
+            int chunkOffset = srcPos & chunkMask;
+            int n = Math.min(length, chunkMask + 1 - chunkOffset);
+            System.arraycopy(chunks[srcPos >>> chunkShift], chunkOffset, dest, destPos, n);
+            srcPos += n;
+            destPos += n;
+            length -= n;
+        }
+    }
+}
@@ -0,0 +1,233 @@
+/**
+ * Copyright (C) 2010-14 diirt developers. See COPYRIGHT.TXT
+ * All rights reserved. Use is subject to license terms. See LICENSE.TXT
+ */
+package org.epics.util.array;
+
+/**
+ * An implementation of a list on top of a circular buffer. The buffer
+ * will start at the initial capacity (default 10) and will continue
+ * to grow until the max capacity is reached. At that point, it will
+ * start to replace the oldest value with a newer one.
+ *
+ * @author carcassi
+ */
+public class CircularBufferByte extends ListByte {
+
+    private byte[] data;
+    private int startOffset;
+    private int endOffset;
+    private final int maxCapacity;
+    private boolean reachedMax;
+
+    /**
+     * Creates a new circular buffer with the given maximum capacity.
+     *
+     * @param maxCapacity maximum capacity
+     */
+    public CircularBufferByte(int maxCapacity) {
+        this(Math.min(10, maxCapacity), maxCapacity);
+    }
+
+    /**
+     * Creates a new circular buffer with the given initial and maximum
+     * capacity.
+     *
+     * @param initialCapacity initial capacity
+     * @param maxCapacity  maximum capacity
+     */
+    public CircularBufferByte(int initialCapacity, int maxCapacity) {
+        data = new byte[initialCapacity];
+        this.maxCapacity = maxCapacity;
+    }
+
+    private void resize() {
+        int oldSize = data.length;
+        int newSize = oldSize * 2;
+        if (newSize > maxCapacity) {
+            newSize = maxCapacity + 1;
+            reachedMax = true;
+        }
+        byte[] newData = new byte[newSize];
+        System.arraycopy(data, 0, newData, 0, oldSize);
+        data = newData;
+    }
+
+    /**
+     * {@inheritDoc }
+     */
+    @Override
+    public byte getByte(int index) {
+        index += startOffset;
+        if (index >= data.length) {
+            index -= data.length;
+        }
+        return data[index];
+    }
+
+    /**
+     * {@inheritDoc }
+     */
+    @Override
+    public int size() {
+        int size = endOffset - startOffset;
+        if (size < 0) {
+            size += data.length;
+        }
+        return size;
+    }
+
+    /**
+     * Adds a new value.
+     *
+     * @param value new value
+     */
+    public void addByte(byte value) {
+        data[endOffset] = value;
+        endOffset++;
+
+        // Grow the buffer if needed
+        if (endOffset == data.length && !reachedMax)
+            resize();
+
+        // Loop over and advance the start point if needed
+        if (endOffset == data.length) {
+            endOffset = 0;
+        }
+        if (endOffset == startOffset)
+            startOffset++;
+        if (startOffset == data.length)
+            startOffset = 0;
+    }
+
+    /**
+     * Adds all the values of the given array. The result is the same as
+     * adding them one by one, but the values are copied with at most two
+     * {@code System.arraycopy} calls. If there are more values than the
+     * maximum capacity, only the last ones are kept.
+     *
+     * @param values the new values
+     * @param offset the index of the first value in the array
+     * @param length the number of values to add
+     */
+    public void addAll(byte[] values, int offset, int length) {
+        if (offset < 0 || length < 0 || offset + length > values.length) {
+            throw new IndexOutOfBoundsException("Offset: " + offset + ", Length: " + length + ", Array length: " + values.length);
+        }
+        int skip = Math.max(0, length - maxCapacity);
+        offset += skip;
+        length -= skip;
+        int position = prepareAdd(length);
+        int firstLength = Math.min(length, data.length - position);
+        System.arraycopy(values, offset, data, position, firstLength);
+        System.arraycopy(values, offset + firstLength, data, 0, length - firstLength);
+    }
+
+    /**
+     * Adds all the values of the given list. The result is the same as
+     * adding them one by one, but the values are copied in at most two
+     * blocks. If there are more values than the maximum capacity, only
+     * the last ones are kept.
+     *
+     * @param list the new values
+     */
+    public void addAll(ListNumber list) {
+        if (list instanceof ArrayByte) {
+            ArrayByte array = (ArrayByte) list;
+            addAll(array.wrappedArray(), array.startIndex(), array.size());
+            return;
+        }
+        if (list == this) {
+            byte[] values = toArray(new byte[size()]);
+            addAll(values, 0, values.length);
+            return;
+        }
+        int length = list.size();
+        int skip = Math.max(0, length - maxCapacity);
+        length -= skip;
+        int position = prepareAdd(length);
+        int firstLength = Math.min(length, data.length - position);
+        copy(list, skip, position, firstLength);
+        copy(list, skip + firstLength, 0, length - firstLength);
+    }
+
+    /**
+     * Copies the given range of the list in the buffer.
+     */
+    private void copy(ListNumber list, int srcPos, int destPos, int length) {
+        for (int i = 0; i < length; i++) {
+            data[destPos + i] = list.getByte(srcPos + i);
+        }
+    }
+
+    /**
+     * Makes room for the given number of new values, growing the buffer
+     * or dropping the oldest values, and returns the position of the
+     * first new value. The number of values cannot exceed the maximum
+     * capacity.
+     */
+    private int prepareAdd(int length) {
+        int newSize = size() + length;
+        while (!reachedMax && data.length <= newSize) {
+            resize();
+        }
+        int position = endOffset;
+        endOffset += length;
+        if (endOffset >= data.length) {
+            endOffset -= data.length;
+        }
+        if (newSize >= data.length) {
+            startOffset = endOffset + 1;
+            if (startOffset == data.length) {
+                startOffset = 0;
+            }
+        }
+        return position;
+    }
+
+    /**
+     * Removes all values from the buffer.
+     */
+    public void clear() {
+        startOffset = 0;
+        endOffset = 0;
+    }
+
+    /**
+     * The maximum capacity for this circular buffer.
+     *
+     * @return maximum capacity
+     */
+    public int getCurrentCapacity() {
+        return reachedMax ? maxCapacity : data.length;
+    }
+
+    @Override
+    public <T> T toArray(T array) {
+        if (array instanceof byte[]) {
+            byte[] byteArray;
+            if (((byte[]) array).length < size()) {
+                byteArray = new byte[size()];
+            } else {
+                byteArray = (byte[]) array;
+            }
+            copyTo(0, byteArray, 0, size());
+            return (T) byteArray;
+        }
+        return super.toArray(array);
+    }
+
+    /**
+     * Copies the elements with at most two {@code System.arraycopy} calls,
+     * one for each of the segments before and after the wrap around.
+     */
+    void copyTo(int srcPos, byte[] dest, int destPos, int length) {
+        int start = startOffset + srcPos;
+        if (start >= data.length) {
+            start -= data.length;
+        }
+        int firstLength = Math.min(length, data.length - start);
+        System.arraycopy(data, start, dest, destPos, firstLength);
+        System.arraycopy(data, 0, dest, destPos + firstLength, length - firstLength);
+    }
+}
@@ -12,7 +12,7 @@ package org.epics.util.array;
  *
  * @author carcassi
  */
-public class CircularBufferDouble extends ListDouble {
+public class CircularBufferDouble extends ListDouble implements BulkCopyDouble {
 
     private double[] data;
     private int startOffset;
@@ -100,6 +100,89 @@ public class CircularBufferDouble extends ListDouble {
             startOffset = 0;
     }
 
+    /**
+     * Adds all the values of the given array. The result is the same as
+     * adding them one by one, but the values are copied with at most two
+     * {@code System.arraycopy} calls. If there are more values than the
+     * maximum capacity, only the last ones are kept.
+     *
+     * @param values the new values
+     * @param offset the index of the first value in the array
+     * @param length the number of values to add
+     */
+    public void addAll(double[] values, int offset, int length) {
+        if (offset < 0 || length < 0 || offset + length > values.length) {
+            throw new IndexOutOfBoundsException("Offset: " + offset + ", Length: " + length + ", Array length: " + values.length);
+        }
+        int skip = Math.max(0, length - maxCapacity);
+        offset += skip;
+        length -= skip;
+        int position = prepareAdd(length);
+        int firstLength = Math.min(length, data.length - position);
+        System.arraycopy(values, offset, data, position, firstLength);
+        System.arraycopy(values, offset + firstLength, data, 0, length - firstLength);
+    }
+
+    /**
+     * Adds all the values of the given list. The result is the same as
+     * adding them one by one, but the values are copied in at most two
+     * blocks. If there are more values than the maximum capacity, only
+     * the last ones are kept.
+     *
+     * @param list the new values
+     */
+    public void addAll(ListNumber list) {
+        if (list instanceof ArrayDouble) {
+            ArrayDouble array = (ArrayDouble) list;
+            addAll(array.wrappedArray(), array.startIndex(), array.size());
+            return;
+        }
+        if (list == this) {
+            double[] values = toArray(new double[size()]);
+            addAll(values, 0, values.length);
+            return;
+        }
+        int length = list.size();
+        int skip = Math.max(0, length - maxCapacity);
+        length -= skip;
+        int position = prepareAdd(length);
+        int firstLength = Math.min(length, data.length - position);
+        copy(list, skip, position, firstLength);
+        copy(list, skip + firstLength, 0, length - firstLength);
+    }
+
+    /**
+     * Copies the given range of the list in the buffer.
+     */
+    private void copy(ListNumber list, int srcPos, int destPos, int length) {
+        CollectionNumbers.arrayCopy(list, srcPos, data, destPos, length);
+    }
+
+    /**
+     * Makes room for the given number of new values, growing the buffer
+     * or dropping the oldest values, and returns the position of the
+     * first new value. The number of values cannot exceed the maximum
+     * capacity.
+     */
+    private int prepareAdd(int length) {
+        int newSize = size() + length;
+        while (!reachedMax && data.length <= newSize) {
+            resize();
+        }
+        int position = endOffset;
+        endOffset += length;
+        if (endOffset >= data.length) {
+            endOffset -= data.length;
+        }
+        if (newSize >= data.length) {
+            startOffset = endOffset + 1;
+            if (startOffset == data.length) {
+                startOffset = 0;
+            }
+        }
+        return position;
+    }
+
     /**
      * Removes all values from the buffer.
      */
@@ -116,4 +199,42 @@ public class CircularBufferDouble extends ListDouble {
     public int getCurrentCapacity() {
         return reachedMax ? maxCapacity : data.length;
     }
+
+    @Override
+    public <T> T toArray(T array) {
+        if (array instanceof double[]) {
+            double[] doubleArray;
+            if (((double[]) array).length < size()) {
+                doubleArray = new double[size()];
+            } else {
+                doubleArray = (double[]) array;
+            }
+            copyTo(0, doubleArray, 0, size());
+            return (T) doubleArray;
+        }
+        return super.toArray(array);
+    }
+
+    /**
+     * Copies the elements with at most two {@code System.arraycopy} calls,
+     * one for each of the segments before and after the wrap around.
+     *
+     * @param srcPos starting position in the list
+     * @param dest the destination array
+     * @param destPos starting position in the destination array
+     * @param length the number of elements to be copied
+     * @throws IndexOutOfBoundsException if copying would cause
+     *         access of data outside the list or array bounds
+     */
+    @Override
+    public void copyTo(int srcPos, double[] dest, int destPos, int length) {
+        CollectionNumbers.checkArrayCopy(size(), srcPos, dest.length, destPos, length);
+        int start = startOffset + srcPos;
+        if (start >= data.length) {
+            start -= data.length;
+        }
+        int firstLength = Math.min(length, data.length - start);
+        System.arraycopy(data, start, dest, destPos, firstLength);
+        System.arraycopy(data, 0, dest, destPos + firstLength, length - firstLength);
+    }
 }
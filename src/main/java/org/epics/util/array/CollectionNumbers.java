@@ -4,6 +4,8 @@
  */
 package org.epics.util.array;
 
+import org.epics.util.number.UnsignedConversions;
+
 /**
  * Utilities to work with number collections.
  *
@@ -503,6 +505,136 @@ public class CollectionNumbers {
         return new ArrayUByte(values, 0, values.length, true);
     }
     
+    /**
+     * Returns an immutable {@link ArrayDouble} wrapper for the given {@code double} array.
+     * The array must not be modified afterwards: unlike
+     * {@link #unmodifiableListDouble(double...) }, the wrapper caches its hash code
+     * and its {@link ListProperties}.
+     * 
+     * @param values a primitive array that nobody writes anymore.
+     * @return an immutable wrapper.
+     */
+    public static ArrayDouble immutableListDouble(double... values) {
+        return new ArrayDouble(values, 0, values.length, true, true);
+    }
+    
+    /**
+     * Returns an immutable {@link ArrayFloat} wrapper for the given {@code float} array.
+     * The array must not be modified afterwards: unlike
+     * {@link #unmodifiableListFloat(float...) }, the wrapper caches its hash code
+     * and its {@link ListProperties}.
+     * 
+     * @param values a primitive array that nobody writes anymore.
+     * @return an immutable wrapper.
+     */
+    public static ArrayFloat immutableListFloat(float... values) {
+        return new ArrayFloat(values, 0, values.length, true, true);
+    }
+    
+    /**
+     * Returns an immutable {@link ArrayLong} wrapper for the given {@code long} array.
+     * The array must not be modified afterwards: unlike
+     * {@link #unmodifiableListLong(long...) }, the wrapper caches its hash code
+     * and its {@link ListProperties}.
+     * 
+     * @param values a primitive array that nobody writes anymore.
+     * @return an immutable wrapper.
+     */
+    public static ArrayLong immutableListLong(long... values) {
+        return new ArrayLong(values, 0, values.length, true, true);
+    }
+    
+    /**
+     * Returns an immutable {@link ArrayULong} wrapper for the given unsigned {@code long} array.
+     * The array must not be modified afterwards: unlike
+     * {@link #unmodifiableListULong(long...) }, the wrapper caches its hash code
+     * and its {@link ListProperties}.
+     * 
+     * @param values a primitive array that nobody writes anymore.
+     * @return an immutable wrapper.
+     */
+    public static ArrayULong immutableListULong(long... values) {
+        return new ArrayULong(values, 0, values.length, true, true);
+    }
+    
+    /**
+     * Returns an immutable {@link ArrayInteger} wrapper for the given {@code int} array.
+     * The array must not be modified afterwards: unlike
+     * {@link #unmodifiableListInt(int...) }, the wrapper caches its hash code
+     * and its {@link ListProperties}.
+     * 
+     * @param values a primitive array that nobody writes anymore.
+     * @return an immutable wrapper.
+     */
+    public static ArrayInteger immutableListInt(int... values) {
+        return new ArrayInteger(values, 0, values.length, true, true);
+    }
+    
+    /**
+     * Returns an immutable {@link ArrayUInteger} wrapper for the given unsigned {@code int} array.
+     * The array must not be modified afterwards: unlike
+     * {@link #unmodifiableListUInt(int...) }, the wrapper caches its hash code
+     * and its {@link ListProperties}.
+     * 
+     * @param values a primitive array that nobody writes anymore.
+     * @return an immutable wrapper.
+     */
+    public static ArrayUInteger immutableListUInt(int... values) {
+        return new ArrayUInteger(values, 0, values.length, true, true);
+    }
+    
+    /**
+     * Returns an immutable {@link ArrayShort} wrapper for the given {@code short} array.
+     * The array must not be modified afterwards: unlike
+     * {@link #unmodifiableListShort(short...) }, the wrapper caches its hash code
+     * and its {@link ListProperties}.
+     * 
+     * @param values a primitive array that nobody writes anymore.
+     * @return an immutable wrapper.
+     */
+    public static ArrayShort immutableListShort(short... values) {
+        return new ArrayShort(values, 0, values.length, true, true);
+    }
+    
+    /**
+     * Returns an immutable {@link ArrayUShort} wrapper for the given unsigned {@code short} array.
+     * The array must not be modified afterwards: unlike
+     * {@link #unmodifiableListUShort(short...) }, the wrapper caches its hash code
+     * and its {@link ListProperties}.
+     * 
+     * @param values a primitive array that nobody writes anymore.
+     * @return an immutable wrapper.
+     */
+    public static ArrayUShort immutableListUShort(short... values) {
+        return new ArrayUShort(values, 0, values.length, true, true);
+    }
+    
+    /**
+     * Returns an immutable {@link ArrayByte} wrapper for the given {@code byte} array.
+     * The array must not be modified afterwards: unlike
+     * {@link #unmodifiableListByte(byte...) }, the wrapper caches its hash code
+     * and its {@link ListProperties}.
+     * 
+     * @param values a primitive array that nobody writes anymore.
+     * @return an immutable wrapper.
+     */
+    public static ArrayByte immutableListByte(byte... values) {
+        return new ArrayByte(values, 0, values.length, true, true);
+    }
+    
+    /**
+     * Returns an immutable {@link ArrayUByte} wrapper for the given unsigned {@code byte} array.
+     * The array must not be modified afterwards: unlike
+     * {@link #unmodifiableListUByte(byte...) }, the wrapper caches its hash code
+     * and its {@link ListProperties}.
+     * 
+     * @param values a primitive array that nobody writes anymore.
+     * @return an immutable wrapper.
+     */
+    public static ArrayUByte immutableListUByte(byte... values) {
+        return new ArrayUByte(values, 0, values.length, true, true);
+    }
+    
     /**
      * This is the implementation of the default CollectionNumber.toArray(array).
      * See that method for the specification.
@@ -586,6 +718,11 @@ public class CollectionNumbers {
             throw new IndexOutOfBoundsException("Length of target array too small");
         }
         
+        if (src instanceof ListNumber) {
+            arrayCopy((ListNumber) src, 0, dest, destPos, src.size());
+            return;
+        }
+        
         IteratorNumber iter = src.iterator();
         int index = destPos;
         while (iter.hasNext()) {
@@ -718,4 +855,261 @@ public class CollectionNumbers {
             index++;
         }
     }
+
+    /**
+     * Copies a range of elements of the list, converted to double, into
+     * the given array. The concrete {@code ArrayXxx} classes are handled with
+     * dedicated loops on the wrapped array, so that the hot path does not go
+     * through the virtual {@link ListNumber#getDouble(int)} for each element.
+     * <p>
+     * This is the supported way for code outside this package to read a list
+     * in blocks (e.g. for a reduction): it only needs a reusable block array,
+     * and uses the fastest bulk access each implementation provides.
+     *
+     * @param src the source list
+     * @param srcPos starting position in the source list
+     * @param dest the destination array
+     * @param destPos starting position in the destination array
+     * @param length the number of elements to be copied
+     * @exception  IndexOutOfBoundsException  if copying would cause
+     *               access of data outside the list or array bounds.
+     */
+    public static void arrayCopy(ListNumber src, int srcPos, double[] dest, int destPos, int length) {
+        checkArrayCopy(src.size(), srcPos, dest.length, destPos, length);
+        if (src instanceof ArrayDouble) {
+            ArrayDouble array = (ArrayDouble) src;
+            System.arraycopy(array.wrappedArray(), array.startIndex() + srcPos, dest, destPos, length);
+        } else if (src instanceof ArrayFloat) {
+            ArrayFloat array = (ArrayFloat) src;
+            float[] data = array.wrappedArray();
+            int offset = array.startIndex() + srcPos - destPos;
+            for (int i = destPos; i < destPos + length; i++) {
+                dest[i] = data[offset + i];
+            }
+        } else if (src instanceof ArrayLong) {
+            ArrayLong array = (ArrayLong) src;
+            long[] data = array.wrappedArray();
+            int offset = array.startIndex() + srcPos - destPos;
+            for (int i = destPos; i < destPos + length; i++) {
+                dest[i] = data[offset + i];
+            }
+        } else if (src instanceof ArrayInteger) {
+            ArrayInteger array = (ArrayInteger) src;
+            int[] data = array.wrappedArray();
+            int offset = array.startIndex() + srcPos - destPos;
+            for (int i = destPos; i < destPos + length; i++) {
+                dest[i] = data[offset + i];
+            }
+        } else if (src instanceof ArrayShort) {
+            ArrayShort array = (ArrayShort) src;
+            Kernels.widen(array.wrappedArray(), array.startIndex() + srcPos, dest, destPos, length);
+        } else if (src instanceof ArrayByte) {
+            ArrayByte array = (ArrayByte) src;
+            Kernels.widen(array.wrappedArray(), array.startIndex() + srcPos, dest, destPos, length);
+        } else if (src instanceof ArrayULong) {
+            ArrayULong array = (ArrayULong) src;
+            long[] data = array.wrappedArray();
+            int offset = array.startIndex() + srcPos - destPos;
+            for (int i = destPos; i < destPos + length; i++) {
+                dest[i] = UnsignedConversions.toDouble(data[offset + i]);
+            }
+        } else if (src instanceof ArrayUInteger) {
+            ArrayUInteger array = (ArrayUInteger) src;
+            int[] data = array.wrappedArray();
+            int offset = array.startIndex() + srcPos - destPos;
+            for (int i = destPos; i < destPos + length; i++) {
+                dest[i] = data[offset + i] & 0xffffffffL;
+            }
+        } else if (src instanceof ArrayUShort) {
+            ArrayUShort array = (ArrayUShort) src;
+            Kernels.widenUnsigned(array.wrappedArray(), array.startIndex() + srcPos, dest, destPos, length);
+        } else if (src instanceof ArrayUByte) {
+            ArrayUByte array = (ArrayUByte) src;
+            Kernels.widenUnsigned(array.wrappedArray(), array.startIndex() + srcPos, dest, destPos, length);
+        } else if (src instanceof BulkCopyDouble) {
+            ((BulkCopyDouble) src).copyTo(srcPos, dest, destPos, length);
+        } else {
+            int offset = srcPos - destPos;
+            for (int i = destPos; i < destPos + length; i++) {
+                dest[i] = src.getDouble(offset + i);
+            }
+        }
+    }
+
+    /**
+     * Copies a range of elements of the list, as returned by
+     * {@link ListNumber#getByte(int) }, into the given array. For the unsigned
+     * lists, the raw bits are copied. The {@code ArrayByte} and {@code ArrayUByte}
+     * classes are copied with {@link System#arraycopy(java.lang.Object, int, java.lang.Object, int, int) }.
+     * <p>
+     * As for the double version, this is the supported way for code outside
+     * this package to read a list in blocks.
+     *
+     * @param src the source list
+     * @param srcPos starting position in the source list
+     * @param dest the destination array
+     * @param destPos starting position in the destination array
+     * @param length the number of elements to be copied
+     * @exception  IndexOutOfBoundsException  if copying would cause
+     *               access of data outside the list or array bounds.
+     */
+    public static void arrayCopy(ListNumber src, int srcPos, byte[] dest, int destPos, int length) {
+        checkArrayCopy(src.size(), srcPos, dest.length, destPos, length);
+        if (src instanceof ArrayByte) {
+            ArrayByte array = (ArrayByte) src;
+            System.arraycopy(array.wrappedArray(), array.startIndex() + srcPos, dest, destPos, length);
+        } else if (src instanceof ArrayUByte) {
+            ArrayUByte array = (ArrayUByte) src;
+            System.arraycopy(array.wrappedArray(), array.startIndex() + srcPos, dest, destPos, length);
+        } else {
+            int offset = srcPos - destPos;
+            for (int i = destPos; i < destPos + length; i++) {
+                dest[i] = src.getByte(offset + i);
+            }
+        }
+    }
+
+    /**
+     * Copies a range of elements of the list, as returned by
+     * {@link ListNumber#getShort(int) }, into the given array. For the unsigned
+     * lists, the raw bits are copied. The {@code ArrayShort} and {@code ArrayUShort}
+     * classes are copied with {@link System#arraycopy(java.lang.Object, int, java.lang.Object, int, int) }.
+     *
+     * @param src the source list
+     * @param srcPos starting position in the source list
+     * @param dest the destination array
+     * @param destPos starting position in the destination array
+     * @param length the number of elements to be copied
+     * @exception  IndexOutOfBoundsException  if copying would cause
+     *               access of data outside the list or array bounds.
+     */
+    public static void arrayCopy(ListNumber src, int srcPos, short[] dest, int destPos, int length) {
+        checkArrayCopy(src.size(), srcPos, dest.length, destPos, length);
+        if (src instanceof ArrayShort) {
+            ArrayShort array = (ArrayShort) src;
+            System.arraycopy(array.wrappedArray(), array.startIndex() + srcPos, dest, destPos, length);
+        } else if (src instanceof ArrayUShort) {
+            ArrayUShort array = (ArrayUShort) src;
+            System.arraycopy(array.wrappedArray(), array.startIndex() + srcPos, dest, destPos, length);
+        } else {
+            int offset = srcPos - destPos;
+            for (int i = destPos; i < destPos + length; i++) {
+                dest[i] = src.getShort(offset + i);
+            }
+        }
+    }
+
+    /**
+     * Copies a range of elements of the list, as returned by
+     * {@link ListNumber#getFloat(int) }, into the given array. The {@code ArrayFloat} class is copied with {@link System#arraycopy(java.lang.Object, int, java.lang.Object, int, int) }.
+     *
+     * @param src the source list
+     * @param srcPos starting position in the source list
+     * @param dest the destination array
+     * @param destPos starting position in the destination array
+     * @param length the number of elements to be copied
+     * @exception  IndexOutOfBoundsException  if copying would cause
+     *               access of data outside the list or array bounds.
+     */
+    public static void arrayCopy(ListNumber src, int srcPos, float[] dest, int destPos, int length) {
+        checkArrayCopy(src.size(), srcPos, dest.length, destPos, length);
+        if (src instanceof ArrayFloat) {
+            ArrayFloat array = (ArrayFloat) src;
+            System.arraycopy(array.wrappedArray(), array.startIndex() + srcPos, dest, destPos, length);
+        } else {
+            int offset = srcPos - destPos;
+            for (int i = destPos; i < destPos + length; i++) {
+                dest[i] = src.getFloat(offset + i);
+            }
+        }
+    }
+
+    /**
+     * Copies a range of elements of the list, as returned by
+     * {@link ListNumber#getLong(int) }, into the given array. For the unsigned
+     * lists, the raw bits are copied. The {@code ArrayLong} and {@code ArrayULong}
+     * classes are copied with {@link System#arraycopy(java.lang.Object, int, java.lang.Object, int, int) }.
+     *
+     * @param src the source list
+     * @param srcPos starting position in the source list
+     * @param dest the destination array
+     * @param destPos starting position in the destination array
+     * @param length the number of elements to be copied
+     * @exception  IndexOutOfBoundsException  if copying would cause
+     *               access of data outside the list or array bounds.
+     */
+    public static void arrayCopy(ListNumber src, int srcPos, long[] dest, int destPos, int length) {
+        checkArrayCopy(src.size(), srcPos, dest.length, destPos, length);
+        if (src instanceof ArrayLong) {
+            ArrayLong array = (ArrayLong) src;
+            System.arraycopy(array.wrappedArray(), array.startIndex() + srcPos, dest, destPos, length);
+        } else if (src instanceof ArrayULong) {
+            ArrayULong array = (ArrayULong) src;
+            System.arraycopy(array.wrappedArray(), array.startIndex() + srcPos, dest, destPos, length);
+        } else {
+            int offset = srcPos - destPos;
+            for (int i = destPos; i < destPos + length; i++) {
+                dest[i] = src.getLong(offset + i);
+            }
+        }
+    }
+
+    /**
+     * Copies a range of elements of the list, as returned by
+     * {@link ListNumber#getInt(int) }, into the given array. For the unsigned
+     * lists, the raw bits are copied. The {@code ArrayInteger} and {@code ArrayUInteger}
+     * classes are copied with {@link System#arraycopy(java.lang.Object, int, java.lang.Object, int, int) }.
+     *
+     * @param src the source list
+     * @param srcPos starting position in the source list
+     * @param dest the destination array
+     * @param destPos starting position in the destination array
+     * @param length the number of elements to be copied
+     * @exception  IndexOutOfBoundsException  if copying would cause
+     *               access of data outside the list or array bounds.
+     */
+    public static void arrayCopy(ListNumber src, int srcPos, int[] dest, int destPos, int length) {
+        checkArrayCopy(src.size(), srcPos, dest.length, destPos, length);
+        if (src instanceof ArrayInteger) {
+            ArrayInteger array = (ArrayInteger) src;
+            System.arraycopy(array.wrappedArray(), array.startIndex() + srcPos, dest, destPos, length);
+        } else if (src instanceof ArrayUInteger) {
+            ArrayUInteger array = (ArrayUInteger) src;
+            System.arraycopy(array.wrappedArray(), array.startIndex() + srcPos, dest, destPos, length);
+        } else {
+            int offset = srcPos - destPos;
+            for (int i = destPos; i < destPos + length; i++) {
+                dest[i] = src.getInt(offset + i);
+            }
+        }
+    }
+
+    /**
+     * Checks that a copy of the given length stays within the source list
+     * and the destination array. The wrapped arrays and the buffers may be
+     * larger than the list, and would not fail on their own.
+     */
+    static void checkArrayCopy(int srcSize, int srcPos, int destLength, int destPos, int length) {
+        if (srcPos < 0 || destPos < 0 || length < 0 || srcPos > srcSize - length || destPos > destLength - length) {
+            throw new IndexOutOfBoundsException("Source position: " + srcPos + ", Destination position: " + destPos
+                    + ", Length: " + length + ", Source size: " + srcSize + ", Destination length: " + destLength);
+        }
+    }
+
+    /**
+     * Returns the number of bytes of a direct buffer holding the given number
+     * of elements. Computed in long, so that a size too big for a single
+     * buffer is reported instead of wrapping to a negative capacity.
+     */
+    static int directBufferBytes(int size, int elementBytes) {
+        if (size < 0) {
+            throw new IllegalArgumentException("Size can't be negative (was " + size + ")");
+        }
+        long bytes = (long) size * elementBytes;
+        if (bytes > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Size too big for a direct buffer (" + size + " elements of "
+                    + elementBytes + " bytes)");
+        }
+        return (int) bytes;
+    }
 }
@@ -0,0 +1,131 @@
+/**
+ * Copyright (C) 2010-14 diirt developers. See COPYRIGHT.TXT
+ * All rights reserved. Use is subject to license terms. See LICENSE.TXT
+ */
+package org.epics.util.array;
+
+import java.util.Arrays;
+
+/**
+ * A view that concatenates lists. The offset of each list is computed when
+ * the view is created, and the list that contains an element is found with
+ * a binary search on the offsets (or directly, if it is the same list as
+ * the last access, which makes sequential access constant time).
+ * Bulk copies are done one list at a time, so that each list
+ * can use its own fast path.
+ *
+ * @author carcassi
+ */
+final class ConcatenatedListByte extends ListByte {
+
+    private final ListByte[] lists;
+    // offsets[i] is the index of the first element of lists[i];
+    // offsets[lists.length] is the size
+    private final int[] offsets;
+    // The list used by the last access: a hint for sequential access
+    private int lastList;
+
+    ConcatenatedListByte(ListByte[] lists) {
+        // Empty lists are skipped, so that the offsets are strictly increasing
+        int nLists = 0;
+        long size = 0;
+        for (ListByte list : lists) {
+            if (list.size() != 0) {
+                nLists++;
+                size += list.size();
+            }
+        }
+        if (size > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Concatenation too big (" + size + " elements)");
+        }
+        this.lists = new ListByte[nLists];
+        this.offsets = new int[nLists + 1];
+        int n = 0;
+        for (ListByte list : lists) {
+            if (list.size() != 0) {
+                this.lists[n] = list;
+                this.offsets[n + 1] = this.offsets[n] + list.size();
+                n++;
+            }
+        }
+    }
+
+    private int listOf(int index) {
+        if (index < 0 || index >= size()) {
+            throw new IndexOutOfBoundsException("Index out of bounds: " + index + ", size: " + size());
+        }
+        int list = lastList;
+        if (index >= offsets[list] && index < offsets[list + 1]) {
+            return list;
+        }
+        list = Arrays.binarySearch(offsets, 0, lists.length, index);
+        if (list < 0) {
+            // Index falls within the list before the insertion point
+            list = -list - 2;
+        }
+        lastList = list;
+        return list;
+    }
+
+    @Override
+    public int size() {
+        return offsets[lists.length];
+    }
+
+    @Override
+    public byte getByte(int index) {
+        int list = listOf(index);
+        return lists[list].getByte(index - offsets[list]);
+    }
+
+    @Override
+    public void setByte(int index, byte value) {
+        int list = listOf(index);
+        lists[list].setByte(index - offsets[list], value);
+    }
+
+    @Override
+    public <T> T toArray(T array) {
+        if (array instanceof byte[]) {
+            byte[] byteArray;
+            if (((byte[]) array).length < size()) {
+                byteArray = new byte[size()];
+            } else {
+                byteArray = (byte[]) array;
+            }
+            copyTo(0, byteArray, 0, size());
+            return (T) byteArray;
+        }
+        return super.toArray(array);
+    }
+
+    /**
+     * Copies the elements one list at a time.
+     */
+    void copyTo(int srcPos, byte[] dest, int destPos, int length) {
+        if (length == 0) {
+            return;
+        }
+        int list = listOf(srcPos);
+        while (length > 0) {
+            int listPos = srcPos - offsets[list];
+            int n = Math.min(length, offsets[list + 1] - srcPos);
+            copy(lists[list], listPos, dest, destPos, n);
+            srcPos += n;
+            destPos += n;
+            length -= n;
+            list++;
+        }
+    }
+
+    private static void copy(ListByte src, int srcPos, byte[] dest, int destPos, int length) {
+        if (src instanceof ArrayByte) {
+            ArrayByte array = (ArrayByte) src;
+            System.arraycopy(array.wrappedArray(), array.startIndex() + srcPos, dest, destPos, length);
+        } else {
+            for (int i = 0; i < length; i++) {
+                dest[destPos + i] = src.getByte(srcPos + i);
+            }
+        }
+    }
+}
@@ -0,0 +1,175 @@
+/**
+ * Copyright (C) 2010-14 diirt developers. See COPYRIGHT.TXT
+ * All rights reserved. Use is subject to license terms. See LICENSE.TXT
+ */
+package org.epics.util.array;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+
+/**
+ * A circular buffer of doubles with one writer thread and any number
+ * of reader threads that never lock.
+ * <p>
+ * Unlike {@link CircularBufferDouble}, the buffer has a fixed capacity and
+ * is not itself a list: readers get a consistent copy of the content with
+ * {@link #snapshot() }. Values are numbered by a sequence that only grows:
+ * the writer stores each value in its slot and then publishes the new end of
+ * the sequence with an ordered write. A reader reads the end of the sequence,
+ * copies the values and reads the end of the sequence again: the oldest
+ * values that the writer may have overwritten in the meantime are dropped
+ * from the copy. Readers never block the writer, and the writer never
+ * waits for the readers.
+ * <p>
+ * The values are stored as raw long bits in an {@link AtomicLongArray}, so that
+ * readers can never see a partially written double.
+ * <p>
+ * All the methods that modify the buffer ({@link #addDouble(double) },
+ * {@link #addAll(double[], int, int) } and {@link #clear() }) must be called
+ * from the same thread, or externally synchronized.
+ *
+ * @author carcassi
+ */
+public class ConcurrentCircularBufferDouble {
+
+    private static final AtomicLongFieldUpdater<ConcurrentCircularBufferDouble> TAIL =
+            AtomicLongFieldUpdater.newUpdater(ConcurrentCircularBufferDouble.class, "tail");
+    private static final AtomicLongFieldUpdater<ConcurrentCircularBufferDouble> WRITE_LIMIT =
+            AtomicLongFieldUpdater.newUpdater(ConcurrentCircularBufferDouble.class, "writeLimit");
+
+    // Number of copies attempted by a snapshot before giving up
+    // when the writer overwrites all the values during each copy
+    private static final int MAX_ATTEMPTS = 16;
+
+    private final AtomicLongArray data;
+    private final int capacity;
+
+    // Sequence number of the next value to be written
+    private volatile long tail;
+    // Sequence number after the last value written by a bulk add
+    private volatile long writeLimit;
+    // Sequence number of the first value after the last clear
+    private volatile long head;
+
+    /**
+     * Creates a new buffer that keeps at most the given number of values.
+     *
+     * @param capacity the maximum number of values
+     */
+    public ConcurrentCircularBufferDouble(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be positive (was " + capacity + ")");
+        }
+        this.capacity = capacity;
+        // The extra slot is the one that the writer fills
+        // while the readers copy the others
+        this.data = new AtomicLongArray(capacity + 1);
+    }
+
+    /**
+     * The maximum number of values in the buffer.
+     *
+     * @return the capacity
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * The number of values currently in the buffer. The value may be
+     * out of date by the time it is returned.
+     *
+     * @return the number of values
+     */
+    public int size() {
+        long end = tail;
+        return (int) Math.min(capacity, end - Math.min(head, end));
+    }
+
+    private int slot(long sequence) {
+        return (int) (sequence % data.length());
+    }
+
+    /**
+     * Adds a new value, replacing the oldest value if the buffer is full.
+     * Must be called only by the writer thread.
+     *
+     * @param value new value
+     */
+    public void addDouble(double value) {
+        long end = tail;
+        data.lazySet(slot(end), Double.doubleToRawLongBits(value));
+        TAIL.lazySet(this, end + 1);
+    }
+
+    /**
+     * Adds all the values of the given array, which are published to the
+     * readers at the same time. Must be called only by the writer thread.
+     *
+     * @param values the new values
+     * @param offset the index of the first value in the array
+     * @param length the number of values to add
+     */
+    public void addAll(double[] values, int offset, int length) {
+        if (offset < 0 || length < 0 || offset + length > values.length) {
+            throw new IndexOutOfBoundsException("Offset: " + offset + ", Length: " + length + ", Array length: " + values.length);
+        }
+        // Only the last values can be kept
+        int skip = Math.max(0, length - capacity);
+        long end = tail + skip;
+        // Let the readers know which slots are going to be overwritten
+        // before they are published
+        WRITE_LIMIT.lazySet(this, tail + length);
+        for (int i = offset + skip; i < offset + length; i++) {
+            data.lazySet(slot(end), Double.doubleToRawLongBits(values[i]));
+            end++;
+        }
+        TAIL.lazySet(this, end);
+    }
+
+    /**
+     * Removes all values from the buffer. Must be called only by
+     * the writer thread.
+     */
+    public void clear() {
+        head = tail;
+    }
+
+    /**
+     * Returns a copy of the current content of the buffer, from the oldest
+     * to the newest value.
+     * <p>
+     * If the writer adds values while the copy is made, the oldest values
+     * copied may have been overwritten: these are dropped, and the snapshot
+     * contains only the newest values, which are still consecutive.
+     * On a full buffer with an active writer the snapshot is therefore
+     * usually shorter than the capacity. The copy is retried only if all
+     * the values were overwritten; if that keeps happening (i.e. the writer
+     * replaces the whole buffer during each copy), an empty list
+     * is returned.
+     *
+     * @return a new list with the newest values of the buffer
+     */
+    public ArrayDouble snapshot() {
+        for (int attempt = 0; attempt < MAX_ATTEMPTS; attempt++) {
+            long end = tail;
+            long start = Math.max(Math.min(head, end), end - capacity);
+            int size = (int) (end - start);
+            double[] values = new double[size];
+            for (int i = 0; i < size; i++) {
+                values[i] = Double.longBitsToDouble(data.get(slot(start + i)));
+            }
+            // The writer may be writing the value at the end of the sequence
+            // (or the values up to the limit of a bulk add) before
+            // publishing it: the values before written - data.length()
+            // may have been overwritten during the copy
+            long written = Math.max(tail + 1, writeLimit);
+            long validStart = Math.max(start, written - data.length());
+            if (validStart < end || size == 0) {
+                int skip = (int) (validStart - start);
+                return new ArrayDouble(values, skip, size - skip, true, true);
+            }
+        }
+        return new ArrayDouble(new double[0], 0, 0, true, true);
+    }
+}
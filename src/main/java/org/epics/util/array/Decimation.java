@@ -0,0 +1,447 @@
+/**
+ * Copyright (C) 2010-14 diirt developers. See COPYRIGHT.TXT
+ * All rights reserved. Use is subject to license terms. See LICENSE.TXT
+ */
+package org.epics.util.array;
+
+/**
+ * Reduces large lists to a number of points suitable for display.
+ * <p>
+ * {@link #minMax(org.epics.util.array.ListNumber, int) } divides the data in
+ * buckets (typically one per pixel) and returns the minimum, maximum, first
+ * and last value of each, so that the plot of the reduced data looks the
+ * same as the plot of the whole data. {@link #lttb(org.epics.util.array.ListNumber, int) }
+ * selects a subset of the points with the Largest-Triangle-Three-Buckets
+ * algorithm, which preserves the visual shape of the data.
+ * <p>
+ * Each element is read only once. The buckets are processed in parallel
+ * if the {@link ParallelExecution} mode is enabled and the data is large enough.
+ * When the x values are given, they must be sorted in ascending order;
+ * lists created by {@link ListNumbers#linearList(double, double, int) }
+ * and {@link ListNumbers#linearListFromRange(double, double, int) } are
+ * handled without reading the x values.
+ *
+ * @author carcassi
+ */
+public final class Decimation {
+
+    private static final int BLOCK_SIZE = ListExpression.BLOCK_SIZE;
+
+    private Decimation() {
+        // prevent instances
+    }
+
+    /**
+     * The result of a min/max decimation: the minimum, maximum, first and last
+     * value and the number of elements of each bucket. The minimum and maximum
+     * skip NaN values; all values are NaN for buckets with no elements,
+     * and the minimum and maximum are NaN for buckets with only NaN values.
+     */
+    public static final class Buckets {
+
+        private final ArrayDouble min;
+        private final ArrayDouble max;
+        private final ArrayDouble first;
+        private final ArrayDouble last;
+        private final ArrayInteger count;
+
+        Buckets(double[] min, double[] max, double[] first, double[] last, int[] count) {
+            this.min = CollectionNumbers.immutableListDouble(min);
+            this.max = CollectionNumbers.immutableListDouble(max);
+            this.first = CollectionNumbers.immutableListDouble(first);
+            this.last = CollectionNumbers.immutableListDouble(last);
+            this.count = CollectionNumbers.immutableListInt(count);
+        }
+
+        /**
+         * The number of buckets.
+         *
+         * @return the number of buckets
+         */
+        public int size() {
+            return count.size();
+        }
+
+        /**
+         * The smallest value of each bucket.
+         *
+         * @return the minimums
+         */
+        public ArrayDouble getMin() {
+            return min;
+        }
+
+        /**
+         * The largest value of each bucket.
+         *
+         * @return the maximums
+         */
+        public ArrayDouble getMax() {
+            return max;
+        }
+
+        /**
+         * The first value of each bucket.
+         *
+         * @return the first values
+         */
+        public ArrayDouble getFirst() {
+            return first;
+        }
+
+        /**
+         * The last value of each bucket.
+         *
+         * @return the last values
+         */
+        public ArrayDouble getLast() {
+            return last;
+        }
+
+        /**
+         * The number of elements of each bucket.
+         *
+         * @return the number of elements
+         */
+        public ArrayInteger getCount() {
+            return count;
+        }
+    }
+
+    /**
+     * The points selected by a decimation, with their indexes in the
+     * original data.
+     */
+    public static final class Points {
+
+        private final ArrayDouble x;
+        private final ArrayDouble y;
+        private final ArrayInteger indexes;
+
+        Points(double[] x, double[] y, int[] indexes) {
+            this.x = CollectionNumbers.immutableListDouble(x);
+            this.y = CollectionNumbers.immutableListDouble(y);
+            this.indexes = CollectionNumbers.immutableListInt(indexes);
+        }
+
+        /**
+         * The x values of the points.
+         *
+         * @return the x values
+         */
+        public ArrayDouble getX() {
+            return x;
+        }
+
+        /**
+         * The y values of the points.
+         *
+         * @return the y values
+         */
+        public ArrayDouble getY() {
+            return y;
+        }
+
+        /**
+         * The indexes of the points in the original data.
+         *
+         * @return the indexes
+         */
+        public ArrayInteger getIndexes() {
+            return indexes;
+        }
+    }
+
+    /**
+     * Divides the data in buckets of (about) the same number of elements, and
+     * computes minimum, maximum, first and last value for each.
+     *
+     * @param y the data
+     * @param nBuckets the number of buckets
+     * @return the reduced data
+     */
+    public static Buckets minMax(ListNumber y, int nBuckets) {
+        checkBuckets(nBuckets);
+        int n = y.size();
+        int[] bounds = new int[nBuckets + 1];
+        for (int b = 0; b <= nBuckets; b++) {
+            bounds[b] = (int) ((long) b * n / nBuckets);
+        }
+        return minMax(y, bounds, ParallelExecution.isSplittable(y));
+    }
+
+    /**
+     * Divides the range from xMin to xMax in buckets of the same width, and
+     * computes minimum, maximum, first and last value of the y values whose x
+     * falls in each bucket. The x values must be sorted in ascending order.
+     * Points outside the range are ignored.
+     *
+     * @param x the x values, sorted
+     * @param y the y values
+     * @param xMin the start of the first bucket
+     * @param xMax the end of the last bucket (included in the last bucket)
+     * @param nBuckets the number of buckets
+     * @return the reduced data
+     */
+    public static Buckets minMax(ListNumber x, ListNumber y, double xMin, double xMax, int nBuckets) {
+        checkBuckets(nBuckets);
+        checkSizes(x, y);
+        if (!(xMin < xMax)) {
+            throw new IllegalArgumentException("xMin must be less than xMax (were " + xMin + " and " + xMax + ")");
+        }
+        int[] bounds = new int[nBuckets + 1];
+        double width = (xMax - xMin) / nBuckets;
+        for (int b = 0; b < nBuckets; b++) {
+            bounds[b] = firstIndex(x, xMin + b * width, false);
+        }
+        bounds[nBuckets] = firstIndex(x, xMax, true);
+        return minMax(y, bounds, ParallelExecution.isSplittable(y));
+    }
+
+    private static Buckets minMax(final ListNumber y, final int[] bounds, boolean splittable) {
+        final int nBuckets = bounds.length - 1;
+        final double[] min = new double[nBuckets];
+        final double[] max = new double[nBuckets];
+        final double[] first = new double[nBuckets];
+        final double[] last = new double[nBuckets];
+        final int[] count = new int[nBuckets];
+        ParallelExecution.forEachRange(nBuckets, y.size(), 1, splittable, (fromBucket, toBucket) -> {
+            double[] block = y instanceof ArrayDouble ? null : new double[BLOCK_SIZE];
+            for (int b = fromBucket; b < toBucket; b++) {
+                reduceBucket(y, bounds[b], bounds[b + 1], block, b, min, max, first, last, count);
+            }
+        });
+        return new Buckets(min, max, first, last, count);
+    }
+
+    private static void reduceBucket(ListNumber y, int from, int to, double[] block, int b,
+            double[] min, double[] max, double[] first, double[] last, int[] count) {
+        count[b] = Math.max(0, to - from);
+        if (to <= from) {
+            min[b] = Double.NaN;
+            max[b] = Double.NaN;
+            first[b] = Double.NaN;
+            last[b] = Double.NaN;
+            return;
+        }
+        first[b] = y.getDouble(from);
+        last[b] = y.getDouble(to - 1);
+        double bucketMin = Double.POSITIVE_INFINITY;
+        double bucketMax = Double.NEGATIVE_INFINITY;
+        if (y instanceof ArrayDouble) {
+            ArrayDouble array = (ArrayDouble) y;
+            double[] data = array.wrappedArray();
+            int offset = array.startIndex();
+            for (int i = from + offset; i < to + offset; i++) {
+                double value = data[i];
+                // NaN fails both comparisons and is skipped
+                if (value < bucketMin) {
+                    bucketMin = value;
+                }
+                if (value > bucketMax) {
+                    bucketMax = value;
+                }
+            }
+        } else {
+            // Converts a block at a time, using the fast paths of arrayCopy
+            for (int start = from; start < to; start += BLOCK_SIZE) {
+                int length = Math.min(BLOCK_SIZE, to - start);
+                CollectionNumbers.arrayCopy(y, start, block, 0, length);
+                for (int i = 0; i < length; i++) {
+                    double value = block[i];
+                    if (value < bucketMin) {
+                        bucketMin = value;
+                    }
+                    if (value > bucketMax) {
+                        bucketMax = value;
+                    }
+                }
+            }
+        }
+        if (bucketMin > bucketMax) {
+            // Only NaNs
+            bucketMin = Double.NaN;
+            bucketMax = Double.NaN;
+        }
+        // Infinities are kept
+        min[b] = bucketMin;
+        max[b] = bucketMax;
+    }
+
+    /**
+     * Selects the given number of points with the Largest-Triangle-Three-Buckets
+     * algorithm, using the index as x.
+     *
+     * @param y the data
+     * @param nPoints the number of points to select; at least 3
+     * @return the selected points
+     */
+    public static Points lttb(ListNumber y, int nPoints) {
+        return lttb(null, y, nPoints);
+    }
+
+    /**
+     * Selects the given number of points with the Largest-Triangle-Three-Buckets
+     * algorithm. The first and last point are always selected. The other points
+     * are divided in buckets of the same number of elements, and from each
+     * bucket the point is selected that forms the largest triangle with the
+     * point selected in the previous bucket and the average of the next bucket.
+     * If there are no more points than requested, all points are returned.
+     *
+     * @param x the x values, sorted
+     * @param y the y values
+     * @param nPoints the number of points to select; at least 3
+     * @return the selected points
+     */
+    public static Points lttb(ListNumber x, final ListNumber y, int nPoints) {
+        if (nPoints < 3) {
+            throw new IllegalArgumentException("Number of points must be at least 3 (was " + nPoints + ")");
+        }
+        if (x != null) {
+            checkSizes(x, y);
+        }
+        final int n = y.size();
+        // Linear x values are computed from the index
+        final ListNumber xList;
+        final double x0;
+        final double dx;
+        if (x == null) {
+            xList = null;
+            x0 = 0;
+            dx = 1;
+        } else if (ListNumbers.isLinearInstance(x) && n > 1) {
+            xList = null;
+            x0 = x.getDouble(0);
+            dx = (x.getDouble(n - 1) - x0) / (n - 1);
+        } else {
+            xList = x;
+            x0 = 0;
+            dx = 1;
+        }
+
+        if (nPoints >= n) {
+            int[] indexes = new int[n];
+            for (int i = 0; i < n; i++) {
+                indexes[i] = i;
+            }
+            return points(xList, x0, dx, y, indexes);
+        }
+
+        // The averages of the buckets are independent, and can be
+        // computed in parallel; the selection depends on the previous one
+        final double every = (double) (n - 2) / (nPoints - 2);
+        final double[] averageX = new double[nPoints - 2];
+        final double[] averageY = new double[nPoints - 2];
+        boolean splittable = ParallelExecution.isSplittable(y) && (xList == null || ParallelExecution.isSplittable(xList));
+        ParallelExecution.forEachRange(nPoints - 2, n, 1, splittable, (fromBucket, toBucket) -> {
+            for (int bucket = fromBucket; bucket < toBucket; bucket++) {
+                int start = (int) ((bucket + 1) * every) + 1;
+                int end = Math.min((int) ((bucket + 2) * every) + 1, n);
+                double sumX = 0;
+                double sumY = 0;
+                for (int i = start; i < end; i++) {
+                    sumX += xList == null ? x0 + i * dx : xList.getDouble(i);
+                    sumY += y.getDouble(i);
+                }
+                averageX[bucket] = sumX / (end - start);
+                averageY[bucket] = sumY / (end - start);
+            }
+        });
+
+        int[] indexes = new int[nPoints];
+        double ax = xList == null ? x0 : xList.getDouble(0);
+        double ay = y.getDouble(0);
+        for (int bucket = 0; bucket < nPoints - 2; bucket++) {
+            int start = (int) (bucket * every) + 1;
+            int end = (int) ((bucket + 1) * every) + 1;
+            double maxArea = -1;
+            int selected = start;
+            double selectedX = 0;
+            double selectedY = 0;
+            for (int i = start; i < end; i++) {
+                double xi = xList == null ? x0 + i * dx : xList.getDouble(i);
+                double yi = y.getDouble(i);
+                // Twice the area: only the comparison matters
+                double area = Math.abs((ax - averageX[bucket]) * (yi - ay) - (ax - xi) * (averageY[bucket] - ay));
+                if (area > maxArea) {
+                    maxArea = area;
+                    selected = i;
+                    selectedX = xi;
+                    selectedY = yi;
+                }
+            }
+            if (maxArea < 0) {
+                // No valid area (e.g. NaN values): keep the first point
+                selectedX = xList == null ? x0 + start * dx : xList.getDouble(start);
+                selectedY = y.getDouble(start);
+            }
+            indexes[bucket + 1] = selected;
+            ax = selectedX;
+            ay = selectedY;
+        }
+        indexes[nPoints - 1] = n - 1;
+        return points(xList, x0, dx, y, indexes);
+    }
+
+    private static Points points(ListNumber xList, double x0, double dx, ListNumber y, int[] indexes) {
+        double[] xValues = new double[indexes.length];
+        double[] yValues = new double[indexes.length];
+        for (int i = 0; i < indexes.length; i++) {
+            xValues[i] = xList == null ? x0 + indexes[i] * dx : xList.getDouble(indexes[i]);
+            yValues[i] = y.getDouble(indexes[i]);
+        }
+        return new Points(xValues, yValues, indexes);
+    }
+
+    /**
+     * The index of the first element greater than or equal to the value
+     * (or strictly greater, if strict is true), or the size
+     * if there is none.
+     */
+    static int firstIndex(ListNumber x, double value, boolean strict) {
+        int n = x.size();
+        int low = 0;
+        int high = n;
+        if (ListNumbers.isLinearInstance(x) && n > 1) {
+            // Start from the computed position, and correct for rounding
+            double x0 = x.getDouble(0);
+            double dx = (x.getDouble(n - 1) - x0) / (n - 1);
+            if (dx > 0) {
+                double estimate = Math.ceil((value - x0) / dx);
+                int index = (int) Math.max(0, Math.min(n, estimate));
+                while (index > 0 && before(x.getDouble(index - 1), value, strict) == false) {
+                    index--;
+                }
+                while (index < n && before(x.getDouble(index), value, strict)) {
+                    index++;
+                }
+                return index;
+            }
+        }
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (before(x.getDouble(middle), value, strict)) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private static boolean before(double element, double value, boolean strict) {
+        return strict ? element <= value : element < value;
+    }
+
+    private static void checkBuckets(int nBuckets) {
+        if (nBuckets < 1) {
+            throw new IllegalArgumentException("Number of buckets must be positive (was " + nBuckets + ")");
+        }
+    }
+
+    private static void checkSizes(ListNumber x, ListNumber y) {
+        if (x.size() != y.size()) {
+            throw new IllegalArgumentException("x and y must have the same size (were " + x.size() + " and " + y.size() + ")");
+        }
+    }
+}
@@ -0,0 +1,118 @@
+/**
+ * Copyright (C) 2010-14 diirt developers. See COPYRIGHT.TXT
+ * All rights reserved. Use is subject to license terms. See LICENSE.TXT
+ */
+package org.epics.util.array;
+
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+
+/**
+ * A {@link BigListDouble} stored outside the Java heap, in direct buffers.
+ * Each buffer holds a chunk of elements, since a single buffer can't
+ * have more than 2^31 bytes; the chunk size is a power of two, so that an
+ * element is found with a shift and a mask. The memory is freed when the list
+ * is garbage collected.
+ *
+ * @author carcassi
+ */
+public final class DirectBigListDouble extends BigListDouble {
+
+    private final long size;
+    private final int chunkShift;
+    private final int chunkMask;
+    private final DoubleBuffer[] chunks;
+
+    /**
+     * Creates a new list of the given size, with chunks of 2^20 elements.
+     *
+     * @param size the number of elements
+     */
+    public DirectBigListDouble(long size) {
+        this(size, 1 << 20);
+    }
+
+    /**
+     * Creates a new list of the given size.
+     *
+     * @param size the number of elements
+     * @param chunkSize the number of elements in each chunk; must be a power of two
+     *        no greater than 2^27
+     */
+    public DirectBigListDouble(long size, int chunkSize) {
+        if (size < 0) {
+            throw new IllegalArgumentException("Size can't be negative (was " + size + ")");
+        }
+        if (chunkSize < 1 || chunkSize > (1 << 27) || Integer.bitCount(chunkSize) != 1) {
+            throw new IllegalArgumentException("Chunk size must be a power of two no greater than 2^27 (was " + chunkSize + ")");
+        }
+        this.size = size;
+        this.chunkShift = Integer.numberOfTrailingZeros(chunkSize);
+        this.chunkMask = chunkSize - 1;
+        long nChunks = (size + chunkMask) >>> chunkShift;
+        if (nChunks > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Too many chunks (" + nChunks + "): use a bigger chunk size");
+        }
+        this.chunks = new DoubleBuffer[(int) nChunks];
+        for (int i = 0; i < chunks.length; i++) {
+            // The last chunk only holds the remaining elements
+            long chunkLength = Math.min(chunkSize, size - ((long) i << chunkShift));
+            chunks[i] = ByteBuffer.allocateDirect((int) chunkLength * Double.BYTES)
+                    .order(ByteOrder.nativeOrder()).asDoubleBuffer();
+        }
+    }
+
+    @Override
+    public long size() {
+        return size;
+    }
+
+    @Override
+    public double getDouble(long index) {
+        if (index < 0 || index >= size)
+            throw new IndexOutOfBoundsException("Index: "+index+", Size: "+size);
+        return chunks[(int) (index >>> chunkShift)].get((int) index & chunkMask);
+    }
+
+    @Override
+    public void setDouble(long index, double value) {
+        if (index < 0 || index >= size)
+            throw new IndexOutOfBoundsException("Index: "+index+", Size: "+size);
+        chunks[(int) (index >>> chunkShift)].put((int) index & chunkMask, value);
+    }
+
+    @Override
+    public void copyTo(long srcPos, double[] dest, int destPos, int length) {
+        checkRange(srcPos, length);
+        checkArray(dest.length, destPos, length);
+        while (length > 0) {
+            int chunkOffset = (int) srcPos & chunkMask;
+            int n = Math.min(length, chunkMask + 1 - chunkOffset);
+            // Duplicate, so that concurrent readers do not share the position
+            DoubleBuffer data = chunks[(int) (srcPos >>> chunkShift)].duplicate();
+            ((Buffer) data).position(chunkOffset);
+            data.get(dest, destPos, n);
+            srcPos += n;
+            destPos += n;
+            length -= n;
+        }
+    }
+
+    @Override
+    public void copyFrom(double[] src, int srcPos, long destPos, int length) {
+        checkRange(destPos, length);
+        checkArray(src.length, srcPos, length);
+        while (length > 0) {
+            int chunkOffset = (int) destPos & chunkMask;
+            int n = Math.min(length, chunkMask + 1 - chunkOffset);
+            DoubleBuffer data = chunks[(int) (destPos >>> chunkShift)].duplicate();
+            ((Buffer) data).position(chunkOffset);
+            data.put(src, srcPos, n);
+            srcPos += n;
+            destPos += n;
+            length -= n;
+        }
+    }
+}
@@ -0,0 +1,275 @@
+/**
+ * Copyright (C) 2010-14 diirt developers. See COPYRIGHT.TXT
+ * All rights reserved. Use is subject to license terms. See LICENSE.TXT
+ */
+package org.epics.util.array;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Fast Fourier transform on arrays of doubles.
+ * <p>
+ * Power of two sizes are computed with an iterative radix-2 algorithm,
+ * all other sizes with Bluestein's algorithm, which reduces the transform
+ * to a convolution of power of two size. The trigonometric tables (and,
+ * for Bluestein, the transform of the chirp) depend only on the size, and
+ * are cached so that transforms of the same size can reuse them.
+ * <p>
+ * All transforms are unnormalized and performed in place on the real
+ * and imaginary arrays.
+ *
+ * @author carcassi
+ */
+class FourierTransform {
+
+    private FourierTransform() {
+        // prevent instances
+    }
+
+    /**
+     * Above this number of entries, the caches are reset instead of growing.
+     */
+    private static final int MAX_CACHED_SIZES = 64;
+
+    private static final Map<Integer, Twiddles> twiddles = new ConcurrentHashMap<>();
+    private static final Map<Integer, Chirp> chirps = new ConcurrentHashMap<>();
+
+    /**
+     * The values of {@code cos(2 pi k / n)} and {@code sin(2 pi k / n)}
+     * for k from 0 to n/2 (inclusive).
+     */
+    private static class Twiddles {
+        final double[] cos;
+        final double[] sin;
+
+        Twiddles(int n) {
+            cos = new double[n / 2 + 1];
+            sin = new double[n / 2 + 1];
+            for (int k = 0; k < cos.length; k++) {
+                double angle = 2 * Math.PI * k / n;
+                cos[k] = Math.cos(angle);
+                sin[k] = Math.sin(angle);
+            }
+        }
+    }
+
+    /**
+     * The chirp {@code exp(-i pi k^2 / n)} used by Bluestein's algorithm,
+     * together with the transform of its conjugate padded to size m.
+     */
+    private static class Chirp {
+        final int m;
+        final double[] cos;
+        final double[] sin;
+        final double[] filterRe;
+        final double[] filterIm;
+
+        Chirp(int n) {
+            int size = Integer.highestOneBit(2 * n - 1);
+            if (size < 2 * n - 1) {
+                size <<= 1;
+            }
+            m = size;
+            cos = new double[n];
+            sin = new double[n];
+            filterRe = new double[m];
+            filterIm = new double[m];
+            for (int k = 0; k < n; k++) {
+                // k^2 mod 2n keeps the angle small and precise
+                long square = ((long) k * k) % (2L * n);
+                double angle = Math.PI * square / n;
+                cos[k] = Math.cos(angle);
+                sin[k] = -Math.sin(angle);
+            }
+            filterRe[0] = cos[0];
+            filterIm[0] = -sin[0];
+            for (int k = 1; k < n; k++) {
+                filterRe[k] = filterRe[m - k] = cos[k];
+                filterIm[k] = filterIm[m - k] = -sin[k];
+            }
+            radix2(filterRe, filterIm);
+        }
+    }
+
+    private static Twiddles twiddles(int n) {
+        Twiddles result = twiddles.get(n);
+        if (result == null) {
+            if (twiddles.size() >= MAX_CACHED_SIZES) {
+                twiddles.clear();
+            }
+            result = new Twiddles(n);
+            twiddles.put(n, result);
+        }
+        return result;
+    }
+
+    private static Chirp chirp(int n) {
+        Chirp result = chirps.get(n);
+        if (result == null) {
+            if (chirps.size() >= MAX_CACHED_SIZES) {
+                chirps.clear();
+            }
+            result = new Chirp(n);
+            chirps.put(n, result);
+        }
+        return result;
+    }
+
+    static boolean isPowerOfTwo(int n) {
+        return n > 0 && (n & (n - 1)) == 0;
+    }
+
+    /**
+     * Computes the forward transform {@code X[k] = sum x[j] exp(-2 pi i j k / n)}
+     * in place.
+     *
+     * @param re the real part
+     * @param im the imaginary part
+     */
+    static void forward(double[] re, double[] im) {
+        int n = re.length;
+        if (n <= 1) {
+            return;
+        }
+        if (isPowerOfTwo(n)) {
+            radix2(re, im);
+        } else {
+            bluestein(re, im);
+        }
+    }
+
+    /**
+     * Computes the inverse transform {@code x[j] = sum X[k] exp(2 pi i j k / n)}
+     * in place. The result is not divided by n.
+     *
+     * @param re the real part
+     * @param im the imaginary part
+     */
+    static void inverse(double[] re, double[] im) {
+        // inverse(x) = conj(forward(conj(x)))
+        for (int i = 0; i < im.length; i++) {
+            im[i] = -im[i];
+        }
+        forward(re, im);
+        for (int i = 0; i < im.length; i++) {
+            im[i] = -im[i];
+        }
+    }
+
+    /**
+     * Computes the forward transform of a real signal. For even sizes,
+     * the signal is packed in a complex signal of half the size, and the
+     * spectrum is unpacked using its symmetry.
+     *
+     * @param data the real signal
+     * @param re the real part of the transform
+     * @param im the imaginary part of the transform
+     */
+    static void forwardReal(double[] data, double[] re, double[] im) {
+        int n = data.length;
+        if (n % 2 != 0 || n < 4) {
+            System.arraycopy(data, 0, re, 0, n);
+            java.util.Arrays.fill(im, 0, n, 0.0);
+            forward(re, im);
+            return;
+        }
+
+        int half = n / 2;
+        double[] zRe = new double[half];
+        double[] zIm = new double[half];
+        for (int k = 0; k < half; k++) {
+            zRe[k] = data[2 * k];
+            zIm[k] = data[2 * k + 1];
+        }
+        forward(zRe, zIm);
+
+        // X[k] = E[k] + exp(-2 pi i k / n) O[k], where
+        // E[k] = (Z[k] + conj(Z[half - k])) / 2 and O[k] = (Z[k] - conj(Z[half - k])) / 2i
+        Twiddles table = twiddles(n);
+        for (int k = 0; k <= half; k++) {
+            int k1 = k % half;
+            int k2 = (half - k) % half;
+            double evenRe = (zRe[k1] + zRe[k2]) / 2;
+            double evenIm = (zIm[k1] - zIm[k2]) / 2;
+            double oddRe = (zIm[k1] + zIm[k2]) / 2;
+            double oddIm = -(zRe[k1] - zRe[k2]) / 2;
+            double cos = table.cos[k];
+            double sin = table.sin[k];
+            re[k] = evenRe + oddRe * cos + oddIm * sin;
+            im[k] = evenIm + oddIm * cos - oddRe * sin;
+        }
+        for (int k = half + 1; k < n; k++) {
+            re[k] = re[n - k];
+            im[k] = -im[n - k];
+        }
+    }
+
+    private static void radix2(double[] re, double[] im) {
+        int n = re.length;
+        int levels = Integer.numberOfTrailingZeros(n);
+
+        // Bit reversal permutation
+        for (int i = 0; i < n; i++) {
+            int j = Integer.reverse(i) >>> (32 - levels);
+            if (j > i) {
+                double temp = re[i];
+                re[i] = re[j];
+                re[j] = temp;
+                temp = im[i];
+                im[i] = im[j];
+                im[j] = temp;
+            }
+        }
+
+        Twiddles table = twiddles(n);
+        double[] cos = table.cos;
+        double[] sin = table.sin;
+        for (int size = 2; size <= n; size *= 2) {
+            int halfSize = size / 2;
+            int step = n / size;
+            for (int i = 0; i < n; i += size) {
+                for (int j = i, k = 0; j < i + halfSize; j++, k += step) {
+                    int l = j + halfSize;
+                    double tRe = re[l] * cos[k] + im[l] * sin[k];
+                    double tIm = im[l] * cos[k] - re[l] * sin[k];
+                    re[l] = re[j] - tRe;
+                    im[l] = im[j] - tIm;
+                    re[j] += tRe;
+                    im[j] += tIm;
+                }
+            }
+        }
+    }
+
+    private static void bluestein(double[] re, double[] im) {
+        int n = re.length;
+        Chirp chirp = chirp(n);
+        int m = chirp.m;
+
+        // a[k] = x[k] * chirp[k], padded with zeros
+        double[] aRe = new double[m];
+        double[] aIm = new double[m];
+        for (int k = 0; k < n; k++) {
+            aRe[k] = re[k] * chirp.cos[k] - im[k] * chirp.sin[k];
+            aIm[k] = re[k] * chirp.sin[k] + im[k] * chirp.cos[k];
+        }
+
+        // Convolution with the conjugate chirp
+        radix2(aRe, aIm);
+        for (int k = 0; k < m; k++) {
+            double temp = aRe[k] * chirp.filterRe[k] - aIm[k] * chirp.filterIm[k];
+            aIm[k] = aRe[k] * chirp.filterIm[k] + aIm[k] * chirp.filterRe[k];
+            aRe[k] = temp;
+        }
+        inverse(aRe, aIm);
+
+        // X[k] = chirp[k] * conv[k] / m
+        for (int k = 0; k < n; k++) {
+            double convRe = aRe[k] / m;
+            double convIm = aIm[k] / m;
+            re[k] = convRe * chirp.cos[k] - convIm * chirp.sin[k];
+            im[k] = convRe * chirp.sin[k] + convIm * chirp.cos[k];
+        }
+    }
+}
@@ -0,0 +1,124 @@
+/**
+ * Copyright (C) 2010-14 diirt developers. See COPYRIGHT.TXT
+ * All rights reserved. Use is subject to license terms. See LICENSE.TXT
+ */
+package org.epics.util.array;
+
+/**
+ * Decides how much a growable buffer (e.g. {@link BufferDouble}) grows when
+ * it runs out of space.
+ *
+ * @author carcassi
+ */
+public abstract class GrowthPolicy {
+
+    /**
+     * The largest array that can be safely allocated.
+     */
+    static final int MAX_ARRAY_SIZE = Integer.MAX_VALUE - 8;
+
+    GrowthPolicy() {
+    }
+
+    /**
+     * Returns the new capacity for a buffer that needs to hold at least
+     * {@code minCapacity} elements.
+     *
+     * @param currentCapacity the current capacity of the buffer
+     * @param minCapacity the capacity needed, larger than the current one
+     * @return the new capacity, at least {@code minCapacity}
+     * @throws IllegalStateException if the buffer cannot grow to the needed capacity
+     */
+    public abstract int newCapacity(int currentCapacity, int minCapacity);
+
+    private static final GrowthPolicy DOUBLING = new GrowthPolicy() {
+        @Override
+        public int newCapacity(int currentCapacity, int minCapacity) {
+            return checkLimit(Math.max(minCapacity, (int) Math.min(2L * currentCapacity, MAX_ARRAY_SIZE)), minCapacity, MAX_ARRAY_SIZE);
+        }
+
+        @Override
+        public String toString() {
+            return "doubling";
+        }
+    };
+
+    /**
+     * The capacity doubles every time the buffer grows. The cost of
+     * copying the data is constant per element added.
+     *
+     * @return the doubling policy
+     */
+    public static GrowthPolicy doubling() {
+        return DOUBLING;
+    }
+
+    /**
+     * The capacity grows by the given number of elements. This wastes
+     * less memory, but the cost of copying the data grows with the size
+     * of the buffer.
+     *
+     * @param increment the number of elements added to the capacity
+     * @return the fixed increment policy
+     */
+    public static GrowthPolicy fixedIncrement(final int increment) {
+        if (increment < 1) {
+            throw new IllegalArgumentException("Increment must be positive (was " + increment + ")");
+        }
+        return new GrowthPolicy() {
+            @Override
+            public int newCapacity(int currentCapacity, int minCapacity) {
+                return checkLimit(Math.max(minCapacity, (int) Math.min((long) currentCapacity + increment, MAX_ARRAY_SIZE)), minCapacity, MAX_ARRAY_SIZE);
+            }
+
+            @Override
+            public String toString() {
+                return "fixedIncrement(" + increment + ")";
+            }
+        };
+    }
+
+    /**
+     * The capacity doubles every time the buffer grows, but never goes
+     * above the given maximum. Adding elements past the maximum fails.
+     *
+     * @param maxCapacity the maximum capacity
+     * @return the capped policy
+     */
+    public static GrowthPolicy capped(int maxCapacity) {
+        return capped(doubling(), maxCapacity);
+    }
+
+    /**
+     * The capacity grows according to the given policy, but never goes
+     * above the given maximum. Adding elements past the maximum fails.
+     *
+     * @param policy the policy used below the maximum
+     * @param maxCapacity the maximum capacity
+     * @return the capped policy
+     */
+    public static GrowthPolicy capped(final GrowthPolicy policy, final int maxCapacity) {
+        if (maxCapacity < 1) {
+            throw new IllegalArgumentException("Maximum capacity must be positive (was " + maxCapacity + ")");
+        }
+        return new GrowthPolicy() {
+            @Override
+            public int newCapacity(int currentCapacity, int minCapacity) {
+                checkLimit(minCapacity, minCapacity, maxCapacity);
+                return Math.min(policy.newCapacity(currentCapacity, minCapacity), maxCapacity);
+            }
+
+            @Override
+            public String toString() {
+                return "capped(" + policy + ", " + maxCapacity + ")";
+            }
+        };
+    }
+
+    private static int checkLimit(int newCapacity, int minCapacity, int maxCapacity) {
+        if (minCapacity > maxCapacity || minCapacity < 0) {
+            throw new IllegalStateException("Buffer can't grow to " + minCapacity + " elements (maximum is " + maxCapacity + ")");
+        }
+        return newCapacity;
+    }
+}
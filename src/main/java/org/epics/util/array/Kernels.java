@@ -0,0 +1,122 @@
+/**
+ * Copyright (C) 2010-14 diirt developers. See COPYRIGHT.TXT
+ * All rights reserved. Use is subject to license terms. See LICENSE.TXT
+ */
+package org.epics.util.array;
+
+/**
+ * The numeric kernels used by the array classes on primitive arrays.
+ * <p>
+ * This is the Java 8 version, which uses plain loops. The multi-release
+ * jar contains a version for newer JDKs that, if the
+ * {@code jdk.incubator.vector} module is available, uses SIMD instructions.
+ * Element-wise kernels give the same results in all versions. The sum
+ * may differ in the last bits, since the vectorized version adds the
+ * elements in a different order.
+ *
+ * @author carcassi
+ */
+class Kernels {
+
+    private Kernels() {
+        // prevent instances
+    }
+
+    /**
+     * Whether the kernels use the vector API.
+     */
+    static boolean isVectorized() {
+        return false;
+    }
+
+    /**
+     * Converts {@code short}s to {@code double}s.
+     */
+    static void widen(short[] src, int srcPos, double[] dest, int destPos, int length) {
+        ScalarKernels.widen(src, srcPos, dest, destPos, length);
+    }
+
+    /**
+     * Converts unsigned {@code short}s to {@code double}s.
+     */
+    static void widenUnsigned(short[] src, int srcPos, double[] dest, int destPos, int length) {
+        ScalarKernels.widenUnsigned(src, srcPos, dest, destPos, length);
+    }
+
+    /**
+     * Converts {@code byte}s to {@code double}s.
+     */
+    static void widen(byte[] src, int srcPos, double[] dest, int destPos, int length) {
+        ScalarKernels.widen(src, srcPos, dest, destPos, length);
+    }
+
+    /**
+     * Converts unsigned {@code byte}s to {@code double}s.
+     */
+    static void widenUnsigned(byte[] src, int srcPos, double[] dest, int destPos, int length) {
+        ScalarKernels.widenUnsigned(src, srcPos, dest, destPos, length);
+    }
+
+    /**
+     * Computes {@code dest[i] = src[i] + offset}.
+     */
+    static void add(double[] src, int srcPos, double offset, double[] dest, int destPos, int length) {
+        ScalarKernels.add(src, srcPos, offset, dest, destPos, length);
+    }
+
+    /**
+     * Computes {@code dest[i] = factor * src[i] + offset}.
+     */
+    static void rescale(double[] src, int srcPos, double factor, double offset, double[] dest, int destPos, int length) {
+        ScalarKernels.rescale(src, srcPos, factor, offset, dest, destPos, length);
+    }
+
+    /**
+     * Computes {@code dest[i] = src1[i] + src2[i]}.
+     */
+    static void add(double[] src1, int pos1, double[] src2, int pos2, double[] dest, int destPos, int length) {
+        ScalarKernels.add(src1, pos1, src2, pos2, dest, destPos, length);
+    }
+
+    /**
+     * Computes {@code dest[i] = src1[i] - src2[i]}.
+     */
+    static void subtract(double[] src1, int pos1, double[] src2, int pos2, double[] dest, int destPos, int length) {
+        ScalarKernels.subtract(src1, pos1, src2, pos2, dest, destPos, length);
+    }
+
+    /**
+     * Computes {@code dest[i] = src1[i] * src2[i]}.
+     */
+    static void multiply(double[] src1, int pos1, double[] src2, int pos2, double[] dest, int destPos, int length) {
+        ScalarKernels.multiply(src1, pos1, src2, pos2, dest, destPos, length);
+    }
+
+    /**
+     * Computes {@code dest[i] = src1[i] / src2[i]}.
+     */
+    static void divide(double[] src1, int pos1, double[] src2, int pos2, double[] dest, int destPos, int length) {
+        ScalarKernels.divide(src1, pos1, src2, pos2, dest, destPos, length);
+    }
+
+    /**
+     * Sums the elements in order.
+     */
+    static double sum(double[] values, int offset, int length) {
+        return ScalarKernels.sum(values, offset, length);
+    }
+
+    /**
+     * Returns the minimum following {@link Math#min(double, double)}, or positive infinity if there are no elements.
+     */
+    static double min(double[] values, int offset, int length) {
+        return ScalarKernels.min(values, offset, length);
+    }
+
+    /**
+     * Returns the maximum following {@link Math#max(double, double)}, or negative infinity if there are no elements.
+     */
+    static double max(double[] values, int offset, int length) {
+        return ScalarKernels.max(values, offset, length);
+    }
+}
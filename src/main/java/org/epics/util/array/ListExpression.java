@@ -0,0 +1,417 @@
+/**
+ * Copyright (C) 2010-14 diirt developers. See COPYRIGHT.TXT
+ * All rights reserved. Use is subject to license terms. See LICENSE.TXT
+ */
+package org.epics.util.array;
+
+/**
+ * A chain of element-wise math operations on lists of numbers that is
+ * evaluated in a single pass.
+ * <p>
+ * The operations in {@link ListMath} return views, so that a chain like
+ * {@code rescale(add(multiply(a, b), c), k, o)} pays one virtual call per
+ * layer per element every time the result is read. An expression, instead,
+ * captures the chain as a tree and evaluates it block by block: each node
+ * runs a tight loop over a small block of doubles that stays in cache, and
+ * the leaves read the data with a dedicated loop for each {@code ArrayXxx}
+ * type. The arithmetic is the same as the one performed by {@link ListMath},
+ * so the result is identical to reading the equivalent chain of views.
+ * <p>
+ * Expressions are immutable and can be evaluated multiple times. The
+ * content of the lists is read at evaluation time. Large expressions
+ * are evaluated in parallel if {@link ParallelExecution} is enabled.
+ *
+ * @author carcassi
+ */
+public abstract class ListExpression {
+
+    /**
+     * Number of elements processed by each node at a time.
+     */
+    static final int BLOCK_SIZE = 1024;
+
+    private final int size;
+    private final int depth;
+
+    ListExpression(int size, int depth) {
+        this.size = size;
+        this.depth = depth;
+    }
+
+    /**
+     * Creates an expression whose value is the given list.
+     *
+     * @param data a list of numbers
+     * @return a new expression
+     */
+    public static ListExpression of(ListNumber data) {
+        return new Leaf(data);
+    }
+
+    /**
+     * The number of elements of the result.
+     *
+     * @return the size of the result
+     */
+    public final int size() {
+        return size;
+    }
+
+    /**
+     * Performs a linear transformation on the data.
+     *
+     * @param factor the multiplicative constant
+     * @param offset the additive constant
+     * @return result[x] = this[x] * factor + offset
+     * @see ListMath#rescale(org.epics.util.array.ListNumber, double, double)
+     */
+    public ListExpression rescale(double factor, double offset) {
+        if (factor == 1.0) {
+            return add(offset);
+        }
+        return new Rescale(this, factor, offset);
+    }
+
+    /**
+     * Performs a linear transformation on the inverse value of the data.
+     *
+     * @param numerator the numerator for each division
+     * @param offset the additive constant
+     * @return result[x] = numerator / this[x] + offset
+     * @see ListMath#inverseRescale(org.epics.util.array.ListNumber, double, double)
+     */
+    public ListExpression inverseRescale(double numerator, double offset) {
+        return new InverseRescale(this, numerator, offset);
+    }
+
+    /**
+     * Raises each value to the same power.
+     *
+     * @param expon the power to raise each value to
+     * @return result[x] = this[x] ** expon
+     * @see ListMath#pow(org.epics.util.array.ListNumber, double)
+     */
+    public ListExpression pow(double expon) {
+        return new Pow(this, expon);
+    }
+
+    /**
+     * Adds a constant to all the elements.
+     *
+     * @param offset the additive constant
+     * @return result[x] = this[x] + offset
+     * @see ListMath#add(org.epics.util.array.ListNumber, double)
+     */
+    public ListExpression add(double offset) {
+        return new Add(this, offset);
+    }
+
+    /**
+     * Adds the elements of the given list.
+     *
+     * @param data a list of numbers of the same size
+     * @return result[x] = this[x] + data[x]
+     */
+    public ListExpression add(ListNumber data) {
+        return add(of(data));
+    }
+
+    /**
+     * Adds the elements of the given expression.
+     *
+     * @param other an expression of the same size
+     * @return result[x] = this[x] + other[x]
+     * @see ListMath#add(org.epics.util.array.ListNumber, org.epics.util.array.ListNumber)
+     */
+    public ListExpression add(ListExpression other) {
+        checkSize(other, "sum");
+        return new Binary(Binary.ADD, this, other);
+    }
+
+    /**
+     * Subtracts the elements of the given list.
+     *
+     * @param data a list of numbers of the same size
+     * @return result[x] = this[x] - data[x]
+     */
+    public ListExpression subtract(ListNumber data) {
+        return subtract(of(data));
+    }
+
+    /**
+     * Subtracts the elements of the given expression.
+     *
+     * @param other an expression of the same size
+     * @return result[x] = this[x] - other[x]
+     * @see ListMath#subtract(org.epics.util.array.ListNumber, org.epics.util.array.ListNumber)
+     */
+    public ListExpression subtract(ListExpression other) {
+        checkSize(other, "subtract");
+        return new Binary(Binary.SUBTRACT, this, other);
+    }
+
+    /**
+     * Multiplies by the elements of the given list.
+     *
+     * @param data a list of numbers of the same size
+     * @return result[x] = this[x] * data[x]
+     */
+    public ListExpression multiply(ListNumber data) {
+        return multiply(of(data));
+    }
+
+    /**
+     * Multiplies by the elements of the given expression.
+     *
+     * @param other an expression of the same size
+     * @return result[x] = this[x] * other[x]
+     * @see ListMath#multiply(org.epics.util.array.ListNumber, org.epics.util.array.ListNumber)
+     */
+    public ListExpression multiply(ListExpression other) {
+        checkSize(other, "multiply");
+        return new Binary(Binary.MULTIPLY, this, other);
+    }
+
+    /**
+     * Divides by the elements of the given list.
+     *
+     * @param data a list of numbers of the same size
+     * @return result[x] = this[x] / data[x]
+     */
+    public ListExpression divide(ListNumber data) {
+        return divide(of(data));
+    }
+
+    /**
+     * Divides by the elements of the given expression.
+     *
+     * @param other an expression of the same size
+     * @return result[x] = this[x] / other[x]
+     * @see ListMath#divide(org.epics.util.array.ListNumber, org.epics.util.array.ListNumber)
+     */
+    public ListExpression divide(ListExpression other) {
+        checkSize(other, "divide");
+        return new Binary(Binary.DIVIDE, this, other);
+    }
+
+    private void checkSize(ListExpression other, String operation) {
+        if (size() != other.size()) {
+            throw new IllegalArgumentException("Can't " + operation + " ListNumbers of different size (" + size() + " - " + other.size() + ")");
+        }
+    }
+
+    /**
+     * Evaluates the expression into a new array.
+     *
+     * @return a new list with the result
+     */
+    public ArrayDouble evaluate() {
+        double[] result = new double[size()];
+        evaluate(result, 0);
+        return CollectionNumbers.toListDouble(result);
+    }
+
+    /**
+     * Evaluates the expression into the given array at the desired position.
+     *
+     * @param dest the destination array
+     * @param destPos starting position in the destination array
+     * @exception IndexOutOfBoundsException if the array is too small to hold
+     *            the result
+     */
+    public void evaluate(double[] dest, int destPos) {
+        if (destPos < 0 || destPos + size() > dest.length) {
+            throw new IndexOutOfBoundsException("Length of target array too small");
+        }
+        ParallelExecution.forEachRange(size(), BLOCK_SIZE, isSplittable(),
+                (fromIndex, toIndex) -> evaluateRange(fromIndex, toIndex, dest, destPos + fromIndex));
+    }
+
+    /**
+     * Whether all the lists in the expression can be read from multiple
+     * threads.
+     */
+    abstract boolean isSplittable();
+
+    /**
+     * Evaluates the elements from {@code fromIndex} (inclusive) to {@code toIndex}
+     * (exclusive), writing them to the array starting at {@code destPos}.
+     */
+    void evaluateRange(int fromIndex, int toIndex, double[] dest, int destPos) {
+        double[][] registers = new double[depth + 1][BLOCK_SIZE];
+        double[] result = registers[0];
+        for (int from = fromIndex; from < toIndex; from += BLOCK_SIZE) {
+            int length = Math.min(BLOCK_SIZE, toIndex - from);
+            evaluateBlock(from, length, registers, 0);
+            System.arraycopy(result, 0, dest, destPos + from - fromIndex, length);
+        }
+    }
+
+    /**
+     * Computes the elements from {@code from} to {@code from + length} and
+     * writes them at the beginning of {@code registers[register]}. The node
+     * can use the registers after the given one as scratch space.
+     */
+    abstract void evaluateBlock(int from, int length, double[][] registers, int register);
+
+    private static class Leaf extends ListExpression {
+
+        private final ListNumber data;
+
+        Leaf(ListNumber data) {
+            super(data.size(), 0);
+            this.data = data;
+        }
+
+        @Override
+        void evaluateBlock(int from, int length, double[][] registers, int register) {
+            CollectionNumbers.arrayCopy(data, from, registers[register], 0, length);
+        }
+
+        @Override
+        boolean isSplittable() {
+            return ParallelExecution.isSplittable(data);
+        }
+    }
+
+    private static abstract class Unary extends ListExpression {
+
+        final ListExpression arg;
+
+        Unary(ListExpression arg) {
+            super(arg.size(), arg.depth);
+            this.arg = arg;
+        }
+
+        @Override
+        boolean isSplittable() {
+            return arg.isSplittable();
+        }
+    }
+
+    private static class Add extends Unary {
+
+        private final double offset;
+
+        Add(ListExpression arg, double offset) {
+            super(arg);
+            this.offset = offset;
+        }
+
+        @Override
+        void evaluateBlock(int from, int length, double[][] registers, int register) {
+            arg.evaluateBlock(from, length, registers, register);
+            double[] values = registers[register];
+            Kernels.add(values, 0, offset, values, 0, length);
+        }
+    }
+
+    private static class Rescale extends Unary {
+
+        private final double factor;
+        private final double offset;
+
+        Rescale(ListExpression arg, double factor, double offset) {
+            super(arg);
+            this.factor = factor;
+            this.offset = offset;
+        }
+
+        @Override
+        void evaluateBlock(int from, int length, double[][] registers, int register) {
+            arg.evaluateBlock(from, length, registers, register);
+            double[] values = registers[register];
+            Kernels.rescale(values, 0, factor, offset, values, 0, length);
+        }
+    }
+
+    private static class InverseRescale extends Unary {
+
+        private final double numerator;
+        private final double offset;
+
+        InverseRescale(ListExpression arg, double numerator, double offset) {
+            super(arg);
+            this.numerator = numerator;
+            this.offset = offset;
+        }
+
+        @Override
+        void evaluateBlock(int from, int length, double[][] registers, int register) {
+            arg.evaluateBlock(from, length, registers, register);
+            double[] values = registers[register];
+            for (int i = 0; i < length; i++) {
+                values[i] = numerator / values[i] + offset;
+            }
+        }
+    }
+
+    private static class Pow extends Unary {
+
+        private final double expon;
+
+        Pow(ListExpression arg, double expon) {
+            super(arg);
+            this.expon = expon;
+        }
+
+        @Override
+        void evaluateBlock(int from, int length, double[][] registers, int register) {
+            arg.evaluateBlock(from, length, registers, register);
+            double[] values = registers[register];
+            for (int i = 0; i < length; i++) {
+                values[i] = Math.pow(values[i], expon);
+            }
+        }
+    }
+
+    private static class Binary extends ListExpression {
+
+        static final int ADD = 0;
+        static final int SUBTRACT = 1;
+        static final int MULTIPLY = 2;
+        static final int DIVIDE = 3;
+
+        private final int operation;
+        private final ListExpression left;
+        private final ListExpression right;
+
+        Binary(int operation, ListExpression left, ListExpression right) {
+            // The left operand is computed in place, the right one in the
+            // next register: the tree needs one more register on the right
+            super(left.size(), Math.max(left.depth, right.depth + 1));
+            this.operation = operation;
+            this.left = left;
+            this.right = right;
+        }
+
+        @Override
+        boolean isSplittable() {
+            return left.isSplittable() && right.isSplittable();
+        }
+
+        @Override
+        void evaluateBlock(int from, int length, double[][] registers, int register) {
+            left.evaluateBlock(from, length, registers, register);
+            right.evaluateBlock(from, length, registers, register + 1);
+            double[] values = registers[register];
+            double[] others = registers[register + 1];
+            switch (operation) {
+                case ADD:
+                    Kernels.add(values, 0, others, 0, values, 0, length);
+                    break;
+                case SUBTRACT:
+                    Kernels.subtract(values, 0, others, 0, values, 0, length);
+                    break;
+                case MULTIPLY:
+                    Kernels.multiply(values, 0, others, 0, values, 0, length);
+                    break;
+                case DIVIDE:
+                    Kernels.divide(values, 0, others, 0, values, 0, length);
+                    break;
+                default:
+                    throw new IllegalStateException("Unknown operation " + operation);
+            }
+        }
+    }
+}
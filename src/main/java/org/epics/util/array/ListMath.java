@@ -238,7 +238,414 @@ public class ListMath {
     }
 
     /**
-     * XXX: This is just a prototype
+     * Performs a linear transformation on the data, writing the result
+     * into the given list. The destination must be writable and at least
+     * as big as the data.
+     *
+     * @param data a list of numbers
+     * @param factor the multiplicative constant
+     * @param offset the additive constant
+     * @param dest the destination list
+     * @return the destination list
+     * @see #rescale(org.epics.util.array.ListNumber, double, double)
+     */
+    public static ArrayDouble rescaleInto(ListNumber data, double factor, double offset, ArrayDouble dest) {
+        checkDestination(data.size(), dest);
+        rescaleInto(data, factor, offset, dest.wrappedArray(), dest.startIndex());
+        return dest;
+    }
+
+    /**
+     * Performs a linear transformation on the data, writing the result
+     * into the given array at the desired position.
+     *
+     * @param data a list of numbers
+     * @param factor the multiplicative constant
+     * @param offset the additive constant
+     * @param dest the destination array
+     * @param destPos starting position in the destination array
+     * @see #rescale(org.epics.util.array.ListNumber, double, double)
+     */
+    public static void rescaleInto(ListNumber data, double factor, double offset, double[] dest, int destPos) {
+        checkDestination(data.size(), dest, destPos);
+        if (factor == 1.0) {
+            addInto(data, offset, dest, destPos);
+            return;
+        }
+        ParallelExecution.forEachRange(data.size(), BLOCK_SIZE, ParallelExecution.isSplittable(data),
+                (fromIndex, toIndex) -> rescaleRange(data, factor, offset, fromIndex, toIndex, dest, destPos));
+    }
+
+    private static void rescaleRange(ListNumber data, double factor, double offset, int fromIndex, int toIndex, double[] dest, int destPos) {
+        if (data instanceof ArrayDouble) {
+            ArrayDouble array = (ArrayDouble) data;
+            Kernels.rescale(array.wrappedArray(), array.startIndex() + fromIndex, factor, offset, dest, destPos + fromIndex, toIndex - fromIndex);
+        } else {
+            for (int from = fromIndex; from < toIndex; from += BLOCK_SIZE) {
+                int start = destPos + from;
+                int length = Math.min(BLOCK_SIZE, toIndex - from);
+                CollectionNumbers.arrayCopy(data, from, dest, start, length);
+                Kernels.rescale(dest, start, factor, offset, dest, start, length);
+            }
+        }
+    }
+
+    /**
+     * Adds a constant to all elements, writing the result into the given list.
+     * The destination must be writable and at least as big as the data.
+     *
+     * @param data a list of numbers
+     * @param offset the additive constant
+     * @param dest the destination list
+     * @return the destination list
+     * @see #add(org.epics.util.array.ListNumber, double)
+     */
+    public static ArrayDouble addInto(ListNumber data, double offset, ArrayDouble dest) {
+        checkDestination(data.size(), dest);
+        addInto(data, offset, dest.wrappedArray(), dest.startIndex());
+        return dest;
+    }
+
+    /**
+     * Adds a constant to all elements, writing the result into the given
+     * array at the desired position.
+     *
+     * @param data a list of numbers
+     * @param offset the additive constant
+     * @param dest the destination array
+     * @param destPos starting position in the destination array
+     * @see #add(org.epics.util.array.ListNumber, double)
+     */
+    public static void addInto(ListNumber data, double offset, double[] dest, int destPos) {
+        checkDestination(data.size(), dest, destPos);
+        ParallelExecution.forEachRange(data.size(), BLOCK_SIZE, ParallelExecution.isSplittable(data),
+                (fromIndex, toIndex) -> addRange(data, offset, fromIndex, toIndex, dest, destPos));
+    }
+
+    private static void addRange(ListNumber data, double offset, int fromIndex, int toIndex, double[] dest, int destPos) {
+        if (data instanceof ArrayDouble) {
+            ArrayDouble array = (ArrayDouble) data;
+            Kernels.add(array.wrappedArray(), array.startIndex() + fromIndex, offset, dest, destPos + fromIndex, toIndex - fromIndex);
+        } else {
+            for (int from = fromIndex; from < toIndex; from += BLOCK_SIZE) {
+                int start = destPos + from;
+                int length = Math.min(BLOCK_SIZE, toIndex - from);
+                CollectionNumbers.arrayCopy(data, from, dest, start, length);
+                Kernels.add(dest, start, offset, dest, start, length);
+            }
+        }
+    }
+
+    /**
+     * Sums the elements of the two lists at the same index, writing the
+     * result into the given list. The lists have to match in size, and the
+     * destination must be writable and at least as big.
+     *
+     * @param data1 a list of numbers
+     * @param data2 another list of numbers
+     * @param dest the destination list
+     * @return the destination list
+     * @see #add(org.epics.util.array.ListNumber, org.epics.util.array.ListNumber)
+     */
+    public static ArrayDouble addInto(ListNumber data1, ListNumber data2, ArrayDouble dest) {
+        checkDestination(data1.size(), dest);
+        addInto(data1, data2, dest.wrappedArray(), dest.startIndex());
+        return dest;
+    }
+
+    /**
+     * Sums the elements of the two lists at the same index, writing the
+     * result into the given array at the desired position.
+     *
+     * @param data1 a list of numbers
+     * @param data2 another list of numbers
+     * @param dest the destination array
+     * @param destPos starting position in the destination array
+     * @see #add(org.epics.util.array.ListNumber, org.epics.util.array.ListNumber)
+     */
+    public static void addInto(ListNumber data1, ListNumber data2, double[] dest, int destPos) {
+        if (data1.size() != data2.size())
+            throw new IllegalArgumentException("Can't sum ListNumbers of different size (" + data1.size() + " - " + data2.size() + ")");
+        binaryInto(ADD, data1, data2, dest, destPos);
+    }
+
+    /**
+     * Subtracts the elements of the two lists at the same index, writing the
+     * result into the given list. The lists have to match in size, and the
+     * destination must be writable and at least as big.
+     *
+     * @param data1 a list of numbers
+     * @param data2 another list of numbers
+     * @param dest the destination list
+     * @return the destination list
+     * @see #subtract(org.epics.util.array.ListNumber, org.epics.util.array.ListNumber)
+     */
+    public static ArrayDouble subtractInto(ListNumber data1, ListNumber data2, ArrayDouble dest) {
+        checkDestination(data1.size(), dest);
+        subtractInto(data1, data2, dest.wrappedArray(), dest.startIndex());
+        return dest;
+    }
+
+    /**
+     * Subtracts the elements of the two lists at the same index, writing the
+     * result into the given array at the desired position.
+     *
+     * @param data1 a list of numbers
+     * @param data2 another list of numbers
+     * @param dest the destination array
+     * @param destPos starting position in the destination array
+     * @see #subtract(org.epics.util.array.ListNumber, org.epics.util.array.ListNumber)
+     */
+    public static void subtractInto(ListNumber data1, ListNumber data2, double[] dest, int destPos) {
+        if (data1.size() != data2.size())
+            throw new IllegalArgumentException("Can't subtract ListNumbers of different size (" + data1.size() + " - " + data2.size() + ")");
+        binaryInto(SUBTRACT, data1, data2, dest, destPos);
+    }
+
+    /**
+     * Multiplies the elements of the two lists at the same index, writing the
+     * result into the given list. The lists have to match in size, and the
+     * destination must be writable and at least as big.
+     *
+     * @param data1 a list of numbers
+     * @param data2 another list of numbers
+     * @param dest the destination list
+     * @return the destination list
+     * @see #multiply(org.epics.util.array.ListNumber, org.epics.util.array.ListNumber)
+     */
+    public static ArrayDouble multiplyInto(ListNumber data1, ListNumber data2, ArrayDouble dest) {
+        checkDestination(data1.size(), dest);
+        multiplyInto(data1, data2, dest.wrappedArray(), dest.startIndex());
+        return dest;
+    }
+
+    /**
+     * Multiplies the elements of the two lists at the same index, writing the
+     * result into the given array at the desired position.
+     *
+     * @param data1 a list of numbers
+     * @param data2 another list of numbers
+     * @param dest the destination array
+     * @param destPos starting position in the destination array
+     * @see #multiply(org.epics.util.array.ListNumber, org.epics.util.array.ListNumber)
+     */
+    public static void multiplyInto(ListNumber data1, ListNumber data2, double[] dest, int destPos) {
+        if (data1.size() != data2.size())
+            throw new IllegalArgumentException(
+                        "Can't do element-wise mult on ListNumbers of different size ("
+                     + data1.size() + " - " + data2.size() + ")");
+        binaryInto(MULTIPLY, data1, data2, dest, destPos);
+    }
+
+    /**
+     * Divides the elements of the two lists at the same index, writing the
+     * result into the given list. The lists have to match in size, and the
+     * destination must be writable and at least as big.
+     *
+     * @param data1 a list of numbers
+     * @param data2 another list of numbers
+     * @param dest the destination list
+     * @return the destination list
+     * @see #divide(org.epics.util.array.ListNumber, org.epics.util.array.ListNumber)
+     */
+    public static ArrayDouble divideInto(ListNumber data1, ListNumber data2, ArrayDouble dest) {
+        checkDestination(data1.size(), dest);
+        divideInto(data1, data2, dest.wrappedArray(), dest.startIndex());
+        return dest;
+    }
+
+    /**
+     * Divides the elements of the two lists at the same index, writing the
+     * result into the given array at the desired position.
+     *
+     * @param data1 a list of numbers
+     * @param data2 another list of numbers
+     * @param dest the destination array
+     * @param destPos starting position in the destination array
+     * @see #divide(org.epics.util.array.ListNumber, org.epics.util.array.ListNumber)
+     */
+    public static void divideInto(ListNumber data1, ListNumber data2, double[] dest, int destPos) {
+        if (data1.size() != data2.size())
+            throw new IllegalArgumentException(
+                        "Can't do element-wise division on ListNumbers of different size ("
+                     + data1.size() + " - " + data2.size() + ")");
+        binaryInto(DIVIDE, data1, data2, dest, destPos);
+    }
+
+    private static final int BLOCK_SIZE = ListExpression.BLOCK_SIZE;
+    private static final int ADD = 0;
+    private static final int SUBTRACT = 1;
+    private static final int MULTIPLY = 2;
+    private static final int DIVIDE = 3;
+
+    private static void checkDestination(int size, ArrayDouble dest) {
+        if (dest.isReadOnly()) {
+            throw new UnsupportedOperationException("Read only list.");
+        }
+        if (dest.size() < size) {
+            throw new IndexOutOfBoundsException("Destination too small (" + dest.size() + " - " + size + ")");
+        }
+    }
+
+    private static void checkDestination(int size, double[] dest, int destPos) {
+        if (destPos < 0 || destPos + size > dest.length) {
+            throw new IndexOutOfBoundsException("Length of target array too small");
+        }
+    }
+
+    private static void binaryInto(int operation, ListNumber data1, ListNumber data2, double[] dest, int destPos) {
+        int size = data1.size();
+        checkDestination(size, dest, destPos);
+        ParallelExecution.forEachRange(size, BLOCK_SIZE,
+                ParallelExecution.isSplittable(data1) && ParallelExecution.isSplittable(data2),
+                (fromIndex, toIndex) -> binaryRange(operation, data1, data2, fromIndex, toIndex, dest, destPos));
+    }
+
+    private static void binaryRange(int operation, ListNumber data1, ListNumber data2, int fromIndex, int toIndex, double[] dest, int destPos) {
+        if (data1 instanceof ArrayDouble && data2 instanceof ArrayDouble) {
+            ArrayDouble array1 = (ArrayDouble) data1;
+            ArrayDouble array2 = (ArrayDouble) data2;
+            combine(operation, array1.wrappedArray(), array1.startIndex() + fromIndex,
+                    array2.wrappedArray(), array2.startIndex() + fromIndex, dest, destPos + fromIndex, toIndex - fromIndex);
+        } else {
+            // Converts a block of each argument to double, the first directly
+            // in the destination, and combines them while still in cache.
+            // The second is read first, in case it is the destination itself.
+            double[] block = new double[Math.min(BLOCK_SIZE, toIndex - fromIndex)];
+            for (int from = fromIndex; from < toIndex; from += BLOCK_SIZE) {
+                int length = Math.min(BLOCK_SIZE, toIndex - from);
+                CollectionNumbers.arrayCopy(data2, from, block, 0, length);
+                CollectionNumbers.arrayCopy(data1, from, dest, destPos + from, length);
+                combine(operation, dest, destPos + from, block, 0, dest, destPos + from, length);
+            }
+        }
+    }
+
+    private static void combine(int operation, double[] values1, int pos1, double[] values2, int pos2, double[] dest, int destPos, int length) {
+        switch (operation) {
+            case ADD:
+                Kernels.add(values1, pos1, values2, pos2, dest, destPos, length);
+                break;
+            case SUBTRACT:
+                Kernels.subtract(values1, pos1, values2, pos2, dest, destPos, length);
+                break;
+            case MULTIPLY:
+                Kernels.multiply(values1, pos1, values2, pos2, dest, destPos, length);
+                break;
+            case DIVIDE:
+                Kernels.divide(values1, pos1, values2, pos2, dest, destPos, length);
+                break;
+            default:
+                throw new IllegalStateException("Unknown operation " + operation);
+        }
+    }
+
+    /**
+     * Returns the sum of all the elements.
+     * <p>
+     * The elements are summed in blocks of fixed size, and the partial sums
+     * are then added in order. This gives the same result regardless of
+     * whether the computation is split across threads by {@link ParallelExecution}.
+     *
+     * @param data a list of numbers
+     * @return the sum of the elements, or 0 for an empty list
+     */
+    public static double sum(final ListNumber data) {
+        double[] partials = reduceBlocks(data, SUM);
+        double sum = 0;
+        for (int i = 0; i < partials.length; i++) {
+            sum += partials[i];
+        }
+        return sum;
+    }
+
+    /**
+     * Returns the smallest element, following the semantic of
+     * {@link Math#min(double, double)}: if one of the elements is NaN,
+     * the result is NaN.
+     *
+     * @param data a list of numbers
+     * @return the minimum, or NaN for an empty list
+     */
+    public static double min(final ListNumber data) {
+        double[] partials = reduceBlocks(data, MIN);
+        double min = partials.length == 0 ? Double.NaN : Double.POSITIVE_INFINITY;
+        for (int i = 0; i < partials.length; i++) {
+            min = Math.min(min, partials[i]);
+        }
+        return min;
+    }
+
+    /**
+     * Returns the largest element, following the semantic of
+     * {@link Math#max(double, double)}: if one of the elements is NaN,
+     * the result is NaN.
+     *
+     * @param data a list of numbers
+     * @return the maximum, or NaN for an empty list
+     */
+    public static double max(final ListNumber data) {
+        double[] partials = reduceBlocks(data, MAX);
+        double max = partials.length == 0 ? Double.NaN : Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < partials.length; i++) {
+            max = Math.max(max, partials[i]);
+        }
+        return max;
+    }
+
+    private static final int SUM = 0;
+    private static final int MIN = 1;
+    private static final int MAX = 2;
+
+    /**
+     * Computes the reduction of each block of {@code BLOCK_SIZE} elements.
+     */
+    private static double[] reduceBlocks(final ListNumber data, final int operation) {
+        final int size = data.size();
+        // Computed in long: rounding up would overflow near Integer.MAX_VALUE
+        final double[] partials = new double[(int) (((long) size + BLOCK_SIZE - 1) / BLOCK_SIZE)];
+        ParallelExecution.forEachRange(partials.length, size, 1, ParallelExecution.isSplittable(data), (fromBlock, toBlock) -> {
+            double[] block = new double[BLOCK_SIZE];
+            for (int b = fromBlock; b < toBlock; b++) {
+                int from = b * BLOCK_SIZE;
+                int length = Math.min(BLOCK_SIZE, size - from);
+                double[] values;
+                int offset;
+                if (data instanceof ArrayDouble) {
+                    values = ((ArrayDouble) data).wrappedArray();
+                    offset = ((ArrayDouble) data).startIndex() + from;
+                } else {
+                    CollectionNumbers.arrayCopy(data, from, block, 0, length);
+                    values = block;
+                    offset = 0;
+                }
+                partials[b] = reduce(operation, values, offset, length);
+            }
+        });
+        return partials;
+    }
+
+    private static double reduce(int operation, double[] values, int offset, int length) {
+        switch (operation) {
+            case SUM:
+                return Kernels.sum(values, offset, length);
+            case MIN:
+                return Kernels.min(values, offset, length);
+            case MAX:
+                return Kernels.max(values, offset, length);
+            default:
+                throw new IllegalStateException("Unknown operation " + operation);
+        }
+    }
+
+    /**
+     * Computes the discrete Fourier transform, divided by the number of
+     * elements.
+     * <p>
+     * The result is {@code X[k] = 1/n sum x[j] exp(-2 pi i j k / n)}. It is
+     * computed with {@link #fft(org.epics.util.array.ListNumber, org.epics.util.array.ListNumber) },
+     * which does not normalize the result.
+     *
      * @param x real part
      * @param y imaginary part
      * @return the real and imaginary part of the transform
@@ -248,30 +655,79 @@ public class ListMath {
             throw new IllegalArgumentException("Real and imaginary part must be of the same length");
         }
 
-        double cosarg,sinarg;
+        double[] resX = x.toArray(new double[x.size()]);
+        double[] resY = y.toArray(new double[y.size()]);
+        FourierTransform.forward(resX, resY);
+        double size = x.size();
+        for (int i = 0; i < resX.length; i++) {
+            resX[i] = resX[i] / size;
+            resY[i] = resY[i] / size;
+        }
+        return Arrays.<ListNumber>asList(unmodifiableList(toListDouble(resX)), unmodifiableList(toListDouble(resY)));
+    }
+
+    /**
+     * Computes the fast Fourier transform of a complex signal.
+     * <p>
+     * The result is {@code X[k] = sum x[j] exp(-2 pi i j k / n)}, with no
+     * normalization. Power of two sizes use a radix-2 algorithm, while
+     * other sizes use Bluestein's algorithm: both are O(n log n).
+     *
+     * @param x real part
+     * @param y imaginary part
+     * @return the real and imaginary part of the transform
+     */
+    public static List<ListNumber> fft(ListNumber x, ListNumber y) {
+        if (x.size() != y.size()) {
+            throw new IllegalArgumentException("Real and imaginary part must be of the same length");
+        }
+
+        double[] resX = x.toArray(new double[x.size()]);
+        double[] resY = y.toArray(new double[y.size()]);
+        FourierTransform.forward(resX, resY);
+        return Arrays.<ListNumber>asList(unmodifiableList(toListDouble(resX)), unmodifiableList(toListDouble(resY)));
+    }
+
+    /**
+     * Computes the fast Fourier transform of a real signal. This is
+     * equivalent to {@link #fft(org.epics.util.array.ListNumber, org.epics.util.array.ListNumber) }
+     * with an imaginary part of all zeros, but for even sizes it
+     * computes a complex transform of half the size.
+     *
+     * @param x the real signal
+     * @return the real and imaginary part of the transform
+     */
+    public static List<ListNumber> fft(ListNumber x) {
+        double[] data = x.toArray(new double[x.size()]);
         double[] resX = new double[x.size()];
         double[] resY = new double[x.size()];
-        int direction = 1; // -1 would be inverse
-        double size = x.size();
+        FourierTransform.forwardReal(data, resX, resY);
+        return Arrays.<ListNumber>asList(unmodifiableList(toListDouble(resX)), unmodifiableList(toListDouble(resY)));
+    }
 
-        for (int i = 0; i < x.size(); i++) {
-            double arg = - direction * 2.0 * Math.PI * (double) i / size;
-            for (int k = 0; k < x.size(); k++) {
-                cosarg = Math.cos(k * arg);
-                sinarg = Math.sin(k * arg);
-                resX[i] += (x.getDouble(k) * cosarg - y.getDouble(k) * sinarg);
-                resY[i] += (x.getDouble(k) * sinarg + y.getDouble(k) * cosarg);
-            }
+    /**
+     * Computes the inverse fast Fourier transform.
+     * <p>
+     * The result is {@code x[j] = 1/n sum X[k] exp(2 pi i j k / n)}, so that
+     * it reverts {@link #fft(org.epics.util.array.ListNumber, org.epics.util.array.ListNumber) }.
+     *
+     * @param x real part
+     * @param y imaginary part
+     * @return the real and imaginary part of the inverse transform
+     */
+    public static List<ListNumber> inverseFft(ListNumber x, ListNumber y) {
+        if (x.size() != y.size()) {
+            throw new IllegalArgumentException("Real and imaginary part must be of the same length");
         }
 
-        if (direction == 1) {
-            for (int i = 0; i < x.size(); i++) {
-                resX[i] = resX[i] / size;
-                resY[i] = resY[i] / size;
-            }
-            return Arrays.<ListNumber>asList(unmodifiableList(toListDouble(resX)), unmodifiableList(toListDouble(resY)));
-        } else {
-            return Arrays.<ListNumber>asList(unmodifiableList(toListDouble(resY)), unmodifiableList(toListDouble(resX)));
+        double[] resX = x.toArray(new double[x.size()]);
+        double[] resY = y.toArray(new double[y.size()]);
+        FourierTransform.inverse(resX, resY);
+        double size = x.size();
+        for (int i = 0; i < resX.length; i++) {
+            resX[i] = resX[i] / size;
+            resY[i] = resY[i] / size;
         }
+        return Arrays.<ListNumber>asList(unmodifiableList(toListDouble(resX)), unmodifiableList(toListDouble(resY)));
     }
 }
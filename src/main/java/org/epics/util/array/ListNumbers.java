@@ -4,6 +4,9 @@
  */
 package org.epics.util.array;
 
+import java.util.Arrays;
+import org.epics.util.number.UnsignedConversions;
+
 /**
  * Utilities for manipulating ListNumbers.
  *
@@ -28,6 +31,14 @@ public class ListNumbers {
             return view;
         }
 
+        ListProperties properties = ListProperties.cached(values);
+        if (properties != null) {
+            if (!properties.isNonDecreasing()) {
+                SortedListView.quicksort(view);
+            }
+            return view;
+        }
+
         double value = values.getDouble(0);
         for (int i = 1; i < values.size(); i++) {
             double newValue = values.getDouble(i);
@@ -185,9 +196,13 @@ public class ListNumbers {
      * @return true if the elements of the list are equally spaced
      */
     public static boolean isLinear(ListNumber listNumber) {
-        if (listNumber instanceof LinearListDouble || listNumber instanceof LinearListDoubleFromRange) {
+        if (isLinearInstance(listNumber)) {
             return true;
         }
+        ListProperties properties = ListProperties.cached(listNumber);
+        if (properties != null && listNumber.size() != 0) {
+            return properties.isLinear();
+        }
         ListDouble diff = ListMath.subtract(listNumber, linearListFromRange(listNumber.getDouble(0), listNumber.getDouble(listNumber.size() - 1), listNumber.size()));
         for (int i = 0; i < diff.size(); i++) {
             if (Math.abs(diff.getDouble(i)) > Math.ulp(listNumber.getDouble(i))) {
@@ -197,6 +212,20 @@ public class ListNumbers {
         return true;
     }
 
+    /**
+     * Whether the list was created with {@link #linearList(double, double, int) }
+     * or {@link #linearListFromRange(double, double, int) }, so that its elements
+     * are computed and can be accessed from multiple threads. Unlike
+     * {@link #isLinear(org.epics.util.array.ListNumber) }, this check
+     * takes constant time.
+     *
+     * @param listNumber a list number
+     * @return true if the list is one of the computed linear lists
+     */
+    public static boolean isLinearInstance(ListNumber listNumber) {
+        return listNumber instanceof LinearListDouble || listNumber instanceof LinearListDoubleFromRange;
+    }
+
     private static class LinearListDoubleFromRange extends ListDouble {
 
         private final int size;
@@ -270,10 +299,305 @@ public class ListNumbers {
             return new ListView.Short((ListShort) list, indexes);
         } else if (list instanceof ListByte) {
             return new ListView.Byte((ListByte) list, indexes);
+        } else if (list instanceof ListULong) {
+            return new ListView.ULong((ListULong) list, indexes);
+        } else if (list instanceof ListUInteger) {
+            return new ListView.UInt((ListUInteger) list, indexes);
+        } else if (list instanceof ListUShort) {
+            return new ListView.UShort((ListUShort) list, indexes);
+        } else if (list instanceof ListUByte) {
+            return new ListView.UByte((ListUByte) list, indexes);
+        }
+        throw new UnsupportedOperationException("Not yet supported");
+    }
+
+    /**
+     * Copies the elements of the list at the given indexes to the array,
+     * converted to doubles. This is the same as copying
+     * {@code listView(list, indexes)}, but the elements are read
+     * directly from the array if the list is one of the Array* classes.
+     *
+     * @param list a numeric list
+     * @param indexes the indexes of the elements to copy
+     * @param dest the destination array
+     * @param destPos the first position to write in the array
+     * @throws IndexOutOfBoundsException if an index is out of the list, or
+     *         the elements do not fit in the array
+     */
+    public static void gather(ListNumber list, ListInteger indexes, double[] dest, int destPos) {
+        int length = indexes.size();
+        if (destPos < 0 || destPos + length > dest.length) {
+            throw new IndexOutOfBoundsException("Position: " + destPos + ", Elements: " + length + ", Array length: " + dest.length);
+        }
+        int[] idx = indexArray(indexes);
+        int idxStart = indexStart(indexes);
+        int size = list.size();
+        if (list instanceof ArrayDouble) {
+            ArrayDouble array = (ArrayDouble) list;
+            double[] data = array.wrappedArray();
+            int offset = array.startIndex();
+            for (int i = 0; i < length; i++) {
+                dest[destPos + i] = data[offset + checkIndex(idx[idxStart + i], size)];
+            }
+        } else if (list instanceof ArrayFloat) {
+            ArrayFloat array = (ArrayFloat) list;
+            float[] data = array.wrappedArray();
+            int offset = array.startIndex();
+            for (int i = 0; i < length; i++) {
+                dest[destPos + i] = data[offset + checkIndex(idx[idxStart + i], size)];
+            }
+        } else if (list instanceof ArrayLong) {
+            ArrayLong array = (ArrayLong) list;
+            long[] data = array.wrappedArray();
+            int offset = array.startIndex();
+            for (int i = 0; i < length; i++) {
+                dest[destPos + i] = data[offset + checkIndex(idx[idxStart + i], size)];
+            }
+        } else if (list instanceof ArrayInteger) {
+            ArrayInteger array = (ArrayInteger) list;
+            int[] data = array.wrappedArray();
+            int offset = array.startIndex();
+            for (int i = 0; i < length; i++) {
+                dest[destPos + i] = data[offset + checkIndex(idx[idxStart + i], size)];
+            }
+        } else if (list instanceof ArrayShort) {
+            ArrayShort array = (ArrayShort) list;
+            short[] data = array.wrappedArray();
+            int offset = array.startIndex();
+            for (int i = 0; i < length; i++) {
+                dest[destPos + i] = data[offset + checkIndex(idx[idxStart + i], size)];
+            }
+        } else if (list instanceof ArrayByte) {
+            ArrayByte array = (ArrayByte) list;
+            byte[] data = array.wrappedArray();
+            int offset = array.startIndex();
+            for (int i = 0; i < length; i++) {
+                dest[destPos + i] = data[offset + checkIndex(idx[idxStart + i], size)];
+            }
+        } else if (list instanceof ArrayULong) {
+            ArrayULong array = (ArrayULong) list;
+            long[] data = array.wrappedArray();
+            int offset = array.startIndex();
+            for (int i = 0; i < length; i++) {
+                dest[destPos + i] = UnsignedConversions.toDouble(data[offset + checkIndex(idx[idxStart + i], size)]);
+            }
+        } else if (list instanceof ArrayUInteger) {
+            ArrayUInteger array = (ArrayUInteger) list;
+            int[] data = array.wrappedArray();
+            int offset = array.startIndex();
+            for (int i = 0; i < length; i++) {
+                dest[destPos + i] = data[offset + checkIndex(idx[idxStart + i], size)] & 0xffffffffL;
+            }
+        } else if (list instanceof ArrayUShort) {
+            ArrayUShort array = (ArrayUShort) list;
+            short[] data = array.wrappedArray();
+            int offset = array.startIndex();
+            for (int i = 0; i < length; i++) {
+                dest[destPos + i] = data[offset + checkIndex(idx[idxStart + i], size)] & 0xffff;
+            }
+        } else if (list instanceof ArrayUByte) {
+            ArrayUByte array = (ArrayUByte) list;
+            byte[] data = array.wrappedArray();
+            int offset = array.startIndex();
+            for (int i = 0; i < length; i++) {
+                dest[destPos + i] = data[offset + checkIndex(idx[idxStart + i], size)] & 0xff;
+            }
+        } else {
+            for (int i = 0; i < length; i++) {
+                dest[destPos + i] = list.getDouble(idx[idxStart + i]);
+            }
+        }
+    }
+
+    /**
+     * Changes the elements of the list at the given indexes to the values
+     * of the array, converted to the type of the list. This is the same as
+     * setting the elements of {@code listView(list, indexes)}, but the elements
+     * are written directly to the array if the list is one of
+     * the Array* classes.
+     *
+     * @param list a numeric list
+     * @param indexes the indexes of the elements to change
+     * @param src the source array
+     * @param srcPos the first position to read in the array
+     * @throws IndexOutOfBoundsException if an index is out of the list, or
+     *         the elements are not in the array
+     * @throws UnsupportedOperationException if the list is read only
+     */
+    public static void scatter(ListNumber list, ListInteger indexes, double[] src, int srcPos) {
+        int length = indexes.size();
+        if (srcPos < 0 || srcPos + length > src.length) {
+            throw new IndexOutOfBoundsException("Position: " + srcPos + ", Elements: " + length + ", Array length: " + src.length);
+        }
+        int[] idx = indexArray(indexes);
+        int idxStart = indexStart(indexes);
+        int size = list.size();
+        if (list instanceof ArrayDouble && !((ArrayDouble) list).isReadOnly()) {
+            ArrayDouble array = (ArrayDouble) list;
+            double[] data = array.wrappedArray();
+            int offset = array.startIndex();
+            for (int i = 0; i < length; i++) {
+                data[offset + checkIndex(idx[idxStart + i], size)] = src[srcPos + i];
+            }
+        } else if (list instanceof ArrayFloat && !((ArrayFloat) list).isReadOnly()) {
+            ArrayFloat array = (ArrayFloat) list;
+            float[] data = array.wrappedArray();
+            int offset = array.startIndex();
+            for (int i = 0; i < length; i++) {
+                data[offset + checkIndex(idx[idxStart + i], size)] = (float) src[srcPos + i];
+            }
+        } else if (list instanceof ArrayLong && !((ArrayLong) list).isReadOnly()) {
+            ArrayLong array = (ArrayLong) list;
+            long[] data = array.wrappedArray();
+            int offset = array.startIndex();
+            for (int i = 0; i < length; i++) {
+                data[offset + checkIndex(idx[idxStart + i], size)] = (long) src[srcPos + i];
+            }
+        } else if (list instanceof ArrayInteger && !((ArrayInteger) list).isReadOnly()) {
+            ArrayInteger array = (ArrayInteger) list;
+            int[] data = array.wrappedArray();
+            int offset = array.startIndex();
+            for (int i = 0; i < length; i++) {
+                data[offset + checkIndex(idx[idxStart + i], size)] = (int) src[srcPos + i];
+            }
+        } else if (list instanceof ArrayShort && !((ArrayShort) list).isReadOnly()) {
+            ArrayShort array = (ArrayShort) list;
+            short[] data = array.wrappedArray();
+            int offset = array.startIndex();
+            for (int i = 0; i < length; i++) {
+                data[offset + checkIndex(idx[idxStart + i], size)] = (short) src[srcPos + i];
+            }
+        } else if (list instanceof ArrayByte && !((ArrayByte) list).isReadOnly()) {
+            ArrayByte array = (ArrayByte) list;
+            byte[] data = array.wrappedArray();
+            int offset = array.startIndex();
+            for (int i = 0; i < length; i++) {
+                data[offset + checkIndex(idx[idxStart + i], size)] = (byte) src[srcPos + i];
+            }
+        } else if (list instanceof ArrayULong && !((ArrayULong) list).isReadOnly()) {
+            ArrayULong array = (ArrayULong) list;
+            long[] data = array.wrappedArray();
+            int offset = array.startIndex();
+            for (int i = 0; i < length; i++) {
+                data[offset + checkIndex(idx[idxStart + i], size)] = (long) src[srcPos + i];
+            }
+        } else if (list instanceof ArrayUInteger && !((ArrayUInteger) list).isReadOnly()) {
+            ArrayUInteger array = (ArrayUInteger) list;
+            int[] data = array.wrappedArray();
+            int offset = array.startIndex();
+            for (int i = 0; i < length; i++) {
+                data[offset + checkIndex(idx[idxStart + i], size)] = (int) src[srcPos + i];
+            }
+        } else if (list instanceof ArrayUShort && !((ArrayUShort) list).isReadOnly()) {
+            ArrayUShort array = (ArrayUShort) list;
+            short[] data = array.wrappedArray();
+            int offset = array.startIndex();
+            for (int i = 0; i < length; i++) {
+                data[offset + checkIndex(idx[idxStart + i], size)] = (short) src[srcPos + i];
+            }
+        } else if (list instanceof ArrayUByte && !((ArrayUByte) list).isReadOnly()) {
+            ArrayUByte array = (ArrayUByte) list;
+            byte[] data = array.wrappedArray();
+            int offset = array.startIndex();
+            for (int i = 0; i < length; i++) {
+                data[offset + checkIndex(idx[idxStart + i], size)] = (byte) src[srcPos + i];
+            }
+        } else {
+            for (int i = 0; i < length; i++) {
+                list.setDouble(idx[idxStart + i], src[srcPos + i]);
+            }
+        }
+    }
+
+    private static int[] indexArray(ListInteger indexes) {
+        if (indexes instanceof ArrayInteger) {
+            return ((ArrayInteger) indexes).wrappedArray();
+        }
+        return indexes.toArray(new int[indexes.size()]);
+    }
+
+    private static int indexStart(ListInteger indexes) {
+        if (indexes instanceof ArrayInteger) {
+            return ((ArrayInteger) indexes).startIndex();
+        }
+        return 0;
+    }
+
+    private static int checkIndex(int index, int size) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+        return index;
+    }
+
+    /**
+     * Returns a view of the given list that presents the elements at regular
+     * intervals: the element at start, at start + step, at start + 2 * step and
+     * so on, as long as the index is within the list. With a negative step,
+     * the elements are taken backwards. The indexes are computed, so this
+     * requires no memory for them, unlike {@link #listView(org.epics.util.array.ListNumber, org.epics.util.array.ListInteger) }.
+     * Changes to the view are reflected in the list.
+     *
+     * @param list a numeric list
+     * @param start the index of the first element
+     * @param step the distance between the elements; can't be zero
+     * @return a wrapper around list
+     */
+    public static ListNumber stride(ListNumber list, int start, int step) {
+        if (list instanceof ListDouble) {
+            return new StridedView.Double((ListDouble) list, start, step);
+        } else if (list instanceof ListFloat) {
+            return new StridedView.Float((ListFloat) list, start, step);
+        } else if (list instanceof ListLong) {
+            return new StridedView.Long((ListLong) list, start, step);
+        } else if (list instanceof ListInteger) {
+            return new StridedView.Int((ListInteger) list, start, step);
+        } else if (list instanceof ListShort) {
+            return new StridedView.Short((ListShort) list, start, step);
+        } else if (list instanceof ListByte) {
+            return new StridedView.Byte((ListByte) list, start, step);
+        } else if (list instanceof ListULong) {
+            return new StridedView.ULong((ListULong) list, start, step);
+        } else if (list instanceof ListUInteger) {
+            return new StridedView.UInt((ListUInteger) list, start, step);
+        } else if (list instanceof ListUShort) {
+            return new StridedView.UShort((ListUShort) list, start, step);
+        } else if (list instanceof ListUByte) {
+            return new StridedView.UByte((ListUByte) list, start, step);
         }
         throw new UnsupportedOperationException("Not yet supported");
     }
-    
+
+    /**
+     * Returns a view of the given list with the elements in reverse order.
+     * Changes to the view are reflected in the list.
+     *
+     * @param list a numeric list
+     * @return a wrapper around list
+     */
+    public static ListNumber reverse(ListNumber list) {
+        return stride(list, list.size() - 1, -1);
+    }
+
+    /**
+     * Returns a view of a column of a matrix stored by row in the given list.
+     * Changes to the view are reflected in the list.
+     *
+     * @param matrix the elements of the matrix, one row after the other
+     * @param nColumns the number of columns of the matrix
+     * @param column the index of the column
+     * @return a wrapper around the list
+     */
+    public static ListNumber column(ListNumber matrix, int nColumns, int column) {
+        if (nColumns < 1 || matrix.size() % nColumns != 0) {
+            throw new IllegalArgumentException("The list size (" + matrix.size() + ") is not a multiple of the number of columns (" + nColumns + ")");
+        }
+        if (column < 0 || column >= nColumns) {
+            throw new IndexOutOfBoundsException("Column: " + column + ", Columns: " + nColumns);
+        }
+        // A matrix with no rows has empty columns
+        return stride(matrix, matrix.size() == 0 ? 0 : column, nColumns);
+    }
 
     /**
      * Concatenates a sequence of lists into a single one. The returned list
@@ -281,6 +605,12 @@ public class ListNumbers {
      * during the concatenation and that changes in the arguments will
      * be seen through the concatenation. When reading and writing, the
      * type is always cast to a double.
+     * <p>
+     * The sizes of the lists are read at each access, so the concatenation
+     * also follows lists that grow or shrink, at the cost of going through
+     * all the lists to find an element. For lists that do not change size,
+     * {@link #concatenatePreservingType(org.epics.util.array.ListNumber...) }
+     * is faster.
      *
      * @param lists the lists to concatenate.
      * @return the concatenated list.
@@ -341,4 +671,79 @@ public class ListNumbers {
             }
         };
     }
+
+    /**
+     * Concatenates a sequence of lists into a single one, preserving the
+     * type if all the lists have the same type.
+     * For example, concatenating {@link ListShort}s returns a {@link ListShort}.
+     * If the types are different, the elements are cast to doubles.
+     * The returned list is a view on the previous lists, as in
+     * {@link #concatenate(org.epics.util.array.ListNumber...) }.
+     * <p>
+     * Unlike {@code concatenate}, the sizes of the lists are taken at the
+     * time of the concatenation, so that the list containing an element
+     * is found with a binary search and the bulk copies go through each
+     * list in turn: the lists must not change size afterwards.
+     *
+     * @param lists the lists to concatenate.
+     * @return the concatenated list.
+     */
+    public static ListNumber concatenatePreservingType(final ListNumber... lists) {
+        if (lists.length == 0) {
+            return CollectionNumbers.unmodifiableListDouble(new double[0]);
+        }
+
+        Class<?> type = listType(lists[0]);
+        for (ListNumber list : lists) {
+            if (listType(list) != type) {
+                return new ConcatenatedListDouble(lists);
+            }
+        }
+
+        if (type == ListFloat.class) {
+            return new ConcatenatedListFloat(Arrays.copyOf(lists, lists.length, ListFloat[].class));
+        } else if (type == ListLong.class) {
+            return new ConcatenatedListLong(Arrays.copyOf(lists, lists.length, ListLong[].class));
+        } else if (type == ListInteger.class) {
+            return new ConcatenatedListInteger(Arrays.copyOf(lists, lists.length, ListInteger[].class));
+        } else if (type == ListShort.class) {
+            return new ConcatenatedListShort(Arrays.copyOf(lists, lists.length, ListShort[].class));
+        } else if (type == ListByte.class) {
+            return new ConcatenatedListByte(Arrays.copyOf(lists, lists.length, ListByte[].class));
+        } else if (type == ListULong.class) {
+            return new ConcatenatedListULong(Arrays.copyOf(lists, lists.length, ListULong[].class));
+        } else if (type == ListUInteger.class) {
+            return new ConcatenatedListUInteger(Arrays.copyOf(lists, lists.length, ListUInteger[].class));
+        } else if (type == ListUShort.class) {
+            return new ConcatenatedListUShort(Arrays.copyOf(lists, lists.length, ListUShort[].class));
+        } else if (type == ListUByte.class) {
+            return new ConcatenatedListUByte(Arrays.copyOf(lists, lists.length, ListUByte[].class));
+        }
+        return new ConcatenatedListDouble(lists);
+    }
+
+    private static Class<?> listType(ListNumber list) {
+        if (list instanceof ListDouble) {
+            return ListDouble.class;
+        } else if (list instanceof ListFloat) {
+            return ListFloat.class;
+        } else if (list instanceof ListLong) {
+            return ListLong.class;
+        } else if (list instanceof ListInteger) {
+            return ListInteger.class;
+        } else if (list instanceof ListShort) {
+            return ListShort.class;
+        } else if (list instanceof ListByte) {
+            return ListByte.class;
+        } else if (list instanceof ListULong) {
+            return ListULong.class;
+        } else if (list instanceof ListUInteger) {
+            return ListUInteger.class;
+        } else if (list instanceof ListUShort) {
+            return ListUShort.class;
+        } else if (list instanceof ListUByte) {
+            return ListUByte.class;
+        }
+        return ListNumber.class;
+    }
 }
@@ -0,0 +1,289 @@
+/**
+ * Copyright (C) 2010-14 diirt developers. See COPYRIGHT.TXT
+ * All rights reserved. Use is subject to license terms. See LICENSE.TXT
+ */
+package org.epics.util.array;
+
+/**
+ * Properties derived from the values of a list: minimum and maximum,
+ * presence of NaNs, monotonicity and linearity.
+ * <p>
+ * The {@code ArrayXxx} lists that wrap an array nobody else can write (the ones
+ * returned by {@code CollectionNumbers.immutableListXxx(values...)} and by
+ * {@code BufferXxx.toReadOnlyArray()}) are immutable, so their properties
+ * are computed the first time they are requested and then cached in the
+ * list; the same is done for their hash code. Read-only views created by
+ * {@code CollectionNumbers.unmodifiableList(list)} do not cache, since the
+ * array can still change through the original list. The cache uses no locks: the
+ * properties are an immutable object, so a thread either sees them fully
+ * computed or computes them again. For all other lists, the properties
+ * are computed on each request.
+ *
+ * @author carcassi
+ */
+public final class ListProperties {
+
+    private final double min;
+    private final double max;
+    private final double finiteMin;
+    private final double finiteMax;
+    private final boolean hasNaN;
+    private final boolean nonDecreasing;
+    private final boolean nonIncreasing;
+    private final boolean linear;
+
+    private ListProperties(double min, double max, double finiteMin, double finiteMax,
+            boolean hasNaN, boolean nonDecreasing, boolean nonIncreasing, boolean linear) {
+        this.min = min;
+        this.max = max;
+        this.finiteMin = finiteMin;
+        this.finiteMax = finiteMax;
+        this.hasNaN = hasNaN;
+        this.nonDecreasing = nonDecreasing;
+        this.nonIncreasing = nonIncreasing;
+        this.linear = linear;
+    }
+
+    /**
+     * Returns the properties of the list, from the cache if the list
+     * is an immutable {@code ArrayXxx}.
+     *
+     * @param list a list of numbers
+     * @return the properties of the list
+     */
+    public static ListProperties of(ListNumber list) {
+        ListProperties properties = cached(list);
+        return properties != null ? properties : compute(list);
+    }
+
+    /**
+     * Whether the properties of the list are cached, so that
+     * {@link #of(org.epics.util.array.ListNumber) } takes constant time
+     * after the first call. This takes constant time and never computes
+     * the properties.
+     *
+     * @param list a list of numbers
+     * @return true if the list caches its properties
+     */
+    public static boolean isCached(ListNumber list) {
+        if (list instanceof ArrayDouble) {
+            return ((ArrayDouble) list).isImmutable();
+        } else if (list instanceof ArrayFloat) {
+            return ((ArrayFloat) list).isImmutable();
+        } else if (list instanceof ArrayLong) {
+            return ((ArrayLong) list).isImmutable();
+        } else if (list instanceof ArrayInteger) {
+            return ((ArrayInteger) list).isImmutable();
+        } else if (list instanceof ArrayShort) {
+            return ((ArrayShort) list).isImmutable();
+        } else if (list instanceof ArrayByte) {
+            return ((ArrayByte) list).isImmutable();
+        } else if (list instanceof ArrayULong) {
+            return ((ArrayULong) list).isImmutable();
+        } else if (list instanceof ArrayUInteger) {
+            return ((ArrayUInteger) list).isImmutable();
+        } else if (list instanceof ArrayUShort) {
+            return ((ArrayUShort) list).isImmutable();
+        } else if (list instanceof ArrayUByte) {
+            return ((ArrayUByte) list).isImmutable();
+        }
+        return false;
+    }
+
+    /**
+     * Returns the properties of the list only if they were already computed
+     * and cached, without computing them. This allows to use the cache
+     * when it is there, and a faster algorithm for the single property
+     * needed otherwise.
+     *
+     * @param list a list of numbers
+     * @return the cached properties, or null
+     */
+    public static ListProperties ifComputed(ListNumber list) {
+        if (list instanceof ArrayDouble) {
+            return ((ArrayDouble) list).computedProperties();
+        } else if (list instanceof ArrayFloat) {
+            return ((ArrayFloat) list).computedProperties();
+        } else if (list instanceof ArrayLong) {
+            return ((ArrayLong) list).computedProperties();
+        } else if (list instanceof ArrayInteger) {
+            return ((ArrayInteger) list).computedProperties();
+        } else if (list instanceof ArrayShort) {
+            return ((ArrayShort) list).computedProperties();
+        } else if (list instanceof ArrayByte) {
+            return ((ArrayByte) list).computedProperties();
+        } else if (list instanceof ArrayULong) {
+            return ((ArrayULong) list).computedProperties();
+        } else if (list instanceof ArrayUInteger) {
+            return ((ArrayUInteger) list).computedProperties();
+        } else if (list instanceof ArrayUShort) {
+            return ((ArrayUShort) list).computedProperties();
+        } else if (list instanceof ArrayUByte) {
+            return ((ArrayUByte) list).computedProperties();
+        }
+        return null;
+    }
+
+    /**
+     * The properties cached by the list, or null if the list does
+     * not cache them.
+     */
+    static ListProperties cached(ListNumber list) {
+        if (list instanceof ArrayDouble) {
+            return ((ArrayDouble) list).properties();
+        } else if (list instanceof ArrayFloat) {
+            return ((ArrayFloat) list).properties();
+        } else if (list instanceof ArrayLong) {
+            return ((ArrayLong) list).properties();
+        } else if (list instanceof ArrayInteger) {
+            return ((ArrayInteger) list).properties();
+        } else if (list instanceof ArrayShort) {
+            return ((ArrayShort) list).properties();
+        } else if (list instanceof ArrayByte) {
+            return ((ArrayByte) list).properties();
+        } else if (list instanceof ArrayULong) {
+            return ((ArrayULong) list).properties();
+        } else if (list instanceof ArrayUInteger) {
+            return ((ArrayUInteger) list).properties();
+        } else if (list instanceof ArrayUShort) {
+            return ((ArrayUShort) list).properties();
+        } else if (list instanceof ArrayUByte) {
+            return ((ArrayUByte) list).properties();
+        }
+        return null;
+    }
+
+    /**
+     * Computes all the properties in one pass.
+     */
+    static ListProperties compute(ListNumber list) {
+        int size = list.size();
+        double min = Double.POSITIVE_INFINITY;
+        double max = Double.NEGATIVE_INFINITY;
+        double finiteMin = Double.POSITIVE_INFINITY;
+        double finiteMax = Double.NEGATIVE_INFINITY;
+        boolean hasNaN = false;
+        boolean nonDecreasing = true;
+        boolean nonIncreasing = true;
+        // Same check as ListNumbers.isLinear: each element must match
+        // the linear list from the first to the last within one ulp
+        ListNumber linearList = size == 0 ? null : ListNumbers.linearListFromRange(list.getDouble(0), list.getDouble(size - 1), size);
+        boolean linear = size != 0;
+        double previous = Double.NaN;
+        for (int i = 0; i < size; i++) {
+            double value = list.getDouble(i);
+            if (Double.isNaN(value)) {
+                hasNaN = true;
+            } else {
+                min = Math.min(min, value);
+                max = Math.max(max, value);
+                if (!Double.isInfinite(value)) {
+                    finiteMin = Math.min(finiteMin, value);
+                    finiteMax = Math.max(finiteMax, value);
+                }
+            }
+            // Comparisons with NaN are false, as in ListNumbers.sortedView
+            if (previous > value) {
+                nonDecreasing = false;
+            }
+            if (previous < value) {
+                nonIncreasing = false;
+            }
+            previous = value;
+            if (linear && Math.abs(value - linearList.getDouble(i)) > Math.ulp(value)) {
+                linear = false;
+            }
+        }
+        if (min > max) {
+            min = Double.NaN;
+            max = Double.NaN;
+        }
+        if (finiteMin > finiteMax) {
+            finiteMin = Double.NaN;
+            finiteMax = Double.NaN;
+        }
+        return new ListProperties(min, max, finiteMin, finiteMax, hasNaN, nonDecreasing, nonIncreasing, linear);
+    }
+
+    /**
+     * The smallest value, skipping NaNs.
+     *
+     * @return the minimum, or NaN if there are no values other than NaN
+     */
+    public double getMinimum() {
+        return min;
+    }
+
+    /**
+     * The largest value, skipping NaNs.
+     *
+     * @return the maximum, or NaN if there are no values other than NaN
+     */
+    public double getMaximum() {
+        return max;
+    }
+
+    /**
+     * The smallest value, skipping NaNs and infinities.
+     *
+     * @return the minimum, or NaN if there are no finite values
+     */
+    public double getFiniteMinimum() {
+        return finiteMin;
+    }
+
+    /**
+     * The largest value, skipping NaNs and infinities.
+     *
+     * @return the maximum, or NaN if there are no finite values
+     */
+    public double getFiniteMaximum() {
+        return finiteMax;
+    }
+
+    /**
+     * Whether the list contains NaN values.
+     *
+     * @return true if at least one element is NaN
+     */
+    public boolean hasNaN() {
+        return hasNaN;
+    }
+
+    /**
+     * Whether no element is greater than the next one. NaNs are not compared,
+     * as in {@link ListNumbers#sortedView(org.epics.util.array.ListNumber) }.
+     *
+     * @return true if the list is sorted in ascending order
+     */
+    public boolean isNonDecreasing() {
+        return nonDecreasing;
+    }
+
+    /**
+     * Whether no element is less than the next one. NaNs are not compared.
+     *
+     * @return true if the list is sorted in descending order
+     */
+    public boolean isNonIncreasing() {
+        return nonIncreasing;
+    }
+
+    /**
+     * Whether the elements are equally spaced, as defined by
+     * {@link ListNumbers#isLinear(org.epics.util.array.ListNumber) }.
+     * An empty list is not linear.
+     *
+     * @return true if the list is linear
+     */
+    public boolean isLinear() {
+        return linear;
+    }
+
+    @Override
+    public String toString() {
+        return "ListProperties[min=" + min + ", max=" + max + ", finiteMin=" + finiteMin + ", finiteMax=" + finiteMax
+                + ", hasNaN=" + hasNaN + ", nonDecreasing=" + nonDecreasing + ", nonIncreasing=" + nonIncreasing
+                + ", linear=" + linear + "]";
+    }
+}
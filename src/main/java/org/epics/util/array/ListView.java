@@ -15,7 +15,7 @@ class ListView {
     /**
      * A ListView implementation for doubles.
      */
-    static class Double extends ListDouble {
+    static class Double extends ListDouble implements BulkCopyDouble {
         private final ListDouble list;
         private final ListInteger indexes;
 
@@ -29,17 +29,42 @@ class ListView {
             return list.getDouble(indexes.getInt(index));
         }
 
+        @Override
+        public void setDouble(int index, double value) {
+            list.setDouble(indexes.getInt(index), value);
+        }
+
         @Override
         public int size() {
             return indexes.size();
         }
 
+        @Override
+        public <T> T toArray(T array) {
+            if (array instanceof double[]) {
+                double[] doubleArray;
+                if (((double[]) array).length < size()) {
+                    doubleArray = new double[size()];
+                } else {
+                    doubleArray = (double[]) array;
+                }
+                copyTo(0, doubleArray, 0, size());
+                return (T) doubleArray;
+            }
+            return super.toArray(array);
+        }
+
+        @Override
+        public void copyTo(int srcPos, double[] dest, int destPos, int length) {
+            ListNumbers.gather(list, indexes.subList(srcPos, srcPos + length), dest, destPos);
+        }
+
     }
 
     /**
      * A ListView implementation for floats.
      */
-    static class Float extends ListFloat {
+    static class Float extends ListFloat implements BulkCopyDouble {
         private final ListFloat list;
         private final ListInteger indexes;
 
@@ -53,17 +78,42 @@ class ListView {
             return list.getFloat(indexes.getInt(index));
         }
 
+        @Override
+        public void setFloat(int index, float value) {
+            list.setFloat(indexes.getInt(index), value);
+        }
+
         @Override
         public int size() {
             return indexes.size();
         }
 
+        @Override
+        public <T> T toArray(T array) {
+            if (array instanceof double[]) {
+                double[] doubleArray;
+                if (((double[]) array).length < size()) {
+                    doubleArray = new double[size()];
+                } else {
+                    doubleArray = (double[]) array;
+                }
+                copyTo(0, doubleArray, 0, size());
+                return (T) doubleArray;
+            }
+            return super.toArray(array);
+        }
+
+        @Override
+        public void copyTo(int srcPos, double[] dest, int destPos, int length) {
+            ListNumbers.gather(list, indexes.subList(srcPos, srcPos + length), dest, destPos);
+        }
+
     }
 
     /**
      * A ListView implementation for longs.
      */
-    static class Long extends ListLong {
+    static class Long extends ListLong implements BulkCopyDouble {
         private final ListLong list;
         private final ListInteger indexes;
 
@@ -77,17 +127,42 @@ class ListView {
             return list.getLong(indexes.getInt(index));
         }
 
+        @Override
+        public void setLong(int index, long value) {
+            list.setLong(indexes.getInt(index), value);
+        }
+
         @Override
         public int size() {
             return indexes.size();
         }
 
+        @Override
+        public <T> T toArray(T array) {
+            if (array instanceof double[]) {
+                double[] doubleArray;
+                if (((double[]) array).length < size()) {
+                    doubleArray = new double[size()];
+                } else {
+                    doubleArray = (double[]) array;
+                }
+                copyTo(0, doubleArray, 0, size());
+                return (T) doubleArray;
+            }
+            return super.toArray(array);
+        }
+
+        @Override
+        public void copyTo(int srcPos, double[] dest, int destPos, int length) {
+            ListNumbers.gather(list, indexes.subList(srcPos, srcPos + length), dest, destPos);
+        }
+
     }
 
     /**
      * A ListView implementation for ints.
      */
-    static class Int extends ListInteger {
+    static class Int extends ListInteger implements BulkCopyDouble {
         private final ListInteger list;
         private final ListInteger indexes;
 
@@ -101,17 +176,42 @@ class ListView {
             return list.getInt(indexes.getInt(index));
         }
 
+        @Override
+        public void setInt(int index, int value) {
+            list.setInt(indexes.getInt(index), value);
+        }
+
         @Override
         public int size() {
             return indexes.size();
         }
 
+        @Override
+        public <T> T toArray(T array) {
+            if (array instanceof double[]) {
+                double[] doubleArray;
+                if (((double[]) array).length < size()) {
+                    doubleArray = new double[size()];
+                } else {
+                    doubleArray = (double[]) array;
+                }
+                copyTo(0, doubleArray, 0, size());
+                return (T) doubleArray;
+            }
+            return super.toArray(array);
+        }
+
+        @Override
+        public void copyTo(int srcPos, double[] dest, int destPos, int length) {
+            ListNumbers.gather(list, indexes.subList(srcPos, srcPos + length), dest, destPos);
+        }
+
     }
 
     /**
      * A ListView implementation for shorts.
      */
-    static class Short extends ListShort {
+    static class Short extends ListShort implements BulkCopyDouble {
         private final ListShort list;
         private final ListInteger indexes;
 
@@ -125,17 +225,42 @@ class ListView {
             return list.getShort(indexes.getInt(index));
         }
 
+        @Override
+        public void setShort(int index, short value) {
+            list.setShort(indexes.getInt(index), value);
+        }
+
         @Override
         public int size() {
             return indexes.size();
         }
 
+        @Override
+        public <T> T toArray(T array) {
+            if (array instanceof double[]) {
+                double[] doubleArray;
+                if (((double[]) array).length < size()) {
+                    doubleArray = new double[size()];
+                } else {
+                    doubleArray = (double[]) array;
+                }
+                copyTo(0, doubleArray, 0, size());
+                return (T) doubleArray;
+            }
+            return super.toArray(array);
+        }
+
+        @Override
+        public void copyTo(int srcPos, double[] dest, int destPos, int length) {
+            ListNumbers.gather(list, indexes.subList(srcPos, srcPos + length), dest, destPos);
+        }
+
     }
 
     /**
      * A ListView implementation for bytes.
      */
-    static class Byte extends ListByte {
+    static class Byte extends ListByte implements BulkCopyDouble {
         private final ListByte list;
         private final ListInteger indexes;
 
@@ -149,10 +274,231 @@ class ListView {
             return list.getByte(indexes.getInt(index));
         }
 
+        @Override
+        public void setByte(int index, byte value) {
+            list.setByte(indexes.getInt(index), value);
+        }
+
+        @Override
+        public int size() {
+            return indexes.size();
+        }
+
+        @Override
+        public <T> T toArray(T array) {
+            if (array instanceof double[]) {
+                double[] doubleArray;
+                if (((double[]) array).length < size()) {
+                    doubleArray = new double[size()];
+                } else {
+                    doubleArray = (double[]) array;
+                }
+                copyTo(0, doubleArray, 0, size());
+                return (T) doubleArray;
+            }
+            return super.toArray(array);
+        }
+
+        @Override
+        public void copyTo(int srcPos, double[] dest, int destPos, int length) {
+            ListNumbers.gather(list, indexes.subList(srcPos, srcPos + length), dest, destPos);
+        }
+
+    }
+
+    /**
+     * A ListView implementation for unsigned longs.
+     */
+    static class ULong extends ListULong implements BulkCopyDouble {
+        private final ListULong list;
+        private final ListInteger indexes;
+
+        public ULong(ListULong list, ListInteger indexes) {
+            this.list = list;
+            this.indexes = indexes;
+        }
+
+        @Override
+        public long getLong(int index) {
+            return list.getLong(indexes.getInt(index));
+        }
+
+        @Override
+        public void setLong(int index, long value) {
+            list.setLong(indexes.getInt(index), value);
+        }
+
+        @Override
+        public int size() {
+            return indexes.size();
+        }
+
+        @Override
+        public <T> T toArray(T array) {
+            if (array instanceof double[]) {
+                double[] doubleArray;
+                if (((double[]) array).length < size()) {
+                    doubleArray = new double[size()];
+                } else {
+                    doubleArray = (double[]) array;
+                }
+                copyTo(0, doubleArray, 0, size());
+                return (T) doubleArray;
+            }
+            return super.toArray(array);
+        }
+
+        @Override
+        public void copyTo(int srcPos, double[] dest, int destPos, int length) {
+            ListNumbers.gather(list, indexes.subList(srcPos, srcPos + length), dest, destPos);
+        }
+
+    }
+
+    /**
+     * A ListView implementation for unsigned ints.
+     */
+    static class UInt extends ListUInteger implements BulkCopyDouble {
+        private final ListUInteger list;
+        private final ListInteger indexes;
+
+        public UInt(ListUInteger list, ListInteger indexes) {
+            this.list = list;
+            this.indexes = indexes;
+        }
+
+        @Override
+        public int getInt(int index) {
+            return list.getInt(indexes.getInt(index));
+        }
+
+        @Override
+        public void setInt(int index, int value) {
+            list.setInt(indexes.getInt(index), value);
+        }
+
+        @Override
+        public int size() {
+            return indexes.size();
+        }
+
+        @Override
+        public <T> T toArray(T array) {
+            if (array instanceof double[]) {
+                double[] doubleArray;
+                if (((double[]) array).length < size()) {
+                    doubleArray = new double[size()];
+                } else {
+                    doubleArray = (double[]) array;
+                }
+                copyTo(0, doubleArray, 0, size());
+                return (T) doubleArray;
+            }
+            return super.toArray(array);
+        }
+
+        @Override
+        public void copyTo(int srcPos, double[] dest, int destPos, int length) {
+            ListNumbers.gather(list, indexes.subList(srcPos, srcPos + length), dest, destPos);
+        }
+
+    }
+
+    /**
+     * A ListView implementation for unsigned shorts.
+     */
+    static class UShort extends ListUShort implements BulkCopyDouble {
+        private final ListUShort list;
+        private final ListInteger indexes;
+
+        public UShort(ListUShort list, ListInteger indexes) {
+            this.list = list;
+            this.indexes = indexes;
+        }
+
+        @Override
+        public short getShort(int index) {
+            return list.getShort(indexes.getInt(index));
+        }
+
+        @Override
+        public void setShort(int index, short value) {
+            list.setShort(indexes.getInt(index), value);
+        }
+
+        @Override
+        public int size() {
+            return indexes.size();
+        }
+
+        @Override
+        public <T> T toArray(T array) {
+            if (array instanceof double[]) {
+                double[] doubleArray;
+                if (((double[]) array).length < size()) {
+                    doubleArray = new double[size()];
+                } else {
+                    doubleArray = (double[]) array;
+                }
+                copyTo(0, doubleArray, 0, size());
+                return (T) doubleArray;
+            }
+            return super.toArray(array);
+        }
+
+        @Override
+        public void copyTo(int srcPos, double[] dest, int destPos, int length) {
+            ListNumbers.gather(list, indexes.subList(srcPos, srcPos + length), dest, destPos);
+        }
+
+    }
+
+    /**
+     * A ListView implementation for unsigned bytes.
+     */
+    static class UByte extends ListUByte implements BulkCopyDouble {
+        private final ListUByte list;
+        private final ListInteger indexes;
+
+        public UByte(ListUByte list, ListInteger indexes) {
+            this.list = list;
+            this.indexes = indexes;
+        }
+
+        @Override
+        public byte getByte(int index) {
+            return list.getByte(indexes.getInt(index));
+        }
+
+        @Override
+        public void setByte(int index, byte value) {
+            list.setByte(indexes.getInt(index), value);
+        }
+
         @Override
         public int size() {
             return indexes.size();
         }
 
+        @Override
+        public <T> T toArray(T array) {
+            if (array instanceof double[]) {
+                double[] doubleArray;
+                if (((double[]) array).length < size()) {
+                    doubleArray = new double[size()];
+                } else {
+                    doubleArray = (double[]) array;
+                }
+                copyTo(0, doubleArray, 0, size());
+                return (T) doubleArray;
+            }
+            return super.toArray(array);
+        }
+
+        @Override
+        public void copyTo(int srcPos, double[] dest, int destPos, int length) {
+            ListNumbers.gather(list, indexes.subList(srcPos, srcPos + length), dest, destPos);
+        }
+
     }
 }
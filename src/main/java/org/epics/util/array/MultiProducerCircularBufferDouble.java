@@ -0,0 +1,167 @@
+/**
+ * Copyright (C) 2010-14 diirt developers. See COPYRIGHT.TXT
+ * All rights reserved. Use is subject to license terms. See LICENSE.TXT
+ */
+package org.epics.util.array;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A bounded circular buffer of doubles where many threads add values and
+ * one thread consumes them, with no locks.
+ * <p>
+ * Each producer claims the next slot by incrementing the shared sequence
+ * with a compare-and-set, writes the value and marks the slot as filled:
+ * producers never wait for each other to complete a write. Each slot has its
+ * own sequence number, which tells whether the slot is free, filled for a
+ * given position or still being written. When the buffer is full, values are
+ * rejected instead of overwriting the ones not yet consumed.
+ * <p>
+ * For the consumer, the buffer is a {@link ListDouble} of the values that
+ * are ready, from the oldest to the newest: values can be read through the
+ * list and then removed, or moved to an array with
+ * {@link #drainTo(double[], int) }. The list, {@link #remove(int) }
+ * and {@link #drainTo(double[], int) } must only be used by the consumer thread.
+ * The content of the list only grows until the consumer removes values.
+ *
+ * @author carcassi
+ */
+public class MultiProducerCircularBufferDouble extends ListDouble {
+
+    private final int capacity;
+    private final AtomicLongArray values;
+    // sequences[slot] == n: the slot is free for the value at position n
+    // sequences[slot] == n + 1: the slot contains the value at position n
+    private final AtomicLongArray sequences;
+    private final AtomicLong tail = new AtomicLong();
+
+    // Consumer state: position of the oldest value and position
+    // after the last value known to be ready
+    private long head;
+    private long readyEnd;
+
+    /**
+     * Creates a new buffer that holds at most the given number of values.
+     *
+     * @param capacity the maximum number of values
+     */
+    public MultiProducerCircularBufferDouble(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be positive (was " + capacity + ")");
+        }
+        this.capacity = capacity;
+        this.values = new AtomicLongArray(capacity);
+        this.sequences = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    /**
+     * The maximum number of values in the buffer.
+     *
+     * @return the capacity
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    private int slot(long position) {
+        return (int) (position % capacity);
+    }
+
+    /**
+     * Adds a value, if the buffer is not full. Can be called by any thread.
+     *
+     * @param value the new value
+     * @return true if the value was added, false if the buffer was full
+     */
+    public boolean offer(double value) {
+        while (true) {
+            long position = tail.get();
+            int slot = slot(position);
+            long sequence = sequences.get(slot);
+            if (sequence == position) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    values.lazySet(slot, Double.doubleToRawLongBits(value));
+                    // Publishes the value to the consumer
+                    sequences.lazySet(slot, position + 1);
+                    return true;
+                }
+            } else if (sequence < position) {
+                // The slot still holds the value from the previous
+                // round, which was not consumed
+                return false;
+            }
+            // Otherwise another producer claimed this position: retry
+        }
+    }
+
+    /**
+     * The number of values ready to be consumed. Must only be called
+     * by the consumer thread.
+     *
+     * @return the number of values ready
+     */
+    @Override
+    public int size() {
+        // Advance past the values that were published since the last check.
+        // Values are published in any order: stop at the first slot
+        // that is still being written
+        while (readyEnd - head < capacity && sequences.get(slot(readyEnd)) == readyEnd + 1) {
+            readyEnd++;
+        }
+        return (int) (readyEnd - head);
+    }
+
+    /**
+     * {@inheritDoc }
+     */
+    @Override
+    public double getDouble(int index) {
+        // Only check for new values if the index is past the known ones
+        if (index < 0 || (index >= readyEnd - head && index >= size())) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size());
+        }
+        return Double.longBitsToDouble(values.get(slot(head + index)));
+    }
+
+    /**
+     * Removes the given number of values from the start of the list, making
+     * the slots available to the producers. Must only be called by
+     * the consumer thread.
+     *
+     * @param count the number of values to remove
+     */
+    public void remove(int count) {
+        if (count < 0 || count > size()) {
+            throw new IndexOutOfBoundsException("Count: " + count + ", Size: " + size());
+        }
+        for (int i = 0; i < count; i++) {
+            sequences.lazySet(slot(head), head + capacity);
+            head++;
+        }
+    }
+
+    /**
+     * Moves all the values that are ready, up to the space available
+     * in the array, to the array starting at the given position.
+     * Must only be called by the consumer thread.
+     *
+     * @param dest the destination array
+     * @param destPos the first position to write in the array
+     * @return the number of values moved
+     */
+    public int drainTo(double[] dest, int destPos) {
+        if (destPos < 0 || destPos > dest.length) {
+            throw new IndexOutOfBoundsException("Position: " + destPos + ", Array length: " + dest.length);
+        }
+        int count = Math.min(size(), dest.length - destPos);
+        for (int i = 0; i < count; i++) {
+            dest[destPos + i] = Double.longBitsToDouble(values.get(slot(head + i)));
+        }
+        remove(count);
+        return count;
+    }
+}
@@ -0,0 +1,248 @@
+/**
+ * Copyright (C) 2010-14 diirt developers. See COPYRIGHT.TXT
+ * All rights reserved. Use is subject to license terms. See LICENSE.TXT
+ */
+package org.epics.util.array;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Controls whether the element-wise and reduction kernels on large lists
+ * are split across the threads of a {@link ForkJoinPool}.
+ * <p>
+ * The parallel mode is off by default. When enabled, the operations that
+ * support it (e.g. {@link ListExpression#evaluate() }, the {@code xxxInto}
+ * and the reduction methods of {@link ListMath}) split lists whose size is
+ * above the threshold into index ranges that are processed concurrently.
+ * Only lists backed by arrays (i.e. the {@code ArrayXxx} classes) are split,
+ * since other implementations are not guaranteed to be safe to read
+ * from multiple threads.
+ * <p>
+ * The results are the same as the sequential ones: element-wise operations
+ * are computed independently for each element, and reductions are always
+ * computed on the same fixed-size blocks, which are combined in order.
+ * <p>
+ * {@link #forEachBlock(org.epics.util.array.ListNumber, int, org.epics.util.array.ParallelExecution.RangeTask) }
+ * and {@link RangeTask} are supported API for reductions implemented
+ * outside this package (e.g. {@code org.epics.util.stats}), so that they
+ * follow the same settings and splitting rules as the ones in this package.
+ *
+ * @author carcassi
+ */
+public final class ParallelExecution {
+
+    private ParallelExecution() {
+        // prevent instances
+    }
+
+    /**
+     * Default minimum number of elements for which the parallel mode is used.
+     */
+    public static final int DEFAULT_THRESHOLD = 1 << 18;
+
+    private static class Settings {
+        final ForkJoinPool pool;
+        final int threshold;
+
+        Settings(ForkJoinPool pool, int threshold) {
+            this.pool = pool;
+            this.threshold = threshold;
+        }
+    }
+
+    private static volatile Settings settings;
+
+    /**
+     * Enables the parallel mode on the common pool, for lists
+     * with at least {@link #DEFAULT_THRESHOLD} elements.
+     */
+    public static void enable() {
+        enable(ForkJoinPool.commonPool(), DEFAULT_THRESHOLD);
+    }
+
+    /**
+     * Enables the parallel mode on the common pool, for lists
+     * with at least the given number of elements.
+     *
+     * @param threshold the minimum number of elements
+     */
+    public static void enable(int threshold) {
+        enable(ForkJoinPool.commonPool(), threshold);
+    }
+
+    /**
+     * Enables the parallel mode on the given pool, for lists
+     * with at least the given number of elements.
+     *
+     * @param pool the pool on which to execute the kernels
+     * @param threshold the minimum number of elements
+     */
+    public static void enable(ForkJoinPool pool, int threshold) {
+        if (pool == null) {
+            throw new NullPointerException("Pool can't be null");
+        }
+        if (threshold < 1) {
+            throw new IllegalArgumentException("Threshold must be positive (was " + threshold + ")");
+        }
+        settings = new Settings(pool, threshold);
+    }
+
+    /**
+     * Disables the parallel mode: all kernels run on the calling thread.
+     */
+    public static void disable() {
+        settings = null;
+    }
+
+    /**
+     * Whether the parallel mode is enabled.
+     *
+     * @return true if enabled
+     */
+    public static boolean isEnabled() {
+        return settings != null;
+    }
+
+    /**
+     * The minimum number of elements for which the parallel mode is used,
+     * or -1 if the parallel mode is disabled.
+     *
+     * @return the threshold or -1
+     */
+    public static int getThreshold() {
+        Settings current = settings;
+        return current == null ? -1 : current.threshold;
+    }
+
+    /**
+     * A computation on a range of indexes. When the execution is split,
+     * the task is called concurrently on disjoint ranges, in no particular
+     * order: the implementation must be safe to call from multiple threads
+     * and must combine any shared result under its own synchronization.
+     */
+    public interface RangeTask {
+
+        /**
+         * Computes the elements from {@code fromIndex} (inclusive) to
+         * {@code toIndex} (exclusive).
+         *
+         * @param fromIndex the first index of the range
+         * @param toIndex the index after the last of the range
+         */
+        void compute(int fromIndex, int toIndex);
+    }
+
+    /**
+     * Whether the list can be safely read from multiple threads.
+     */
+    static boolean isSplittable(ListNumber list) {
+        return list instanceof ArrayDouble || list instanceof ArrayFloat
+                || list instanceof ArrayLong || list instanceof ArrayInteger
+                || list instanceof ArrayShort || list instanceof ArrayByte
+                || list instanceof ArrayULong || list instanceof ArrayUInteger
+                || list instanceof ArrayUShort || list instanceof ArrayUByte;
+    }
+
+    /**
+     * Executes the task on all the indexes from 0 to size. If the parallel
+     * mode is enabled, the data is splittable and the number of elements is
+     * above the threshold, the range is split in subranges whose boundaries
+     * are multiples of the given granularity and that are processed in
+     * parallel. Otherwise, the task runs on the whole range in the current
+     * thread.
+     *
+     * @param size the number of elements
+     * @param elements the number of elements of the data, to be compared
+     *        with the threshold
+     * @param granularity the subranges boundaries are multiples of this
+     * @param splittable whether the data can be accessed from multiple threads
+     * @param task the task to execute
+     */
+    static void forEachRange(int size, int elements, int granularity, boolean splittable, RangeTask task) {
+        Settings current = settings;
+        if (current == null || !splittable || elements < current.threshold || size <= granularity) {
+            task.compute(0, size);
+            return;
+        }
+
+        // Aim at a few tasks per thread, so that the work can be balanced.
+        // Computed in long: rounding up would overflow near Integer.MAX_VALUE
+        long chunks = current.pool.getParallelism() * 4L;
+        long chunkSize = (size + chunks - 1) / chunks;
+        chunkSize = Math.max(granularity, ((chunkSize + granularity - 1) / granularity) * granularity);
+        current.pool.invoke(new RangeAction(task, 0, size, (int) Math.min(chunkSize, size)));
+    }
+
+    /**
+     * Executes the task on all the indexes from 0 to size, splitting
+     * it if the parallel mode applies. Each range has at least the given
+     * granularity.
+     *
+     * @param size the number of elements
+     * @param granularity the subranges boundaries are multiples of this
+     * @param splittable whether the data can be accessed from multiple threads
+     * @param task the task to execute
+     */
+    static void forEachRange(int size, int granularity, boolean splittable, RangeTask task) {
+        forEachRange(size, size, granularity, splittable, task);
+    }
+
+    /**
+     * Executes the task on the blocks of the list, splitting them across
+     * threads if the parallel mode applies to the list. The list is divided
+     * in blocks of the given size (the last one may be shorter), and the task
+     * receives ranges of block indexes: block {@code b} covers the elements from
+     * {@code b * blockSize} to {@code min((b + 1) * blockSize, data.size())}.
+     * <p>
+     * This allows reductions outside this package to compute a partial result
+     * for each block and to combine them in order, so that the result does not
+     * depend on whether the computation was split. The task runs on the
+     * calling thread if the parallel mode is disabled, the list is not an
+     * {@code ArrayXxx} or its size is below the threshold; in all cases the
+     * method returns after all the blocks have been processed.
+     *
+     * @param data the list to process
+     * @param blockSize the number of elements of each block
+     * @param task the task to execute on the ranges of blocks
+     * @return the number of blocks
+     */
+    public static int forEachBlock(ListNumber data, int blockSize, RangeTask task) {
+        if (blockSize < 1) {
+            throw new IllegalArgumentException("Block size must be positive (was " + blockSize + ")");
+        }
+        int size = data.size();
+        int nBlocks = (int) (((long) size + blockSize - 1) / blockSize);
+        forEachRange(nBlocks, size, 1, isSplittable(data), task);
+        return nBlocks;
+    }
+
+    private static class RangeAction extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final RangeTask task;
+        private final int fromIndex;
+        private final int toIndex;
+        private final int chunkSize;
+
+        RangeAction(RangeTask task, int fromIndex, int toIndex, int chunkSize) {
+            this.task = task;
+            this.fromIndex = fromIndex;
+            this.toIndex = toIndex;
+            this.chunkSize = chunkSize;
+        }
+
+        @Override
+        protected void compute() {
+            if (toIndex - fromIndex <= chunkSize) {
+                task.compute(fromIndex, toIndex);
+                return;
+            }
+            long chunks = ((long) toIndex - fromIndex + chunkSize - 1) / chunkSize;
+            int middle = (int) (fromIndex + (chunks / 2) * chunkSize);
+            invokeAll(new RangeAction(task, fromIndex, middle, chunkSize),
+                    new RangeAction(task, middle, toIndex, chunkSize));
+        }
+    }
+}
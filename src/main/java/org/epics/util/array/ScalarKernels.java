@@ -0,0 +1,103 @@
+/**
+ * Copyright (C) 2010-14 diirt developers. See COPYRIGHT.TXT
+ * All rights reserved. Use is subject to license terms. See LICENSE.TXT
+ */
+package org.epics.util.array;
+
+/**
+ * Plain Java loops for the numeric kernels. These are the reference
+ * implementation for {@link Kernels}, and the fallback when no
+ * vectorized implementation is available.
+ *
+ * @author carcassi
+ */
+class ScalarKernels {
+
+    private ScalarKernels() {
+        // prevent instances
+    }
+
+    static void widen(short[] src, int srcPos, double[] dest, int destPos, int length) {
+        for (int i = 0; i < length; i++) {
+            dest[destPos + i] = src[srcPos + i];
+        }
+    }
+
+    static void widenUnsigned(short[] src, int srcPos, double[] dest, int destPos, int length) {
+        for (int i = 0; i < length; i++) {
+            dest[destPos + i] = src[srcPos + i] & 0xffff;
+        }
+    }
+
+    static void widen(byte[] src, int srcPos, double[] dest, int destPos, int length) {
+        for (int i = 0; i < length; i++) {
+            dest[destPos + i] = src[srcPos + i];
+        }
+    }
+
+    static void widenUnsigned(byte[] src, int srcPos, double[] dest, int destPos, int length) {
+        for (int i = 0; i < length; i++) {
+            dest[destPos + i] = src[srcPos + i] & 0xff;
+        }
+    }
+
+    static void add(double[] src, int srcPos, double offset, double[] dest, int destPos, int length) {
+        for (int i = 0; i < length; i++) {
+            dest[destPos + i] = src[srcPos + i] + offset;
+        }
+    }
+
+    static void rescale(double[] src, int srcPos, double factor, double offset, double[] dest, int destPos, int length) {
+        for (int i = 0; i < length; i++) {
+            dest[destPos + i] = factor * src[srcPos + i] + offset;
+        }
+    }
+
+    static void add(double[] src1, int pos1, double[] src2, int pos2, double[] dest, int destPos, int length) {
+        for (int i = 0; i < length; i++) {
+            dest[destPos + i] = src1[pos1 + i] + src2[pos2 + i];
+        }
+    }
+
+    static void subtract(double[] src1, int pos1, double[] src2, int pos2, double[] dest, int destPos, int length) {
+        for (int i = 0; i < length; i++) {
+            dest[destPos + i] = src1[pos1 + i] - src2[pos2 + i];
+        }
+    }
+
+    static void multiply(double[] src1, int pos1, double[] src2, int pos2, double[] dest, int destPos, int length) {
+        for (int i = 0; i < length; i++) {
+            dest[destPos + i] = src1[pos1 + i] * src2[pos2 + i];
+        }
+    }
+
+    static void divide(double[] src1, int pos1, double[] src2, int pos2, double[] dest, int destPos, int length) {
+        for (int i = 0; i < length; i++) {
+            dest[destPos + i] = src1[pos1 + i] / src2[pos2 + i];
+        }
+    }
+
+    static double sum(double[] values, int offset, int length) {
+        double sum = 0;
+        for (int i = offset; i < offset + length; i++) {
+            sum += values[i];
+        }
+        return sum;
+    }
+
+    static double min(double[] values, int offset, int length) {
+        double min = Double.POSITIVE_INFINITY;
+        for (int i = offset; i < offset + length; i++) {
+            min = Math.min(min, values[i]);
+        }
+        return min;
+    }
+
+    static double max(double[] values, int offset, int length) {
+        double max = Double.NEGATIVE_INFINITY;
+        for (int i = offset; i < offset + length; i++) {
+            max = Math.max(max, values[i]);
+        }
+        return max;
+    }
+}
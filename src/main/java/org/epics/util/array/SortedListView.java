@@ -21,7 +21,8 @@ public class SortedListView extends ListDouble {
         for (int i = 0; i < indexArray.length; i++) {
             indexArray[i] = i;
         }
-        this.indexes = CollectionNumbers.unmodifiableListInt(indexArray);
+        // The array is sorted in place: read only, but not immutable
+        this.indexes = new ArrayInteger(indexArray, 0, indexArray.length, true);
     }
 
     SortedListView(ListNumber values, ListInteger indexes) {
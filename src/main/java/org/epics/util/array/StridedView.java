@@ -0,0 +1,727 @@
+/**
+ * Copyright (C) 2010-14 diirt developers. See COPYRIGHT.TXT
+ * All rights reserved. Use is subject to license terms. See LICENSE.TXT
+ */
+package org.epics.util.array;
+
+/**
+ * Provides a view of a wrapped list that only exposes the elements at
+ * regular intervals: every element from a start index, moving by a fixed
+ * step (which is negative for reversed views). The indexes are
+ * computed, so no memory is needed for them.
+ *
+ * @author carcassi
+ */
+class StridedView {
+
+    /**
+     * The number of elements of the view.
+     */
+    static int viewSize(int listSize, int start, int step) {
+        if (step == 0) {
+            throw new IllegalArgumentException("Step can't be zero");
+        }
+        if (step > 0) {
+            if (start < 0 || start > listSize) {
+                throw new IndexOutOfBoundsException("Start: " + start + ", Size: " + listSize);
+            }
+            return (int) (((long) listSize - start + step - 1) / step);
+        } else {
+            if (start < -1 || start >= listSize) {
+                throw new IndexOutOfBoundsException("Start: " + start + ", Size: " + listSize);
+            }
+            return (int) ((start + 1L - step - 1) / -step);
+        }
+    }
+
+    /**
+     * A StridedView implementation for doubles.
+     */
+    static class Double extends ListDouble implements BulkCopyDouble {
+        private final ListDouble list;
+        private final int start;
+        private final int step;
+        private final int size;
+
+        public Double(ListDouble list, int start, int step) {
+            this.size = viewSize(list.size(), start, step);
+            this.list = list;
+            this.start = start;
+            this.step = step;
+        }
+
+        @Override
+        public double getDouble(int index) {
+            if (index < 0 || index >= size)
+                throw new IndexOutOfBoundsException("Index: "+index+", Size: "+size);
+            return list.getDouble(start + index * step);
+        }
+
+        @Override
+        public void setDouble(int index, double value) {
+            if (index < 0 || index >= size)
+                throw new IndexOutOfBoundsException("Index: "+index+", Size: "+size);
+            list.setDouble(start + index * step, value);
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public <T> T toArray(T array) {
+            if (array instanceof double[]) {
+                double[] doubleArray;
+                if (((double[]) array).length < size()) {
+                    doubleArray = new double[size()];
+                } else {
+                    doubleArray = (double[]) array;
+                }
+                copyTo(0, doubleArray, 0, size());
+                return (T) doubleArray;
+            }
+            return super.toArray(array);
+        }
+
+        @Override
+        public void copyTo(int srcPos, double[] dest, int destPos, int length) {
+            int index = start + srcPos * step;
+            if (list instanceof ArrayDouble) {
+                ArrayDouble array = (ArrayDouble) list;
+                double[] data = array.wrappedArray();
+                index += array.startIndex();
+                for (int i = destPos; i < destPos + length; i++) {
+                    dest[i] = data[index];
+                    index += step;
+                }
+            } else {
+                for (int i = destPos; i < destPos + length; i++) {
+                    dest[i] = list.getDouble(index);
+                    index += step;
+                }
+            }
+        }
+    }
+
+    /**
+     * A StridedView implementation for floats.
+     */
+    static class Float extends ListFloat {
+        private final ListFloat list;
+        private final int start;
+        private final int step;
+        private final int size;
+
+        public Float(ListFloat list, int start, int step) {
+            this.size = viewSize(list.size(), start, step);
+            this.list = list;
+            this.start = start;
+            this.step = step;
+        }
+
+        @Override
+        public float getFloat(int index) {
+            if (index < 0 || index >= size)
+                throw new IndexOutOfBoundsException("Index: "+index+", Size: "+size);
+            return list.getFloat(start + index * step);
+        }
+
+        @Override
+        public void setFloat(int index, float value) {
+            if (index < 0 || index >= size)
+                throw new IndexOutOfBoundsException("Index: "+index+", Size: "+size);
+            list.setFloat(start + index * step, value);
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public <T> T toArray(T array) {
+            if (array instanceof float[]) {
+                float[] floatArray;
+                if (((float[]) array).length < size()) {
+                    floatArray = new float[size()];
+                } else {
+                    floatArray = (float[]) array;
+                }
+                copyTo(0, floatArray, 0, size());
+                return (T) floatArray;
+            }
+            return super.toArray(array);
+        }
+
+        void copyTo(int srcPos, float[] dest, int destPos, int length) {
+            int index = start + srcPos * step;
+            if (list instanceof ArrayFloat) {
+                ArrayFloat array = (ArrayFloat) list;
+                float[] data = array.wrappedArray();
+                index += array.startIndex();
+                for (int i = destPos; i < destPos + length; i++) {
+                    dest[i] = data[index];
+                    index += step;
+                }
+            } else {
+                for (int i = destPos; i < destPos + length; i++) {
+                    dest[i] = list.getFloat(index);
+                    index += step;
+                }
+            }
+        }
+    }
+
+    /**
+     * A StridedView implementation for longs.
+     */
+    static class Long extends ListLong {
+        private final ListLong list;
+        private final int start;
+        private final int step;
+        private final int size;
+
+        public Long(ListLong list, int start, int step) {
+            this.size = viewSize(list.size(), start, step);
+            this.list = list;
+            this.start = start;
+            this.step = step;
+        }
+
+        @Override
+        public long getLong(int index) {
+            if (index < 0 || index >= size)
+                throw new IndexOutOfBoundsException("Index: "+index+", Size: "+size);
+            return list.getLong(start + index * step);
+        }
+
+        @Override
+        public void setLong(int index, long value) {
+            if (index < 0 || index >= size)
+                throw new IndexOutOfBoundsException("Index: "+index+", Size: "+size);
+            list.setLong(start + index * step, value);
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public <T> T toArray(T array) {
+            if (array instanceof long[]) {
+                long[] longArray;
+                if (((long[]) array).length < size()) {
+                    longArray = new long[size()];
+                } else {
+                    longArray = (long[]) array;
+                }
+                copyTo(0, longArray, 0, size());
+                return (T) longArray;
+            }
+            return super.toArray(array);
+        }
+
+        void copyTo(int srcPos, long[] dest, int destPos, int length) {
+            int index = start + srcPos * step;
+            if (list instanceof ArrayLong) {
+                ArrayLong array = (ArrayLong) list;
+                long[] data = array.wrappedArray();
+                index += array.startIndex();
+                for (int i = destPos; i < destPos + length; i++) {
+                    dest[i] = data[index];
+                    index += step;
+                }
+            } else {
+                for (int i = destPos; i < destPos + length; i++) {
+                    dest[i] = list.getLong(index);
+                    index += step;
+                }
+            }
+        }
+    }
+
+    /**
+     * A StridedView implementation for integers.
+     */
+    static class Int extends ListInteger {
+        private final ListInteger list;
+        private final int start;
+        private final int step;
+        private final int size;
+
+        public Int(ListInteger list, int start, int step) {
+            this.size = viewSize(list.size(), start, step);
+            this.list = list;
+            this.start = start;
+            this.step = step;
+        }
+
+        @Override
+        public int getInt(int index) {
+            if (index < 0 || index >= size)
+                throw new IndexOutOfBoundsException("Index: "+index+", Size: "+size);
+            return list.getInt(start + index * step);
+        }
+
+        @Override
+        public void setInt(int index, int value) {
+            if (index < 0 || index >= size)
+                throw new IndexOutOfBoundsException("Index: "+index+", Size: "+size);
+            list.setInt(start + index * step, value);
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public <T> T toArray(T array) {
+            if (array instanceof int[]) {
+                int[] intArray;
+                if (((int[]) array).length < size()) {
+                    intArray = new int[size()];
+                } else {
+                    intArray = (int[]) array;
+                }
+                copyTo(0, intArray, 0, size());
+                return (T) intArray;
+            }
+            return super.toArray(array);
+        }
+
+        void copyTo(int srcPos, int[] dest, int destPos, int length) {
+            int index = start + srcPos * step;
+            if (list instanceof ArrayInteger) {
+                ArrayInteger array = (ArrayInteger) list;
+                int[] data = array.wrappedArray();
+                index += array.startIndex();
+                for (int i = destPos; i < destPos + length; i++) {
+                    dest[i] = data[index];
+                    index += step;
+                }
+            } else {
+                for (int i = destPos; i < destPos + length; i++) {
+                    dest[i] = list.getInt(index);
+                    index += step;
+                }
+            }
+        }
+    }
+
+    /**
+     * A StridedView implementation for shorts.
+     */
+    static class Short extends ListShort {
+        private final ListShort list;
+        private final int start;
+        private final int step;
+        private final int size;
+
+        public Short(ListShort list, int start, int step) {
+            this.size = viewSize(list.size(), start, step);
+            this.list = list;
+            this.start = start;
+            this.step = step;
+        }
+
+        @Override
+        public short getShort(int index) {
+            if (index < 0 || index >= size)
+                throw new IndexOutOfBoundsException("Index: "+index+", Size: "+size);
+            return list.getShort(start + index * step);
+        }
+
+        @Override
+        public void setShort(int index, short value) {
+            if (index < 0 || index >= size)
+                throw new IndexOutOfBoundsException("Index: "+index+", Size: "+size);
+            list.setShort(start + index * step, value);
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public <T> T toArray(T array) {
+            if (array instanceof short[]) {
+                short[] shortArray;
+                if (((short[]) array).length < size()) {
+                    shortArray = new short[size()];
+                } else {
+                    shortArray = (short[]) array;
+                }
+                copyTo(0, shortArray, 0, size());
+                return (T) shortArray;
+            }
+            return super.toArray(array);
+        }
+
+        void copyTo(int srcPos, short[] dest, int destPos, int length) {
+            int index = start + srcPos * step;
+            if (list instanceof ArrayShort) {
+                ArrayShort array = (ArrayShort) list;
+                short[] data = array.wrappedArray();
+                index += array.startIndex();
+                for (int i = destPos; i < destPos + length; i++) {
+                    dest[i] = data[index];
+                    index += step;
+                }
+            } else {
+                for (int i = destPos; i < destPos + length; i++) {
+                    dest[i] = list.getShort(index);
+                    index += step;
+                }
+            }
+        }
+    }
+
+    /**
+     * A StridedView implementation for bytes.
+     */
+    static class Byte extends ListByte {
+        private final ListByte list;
+        private final int start;
+        private final int step;
+        private final int size;
+
+        public Byte(ListByte list, int start, int step) {
+            this.size = viewSize(list.size(), start, step);
+            this.list = list;
+            this.start = start;
+            this.step = step;
+        }
+
+        @Override
+        public byte getByte(int index) {
+            if (index < 0 || index >= size)
+                throw new IndexOutOfBoundsException("Index: "+index+", Size: "+size);
+            return list.getByte(start + index * step);
+        }
+
+        @Override
+        public void setByte(int index, byte value) {
+            if (index < 0 || index >= size)
+                throw new IndexOutOfBoundsException("Index: "+index+", Size: "+size);
+            list.setByte(start + index * step, value);
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public <T> T toArray(T array) {
+            if (array instanceof byte[]) {
+                byte[] byteArray;
+                if (((byte[]) array).length < size()) {
+                    byteArray = new byte[size()];
+                } else {
+                    byteArray = (byte[]) array;
+                }
+                copyTo(0, byteArray, 0, size());
+                return (T) byteArray;
+            }
+            return super.toArray(array);
+        }
+
+        void copyTo(int srcPos, byte[] dest, int destPos, int length) {
+            int index = start + srcPos * step;
+            if (list instanceof ArrayByte) {
+                ArrayByte array = (ArrayByte) list;
+                byte[] data = array.wrappedArray();
+                index += array.startIndex();
+                for (int i = destPos; i < destPos + length; i++) {
+                    dest[i] = data[index];
+                    index += step;
+                }
+            } else {
+                for (int i = destPos; i < destPos + length; i++) {
+                    dest[i] = list.getByte(index);
+                    index += step;
+                }
+            }
+        }
+    }
+
+    /**
+     * A StridedView implementation for unsigned longs.
+     */
+    static class ULong extends ListULong {
+        private final ListULong list;
+        private final int start;
+        private final int step;
+        private final int size;
+
+        public ULong(ListULong list, int start, int step) {
+            this.size = viewSize(list.size(), start, step);
+            this.list = list;
+            this.start = start;
+            this.step = step;
+        }
+
+        @Override
+        public long getLong(int index) {
+            if (index < 0 || index >= size)
+                throw new IndexOutOfBoundsException("Index: "+index+", Size: "+size);
+            return list.getLong(start + index * step);
+        }
+
+        @Override
+        public void setLong(int index, long value) {
+            if (index < 0 || index >= size)
+                throw new IndexOutOfBoundsException("Index: "+index+", Size: "+size);
+            list.setLong(start + index * step, value);
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public <T> T toArray(T array) {
+            if (array instanceof long[]) {
+                long[] longArray;
+                if (((long[]) array).length < size()) {
+                    longArray = new long[size()];
+                } else {
+                    longArray = (long[]) array;
+                }
+                copyTo(0, longArray, 0, size());
+                return (T) longArray;
+            }
+            return super.toArray(array);
+        }
+
+        void copyTo(int srcPos, long[] dest, int destPos, int length) {
+            int index = start + srcPos * step;
+            if (list instanceof ArrayULong) {
+                ArrayULong array = (ArrayULong) list;
+                long[] data = array.wrappedArray();
+                index += array.startIndex();
+                for (int i = destPos; i < destPos + length; i++) {
+                    dest[i] = data[index];
+                    index += step;
+                }
+            } else {
+                for (int i = destPos; i < destPos + length; i++) {
+                    dest[i] = list.getLong(index);
+                    index += step;
+                }
+            }
+        }
+    }
+
+    /**
+     * A StridedView implementation for unsigned integers.
+     */
+    static class UInt extends ListUInteger {
+        private final ListUInteger list;
+        private final int start;
+        private final int step;
+        private final int size;
+
+        public UInt(ListUInteger list, int start, int step) {
+            this.size = viewSize(list.size(), start, step);
+            this.list = list;
+            this.start = start;
+            this.step = step;
+        }
+
+        @Override
+        public int getInt(int index) {
+            if (index < 0 || index >= size)
+                throw new IndexOutOfBoundsException("Index: "+index+", Size: "+size);
+            return list.getInt(start + index * step);
+        }
+
+        @Override
+        public void setInt(int index, int value) {
+            if (index < 0 || index >= size)
+                throw new IndexOutOfBoundsException("Index: "+index+", Size: "+size);
+            list.setInt(start + index * step, value);
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public <T> T toArray(T array) {
+            if (array instanceof int[]) {
+                int[] intArray;
+                if (((int[]) array).length < size()) {
+                    intArray = new int[size()];
+                } else {
+                    intArray = (int[]) array;
+                }
+                copyTo(0, intArray, 0, size());
+                return (T) intArray;
+            }
+            return super.toArray(array);
+        }
+
+        void copyTo(int srcPos, int[] dest, int destPos, int length) {
+            int index = start + srcPos * step;
+            if (list instanceof ArrayUInteger) {
+                ArrayUInteger array = (ArrayUInteger) list;
+                int[] data = array.wrappedArray();
+                index += array.startIndex();
+                for (int i = destPos; i < destPos + length; i++) {
+                    dest[i] = data[index];
+                    index += step;
+                }
+            } else {
+                for (int i = destPos; i < destPos + length; i++) {
+                    dest[i] = list.getInt(index);
+                    index += step;
+                }
+            }
+        }
+    }
+
+    /**
+     * A StridedView implementation for unsigned shorts.
+     */
+    static class UShort extends ListUShort {
+        private final ListUShort list;
+        private final int start;
+        private final int step;
+        private final int size;
+
+        public UShort(ListUShort list, int start, int step) {
+            this.size = viewSize(list.size(), start, step);
+            this.list = list;
+            this.start = start;
+            this.step = step;
+        }
+
+        @Override
+        public short getShort(int index) {
+            if (index < 0 || index >= size)
+                throw new IndexOutOfBoundsException("Index: "+index+", Size: "+size);
+            return list.getShort(start + index * step);
+        }
+
+        @Override
+        public void setShort(int index, short value) {
+            if (index < 0 || index >= size)
+                throw new IndexOutOfBoundsException("Index: "+index+", Size: "+size);
+            list.setShort(start + index * step, value);
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public <T> T toArray(T array) {
+            if (array instanceof short[]) {
+                short[] shortArray;
+                if (((short[]) array).length < size()) {
+                    shortArray = new short[size()];
+                } else {
+                    shortArray = (short[]) array;
+                }
+                copyTo(0, shortArray, 0, size());
+                return (T) shortArray;
+            }
+            return super.toArray(array);
+        }
+
+        void copyTo(int srcPos, short[] dest, int destPos, int length) {
+            int index = start + srcPos * step;
+            if (list instanceof ArrayUShort) {
+                ArrayUShort array = (ArrayUShort) list;
+                short[] data = array.wrappedArray();
+                index += array.startIndex();
+                for (int i = destPos; i < destPos + length; i++) {
+                    dest[i] = data[index];
+                    index += step;
+                }
+            } else {
+                for (int i = destPos; i < destPos + length; i++) {
+                    dest[i] = list.getShort(index);
+                    index += step;
+                }
+            }
+        }
+    }
+
+    /**
+     * A StridedView implementation for unsigned bytes.
+     */
+    static class UByte extends ListUByte {
+        private final ListUByte list;
+        private final int start;
+        private final int step;
+        private final int size;
+
+        public UByte(ListUByte list, int start, int step) {
+            this.size = viewSize(list.size(), start, step);
+            this.list = list;
+            this.start = start;
+            this.step = step;
+        }
+
+        @Override
+        public byte getByte(int index) {
+            if (index < 0 || index >= size)
+                throw new IndexOutOfBoundsException("Index: "+index+", Size: "+size);
+            return list.getByte(start + index * step);
+        }
+
+        @Override
+        public void setByte(int index, byte value) {
+            if (index < 0 || index >= size)
+                throw new IndexOutOfBoundsException("Index: "+index+", Size: "+size);
+            list.setByte(start + index * step, value);
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public <T> T toArray(T array) {
+            if (array instanceof byte[]) {
+                byte[] byteArray;
+                if (((byte[]) array).length < size()) {
+                    byteArray = new byte[size()];
+                } else {
+                    byteArray = (byte[]) array;
+                }
+                copyTo(0, byteArray, 0, size());
+                return (T) byteArray;
+            }
+            return super.toArray(array);
+        }
+
+        void copyTo(int srcPos, byte[] dest, int destPos, int length) {
+            int index = start + srcPos * step;
+            if (list instanceof ArrayUByte) {
+                ArrayUByte array = (ArrayUByte) list;
+                byte[] data = array.wrappedArray();
+                index += array.startIndex();
+                for (int i = destPos; i < destPos + length; i++) {
+                    dest[i] = data[index];
+                    index += step;
+                }
+            } else {
+                for (int i = destPos; i < destPos + length; i++) {
+                    dest[i] = list.getByte(index);
+                    index += step;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,346 @@
+/**
+ * Copyright (C) 2010-14 diirt developers. See COPYRIGHT.TXT
+ * All rights reserved. Use is subject to license terms. See LICENSE.TXT
+ */
+package org.epics.util.stats;
+
+import java.util.Arrays;
+import org.epics.util.array.ArrayLong;
+import org.epics.util.array.CollectionNumbers;
+import org.epics.util.array.ListByte;
+import org.epics.util.array.ListNumber;
+import org.epics.util.array.ListShort;
+import org.epics.util.array.ListUByte;
+import org.epics.util.array.ListUShort;
+import org.epics.util.array.ParallelExecution;
+
+/**
+ * A histogram with bins of the same width over a range.
+ * <p>
+ * Each bin includes its lower boundary and excludes the upper one, except
+ * for the last bin which includes the maximum of the range. Values outside
+ * the range are counted as underflow or overflow; NaN values are skipped.
+ * <p>
+ * Byte and short lists (signed or unsigned) are copied in blocks of raw
+ * values, which are binned with a lookup table computed the first time it
+ * is needed. Other lists are converted to double in blocks. Large lists are filled in parallel
+ * if the {@link ParallelExecution} mode is enabled: each thread fills a
+ * partial histogram, and the partial counts are then added.
+ * <p>
+ * The class is not thread safe.
+ *
+ * @author carcassi
+ */
+public final class Histogram {
+
+    private static final int BLOCK_SIZE = Statistics.BLOCK_SIZE;
+
+    private final Range range;
+    private final int nBins;
+    private final double min;
+    private final double max;
+    private final double scale;
+    // counts[0] is the underflow, counts[1..nBins] are the bins,
+    // counts[nBins + 1] is the overflow
+    private final long[] counts;
+
+    // Lookup tables from the raw bits of the value to the slot in counts
+    private int[] byteTable;
+    private int[] ubyteTable;
+    private int[] shortTable;
+    private int[] ushortTable;
+    // Reused by addAll when the list is not split
+    private double[] block;
+    private byte[] byteBlock;
+    private short[] shortBlock;
+
+    /**
+     * Creates an empty histogram.
+     *
+     * @param range the range covered by the bins; must be finite
+     * @param nBins the number of bins
+     */
+    public Histogram(Range range, int nBins) {
+        if (!range.isFinite()) {
+            throw new IllegalArgumentException("Range must be finite and non-zero (was " + range + ")");
+        }
+        if (nBins < 1) {
+            throw new IllegalArgumentException("Number of bins must be positive (was " + nBins + ")");
+        }
+        this.range = range;
+        this.nBins = nBins;
+        this.min = range.getMinimum();
+        this.max = range.getMaximum();
+        this.scale = nBins / (max - min);
+        this.counts = new long[nBins + 2];
+    }
+
+    /**
+     * Returns the slot in counts for the given value, or -1 for NaN.
+     */
+    private int slot(double value) {
+        if (value >= min) {
+            if (value < max) {
+                // Rounding can't go past the last bin
+                return Math.min((int) ((value - min) * scale), nBins - 1) + 1;
+            } else if (value == max) {
+                return nBins;
+            } else {
+                return nBins + 1;
+            }
+        } else if (value < min) {
+            return 0;
+        }
+        return -1;
+    }
+
+    /**
+     * Adds a value.
+     *
+     * @param value a value; NaN is skipped
+     */
+    public void add(double value) {
+        int slot = slot(value);
+        if (slot >= 0) {
+            counts[slot]++;
+        }
+    }
+
+    /**
+     * Adds all the values of the list.
+     *
+     * @param data a list of numbers; NaNs are skipped
+     */
+    public void addAll(final ListNumber data) {
+        // The tables are prepared before the threads read them
+        final int[] table;
+        if (data instanceof ListUByte) {
+            if (ubyteTable == null) {
+                ubyteTable = table(256, false);
+            }
+            table = ubyteTable;
+        } else if (data instanceof ListByte) {
+            if (byteTable == null) {
+                byteTable = table(256, true);
+            }
+            table = byteTable;
+        } else if (data instanceof ListUShort) {
+            if (ushortTable == null) {
+                ushortTable = table(65536, false);
+            }
+            table = ushortTable;
+        } else if (data instanceof ListShort) {
+            if (shortTable == null) {
+                shortTable = table(65536, true);
+            }
+            table = shortTable;
+        } else {
+            table = null;
+        }
+
+        final int size = data.size();
+        // Computed in long: rounding up would overflow near Integer.MAX_VALUE
+        final long nBlocks = ((long) size + BLOCK_SIZE - 1) / BLOCK_SIZE;
+        ParallelExecution.forEachBlock(data, BLOCK_SIZE, (fromBlock, toBlock) -> {
+            // The whole list in one range: no need for a partial histogram
+            boolean whole = fromBlock == 0 && toBlock == nBlocks;
+            long[] partial = whole ? counts : new long[counts.length];
+            int fromIndex = fromBlock * BLOCK_SIZE;
+            int toIndex = (int) Math.min((long) toBlock * BLOCK_SIZE, size);
+            if (table == null) {
+                double[] buffer;
+                if (whole) {
+                    if (block == null) {
+                        block = new double[BLOCK_SIZE];
+                    }
+                    buffer = block;
+                } else {
+                    buffer = new double[BLOCK_SIZE];
+                }
+                fill(data, fromIndex, toIndex, buffer, partial);
+            } else if (table.length == 256) {
+                byte[] buffer;
+                if (whole) {
+                    if (byteBlock == null) {
+                        byteBlock = new byte[BLOCK_SIZE];
+                    }
+                    buffer = byteBlock;
+                } else {
+                    buffer = new byte[BLOCK_SIZE];
+                }
+                fill(data, fromIndex, toIndex, buffer, table, partial);
+            } else {
+                short[] buffer;
+                if (whole) {
+                    if (shortBlock == null) {
+                        shortBlock = new short[BLOCK_SIZE];
+                    }
+                    buffer = shortBlock;
+                } else {
+                    buffer = new short[BLOCK_SIZE];
+                }
+                fill(data, fromIndex, toIndex, buffer, table, partial);
+            }
+            if (!whole) {
+                synchronized (counts) {
+                    for (int i = 0; i < counts.length; i++) {
+                        counts[i] += partial[i];
+                    }
+                }
+            }
+        });
+    }
+
+    /**
+     * Returns the table from the raw bits of a byte (length 256) or of a
+     * short (length 65536) to the slot, so that signed and unsigned values
+     * are both looked up with the unsigned raw bits.
+     */
+    private int[] table(int length, boolean signed) {
+        int[] table = new int[length];
+        for (int i = 0; i < length; i++) {
+            int value = i;
+            if (signed) {
+                value = length == 256 ? (byte) i : (short) i;
+            }
+            table[i] = slot(value);
+        }
+        return table;
+    }
+
+    private void fill(ListNumber data, int fromIndex, int toIndex, double[] block, long[] partial) {
+        for (int start = fromIndex; start < toIndex; start += BLOCK_SIZE) {
+            int length = Math.min(BLOCK_SIZE, toIndex - start);
+            CollectionNumbers.arrayCopy(data, start, block, 0, length);
+            for (int i = 0; i < length; i++) {
+                int slot = slot(block[i]);
+                if (slot >= 0) {
+                    partial[slot]++;
+                }
+            }
+        }
+    }
+
+    private static void fill(ListNumber data, int fromIndex, int toIndex, byte[] block, int[] table, long[] partial) {
+        // The raw bits are copied, and the table takes care of the sign
+        for (int start = fromIndex; start < toIndex; start += BLOCK_SIZE) {
+            int length = Math.min(BLOCK_SIZE, toIndex - start);
+            CollectionNumbers.arrayCopy(data, start, block, 0, length);
+            for (int i = 0; i < length; i++) {
+                partial[table[block[i] & 0xFF]]++;
+            }
+        }
+    }
+
+    private static void fill(ListNumber data, int fromIndex, int toIndex, short[] block, int[] table, long[] partial) {
+        for (int start = fromIndex; start < toIndex; start += BLOCK_SIZE) {
+            int length = Math.min(BLOCK_SIZE, toIndex - start);
+            CollectionNumbers.arrayCopy(data, start, block, 0, length);
+            for (int i = 0; i < length; i++) {
+                partial[table[block[i] & 0xFFFF]]++;
+            }
+        }
+    }
+
+    /**
+     * Adds the counts of another histogram with the same range and number
+     * of bins.
+     *
+     * @param other another histogram; it is not modified
+     */
+    public void merge(Histogram other) {
+        if (!range.equals(other.range) || nBins != other.nBins) {
+            throw new IllegalArgumentException("Histograms have different bins (" + this + " and " + other + ")");
+        }
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] += other.counts[i];
+        }
+    }
+
+    /**
+     * Resets all the counts to zero.
+     */
+    public void clear() {
+        Arrays.fill(counts, 0);
+    }
+
+    /**
+     * The range covered by the bins.
+     *
+     * @return the range
+     */
+    public Range getRange() {
+        return range;
+    }
+
+    /**
+     * The number of bins.
+     *
+     * @return the number of bins
+     */
+    public int getNBins() {
+        return nBins;
+    }
+
+    /**
+     * The range of values counted in the given bin.
+     *
+     * @param bin the index of the bin
+     * @return the boundaries of the bin
+     */
+    public Range getBinRange(int bin) {
+        if (bin < 0 || bin >= nBins) {
+            throw new IndexOutOfBoundsException("Bin: " + bin + ", Bins: " + nBins);
+        }
+        double width = (max - min) / nBins;
+        return Range.of(min + bin * width, bin == nBins - 1 ? max : min + (bin + 1) * width);
+    }
+
+    /**
+     * The count of each bin. The list is a copy, which does not change
+     * when new values are added.
+     *
+     * @return the counts
+     */
+    public ArrayLong getCounts() {
+        long[] binCounts = new long[nBins];
+        System.arraycopy(counts, 1, binCounts, 0, nBins);
+        return CollectionNumbers.immutableListLong(binCounts);
+    }
+
+    /**
+     * The count of the given bin.
+     *
+     * @param bin the index of the bin
+     * @return the number of values in the bin
+     */
+    public long getCount(int bin) {
+        if (bin < 0 || bin >= nBins) {
+            throw new IndexOutOfBoundsException("Bin: " + bin + ", Bins: " + nBins);
+        }
+        return counts[bin + 1];
+    }
+
+    /**
+     * The number of values smaller than the minimum of the range.
+     *
+     * @return the underflow count
+     */
+    public long getUnderflow() {
+        return counts[0];
+    }
+
+    /**
+     * The number of values greater than the maximum of the range.
+     *
+     * @return the overflow count
+     */
+    public long getOverflow() {
+        return counts[nBins + 1];
+    }
+
+    @Override
+    public String toString() {
+        return "Histogram[range=" + range + ", nBins=" + nBins + "]";
+    }
+}
@@ -4,6 +4,20 @@
  */
 package org.epics.util.stats;
 
+import org.epics.util.array.CollectionNumbers;
+import org.epics.util.array.ListByte;
+import org.epics.util.array.ListFloat;
+import org.epics.util.array.ListInteger;
+import org.epics.util.array.ListLong;
+import org.epics.util.array.ListNumber;
+import org.epics.util.array.ListNumbers;
+import org.epics.util.array.ListProperties;
+import org.epics.util.array.ListShort;
+import org.epics.util.array.ListUByte;
+import org.epics.util.array.ListUInteger;
+import org.epics.util.array.ListUShort;
+import org.epics.util.array.ParallelExecution;
+
 /**
  * Utility classes to compute ranges.
  *
@@ -45,4 +59,228 @@ public class Ranges {
         double fraction = Math.max(0.0, overlapWidth / rangeWidth);
         return fraction;
     }
+
+    /**
+     * Returns the range of the values in the list, skipping NaNs.
+     *
+     * @param data a list of numbers
+     * @return the range of the values, or {@link Range#undefined()} if there
+     *         are none
+     * @see #range(org.epics.util.array.ListNumber, boolean)
+     */
+    public static Range range(ListNumber data) {
+        return range(data, false);
+    }
+
+    /**
+     * Returns the range of the values in the list, skipping NaNs and,
+     * optionally, infinities.
+     * <p>
+     * The minimum and maximum are computed in one pass, with a dedicated loop
+     * for each type of list, so that integer types are compared without
+     * conversions. The range of the lists created by {@link ListNumbers#linearList(double, double, int) }
+     * and {@link ListNumbers#linearListFromRange(double, double, int) } is
+     * computed from the first and last element, and the one of immutable
+     * arrays is taken from their cached properties if these were already
+     * computed (see {@link ListProperties#ifComputed(org.epics.util.array.ListNumber) }). Large
+     * lists are processed in parallel if the {@link ParallelExecution} mode
+     * is enabled.
+     *
+     * @param data a list of numbers
+     * @param skipNonFinite whether infinite values should also be skipped
+     * @return the range of the values, or {@link Range#undefined()} if there
+     *         are none
+     */
+    public static Range range(final ListNumber data, final boolean skipNonFinite) {
+        if (data.size() == 0) {
+            return Range.undefined();
+        }
+        if (ListNumbers.isLinearInstance(data)) {
+            double first = data.getDouble(0);
+            double last = data.getDouble(data.size() - 1);
+            if (!skipNonFinite || (!Double.isInfinite(first) && !Double.isInfinite(last))) {
+                return Range.of(Math.min(first, last), Math.max(first, last));
+            }
+        }
+        // Computing all the properties would take longer than the range
+        ListProperties properties = ListProperties.ifComputed(data);
+        if (properties != null) {
+            if (skipNonFinite) {
+                return Range.of(properties.getFiniteMinimum(), properties.getFiniteMaximum());
+            }
+            return Range.of(properties.getMinimum(), properties.getMaximum());
+        }
+
+        // result[0] is the minimum and result[1] the maximum
+        final double[] result = {Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY};
+        final int size = data.size();
+        // Computed in long: rounding up would overflow near Integer.MAX_VALUE
+        final long nBlocks = ((long) size + Statistics.BLOCK_SIZE - 1) / Statistics.BLOCK_SIZE;
+        final boolean[] found = new boolean[1];
+        ParallelExecution.forEachBlock(data, Statistics.BLOCK_SIZE, (fromBlock, toBlock) -> {
+            // The whole list in one range: no need for a partial result
+            boolean whole = fromBlock == 0 && toBlock == nBlocks;
+            double[] partial = whole ? result : new double[] {Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY};
+            boolean partialFound = minMax(data, fromBlock * Statistics.BLOCK_SIZE,
+                    (int) Math.min((long) toBlock * Statistics.BLOCK_SIZE, size), skipNonFinite, partial);
+            if (whole) {
+                found[0] = partialFound;
+            } else if (partialFound) {
+                synchronized (result) {
+                    found[0] = true;
+                    result[0] = Math.min(result[0], partial[0]);
+                    result[1] = Math.max(result[1], partial[1]);
+                }
+            }
+        });
+        if (!found[0]) {
+            return Range.undefined();
+        }
+        return Range.of(result[0], result[1]);
+    }
+
+    /**
+     * Computes minimum and maximum of the given elements, and returns whether
+     * any value was found. The elements are copied in blocks of their own
+     * type, so that the array lists are read with a bulk copy and the
+     * integer types are compared without conversions.
+     */
+    private static boolean minMax(ListNumber data, int fromIndex, int toIndex, boolean skipNonFinite, double[] result) {
+        if (fromIndex >= toIndex) {
+            return false;
+        }
+        int blockLength = Math.min(Statistics.BLOCK_SIZE, toIndex - fromIndex);
+        if (data instanceof ListByte || data instanceof ListUByte) {
+            // The raw bits are copied: the mask gives the unsigned value
+            int mask = data instanceof ListUByte ? 0xFF : -1;
+            byte[] block = new byte[blockLength];
+            int min = Integer.MAX_VALUE;
+            int max = Integer.MIN_VALUE;
+            for (int start = fromIndex; start < toIndex; start += blockLength) {
+                int length = Math.min(blockLength, toIndex - start);
+                CollectionNumbers.arrayCopy(data, start, block, 0, length);
+                for (int i = 0; i < length; i++) {
+                    int value = block[i] & mask;
+                    min = Math.min(min, value);
+                    max = Math.max(max, value);
+                }
+            }
+            result[0] = min;
+            result[1] = max;
+        } else if (data instanceof ListShort || data instanceof ListUShort) {
+            int mask = data instanceof ListUShort ? 0xFFFF : -1;
+            short[] block = new short[blockLength];
+            int min = Integer.MAX_VALUE;
+            int max = Integer.MIN_VALUE;
+            for (int start = fromIndex; start < toIndex; start += blockLength) {
+                int length = Math.min(blockLength, toIndex - start);
+                CollectionNumbers.arrayCopy(data, start, block, 0, length);
+                for (int i = 0; i < length; i++) {
+                    int value = block[i] & mask;
+                    min = Math.min(min, value);
+                    max = Math.max(max, value);
+                }
+            }
+            result[0] = min;
+            result[1] = max;
+        } else if (data instanceof ListInteger) {
+            int[] block = new int[blockLength];
+            int min = Integer.MAX_VALUE;
+            int max = Integer.MIN_VALUE;
+            for (int start = fromIndex; start < toIndex; start += blockLength) {
+                int length = Math.min(blockLength, toIndex - start);
+                CollectionNumbers.arrayCopy(data, start, block, 0, length);
+                for (int i = 0; i < length; i++) {
+                    int value = block[i];
+                    min = Math.min(min, value);
+                    max = Math.max(max, value);
+                }
+            }
+            result[0] = min;
+            result[1] = max;
+        } else if (data instanceof ListUInteger) {
+            int[] block = new int[blockLength];
+            long min = Long.MAX_VALUE;
+            long max = Long.MIN_VALUE;
+            for (int start = fromIndex; start < toIndex; start += blockLength) {
+                int length = Math.min(blockLength, toIndex - start);
+                CollectionNumbers.arrayCopy(data, start, block, 0, length);
+                for (int i = 0; i < length; i++) {
+                    long value = block[i] & 0xFFFFFFFFL;
+                    min = Math.min(min, value);
+                    max = Math.max(max, value);
+                }
+            }
+            result[0] = min;
+            result[1] = max;
+        } else if (data instanceof ListLong) {
+            long[] block = new long[blockLength];
+            long min = Long.MAX_VALUE;
+            long max = Long.MIN_VALUE;
+            for (int start = fromIndex; start < toIndex; start += blockLength) {
+                int length = Math.min(blockLength, toIndex - start);
+                CollectionNumbers.arrayCopy(data, start, block, 0, length);
+                for (int i = 0; i < length; i++) {
+                    long value = block[i];
+                    min = Math.min(min, value);
+                    max = Math.max(max, value);
+                }
+            }
+            result[0] = min;
+            result[1] = max;
+        } else if (data instanceof ListFloat) {
+            float[] block = new float[blockLength];
+            float min = Float.POSITIVE_INFINITY;
+            float max = Float.NEGATIVE_INFINITY;
+            boolean found = false;
+            for (int start = fromIndex; start < toIndex; start += blockLength) {
+                int length = Math.min(blockLength, toIndex - start);
+                CollectionNumbers.arrayCopy(data, start, block, 0, length);
+                for (int i = 0; i < length; i++) {
+                    float value = block[i];
+                    if (Float.isNaN(value) || (skipNonFinite && Float.isInfinite(value))) {
+                        continue;
+                    }
+                    found = true;
+                    if (value < min) {
+                        min = value;
+                    }
+                    if (value > max) {
+                        max = value;
+                    }
+                }
+            }
+            result[0] = min;
+            result[1] = max;
+            return found;
+        } else {
+            // Doubles, and the unsigned longs that can only be
+            // compared after conversion
+            double[] block = new double[blockLength];
+            double min = Double.POSITIVE_INFINITY;
+            double max = Double.NEGATIVE_INFINITY;
+            boolean found = false;
+            for (int start = fromIndex; start < toIndex; start += blockLength) {
+                int length = Math.min(blockLength, toIndex - start);
+                CollectionNumbers.arrayCopy(data, start, block, 0, length);
+                for (int i = 0; i < length; i++) {
+                    double value = block[i];
+                    if (Double.isNaN(value) || (skipNonFinite && Double.isInfinite(value))) {
+                        continue;
+                    }
+                    found = true;
+                    if (value < min) {
+                        min = value;
+                    }
+                    if (value > max) {
+                        max = value;
+                    }
+                }
+            }
+            result[0] = min;
+            result[1] = max;
+            return found;
+        }
+        return true;
+    }
 }
@@ -0,0 +1,288 @@
+/**
+ * Copyright (C) 2010-14 diirt developers. See COPYRIGHT.TXT
+ * All rights reserved. Use is subject to license terms. See LICENSE.TXT
+ */
+package org.epics.util.stats;
+
+import java.util.SortedMap;
+import java.util.TreeMap;
+import org.epics.util.array.CollectionNumbers;
+import org.epics.util.array.ListNumber;
+import org.epics.util.array.ParallelExecution;
+
+/**
+ * Accumulates count, mean, variance, minimum and maximum of a set of values
+ * in a single pass.
+ * <p>
+ * The mean and the sum of squared deviations are updated with the
+ * Welford/Chan formulas, which do not lose precision when the mean is large
+ * compared to the spread, as the naive sum of squares does. Two accumulators
+ * can be {@link #merge(org.epics.util.stats.Statistics) merged}, so that
+ * the values can be split and processed separately.
+ * <p>
+ * Lists are processed in blocks of fixed size: each block is copied into
+ * a buffer that is reused, reduced with two passes on data that is still
+ * in cache, and merged in order. The blocks are processed in parallel if the
+ * {@link ParallelExecution} mode is enabled and the list is large enough:
+ * each thread accumulates the blocks of its range, and the partial results
+ * are merged in the order of the ranges. The result is then the same as
+ * the sequential one up to rounding.
+ * <p>
+ * NaN values are skipped. The accumulator is not thread safe.
+ *
+ * @author carcassi
+ */
+public final class Statistics {
+
+    static final int BLOCK_SIZE = 1024;
+
+    private long count;
+    private double mean;
+    // Sum of the squared deviations from the mean
+    private double m2;
+    private double min = Double.POSITIVE_INFINITY;
+    private double max = Double.NEGATIVE_INFINITY;
+    // Reused by addAll when the list is not split
+    private double[] block;
+
+    /**
+     * Creates an accumulator with no values.
+     */
+    public Statistics() {
+    }
+
+    /**
+     * Computes the statistics of the given list.
+     *
+     * @param data a list of numbers
+     * @return the statistics of the list
+     */
+    public static Statistics of(ListNumber data) {
+        Statistics statistics = new Statistics();
+        statistics.addAll(data);
+        return statistics;
+    }
+
+    /**
+     * Adds a value.
+     *
+     * @param value a value; NaN is skipped
+     */
+    public void add(double value) {
+        if (Double.isNaN(value)) {
+            return;
+        }
+        count++;
+        double delta = value - mean;
+        mean += delta / count;
+        m2 += delta * (value - mean);
+        if (value < min) {
+            min = value;
+        }
+        if (value > max) {
+            max = value;
+        }
+    }
+
+    /**
+     * Adds all the values of the list.
+     *
+     * @param data a list of numbers; NaNs are skipped
+     */
+    public void addAll(final ListNumber data) {
+        final int size = data.size();
+        if (size == 0) {
+            return;
+        }
+        // Computed in long: rounding up would overflow near Integer.MAX_VALUE
+        final long nBlocks = ((long) size + BLOCK_SIZE - 1) / BLOCK_SIZE;
+        // The partial result of each range, by first block
+        final SortedMap<Integer, Statistics> partials = new TreeMap<>();
+        ParallelExecution.forEachBlock(data, BLOCK_SIZE, (fromBlock, toBlock) -> {
+            // The whole list in one range: accumulate directly
+            // in this, reusing its buffer
+            boolean whole = fromBlock == 0 && toBlock == nBlocks;
+            Statistics partial;
+            double[] buffer;
+            if (whole) {
+                if (block == null) {
+                    block = new double[BLOCK_SIZE];
+                }
+                partial = this;
+                buffer = block;
+            } else {
+                partial = new Statistics();
+                buffer = new double[BLOCK_SIZE];
+            }
+            for (int b = fromBlock; b < toBlock; b++) {
+                int from = b * BLOCK_SIZE;
+                int length = Math.min(BLOCK_SIZE, size - from);
+                CollectionNumbers.arrayCopy(data, from, buffer, 0, length);
+                addBlock(buffer, length, partial);
+            }
+            if (!whole) {
+                synchronized (partials) {
+                    partials.put(fromBlock, partial);
+                }
+            }
+        });
+        for (Statistics partial : partials.values()) {
+            merge(partial);
+        }
+    }
+
+    /**
+     * Reduces a block with two passes, and merges it into the accumulator.
+     */
+    private static void addBlock(double[] values, int length, Statistics statistics) {
+        long n = 0;
+        double sum = 0;
+        double blockMin = Double.POSITIVE_INFINITY;
+        double blockMax = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < length; i++) {
+            double value = values[i];
+            // NaN fails all comparisons and is skipped
+            if (value == value) {
+                n++;
+                sum += value;
+                if (value < blockMin) {
+                    blockMin = value;
+                }
+                if (value > blockMax) {
+                    blockMax = value;
+                }
+            }
+        }
+        if (n == 0) {
+            return;
+        }
+        double blockMean = sum / n;
+        if (Double.isInfinite(blockMean) && !Double.isInfinite(blockMin) && !Double.isInfinite(blockMax)) {
+            // The sum overflowed: average incrementally instead
+            blockMean = 0;
+            long k = 0;
+            for (int i = 0; i < length; i++) {
+                double value = values[i];
+                if (value == value) {
+                    k++;
+                    blockMean += (value - blockMean) / k;
+                }
+            }
+        }
+        double blockM2 = 0;
+        for (int i = 0; i < length; i++) {
+            double value = values[i];
+            if (value == value) {
+                double delta = value - blockMean;
+                blockM2 += delta * delta;
+            }
+        }
+        statistics.merge(n, blockMean, blockM2, blockMin, blockMax);
+    }
+
+    /**
+     * Adds all the values accumulated by the other statistics.
+     *
+     * @param other another accumulator; it is not modified
+     */
+    public void merge(Statistics other) {
+        merge(other.count, other.mean, other.m2, other.min, other.max);
+    }
+
+    private void merge(long otherCount, double otherMean, double otherM2, double otherMin, double otherMax) {
+        if (otherCount == 0) {
+            return;
+        }
+        if (count == 0) {
+            count = otherCount;
+            mean = otherMean;
+            m2 = otherM2;
+            min = otherMin;
+            max = otherMax;
+            return;
+        }
+        long newCount = count + otherCount;
+        double delta = otherMean - mean;
+        mean += delta * ((double) otherCount / newCount);
+        m2 += otherM2 + delta * delta * ((double) count * otherCount / newCount);
+        count = newCount;
+        if (otherMin < min) {
+            min = otherMin;
+        }
+        if (otherMax > max) {
+            max = otherMax;
+        }
+    }
+
+    /**
+     * Removes all the values.
+     */
+    public void clear() {
+        count = 0;
+        mean = 0;
+        m2 = 0;
+        min = Double.POSITIVE_INFINITY;
+        max = Double.NEGATIVE_INFINITY;
+    }
+
+    /**
+     * The number of values, excluding NaNs.
+     *
+     * @return the number of values
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * The mean of the values.
+     *
+     * @return the mean, or NaN if there are no values
+     */
+    public double getMean() {
+        return count == 0 ? Double.NaN : mean;
+    }
+
+    /**
+     * The population variance of the values (i.e. the sum of the squared
+     * deviations divided by the number of values).
+     *
+     * @return the variance, or NaN if there are no values
+     */
+    public double getVariance() {
+        return count == 0 ? Double.NaN : m2 / count;
+    }
+
+    /**
+     * The sample variance of the values (i.e. the sum of the squared
+     * deviations divided by the number of values minus one).
+     *
+     * @return the sample variance, or NaN if there are fewer than two values
+     */
+    public double getSampleVariance() {
+        return count < 2 ? Double.NaN : m2 / (count - 1);
+    }
+
+    /**
+     * The population standard deviation of the values.
+     *
+     * @return the standard deviation, or NaN if there are no values
+     */
+    public double getStdDev() {
+        return Math.sqrt(getVariance());
+    }
+
+    /**
+     * The range of the values.
+     *
+     * @return the range, or {@link Range#undefined()} if there are no values
+     */
+    public Range getRange() {
+        return count == 0 ? Range.undefined() : Range.of(min, max);
+    }
+
+    @Override
+    public String toString() {
+        return "Statistics[count=" + count + ", mean=" + getMean() + ", stdDev=" + getStdDev() + ", range=" + getRange() + "]";
+    }
+}
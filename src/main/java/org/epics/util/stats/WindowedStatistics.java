@@ -0,0 +1,297 @@
+/**
+ * Copyright (C) 2010-14 diirt developers. See COPYRIGHT.TXT
+ * All rights reserved. Use is subject to license terms. See LICENSE.TXT
+ */
+package org.epics.util.stats;
+
+import org.epics.util.array.CircularBufferDouble;
+import org.epics.util.array.CollectionNumbers;
+import org.epics.util.array.ListDouble;
+
+/**
+ * Keeps the last values in a {@link CircularBufferDouble} and the statistics
+ * of the values in the window, updated as each new value evicts the oldest.
+ * <p>
+ * Each update takes constant time. Mean and variance are updated by
+ * removing the evicted value and adding the new one with the Welford
+ * formulas; to bound the rounding error that builds up with the removals,
+ * they are recomputed exactly from the window each time it has been
+ * entirely replaced, which costs constant time per update on average.
+ * Minimum and maximum are tracked with monotonic deques, which keep only the
+ * values that can still become the extreme of a later window.
+ * <p>
+ * NaN values take a place in the window, but are skipped in the statistics.
+ * The class is not thread safe.
+ *
+ * @author carcassi
+ */
+public final class WindowedStatistics {
+
+    private final int windowSize;
+    private final CircularBufferDouble window;
+    private final ListDouble readOnlyWindow;
+    private final MonotonicDeque minDeque;
+    private final MonotonicDeque maxDeque;
+
+    // Sequence number of the next value
+    private long next;
+    // Values added since the last exact computation
+    private int sinceRecompute;
+    private int count;
+    private double mean;
+    // Sum of the squared deviations from the mean
+    private double m2;
+
+    /**
+     * Creates statistics over the given number of most recent values.
+     *
+     * @param windowSize the number of values in the window
+     */
+    public WindowedStatistics(int windowSize) {
+        if (windowSize < 1) {
+            throw new IllegalArgumentException("Window size must be positive (was " + windowSize + ")");
+        }
+        this.windowSize = windowSize;
+        this.window = new CircularBufferDouble(windowSize);
+        this.readOnlyWindow = CollectionNumbers.unmodifiableList(window);
+        this.minDeque = new MonotonicDeque(windowSize, false);
+        this.maxDeque = new MonotonicDeque(windowSize, true);
+    }
+
+    /**
+     * Adds a new value, evicting the oldest one if the window is full.
+     *
+     * @param value the new value
+     */
+    public void addDouble(double value) {
+        if (window.size() == windowSize) {
+            remove(window.getDouble(0));
+        }
+        window.addDouble(value);
+        add(value);
+        long sequence = next++;
+        minDeque.expire(sequence - windowSize);
+        maxDeque.expire(sequence - windowSize);
+        if (!Double.isNaN(value)) {
+            minDeque.add(sequence, value);
+            maxDeque.add(sequence, value);
+        }
+        sinceRecompute++;
+        if (sinceRecompute >= windowSize) {
+            recompute();
+        }
+    }
+
+    private void add(double value) {
+        if (Double.isNaN(value)) {
+            return;
+        }
+        count++;
+        double delta = value - mean;
+        mean += delta / count;
+        m2 += delta * (value - mean);
+    }
+
+    private void remove(double value) {
+        if (Double.isNaN(value)) {
+            return;
+        }
+        if (count == 1) {
+            count = 0;
+            mean = 0;
+            m2 = 0;
+            return;
+        }
+        count--;
+        double delta = value - mean;
+        mean -= delta / count;
+        m2 -= delta * (value - mean);
+        if (m2 < 0) {
+            // Rounding error on a (near) constant window
+            m2 = 0;
+        }
+    }
+
+    /**
+     * Computes mean and variance exactly from the window, with two passes.
+     */
+    private void recompute() {
+        sinceRecompute = 0;
+        int n = 0;
+        double sum = 0;
+        for (int i = 0; i < window.size(); i++) {
+            double value = window.getDouble(i);
+            if (!Double.isNaN(value)) {
+                n++;
+                sum += value;
+            }
+        }
+        count = n;
+        if (n == 0) {
+            mean = 0;
+            m2 = 0;
+            return;
+        }
+        mean = sum / n;
+        double squares = 0;
+        for (int i = 0; i < window.size(); i++) {
+            double value = window.getDouble(i);
+            if (!Double.isNaN(value)) {
+                double delta = value - mean;
+                squares += delta * delta;
+            }
+        }
+        m2 = squares;
+    }
+
+    /**
+     * Removes all the values.
+     */
+    public void clear() {
+        window.clear();
+        minDeque.clear();
+        maxDeque.clear();
+        next = 0;
+        sinceRecompute = 0;
+        count = 0;
+        mean = 0;
+        m2 = 0;
+    }
+
+    /**
+     * The maximum number of values in the window.
+     *
+     * @return the window size
+     */
+    public int getWindowSize() {
+        return windowSize;
+    }
+
+    /**
+     * The values currently in the window, from the oldest to the newest.
+     * The list is a read-only view that changes as new values are added.
+     *
+     * @return the values in the window
+     */
+    public ListDouble getWindow() {
+        return readOnlyWindow;
+    }
+
+    /**
+     * The number of values in the window, excluding NaNs.
+     *
+     * @return the number of values
+     */
+    public int getCount() {
+        return count;
+    }
+
+    /**
+     * The mean of the values in the window.
+     *
+     * @return the mean, or NaN if there are no values
+     */
+    public double getMean() {
+        return count == 0 ? Double.NaN : mean;
+    }
+
+    /**
+     * The population variance of the values in the window.
+     *
+     * @return the variance, or NaN if there are no values
+     */
+    public double getVariance() {
+        return count == 0 ? Double.NaN : m2 / count;
+    }
+
+    /**
+     * The sample variance of the values in the window.
+     *
+     * @return the sample variance, or NaN if there are fewer than two values
+     */
+    public double getSampleVariance() {
+        return count < 2 ? Double.NaN : m2 / (count - 1);
+    }
+
+    /**
+     * The population standard deviation of the values in the window.
+     *
+     * @return the standard deviation, or NaN if there are no values
+     */
+    public double getStdDev() {
+        return Math.sqrt(getVariance());
+    }
+
+    /**
+     * The range of the values in the window.
+     *
+     * @return the range, or {@link Range#undefined()} if there are no values
+     */
+    public Range getRange() {
+        return count == 0 ? Range.undefined() : Range.of(minDeque.first(), maxDeque.first());
+    }
+
+    @Override
+    public String toString() {
+        return "WindowedStatistics[windowSize=" + windowSize + ", count=" + count + ", mean=" + getMean() + ", stdDev=" + getStdDev() + ", range=" + getRange() + "]";
+    }
+
+    /**
+     * The candidates for the minimum (or maximum) of the window, in the order
+     * they were added. Each value is removed when a newer value is at least
+     * as small (or large), since it can't be the extreme anymore, so that the
+     * first value is always the extreme of the window.
+     */
+    private static final class MonotonicDeque {
+
+        private final double[] values;
+        private final long[] sequences;
+        private final boolean max;
+        private int head;
+        private int size;
+
+        MonotonicDeque(int capacity, boolean max) {
+            this.values = new double[capacity];
+            this.sequences = new long[capacity];
+            this.max = max;
+        }
+
+        void add(long sequence, double value) {
+            while (size > 0) {
+                double last = values[index(size - 1)];
+                if (max ? last > value : last < value) {
+                    break;
+                }
+                size--;
+            }
+            int tail = index(size);
+            values[tail] = value;
+            sequences[tail] = sequence;
+            size++;
+        }
+
+        /**
+         * Removes the values with the given sequence number or older.
+         */
+        void expire(long sequence) {
+            while (size > 0 && sequences[head] <= sequence) {
+                head = index(1);
+                size--;
+            }
+        }
+
+        double first() {
+            return values[head];
+        }
+
+        void clear() {
+            head = 0;
+            size = 0;
+        }
+
+        private int index(int offset) {
+            int index = head + offset;
+            return index >= values.length ? index - values.length : index;
+        }
+    }
+}
@@ -0,0 +1,180 @@
+/**
+ * Copyright (C) 2010-14 diirt developers. See COPYRIGHT.TXT
+ * All rights reserved. Use is subject to license terms. See LICENSE.TXT
+ */
+package org.epics.util.array;
+
+/**
+ * The numeric kernels used by the array classes on primitive arrays.
+ * <p>
+ * This is the version for JDK 17 and later, packaged in the multi-release
+ * jar. If the {@code jdk.incubator.vector} module is in the boot layer
+ * (e.g. the JVM was started with {@code --add-modules jdk.incubator.vector}),
+ * the kernels use {@link VectorKernels}. Otherwise they fall back to the
+ * same plain loops used on Java 8.
+ *
+ * @author carcassi
+ */
+class Kernels {
+
+    private Kernels() {
+        // prevent instances
+    }
+
+    /**
+     * Below this number of elements, the plain loops are used.
+     */
+    private static final int MIN_VECTOR_LENGTH = 32;
+
+    private static final boolean VECTORIZED = ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent();
+
+    /**
+     * Whether the kernels use the vector API.
+     */
+    static boolean isVectorized() {
+        return VECTORIZED;
+    }
+
+    /**
+     * Converts {@code short}s to {@code double}s.
+     */
+    static void widen(short[] src, int srcPos, double[] dest, int destPos, int length) {
+        if (VECTORIZED && length >= MIN_VECTOR_LENGTH) {
+            VectorKernels.widen(src, srcPos, dest, destPos, length);
+        } else {
+            ScalarKernels.widen(src, srcPos, dest, destPos, length);
+        }
+    }
+
+    /**
+     * Converts unsigned {@code short}s to {@code double}s.
+     */
+    static void widenUnsigned(short[] src, int srcPos, double[] dest, int destPos, int length) {
+        if (VECTORIZED && length >= MIN_VECTOR_LENGTH) {
+            VectorKernels.widenUnsigned(src, srcPos, dest, destPos, length);
+        } else {
+            ScalarKernels.widenUnsigned(src, srcPos, dest, destPos, length);
+        }
+    }
+
+    /**
+     * Converts {@code byte}s to {@code double}s.
+     */
+    static void widen(byte[] src, int srcPos, double[] dest, int destPos, int length) {
+        if (VECTORIZED && length >= MIN_VECTOR_LENGTH) {
+            VectorKernels.widen(src, srcPos, dest, destPos, length);
+        } else {
+            ScalarKernels.widen(src, srcPos, dest, destPos, length);
+        }
+    }
+
+    /**
+     * Converts unsigned {@code byte}s to {@code double}s.
+     */
+    static void widenUnsigned(byte[] src, int srcPos, double[] dest, int destPos, int length) {
+        if (VECTORIZED && length >= MIN_VECTOR_LENGTH) {
+            VectorKernels.widenUnsigned(src, srcPos, dest, destPos, length);
+        } else {
+            ScalarKernels.widenUnsigned(src, srcPos, dest, destPos, length);
+        }
+    }
+
+    /**
+     * Computes {@code dest[i] = src[i] + offset}.
+     */
+    static void add(double[] src, int srcPos, double offset, double[] dest, int destPos, int length) {
+        if (VECTORIZED && length >= MIN_VECTOR_LENGTH) {
+            VectorKernels.add(src, srcPos, offset, dest, destPos, length);
+        } else {
+            ScalarKernels.add(src, srcPos, offset, dest, destPos, length);
+        }
+    }
+
+    /**
+     * Computes {@code dest[i] = factor * src[i] + offset}.
+     */
+    static void rescale(double[] src, int srcPos, double factor, double offset, double[] dest, int destPos, int length) {
+        if (VECTORIZED && length >= MIN_VECTOR_LENGTH) {
+            VectorKernels.rescale(src, srcPos, factor, offset, dest, destPos, length);
+        } else {
+            ScalarKernels.rescale(src, srcPos, factor, offset, dest, destPos, length);
+        }
+    }
+
+    /**
+     * Computes {@code dest[i] = src1[i] + src2[i]}.
+     */
+    static void add(double[] src1, int pos1, double[] src2, int pos2, double[] dest, int destPos, int length) {
+        if (VECTORIZED && length >= MIN_VECTOR_LENGTH) {
+            VectorKernels.add(src1, pos1, src2, pos2, dest, destPos, length);
+        } else {
+            ScalarKernels.add(src1, pos1, src2, pos2, dest, destPos, length);
+        }
+    }
+
+    /**
+     * Computes {@code dest[i] = src1[i] - src2[i]}.
+     */
+    static void subtract(double[] src1, int pos1, double[] src2, int pos2, double[] dest, int destPos, int length) {
+        if (VECTORIZED && length >= MIN_VECTOR_LENGTH) {
+            VectorKernels.subtract(src1, pos1, src2, pos2, dest, destPos, length);
+        } else {
+            ScalarKernels.subtract(src1, pos1, src2, pos2, dest, destPos, length);
+        }
+    }
+
+    /**
+     * Computes {@code dest[i] = src1[i] * src2[i]}.
+     */
+    static void multiply(double[] src1, int pos1, double[] src2, int pos2, double[] dest, int destPos, int length) {
+        if (VECTORIZED && length >= MIN_VECTOR_LENGTH) {
+            VectorKernels.multiply(src1, pos1, src2, pos2, dest, destPos, length);
+        } else {
+            ScalarKernels.multiply(src1, pos1, src2, pos2, dest, destPos, length);
+        }
+    }
+
+    /**
+     * Computes {@code dest[i] = src1[i] / src2[i]}.
+     */
+    static void divide(double[] src1, int pos1, double[] src2, int pos2, double[] dest, int destPos, int length) {
+        if (VECTORIZED && length >= MIN_VECTOR_LENGTH) {
+            VectorKernels.divide(src1, pos1, src2, pos2, dest, destPos, length);
+        } else {
+            ScalarKernels.divide(src1, pos1, src2, pos2, dest, destPos, length);
+        }
+    }
+
+    /**
+     * Sums the elements. The vectorized version accumulates each lane separately, so the result may differ in the last bits from the one of the plain loop.
+     */
+    static double sum(double[] values, int offset, int length) {
+        if (VECTORIZED && length >= MIN_VECTOR_LENGTH) {
+            return VectorKernels.sum(values, offset, length);
+        } else {
+            return ScalarKernels.sum(values, offset, length);
+        }
+    }
+
+    /**
+     * Returns the minimum following {@link Math#min(double, double)}, or positive infinity if there are no elements.
+     */
+    static double min(double[] values, int offset, int length) {
+        if (VECTORIZED && length >= MIN_VECTOR_LENGTH) {
+            return VectorKernels.min(values, offset, length);
+        } else {
+            return ScalarKernels.min(values, offset, length);
+        }
+    }
+
+    /**
+     * Returns the maximum following {@link Math#max(double, double)}, or negative infinity if there are no elements.
+     */
+    static double max(double[] values, int offset, int length) {
+        if (VECTORIZED && length >= MIN_VECTOR_LENGTH) {
+            return VectorKernels.max(values, offset, length);
+        } else {
+            return ScalarKernels.max(values, offset, length);
+        }
+    }
+}
@@ -0,0 +1,199 @@
+/**
+ * Copyright (C) 2010-14 diirt developers. See COPYRIGHT.TXT
+ * All rights reserved. Use is subject to license terms. See LICENSE.TXT
+ */
+package org.epics.util.array;
+
+import jdk.incubator.vector.ByteVector;
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.ShortVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorShape;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Implementation of the numeric kernels with the vector API. This class
+ * must only be loaded if the {@code jdk.incubator.vector} module is
+ * available: see {@link Kernels}.
+ * <p>
+ * The narrow types are loaded with a species that has, where possible, the
+ * same number of lanes as the preferred double species, so that each load
+ * converts to one double vector.
+ *
+ * @author carcassi
+ */
+class VectorKernels {
+
+    private VectorKernels() {
+        // prevent instances
+    }
+
+    private static final VectorSpecies<Double> DOUBLE = DoubleVector.SPECIES_PREFERRED;
+    private static final VectorSpecies<Integer> INT = IntVector.SPECIES_PREFERRED.withShape(
+            VectorShape.forBitSize(DOUBLE.length() * Integer.SIZE));
+    private static final VectorSpecies<Short> SHORT = ShortVector.SPECIES_PREFERRED.withShape(
+            narrowShape(Short.SIZE));
+    private static final VectorSpecies<Byte> BYTE = ByteVector.SPECIES_PREFERRED.withShape(
+            narrowShape(Byte.SIZE));
+
+    private static VectorShape narrowShape(int elementBits) {
+        // There is no shape smaller than 64 bits: in that case the narrow
+        // type has more lanes, and only the first part is converted
+        return VectorShape.forBitSize(Math.max(64, DOUBLE.length() * elementBits));
+    }
+
+    /**
+     * The loop bound for loading a narrow vector at each step of
+     * {@code DOUBLE.length()}, without reading past the end of the array.
+     */
+    private static int narrowLoopBound(int length, VectorSpecies<?> species) {
+        return Math.max(0, DOUBLE.loopBound(length - species.length() + DOUBLE.length()));
+    }
+
+    static void widen(short[] src, int srcPos, double[] dest, int destPos, int length) {
+        int bound = narrowLoopBound(length, SHORT);
+        int i = 0;
+        for (; i < bound; i += DOUBLE.length()) {
+            ((DoubleVector) ShortVector.fromArray(SHORT, src, srcPos + i)
+                    .convertShape(VectorOperators.S2D, DOUBLE, 0))
+                    .intoArray(dest, destPos + i);
+        }
+        ScalarKernels.widen(src, srcPos + i, dest, destPos + i, length - i);
+    }
+
+    static void widenUnsigned(short[] src, int srcPos, double[] dest, int destPos, int length) {
+        int bound = narrowLoopBound(length, SHORT);
+        int i = 0;
+        for (; i < bound; i += DOUBLE.length()) {
+            ((DoubleVector) ShortVector.fromArray(SHORT, src, srcPos + i)
+                    .convertShape(VectorOperators.S2I, INT, 0)
+                    .lanewise(VectorOperators.AND, 0xffff)
+                    .convertShape(VectorOperators.I2D, DOUBLE, 0))
+                    .intoArray(dest, destPos + i);
+        }
+        ScalarKernels.widenUnsigned(src, srcPos + i, dest, destPos + i, length - i);
+    }
+
+    static void widen(byte[] src, int srcPos, double[] dest, int destPos, int length) {
+        int bound = narrowLoopBound(length, BYTE);
+        int i = 0;
+        for (; i < bound; i += DOUBLE.length()) {
+            ((DoubleVector) ByteVector.fromArray(BYTE, src, srcPos + i)
+                    .convertShape(VectorOperators.B2D, DOUBLE, 0))
+                    .intoArray(dest, destPos + i);
+        }
+        ScalarKernels.widen(src, srcPos + i, dest, destPos + i, length - i);
+    }
+
+    static void widenUnsigned(byte[] src, int srcPos, double[] dest, int destPos, int length) {
+        int bound = narrowLoopBound(length, BYTE);
+        int i = 0;
+        for (; i < bound; i += DOUBLE.length()) {
+            ((DoubleVector) ByteVector.fromArray(BYTE, src, srcPos + i)
+                    .convertShape(VectorOperators.B2I, INT, 0)
+                    .lanewise(VectorOperators.AND, 0xff)
+                    .convertShape(VectorOperators.I2D, DOUBLE, 0))
+                    .intoArray(dest, destPos + i);
+        }
+        ScalarKernels.widenUnsigned(src, srcPos + i, dest, destPos + i, length - i);
+    }
+
+    static void add(double[] src, int srcPos, double offset, double[] dest, int destPos, int length) {
+        int bound = DOUBLE.loopBound(length);
+        int i = 0;
+        for (; i < bound; i += DOUBLE.length()) {
+            DoubleVector.fromArray(DOUBLE, src, srcPos + i)
+                    .add(offset)
+                    .intoArray(dest, destPos + i);
+        }
+        ScalarKernels.add(src, srcPos + i, offset, dest, destPos + i, length - i);
+    }
+
+    static void rescale(double[] src, int srcPos, double factor, double offset, double[] dest, int destPos, int length) {
+        int bound = DOUBLE.loopBound(length);
+        int i = 0;
+        for (; i < bound; i += DOUBLE.length()) {
+            // Multiply and add separately (no fma) to match the plain loop
+            DoubleVector.fromArray(DOUBLE, src, srcPos + i)
+                    .mul(factor)
+                    .add(offset)
+                    .intoArray(dest, destPos + i);
+        }
+        ScalarKernels.rescale(src, srcPos + i, factor, offset, dest, destPos + i, length - i);
+    }
+
+    static void add(double[] src1, int pos1, double[] src2, int pos2, double[] dest, int destPos, int length) {
+        int bound = DOUBLE.loopBound(length);
+        int i = 0;
+        for (; i < bound; i += DOUBLE.length()) {
+            DoubleVector.fromArray(DOUBLE, src1, pos1 + i)
+                    .add(DoubleVector.fromArray(DOUBLE, src2, pos2 + i))
+                    .intoArray(dest, destPos + i);
+        }
+        ScalarKernels.add(src1, pos1 + i, src2, pos2 + i, dest, destPos + i, length - i);
+    }
+
+    static void subtract(double[] src1, int pos1, double[] src2, int pos2, double[] dest, int destPos, int length) {
+        int bound = DOUBLE.loopBound(length);
+        int i = 0;
+        for (; i < bound; i += DOUBLE.length()) {
+            DoubleVector.fromArray(DOUBLE, src1, pos1 + i)
+                    .sub(DoubleVector.fromArray(DOUBLE, src2, pos2 + i))
+                    .intoArray(dest, destPos + i);
+        }
+        ScalarKernels.subtract(src1, pos1 + i, src2, pos2 + i, dest, destPos + i, length - i);
+    }
+
+    static void multiply(double[] src1, int pos1, double[] src2, int pos2, double[] dest, int destPos, int length) {
+        int bound = DOUBLE.loopBound(length);
+        int i = 0;
+        for (; i < bound; i += DOUBLE.length()) {
+            DoubleVector.fromArray(DOUBLE, src1, pos1 + i)
+                    .mul(DoubleVector.fromArray(DOUBLE, src2, pos2 + i))
+                    .intoArray(dest, destPos + i);
+        }
+        ScalarKernels.multiply(src1, pos1 + i, src2, pos2 + i, dest, destPos + i, length - i);
+    }
+
+    static void divide(double[] src1, int pos1, double[] src2, int pos2, double[] dest, int destPos, int length) {
+        int bound = DOUBLE.loopBound(length);
+        int i = 0;
+        for (; i < bound; i += DOUBLE.length()) {
+            DoubleVector.fromArray(DOUBLE, src1, pos1 + i)
+                    .div(DoubleVector.fromArray(DOUBLE, src2, pos2 + i))
+                    .intoArray(dest, destPos + i);
+        }
+        ScalarKernels.divide(src1, pos1 + i, src2, pos2 + i, dest, destPos + i, length - i);
+    }
+
+    static double sum(double[] values, int offset, int length) {
+        int bound = DOUBLE.loopBound(length);
+        DoubleVector sum = DoubleVector.zero(DOUBLE);
+        int i = 0;
+        for (; i < bound; i += DOUBLE.length()) {
+            sum = sum.add(DoubleVector.fromArray(DOUBLE, values, offset + i));
+        }
+        return sum.reduceLanes(VectorOperators.ADD) + ScalarKernels.sum(values, offset + i, length - i);
+    }
+
+    static double min(double[] values, int offset, int length) {
+        int bound = DOUBLE.loopBound(length);
+        DoubleVector min = DoubleVector.broadcast(DOUBLE, Double.POSITIVE_INFINITY);
+        int i = 0;
+        for (; i < bound; i += DOUBLE.length()) {
+            min = min.min(DoubleVector.fromArray(DOUBLE, values, offset + i));
+        }
+        return Math.min(min.reduceLanes(VectorOperators.MIN), ScalarKernels.min(values, offset + i, length - i));
+    }
+
+    static double max(double[] values, int offset, int length) {
+        int bound = DOUBLE.loopBound(length);
+        DoubleVector max = DoubleVector.broadcast(DOUBLE, Double.NEGATIVE_INFINITY);
+        int i = 0;
+        for (; i < bound; i += DOUBLE.length()) {
+            max = max.max(DoubleVector.fromArray(DOUBLE, values, offset + i));
+        }
+        return Math.max(max.reduceLanes(VectorOperators.MAX), ScalarKernels.max(values, offset + i, length - i));
+    }
+}
@@ -0,0 +1,149 @@
+/**
+ * Copyright (C) 2010-14 diirt developers. See COPYRIGHT.TXT
+ * All rights reserved. Use is subject to license terms. See LICENSE.TXT
+ */
+package org.epics.util.array;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import static org.junit.Assert.*;
+import static org.hamcrest.Matchers.*;
+import static org.epics.util.array.CollectionNumbers.*;
+
+/**
+ *
+ * @author carcassi
+ */
+public class ArchiveTest {
+
+    public ArchiveTest() {
+    }
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private static ListNumber[] allTypes() {
+        double[] doubles = new double[100000];
+        for (int i = 0; i < doubles.length; i++) {
+            doubles[i] = Math.sin(i);
+        }
+        return new ListNumber[] {
+            unmodifiableListDouble(doubles),
+            unmodifiableListFloat(1.5f, 2.5f, -3.5f),
+            unmodifiableListLong(new long[] {Long.MIN_VALUE, 0, Long.MAX_VALUE}),
+            unmodifiableListInt(1, 2, 3, 4, 5),
+            unmodifiableListShort(new short[] {-1, 2, 3}),
+            unmodifiableListByte(new byte[] {-1, 2, 3}),
+            unmodifiableListULong(new long[] {-1, 2}),
+            unmodifiableListUInt(new int[] {-1, 2, 3}),
+            unmodifiableListUShort(new short[] {-1, 2, 3}),
+            unmodifiableListUByte(new byte[] {-1, 2, 3, 4, 5}),
+            unmodifiableListDouble(1, 2, 3).subList(1, 3),
+            ListNumbers.linearList(0, 0.5, 7),
+            unmodifiableListInt()
+        };
+    }
+
+    private static void assertArchive(Path file, ListNumber[] lists) throws IOException {
+        try (ArchiveReader reader = ArchiveReader.open(file)) {
+            assertThat(reader.size(), equalTo(lists.length));
+            for (int i = 0; i < lists.length; i++) {
+                assertThat(reader.getSize(i), equalTo(lists[i].size()));
+                ListNumber record = reader.get(i);
+                assertThat(record, equalTo((Object) lists[i]));
+                assertThat(ArchiveFormat.typeOf(record), equalTo(ArchiveFormat.typeOf(lists[i])));
+            }
+        }
+    }
+
+    @Test
+    public void writeRead1() throws IOException {
+        Path file = folder.getRoot().toPath().resolve("archive.dat");
+        ListNumber[] lists = allTypes();
+        try (ArchiveWriter writer = ArchiveWriter.create(file)) {
+            for (int i = 0; i < lists.length; i++) {
+                assertThat(writer.write(lists[i]), equalTo(i));
+            }
+        }
+        assertArchive(file, lists);
+    }
+
+    @Test
+    public void writeRead2() throws IOException {
+        Path file = folder.getRoot().toPath().resolve("archive.dat");
+        ListNumber[] lists = allTypes();
+        ByteOrder order = ByteOrder.nativeOrder() == ByteOrder.BIG_ENDIAN ? ByteOrder.LITTLE_ENDIAN : ByteOrder.BIG_ENDIAN;
+        try (ArchiveWriter writer = ArchiveWriter.create(file, order)) {
+            for (ListNumber list : lists) {
+                writer.write(list);
+            }
+        }
+        assertArchive(file, lists);
+    }
+
+    @Test
+    public void openForAppend1() throws IOException {
+        Path file = folder.getRoot().toPath().resolve("archive.dat");
+        ListNumber[] lists = allTypes();
+        try (ArchiveWriter writer = ArchiveWriter.openForAppend(file)) {
+            for (int i = 0; i < 5; i++) {
+                writer.write(lists[i]);
+            }
+        }
+        try (ArchiveWriter writer = ArchiveWriter.openForAppend(file)) {
+            assertThat(writer.size(), equalTo(5));
+            for (int i = 5; i < lists.length; i++) {
+                writer.write(lists[i]);
+            }
+        }
+        assertArchive(file, lists);
+    }
+
+    @Test
+    public void missingIndex1() throws IOException {
+        Path file = folder.getRoot().toPath().resolve("archive.dat");
+        ListNumber[] lists = allTypes();
+        try (ArchiveWriter writer = ArchiveWriter.create(file)) {
+            for (ListNumber list : lists) {
+                writer.write(list);
+            }
+        }
+        // Remove the footer, as if the writer had not been closed
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.truncate(channel.size() - ArchiveFormat.FOOTER_SIZE);
+        }
+        assertArchive(file, lists);
+    }
+
+    @Test
+    public void readOnly1() throws IOException {
+        Path file = folder.getRoot().toPath().resolve("archive.dat");
+        try (ArchiveWriter writer = ArchiveWriter.create(file)) {
+            writer.write(unmodifiableListDouble(1, 2, 3));
+        }
+        ListDouble record;
+        try (ArchiveReader reader = ArchiveReader.open(file)) {
+            record = (ListDouble) reader.get(0);
+        }
+        // Still readable after close
+        assertThat(record.getDouble(2), equalTo(3.0));
+        try {
+            record.setDouble(0, 5.0);
+            fail("Record should be read-only");
+        } catch (UnsupportedOperationException ex) {
+            // Expected
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void notAnArchive1() throws IOException {
+        Path file = folder.newFile("other.dat").toPath();
+        ArchiveReader.open(file).close();
+    }
+}
@@ -0,0 +1,160 @@
+/**
+ * Copyright (C) 2010-14 diirt developers. See COPYRIGHT.TXT
+ * All rights reserved. Use is subject to license terms. See LICENSE.TXT
+ */
+package org.epics.util.array;
+
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.Test;
+import static org.junit.Assert.*;
+import static org.hamcrest.Matchers.*;
+
+/**
+ *
+ * @author carcassi
+ */
+public class ArrayPoolTest {
+
+    public ArrayPoolTest() {
+    }
+
+    @Test
+    public void borrow1() {
+        ArrayPool pool = new ArrayPool();
+        assertThat(pool.borrowDouble(0).length, equalTo(16));
+        assertThat(pool.borrowDouble(16).length, equalTo(16));
+        assertThat(pool.borrowDouble(17).length, equalTo(32));
+        assertThat(pool.borrowShort(1000).length, equalTo(1024));
+        assertThat(pool.borrowByte(1024).length, equalTo(1024));
+        // Larger than the pooled sizes
+        assertThat(pool.borrowInt((1 << 20) + 1).length, equalTo((1 << 20) + 1));
+        assertThat(pool.getBorrowCount(), equalTo(6L));
+        assertThat(pool.getAllocationCount(), equalTo(6L));
+        assertThat(pool.getOutstandingCount(), equalTo(6L));
+    }
+
+    @Test
+    public void release1() {
+        ArrayPool pool = new ArrayPool(1024, 1, 1);
+        double[] array1 = pool.borrowDouble(100);
+        double[] array2 = pool.borrowDouble(100);
+        double[] array3 = pool.borrowDouble(100);
+        pool.release(array1);
+        pool.release(array2);
+        pool.release(array3);
+        assertThat(pool.getOutstandingCount(), equalTo(0L));
+        // One kept by the thread, one by the shared pool
+        assertThat(pool.getDiscardCount(), equalTo(1L));
+        assertThat(pool.borrowDouble(128), sameInstance(array1));
+        assertThat(pool.borrowDouble(65), sameInstance(array2));
+        assertThat(pool.borrowDouble(128), not(anyOf(sameInstance(array1), sameInstance(array2))));
+        // Different type
+        assertThat(pool.borrowLong(128), notNullValue());
+        assertThat(pool.getAllocationCount(), equalTo(5L));
+    }
+
+    @Test
+    public void release2() {
+        ArrayPool pool = new ArrayPool();
+        pool.release(new double[1 << 21]);
+        assertThat(pool.getDiscardCount(), equalTo(1L));
+        pool.release(new double[128]);
+        assertThat(pool.getDiscardCount(), equalTo(1L));
+        // More releases than borrows
+        assertThat(pool.getOutstandingCount(), equalTo(0L));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void release6() {
+        // Not one of the size classes: can't come from the pool
+        new ArrayPool().release(new double[100]);
+    }
+
+    @Test
+    public void release7() {
+        // Double release, detected in the arrays of the thread
+        // and in the shared ones
+        ArrayPool pool = new ArrayPool(1024, 1, 1);
+        int[] array1 = pool.borrowInt(100);
+        int[] array2 = pool.borrowInt(100);
+        pool.release(array1);
+        try {
+            pool.release(array1);
+            fail("Double release not detected");
+        } catch (IllegalStateException ex) {
+            // Expected
+        }
+        pool.release(array2);
+        try {
+            pool.release(array2);
+            fail("Double release not detected");
+        } catch (IllegalStateException ex) {
+            // Expected
+        }
+        assertThat(pool.getReleaseCount(), equalTo(2L));
+        assertThat(pool.getOutstandingCount(), equalTo(0L));
+        assertThat(pool.borrowInt(128), sameInstance(array1));
+        assertThat(pool.borrowInt(128), sameInstance(array2));
+    }
+
+    @Test(expected = ArrayStoreException.class)
+    public void release3() {
+        new ArrayPool().release(new Object[16]);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void release4() {
+        new ArrayPool().release(ListNumbers.linearList(0, 1, 10));
+    }
+
+    @Test
+    public void release5() throws Exception {
+        // Arrays released by a thread are available to the others
+        final ArrayPool pool = new ArrayPool(1024, 0, 4);
+        final AtomicReference<float[]> array = new AtomicReference<>();
+        Thread thread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                array.set(pool.borrowFloat(20));
+                pool.release(array.get());
+            }
+        });
+        thread.start();
+        thread.join();
+        assertThat(pool.borrowFloat(32), sameInstance(array.get()));
+    }
+
+    @Test
+    public void toArray1() {
+        ArrayPool pool = new ArrayPool();
+        ListNumber list = ListNumbers.linearList(0, 1, 20);
+        double[] small = new double[5];
+        double[] array = pool.toArray(list, small);
+        assertThat(array.length, equalTo(32));
+        assertThat(CollectionNumbers.toListDouble(array).subList(0, 20), equalTo(list));
+        pool.release(array);
+        double[] big = new double[20];
+        assertThat(pool.toArray(list, big), sameInstance(big));
+        assertThat(pool.getOutstandingCount(), equalTo(0L));
+    }
+
+    @Test
+    public void toList1() {
+        ArrayPool pool = new ArrayPool();
+        ListNumber reference = ListNumbers.linearList(0, 1, 20);
+        ArrayDouble list = pool.toListDouble(reference);
+        assertThat(list, equalTo(reference));
+        pool.release(list);
+        ArrayShort shortList = pool.toListShort(reference);
+        assertThat(shortList.size(), equalTo(20));
+        assertThat(shortList.getShort(19), equalTo((short) 19));
+        pool.release(shortList);
+        assertThat(pool.getOutstandingCount(), equalTo(0L));
+        assertThat(pool.toListDouble(reference).wrappedArray(), sameInstance(list.wrappedArray()));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void new1() {
+        new ArrayPool(1000, 4, 4);
+    }
+}
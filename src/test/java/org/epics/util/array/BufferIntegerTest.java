@@ -75,4 +75,104 @@ public class BufferIntegerTest {
         coll.clear();
         assertThat(coll.size(), equalTo(0));
     }
+
+    @Test
+    public void addAll1() {
+        BufferInteger coll = new BufferInteger(2);
+        coll.addAll(new int[] {-1, 0, 1, 2, -1}, 1, 3);
+        coll.addAll(CollectionNumbers.toListInt(new int[] {-1, 3, 4}).subList(1, 3));
+        coll.addAll(CollectionNumbers.toListInt(new int[] {5, 6}));
+        coll.addAll(ListNumbers.linearList(7, 1, 2));
+        coll.addAll(coll);
+        ListInteger reference = CollectionNumbers.unmodifiableListInt(0,1,2,3,4,5,6,7,8,0,1,2,3,4,5,6,7,8);
+        assertThat(coll, equalTo(reference));
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void addAll2() {
+        BufferInteger coll = new BufferInteger();
+        coll.addAll(new int[3], 1, 3);
+    }
+
+    @Test
+    public void growthPolicy1() {
+        BufferInteger coll = new BufferInteger(4, GrowthPolicy.fixedIncrement(3));
+        for (int i = 0; i < 5; i++) {
+            coll.addInt(i);
+        }
+        assertThat(coll.getCurrentCapacity(), equalTo(7));
+        coll.addAll(new int[10], 0, 10);
+        assertThat(coll.getCurrentCapacity(), equalTo(15));
+        assertThat(coll.size(), equalTo(15));
+    }
+
+    @Test
+    public void growthPolicy2() {
+        BufferInteger coll = new BufferInteger(4, GrowthPolicy.capped(6));
+        for (int i = 0; i < 6; i++) {
+            coll.addInt(i);
+        }
+        assertThat(coll.getCurrentCapacity(), equalTo(6));
+        try {
+            coll.addInt(6);
+            fail("Buffer grew past the maximum");
+        } catch (IllegalStateException ex) {
+            // Expected
+        }
+        ListInteger reference = CollectionNumbers.unmodifiableListInt(0,1,2,3,4,5);
+        assertThat(coll, equalTo(reference));
+    }
+
+    @Test
+    public void ensureCapacity1() {
+        BufferInteger coll = new BufferInteger(4);
+        coll.ensureCapacity(3);
+        assertThat(coll.getCurrentCapacity(), equalTo(4));
+        coll.ensureCapacity(5);
+        assertThat(coll.getCurrentCapacity(), equalTo(8));
+        coll.ensureCapacity(20);
+        assertThat(coll.getCurrentCapacity(), equalTo(20));
+    }
+
+    @Test
+    public void trimToSize1() {
+        BufferInteger coll = new BufferInteger();
+        for (int i = 0; i < 5; i++) {
+            coll.addInt(i);
+        }
+        coll.trimToSize();
+        assertThat(coll.getCurrentCapacity(), equalTo(5));
+        coll.addInt(5);
+        ListInteger reference = CollectionNumbers.unmodifiableListInt(0,1,2,3,4,5);
+        assertThat(coll, equalTo(reference));
+    }
+
+    @Test
+    public void toReadOnlyArray1() {
+        BufferInteger coll = new BufferInteger();
+        for (int i = 0; i < 5; i++) {
+            coll.addInt(i);
+        }
+        ArrayInteger array = coll.toReadOnlyArray();
+        assertThat(array.isReadOnly(), equalTo(true));
+        for (int i = 0; i < 10; i++) {
+            coll.addInt(i);
+        }
+        ListInteger reference = CollectionNumbers.unmodifiableListInt(0,1,2,3,4);
+        assertThat(array, equalTo(reference));
+    }
+
+    @Test
+    public void toReadOnlyArray2() {
+        BufferInteger coll = new BufferInteger();
+        for (int i = 0; i < 5; i++) {
+            coll.addInt(i);
+        }
+        ArrayInteger array = coll.toReadOnlyArray();
+        coll.clear();
+        coll.addInt(9);
+        ListInteger reference = CollectionNumbers.unmodifiableListInt(0,1,2,3,4);
+        assertThat(array, equalTo(reference));
+        assertThat(coll, equalTo(CollectionNumbers.unmodifiableListInt(9)));
+    }
 }
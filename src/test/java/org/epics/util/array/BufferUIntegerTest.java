@@ -0,0 +1,178 @@
+/**
+ * Copyright (C) 2010-14 diirt developers. See COPYRIGHT.TXT
+ * All rights reserved. Use is subject to license terms. See LICENSE.TXT
+ */
+package org.epics.util.array;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+import static org.hamcrest.Matchers.*;
+import static org.epics.util.array.FeatureTestListNumber.testList;
+import static org.epics.util.array.FeatureTestCollectionNumber.testIterationForAllTypes;
+
+/**
+ *
+ * @author carcassi
+ */
+public class BufferUIntegerTest {
+
+    public BufferUIntegerTest() {
+    }
+
+    @Test
+    public void iteration1() {
+        BufferUInteger coll = new BufferUInteger();
+        for (int i = 0; i < 10; i++) {
+            coll.addInt((int) 1);
+        }
+        testIterationForAllTypes(coll);
+        testList(coll);
+    }
+
+    @Test
+    public void add1() {
+        BufferUInteger coll = new BufferUInteger();
+        for (int i = 0; i < 5; i++) {
+            coll.addInt((int) 1);
+        }
+        assertThat(coll.size(), equalTo(5));
+        for (int i = 0; i < 5; i++) {
+            coll.addInt((int) 1);
+        }
+        assertThat(coll.size(), equalTo(10));
+        for (int i = 0; i < 5; i++) {
+            coll.addInt((int) 1);
+        }
+        assertThat(coll.size(), equalTo(15));
+    }
+
+    @Test
+    public void add2() {
+        BufferUInteger coll = new BufferUInteger();
+        for (int i = 0; i < 11; i++) {
+            coll.addInt((int) i);
+        }
+        ListUInteger reference = CollectionNumbers.unmodifiableListUInt(new int[] {0,1,2,3,4,5,6,7,8,9,10});
+        assertThat(coll, equalTo(reference));
+    }
+
+    @Test
+    public void add3() {
+        BufferUInteger coll = new BufferUInteger();
+        for (int i = 0; i < 5; i++) {
+            coll.addInt((int) i);
+        }
+        ListUInteger reference = CollectionNumbers.unmodifiableListUInt(new int[] {0,1,2,3,4});
+        assertThat(coll, equalTo(reference));
+    }
+
+    @Test
+    public void clear1() {
+        BufferUInteger coll = new BufferUInteger();
+        for (int i = 0; i < 5; i++) {
+            coll.addInt((int) i);
+        }
+        coll.clear();
+        assertThat(coll.size(), equalTo(0));
+    }
+
+    @Test
+    public void addAll1() {
+        BufferUInteger coll = new BufferUInteger(2);
+        coll.addAll(new int[] {-1, 0, 1, 2, -1}, 1, 3);
+        coll.addAll(CollectionNumbers.toListUInt(new int[] {-1, 3, 4}).subList(1, 3));
+        coll.addAll(CollectionNumbers.toListUInt(new int[] {5, 6}));
+        coll.addAll(ListNumbers.linearList(7, 1, 2));
+        coll.addAll(coll);
+        ListUInteger reference = CollectionNumbers.unmodifiableListUInt(new int[] {0,1,2,3,4,5,6,7,8,0,1,2,3,4,5,6,7,8});
+        assertThat(coll, equalTo(reference));
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void addAll2() {
+        BufferUInteger coll = new BufferUInteger();
+        coll.addAll(new int[3], 1, 3);
+    }
+
+    @Test
+    public void growthPolicy1() {
+        BufferUInteger coll = new BufferUInteger(4, GrowthPolicy.fixedIncrement(3));
+        for (int i = 0; i < 5; i++) {
+            coll.addInt((int) i);
+        }
+        assertThat(coll.getCurrentCapacity(), equalTo(7));
+        coll.addAll(new int[10], 0, 10);
+        assertThat(coll.getCurrentCapacity(), equalTo(15));
+        assertThat(coll.size(), equalTo(15));
+    }
+
+    @Test
+    public void growthPolicy2() {
+        BufferUInteger coll = new BufferUInteger(4, GrowthPolicy.capped(6));
+        for (int i = 0; i < 6; i++) {
+            coll.addInt((int) i);
+        }
+        assertThat(coll.getCurrentCapacity(), equalTo(6));
+        try {
+            coll.addInt((int) 6);
+            fail("Buffer grew past the maximum");
+        } catch (IllegalStateException ex) {
+            // Expected
+        }
+        ListUInteger reference = CollectionNumbers.unmodifiableListUInt(new int[] {0,1,2,3,4,5});
+        assertThat(coll, equalTo(reference));
+    }
+
+    @Test
+    public void ensureCapacity1() {
+        BufferUInteger coll = new BufferUInteger(4);
+        coll.ensureCapacity(3);
+        assertThat(coll.getCurrentCapacity(), equalTo(4));
+        coll.ensureCapacity(5);
+        assertThat(coll.getCurrentCapacity(), equalTo(8));
+        coll.ensureCapacity(20);
+        assertThat(coll.getCurrentCapacity(), equalTo(20));
+    }
+
+    @Test
+    public void trimToSize1() {
+        BufferUInteger coll = new BufferUInteger();
+        for (int i = 0; i < 5; i++) {
+            coll.addInt((int) i);
+        }
+        coll.trimToSize();
+        assertThat(coll.getCurrentCapacity(), equalTo(5));
+        coll.addInt((int) 5);
+        ListUInteger reference = CollectionNumbers.unmodifiableListUInt(new int[] {0,1,2,3,4,5});
+        assertThat(coll, equalTo(reference));
+    }
+
+    @Test
+    public void toReadOnlyArray1() {
+        BufferUInteger coll = new BufferUInteger();
+        for (int i = 0; i < 5; i++) {
+            coll.addInt((int) i);
+        }
+        ArrayUInteger array = coll.toReadOnlyArray();
+        assertThat(array.isReadOnly(), equalTo(true));
+        for (int i = 0; i < 10; i++) {
+            coll.addInt((int) i);
+        }
+        ListUInteger reference = CollectionNumbers.unmodifiableListUInt(new int[] {0,1,2,3,4});
+        assertThat(array, equalTo(reference));
+    }
+
+    @Test
+    public void toReadOnlyArray2() {
+        BufferUInteger coll = new BufferUInteger();
+        for (int i = 0; i < 5; i++) {
+            coll.addInt((int) i);
+        }
+        ArrayUInteger array = coll.toReadOnlyArray();
+        coll.clear();
+        coll.addInt((int) 9);
+        ListUInteger reference = CollectionNumbers.unmodifiableListUInt(new int[] {0,1,2,3,4});
+        assertThat(array, equalTo(reference));
+        assertThat(coll, equalTo(CollectionNumbers.unmodifiableListUInt(new int[] {9})));
+    }
+}
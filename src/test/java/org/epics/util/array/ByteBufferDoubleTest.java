@@ -0,0 +1,95 @@
+/**
+ * Copyright (C) 2010-14 diirt developers. See COPYRIGHT.TXT
+ * All rights reserved. Use is subject to license terms. See LICENSE.TXT
+ */
+package org.epics.util.array;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import org.junit.Test;
+import static org.junit.Assert.*;
+import static org.hamcrest.Matchers.*;
+import static org.epics.util.array.CollectionNumbers.*;
+
+/**
+ *
+ * @author carcassi
+ */
+public class ByteBufferDoubleTest extends FeatureTestListNumber {
+
+    @Override
+    public ByteBufferDouble createConstantCollection() {
+        return ByteBufferDouble.copyOf(unmodifiableListDouble(1, 1, 1, 1, 1, 1, 1, 1, 1, 1)).asReadOnly();
+    }
+
+    @Override
+    public ByteBufferDouble createRampCollection() {
+        return ByteBufferDouble.copyOf(unmodifiableListDouble(0, 1, 2, 3, 4, 5, 6, 7, 8, 9)).asReadOnly();
+    }
+
+    @Override
+    public ByteBufferDouble createModifiableCollection() {
+        return ByteBufferDouble.allocateDirect(10);
+    }
+
+    @Override
+    public ByteBufferDouble createEmpty() {
+        return ByteBufferDouble.allocateDirect(0);
+    }
+
+    @Test
+    public void wrap1() {
+        ByteBuffer buffer = ByteBuffer.allocate(12 * 8).order(ByteOrder.BIG_ENDIAN);
+        for (int i = 0; i < 12; i++) {
+            buffer.putDouble((i * 2));
+        }
+        buffer.flip();
+        buffer.position(8);
+        ByteBufferDouble list = ByteBufferDouble.wrap(buffer);
+        assertThat(list.size(), equalTo(11));
+        assertThat(list.getDouble(0), equalTo(2.0));
+        assertThat(list.getDouble(10), equalTo(22.0));
+    }
+
+    @Test
+    public void subList1() {
+        ByteBufferDouble list = createRampCollection().subList(2, 6);
+        assertThat(list, equalTo(unmodifiableListDouble(2, 3, 4, 5)));
+        assertThat(list.subList(1, 3), equalTo(unmodifiableListDouble(3, 4)));
+    }
+
+    @Test
+    public void setAll1() {
+        ByteBufferDouble list = createModifiableCollection();
+        list.setAll(3, unmodifiableListDouble(1, 2, 3));
+        list.setAll(7, createRampCollection().subList(4, 6));
+        assertThat(list, equalTo(unmodifiableListDouble(0, 0, 0, 1, 2, 3, 0, 4, 5, 0)));
+    }
+
+    @Test
+    public void toArray1() {
+        double[] array = createRampCollection().subList(5, 8).toArray(new double[4]);
+        assertThat(array, equalTo(new double[] {5, 6, 7, 0}));
+    }
+
+    @Test
+    public void allocateDirect1() {
+        // The number of bytes would overflow an int
+        try {
+            ByteBufferDouble.allocateDirect(Integer.MAX_VALUE / 8 + 1);
+            fail("Expected IllegalArgumentException");
+        } catch (IllegalArgumentException ex) {
+            assertThat(ex.getMessage(), containsString("too big"));
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void allocateDirect2() {
+        ByteBufferDouble.allocateDirect(-1);
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void readOnly1() {
+        createRampCollection().setAll(0, unmodifiableListDouble(1));
+    }
+}
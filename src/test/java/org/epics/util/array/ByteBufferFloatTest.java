@@ -0,0 +1,79 @@
+/**
+ * Copyright (C) 2010-14 diirt developers. See COPYRIGHT.TXT
+ * All rights reserved. Use is subject to license terms. See LICENSE.TXT
+ */
+package org.epics.util.array;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import org.junit.Test;
+import static org.junit.Assert.*;
+import static org.hamcrest.Matchers.*;
+import static org.epics.util.array.CollectionNumbers.*;
+
+/**
+ *
+ * @author carcassi
+ */
+public class ByteBufferFloatTest extends FeatureTestListNumber {
+
+    @Override
+    public ByteBufferFloat createConstantCollection() {
+        return ByteBufferFloat.copyOf(unmodifiableListFloat(1, 1, 1, 1, 1, 1, 1, 1, 1, 1)).asReadOnly();
+    }
+
+    @Override
+    public ByteBufferFloat createRampCollection() {
+        return ByteBufferFloat.copyOf(unmodifiableListFloat(0, 1, 2, 3, 4, 5, 6, 7, 8, 9)).asReadOnly();
+    }
+
+    @Override
+    public ByteBufferFloat createModifiableCollection() {
+        return ByteBufferFloat.allocateDirect(10);
+    }
+
+    @Override
+    public ByteBufferFloat createEmpty() {
+        return ByteBufferFloat.allocateDirect(0);
+    }
+
+    @Test
+    public void wrap1() {
+        ByteBuffer buffer = ByteBuffer.allocate(12 * 4).order(ByteOrder.BIG_ENDIAN);
+        for (int i = 0; i < 12; i++) {
+            buffer.putFloat((i * 2));
+        }
+        buffer.flip();
+        buffer.position(4);
+        ByteBufferFloat list = ByteBufferFloat.wrap(buffer);
+        assertThat(list.size(), equalTo(11));
+        assertThat(list.getDouble(0), equalTo(2.0));
+        assertThat(list.getDouble(10), equalTo(22.0));
+    }
+
+    @Test
+    public void subList1() {
+        ByteBufferFloat list = createRampCollection().subList(2, 6);
+        assertThat(list, equalTo(unmodifiableListFloat(2, 3, 4, 5)));
+        assertThat(list.subList(1, 3), equalTo(unmodifiableListFloat(3, 4)));
+    }
+
+    @Test
+    public void setAll1() {
+        ByteBufferFloat list = createModifiableCollection();
+        list.setAll(3, unmodifiableListFloat(1, 2, 3));
+        list.setAll(7, createRampCollection().subList(4, 6));
+        assertThat(list, equalTo(unmodifiableListFloat(0, 0, 0, 1, 2, 3, 0, 4, 5, 0)));
+    }
+
+    @Test
+    public void toArray1() {
+        float[] array = createRampCollection().subList(5, 8).toArray(new float[4]);
+        assertThat(array, equalTo(new float[] {5, 6, 7, 0}));
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void readOnly1() {
+        createRampCollection().setAll(0, unmodifiableListFloat(1));
+    }
+}
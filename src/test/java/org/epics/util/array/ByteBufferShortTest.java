@@ -0,0 +1,95 @@
+/**
+ * Copyright (C) 2010-14 diirt developers. See COPYRIGHT.TXT
+ * All rights reserved. Use is subject to license terms. See LICENSE.TXT
+ */
+package org.epics.util.array;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import org.junit.Test;
+import static org.junit.Assert.*;
+import static org.hamcrest.Matchers.*;
+import static org.epics.util.array.CollectionNumbers.*;
+
+/**
+ *
+ * @author carcassi
+ */
+public class ByteBufferShortTest extends FeatureTestListNumber {
+
+    @Override
+    public ByteBufferShort createConstantCollection() {
+        return ByteBufferShort.copyOf(unmodifiableListShort(new short[] {1, 1, 1, 1, 1, 1, 1, 1, 1, 1})).asReadOnly();
+    }
+
+    @Override
+    public ByteBufferShort createRampCollection() {
+        return ByteBufferShort.copyOf(unmodifiableListShort(new short[] {0, 1, 2, 3, 4, 5, 6, 7, 8, 9})).asReadOnly();
+    }
+
+    @Override
+    public ByteBufferShort createModifiableCollection() {
+        return ByteBufferShort.allocateDirect(10);
+    }
+
+    @Override
+    public ByteBufferShort createEmpty() {
+        return ByteBufferShort.allocateDirect(0);
+    }
+
+    @Test
+    public void wrap1() {
+        ByteBuffer buffer = ByteBuffer.allocate(12 * 2).order(ByteOrder.BIG_ENDIAN);
+        for (int i = 0; i < 12; i++) {
+            buffer.putShort((short) (i * 2));
+        }
+        buffer.flip();
+        buffer.position(2);
+        ByteBufferShort list = ByteBufferShort.wrap(buffer);
+        assertThat(list.size(), equalTo(11));
+        assertThat(list.getDouble(0), equalTo(2.0));
+        assertThat(list.getDouble(10), equalTo(22.0));
+    }
+
+    @Test
+    public void subList1() {
+        ByteBufferShort list = createRampCollection().subList(2, 6);
+        assertThat(list, equalTo(unmodifiableListShort(new short[] {2, 3, 4, 5})));
+        assertThat(list.subList(1, 3), equalTo(unmodifiableListShort(new short[] {3, 4})));
+    }
+
+    @Test
+    public void setAll1() {
+        ByteBufferShort list = createModifiableCollection();
+        list.setAll(3, unmodifiableListShort(new short[] {1, 2, 3}));
+        list.setAll(7, createRampCollection().subList(4, 6));
+        assertThat(list, equalTo(unmodifiableListShort(new short[] {0, 0, 0, 1, 2, 3, 0, 4, 5, 0})));
+    }
+
+    @Test
+    public void toArray1() {
+        short[] array = createRampCollection().subList(5, 8).toArray(new short[4]);
+        assertThat(array, equalTo(new short[] {5, 6, 7, 0}));
+    }
+
+    @Test
+    public void allocateDirect1() {
+        // The number of bytes would overflow an int
+        try {
+            ByteBufferShort.allocateDirect(Integer.MAX_VALUE / 2 + 1);
+            fail("Expected IllegalArgumentException");
+        } catch (IllegalArgumentException ex) {
+            assertThat(ex.getMessage(), containsString("too big"));
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void allocateDirect2() {
+        ByteBufferShort.allocateDirect(-1);
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void readOnly1() {
+        createRampCollection().setAll(0, unmodifiableListShort(new short[] {1}));
+    }
+}
@@ -0,0 +1,79 @@
+/**
+ * Copyright (C) 2010-14 diirt developers. See COPYRIGHT.TXT
+ * All rights reserved. Use is subject to license terms. See LICENSE.TXT
+ */
+package org.epics.util.array;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import org.junit.Test;
+import static org.junit.Assert.*;
+import static org.hamcrest.Matchers.*;
+import static org.epics.util.array.CollectionNumbers.*;
+
+/**
+ *
+ * @author carcassi
+ */
+public class ByteBufferUByteTest extends FeatureTestListNumber {
+
+    @Override
+    public ByteBufferUByte createConstantCollection() {
+        return ByteBufferUByte.copyOf(unmodifiableListUByte(new byte[] {1, 1, 1, 1, 1, 1, 1, 1, 1, 1})).asReadOnly();
+    }
+
+    @Override
+    public ByteBufferUByte createRampCollection() {
+        return ByteBufferUByte.copyOf(unmodifiableListUByte(new byte[] {0, 1, 2, 3, 4, 5, 6, 7, 8, 9})).asReadOnly();
+    }
+
+    @Override
+    public ByteBufferUByte createModifiableCollection() {
+        return ByteBufferUByte.allocateDirect(10);
+    }
+
+    @Override
+    public ByteBufferUByte createEmpty() {
+        return ByteBufferUByte.allocateDirect(0);
+    }
+
+    @Test
+    public void wrap1() {
+        ByteBuffer buffer = ByteBuffer.allocate(12 * 1).order(ByteOrder.BIG_ENDIAN);
+        for (int i = 0; i < 12; i++) {
+            buffer.put((byte) (i * 2));
+        }
+        buffer.flip();
+        buffer.position(1);
+        ByteBufferUByte list = ByteBufferUByte.wrap(buffer);
+        assertThat(list.size(), equalTo(11));
+        assertThat(list.getDouble(0), equalTo(2.0));
+        assertThat(list.getDouble(10), equalTo(22.0));
+    }
+
+    @Test
+    public void subList1() {
+        ByteBufferUByte list = createRampCollection().subList(2, 6);
+        assertThat(list, equalTo(unmodifiableListUByte(new byte[] {2, 3, 4, 5})));
+        assertThat(list.subList(1, 3), equalTo(unmodifiableListUByte(new byte[] {3, 4})));
+    }
+
+    @Test
+    public void setAll1() {
+        ByteBufferUByte list = createModifiableCollection();
+        list.setAll(3, unmodifiableListUByte(new byte[] {1, 2, 3}));
+        list.setAll(7, createRampCollection().subList(4, 6));
+        assertThat(list, equalTo(unmodifiableListUByte(new byte[] {0, 0, 0, 1, 2, 3, 0, 4, 5, 0})));
+    }
+
+    @Test
+    public void toArray1() {
+        byte[] array = createRampCollection().subList(5, 8).toArray(new byte[4]);
+        assertThat(array, equalTo(new byte[] {5, 6, 7, 0}));
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void readOnly1() {
+        createRampCollection().setAll(0, unmodifiableListUByte(new byte[] {1}));
+    }
+}
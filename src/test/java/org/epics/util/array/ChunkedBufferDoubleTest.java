@@ -0,0 +1,123 @@
+/**
+ * Copyright (C) 2010-14 diirt developers. See COPYRIGHT.TXT
+ * All rights reserved. Use is subject to license terms. See LICENSE.TXT
+ */
+package org.epics.util.array;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+import static org.hamcrest.Matchers.*;
+import static org.epics.util.array.FeatureTestListNumber.testList;
+import static org.epics.util.array.FeatureTestCollectionNumber.testIterationForAllTypes;
+
+/**
+ *
+ * @author carcassi
+ */
+public class ChunkedBufferDoubleTest {
+
+    public ChunkedBufferDoubleTest() {
+    }
+
+    @Test
+    public void iteration1() {
+        ChunkedBufferDouble coll = new ChunkedBufferDouble(4);
+        for (int i = 0; i < 10; i++) {
+            coll.addDouble(1);
+        }
+        testIterationForAllTypes(coll);
+        testList(coll);
+    }
+
+    @Test
+    public void add1() {
+        ChunkedBufferDouble coll = new ChunkedBufferDouble(4);
+        for (int i = 0; i < 11; i++) {
+            coll.addDouble(i);
+        }
+        assertThat(coll, equalTo((ListNumber) ListNumbers.linearList(0, 1, 11)));
+        assertThat(coll.getCurrentCapacity(), equalTo(12));
+    }
+
+    @Test
+    public void addAll1() {
+        int[] blockSizes = {1, 3, 4, 5, 17};
+        for (int blockSize : blockSizes) {
+            ChunkedBufferDouble bulk = new ChunkedBufferDouble(4);
+            BufferDouble single = new BufferDouble();
+            double[] values = new double[blockSize + 2];
+            int next = 0;
+            for (int block = 0; block < 20; block++) {
+                for (int i = 0; i < blockSize; i++) {
+                    values[i + 1] = next;
+                    single.addDouble(next);
+                    next++;
+                }
+                if (block % 3 == 0) {
+                    bulk.addAll(values, 1, blockSize);
+                } else if (block % 3 == 1) {
+                    bulk.addAll(CollectionNumbers.toListDouble(values).subList(1, blockSize + 1));
+                } else {
+                    bulk.addAll(new ArrayDouble(CollectionNumbers.toListDouble(values).subList(1, blockSize + 1)));
+                }
+                assertThat(bulk, equalTo((ListNumber) single));
+                assertThat(bulk.getCurrentCapacity(), equalTo((next + 3) / 4 * 4));
+            }
+        }
+    }
+
+    @Test
+    public void addAll2() {
+        ChunkedBufferDouble coll = new ChunkedBufferDouble(4);
+        coll.addAll(ListNumbers.linearList(0, 1, 6));
+        coll.addAll(coll);
+        assertThat(coll, equalTo(CollectionNumbers.unmodifiableListDouble(0, 1, 2, 3, 4, 5, 0, 1, 2, 3, 4, 5)));
+        coll.addAll(CollectionNumbers.toListShort(new short[] {6, 7, 8}));
+        assertThat(coll.size(), equalTo(15));
+        assertThat(coll.getDouble(14), equalTo(8.0));
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void addAll3() {
+        ChunkedBufferDouble coll = new ChunkedBufferDouble(4);
+        coll.addAll(new double[3], 1, 3);
+    }
+
+    @Test
+    public void toArray1() {
+        ChunkedBufferDouble coll = new ChunkedBufferDouble(4);
+        coll.addAll(ListNumbers.linearList(0, 1, 10));
+        assertThat(coll.toArray(new double[0]), equalTo(new double[] {0, 1, 2, 3, 4, 5, 6, 7, 8, 9}));
+        double[] array = new double[8];
+        CollectionNumbers.arrayCopy(coll.subList(3, 9), array, 2);
+        assertThat(array, equalTo(new double[] {0, 0, 3, 4, 5, 6, 7, 8}));
+    }
+
+    @Test
+    public void clear1() {
+        ChunkedBufferDouble coll = new ChunkedBufferDouble(4);
+        coll.addAll(ListNumbers.linearList(0, 1, 10));
+        coll.clear();
+        assertThat(coll.size(), equalTo(0));
+        // The chunks are kept
+        assertThat(coll.getCurrentCapacity(), equalTo(12));
+        coll.addDouble(5);
+        assertThat(coll, equalTo(CollectionNumbers.unmodifiableListDouble(5)));
+        assertThat(coll.getCurrentCapacity(), equalTo(12));
+        coll.clearAndTrim();
+        assertThat(coll.size(), equalTo(0));
+        assertThat(coll.getCurrentCapacity(), equalTo(0));
+    }
+
+    @Test(expected = ArrayIndexOutOfBoundsException.class)
+    public void get1() {
+        ChunkedBufferDouble coll = new ChunkedBufferDouble(4);
+        coll.addDouble(1);
+        coll.getDouble(1);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void new1() {
+        new ChunkedBufferDouble(6);
+    }
+}
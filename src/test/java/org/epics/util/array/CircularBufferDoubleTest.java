@@ -108,4 +108,88 @@ public class CircularBufferDoubleTest {
         coll.clear();
         assertThat(coll.size(), equalTo(0));
     }
+
+    @Test
+    public void toArray1() {
+        CircularBufferDouble coll = new CircularBufferDouble(10);
+        for (int i = 0; i < 17; i++) {
+            coll.addDouble(i);
+        }
+        double[] array = coll.toArray(new double[0]);
+        assertThat(array, equalTo(new double[] {7,8,9,10,11,12,13,14,15,16}));
+        double[] bigger = coll.toArray(new double[12]);
+        assertThat(coll, equalTo(CollectionNumbers.toListDouble(bigger).subList(0, 10)));
+    }
+
+    @Test
+    public void toArray2() {
+        CircularBufferDouble coll = new CircularBufferDouble(10);
+        for (int i = 0; i < 5; i++) {
+            coll.addDouble(i);
+        }
+        assertThat(coll.toArray(new double[5]), equalTo(new double[] {0,1,2,3,4}));
+    }
+
+    @Test
+    public void copyTo1() {
+        CircularBufferDouble coll = new CircularBufferDouble(10);
+        for (int i = 0; i < 17; i++) {
+            coll.addDouble(i);
+        }
+        double[] array = new double[5];
+        coll.copyTo(1, array, 1, 4);
+        assertThat(array, equalTo(new double[] {0,8,9,10,11}));
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void copyTo2() {
+        // The storage has more elements than the buffer
+        CircularBufferDouble coll = new CircularBufferDouble(10);
+        coll.addDouble(1);
+        coll.copyTo(0, new double[5], 0, 2);
+    }
+
+    @Test
+    public void addAll1() {
+        int[][] capacities = {{10, 10}, {10, 25}, {3, 100}, {1, 7}};
+        int[] blockSizes = {1, 2, 6, 7, 8, 30};
+        for (int[] capacity : capacities) {
+            for (int blockSize : blockSizes) {
+                CircularBufferDouble bulk = new CircularBufferDouble(capacity[0], capacity[1]);
+                CircularBufferDouble single = new CircularBufferDouble(capacity[0], capacity[1]);
+                double[] values = new double[blockSize + 2];
+                int next = 0;
+                for (int block = 0; block < 20; block++) {
+                    for (int i = 0; i < blockSize; i++) {
+                        values[i + 1] = (double) next;
+                        single.addDouble((double) next);
+                        next++;
+                    }
+                    if (block % 2 == 0) {
+                        bulk.addAll(values, 1, blockSize);
+                    } else {
+                        bulk.addAll(CollectionNumbers.toListDouble(values).subList(1, blockSize + 1));
+                    }
+                    assertThat(bulk, equalTo(single));
+                    assertThat(bulk.getCurrentCapacity(), equalTo(single.getCurrentCapacity()));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void addAll2() {
+        CircularBufferDouble coll = new CircularBufferDouble(5);
+        coll.addAll(ListNumbers.linearList(0, 1, 4));
+        coll.addAll(coll);
+        assertThat(coll, equalTo(CollectionNumbers.unmodifiableListDouble(new double[] {3,0,1,2,3})));
+        coll.addAll(ListNumbers.linearList(0, 1, 12));
+        assertThat(coll, equalTo(CollectionNumbers.unmodifiableListDouble(new double[] {7,8,9,10,11})));
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void addAll3() {
+        CircularBufferDouble coll = new CircularBufferDouble(5);
+        coll.addAll(new double[3], 1, 3);
+    }
 }
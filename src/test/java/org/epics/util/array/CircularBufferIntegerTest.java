@@ -0,0 +1,175 @@
+/**
+ * Copyright (C) 2010-14 diirt developers. See COPYRIGHT.TXT
+ * All rights reserved. Use is subject to license terms. See LICENSE.TXT
+ */
+package org.epics.util.array;
+
+import org.epics.util.array.CircularBufferInteger;
+import org.epics.util.array.ListInteger;
+import org.junit.Test;
+import static org.junit.Assert.*;
+import static org.hamcrest.Matchers.*;
+import static org.epics.util.array.FeatureTestListNumber.testList;
+import static org.epics.util.array.FeatureTestCollectionNumber.testIterationForAllTypes;
+
+/**
+ *
+ * @author carcassi
+ */
+public class CircularBufferIntegerTest {
+
+    public CircularBufferIntegerTest() {
+    }
+
+    @Test
+    public void iteration1() {
+        CircularBufferInteger coll = new CircularBufferInteger(15);
+        for (int i = 0; i < 10; i++) {
+            coll.addInt((int) 1);
+        }
+        testIterationForAllTypes(coll);
+        testList(coll);
+    }
+
+    @Test
+    public void add1() {
+        CircularBufferInteger coll = new CircularBufferInteger(10);
+        for (int i = 0; i < 5; i++) {
+            coll.addInt((int) 1);
+        }
+        assertThat(coll.size(), equalTo(5));
+        for (int i = 0; i < 5; i++) {
+            coll.addInt((int) 1);
+        }
+        assertThat(coll.size(), equalTo(10));
+        for (int i = 0; i < 5; i++) {
+            coll.addInt((int) 1);
+        }
+        assertThat(coll.size(), equalTo(10));
+    }
+
+    @Test
+    public void add2() {
+        CircularBufferInteger coll = new CircularBufferInteger(10);
+        for (int i = 0; i < 11; i++) {
+            coll.addInt((int) i);
+        }
+        ListInteger reference = CollectionNumbers.unmodifiableListInt(new int[] {1,2,3,4,5,6,7,8,9,10});
+        assertThat(coll, equalTo(reference));
+    }
+
+    @Test
+    public void add3() {
+        CircularBufferInteger coll = new CircularBufferInteger(10);
+        for (int i = 0; i < 5; i++) {
+            coll.addInt((int) i);
+        }
+        ListInteger reference = CollectionNumbers.unmodifiableListInt(new int[] {0,1,2,3,4});
+        assertThat(coll, equalTo(reference));
+    }
+
+    @Test
+    public void add4() {
+        CircularBufferInteger coll = new CircularBufferInteger(3);
+        for (int i = 0; i < 5; i++) {
+            coll.addInt((int) i);
+        }
+        ListInteger reference = CollectionNumbers.unmodifiableListInt(new int[] {2,3,4});
+        assertThat(coll, equalTo(reference));
+    }
+
+    @Test
+    public void add5() {
+        CircularBufferInteger coll = new CircularBufferInteger(25);
+        for (int i = 0; i < 5; i++) {
+            coll.addInt((int) i);
+        }
+        assertThat(coll.size(), equalTo(5));
+        assertThat(coll.getCurrentCapacity(), equalTo(10));
+        for (int i = 0; i < 5; i++) {
+            coll.addInt((int) i);
+        }
+        assertThat(coll.size(), equalTo(10));
+        assertThat(coll.getCurrentCapacity(), equalTo(20));
+        for (int i = 0; i < 10; i++) {
+            coll.addInt((int) i);
+        }
+        assertThat(coll.size(), equalTo(20));
+        assertThat(coll.getCurrentCapacity(), equalTo(25));
+    }
+
+    @Test
+    public void clear1() {
+        CircularBufferInteger coll = new CircularBufferInteger(10);
+        for (int i = 0; i < 5; i++) {
+            coll.addInt((int) i);
+        }
+        coll.clear();
+        assertThat(coll.size(), equalTo(0));
+    }
+
+    @Test
+    public void toArray1() {
+        CircularBufferInteger coll = new CircularBufferInteger(10);
+        for (int i = 0; i < 17; i++) {
+            coll.addInt((int) i);
+        }
+        int[] array = coll.toArray(new int[0]);
+        assertThat(array, equalTo(new int[] {7,8,9,10,11,12,13,14,15,16}));
+        int[] bigger = coll.toArray(new int[12]);
+        assertThat(coll, equalTo(CollectionNumbers.toListInt(bigger).subList(0, 10)));
+    }
+
+    @Test
+    public void toArray2() {
+        CircularBufferInteger coll = new CircularBufferInteger(10);
+        for (int i = 0; i < 5; i++) {
+            coll.addInt((int) i);
+        }
+        assertThat(coll.toArray(new int[5]), equalTo(new int[] {0,1,2,3,4}));
+    }
+
+    @Test
+    public void addAll1() {
+        int[][] capacities = {{10, 10}, {10, 25}, {3, 100}, {1, 7}};
+        int[] blockSizes = {1, 2, 6, 7, 8, 30};
+        for (int[] capacity : capacities) {
+            for (int blockSize : blockSizes) {
+                CircularBufferInteger bulk = new CircularBufferInteger(capacity[0], capacity[1]);
+                CircularBufferInteger single = new CircularBufferInteger(capacity[0], capacity[1]);
+                int[] values = new int[blockSize + 2];
+                int next = 0;
+                for (int block = 0; block < 20; block++) {
+                    for (int i = 0; i < blockSize; i++) {
+                        values[i + 1] = (int) next;
+                        single.addInt((int) next);
+                        next++;
+                    }
+                    if (block % 2 == 0) {
+                        bulk.addAll(values, 1, blockSize);
+                    } else {
+                        bulk.addAll(CollectionNumbers.toListInt(values).subList(1, blockSize + 1));
+                    }
+                    assertThat(bulk, equalTo(single));
+                    assertThat(bulk.getCurrentCapacity(), equalTo(single.getCurrentCapacity()));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void addAll2() {
+        CircularBufferInteger coll = new CircularBufferInteger(5);
+        coll.addAll(ListNumbers.linearList(0, 1, 4));
+        coll.addAll(coll);
+        assertThat(coll, equalTo(CollectionNumbers.unmodifiableListInt(new int[] {3,0,1,2,3})));
+        coll.addAll(ListNumbers.linearList(0, 1, 12));
+        assertThat(coll, equalTo(CollectionNumbers.unmodifiableListInt(new int[] {7,8,9,10,11})));
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void addAll3() {
+        CircularBufferInteger coll = new CircularBufferInteger(5);
+        coll.addAll(new int[3], 1, 3);
+    }
+}
@@ -0,0 +1,175 @@
+/**
+ * Copyright (C) 2010-14 diirt developers. See COPYRIGHT.TXT
+ * All rights reserved. Use is subject to license terms. See LICENSE.TXT
+ */
+package org.epics.util.array;
+
+import org.epics.util.array.CircularBufferLong;
+import org.epics.util.array.ListLong;
+import org.junit.Test;
+import static org.junit.Assert.*;
+import static org.hamcrest.Matchers.*;
+import static org.epics.util.array.FeatureTestListNumber.testList;
+import static org.epics.util.array.FeatureTestCollectionNumber.testIterationForAllTypes;
+
+/**
+ *
+ * @author carcassi
+ */
+public class CircularBufferLongTest {
+
+    public CircularBufferLongTest() {
+    }
+
+    @Test
+    public void iteration1() {
+        CircularBufferLong coll = new CircularBufferLong(15);
+        for (int i = 0; i < 10; i++) {
+            coll.addLong((long) 1);
+        }
+        testIterationForAllTypes(coll);
+        testList(coll);
+    }
+
+    @Test
+    public void add1() {
+        CircularBufferLong coll = new CircularBufferLong(10);
+        for (int i = 0; i < 5; i++) {
+            coll.addLong((long) 1);
+        }
+        assertThat(coll.size(), equalTo(5));
+        for (int i = 0; i < 5; i++) {
+            coll.addLong((long) 1);
+        }
+        assertThat(coll.size(), equalTo(10));
+        for (int i = 0; i < 5; i++) {
+            coll.addLong((long) 1);
+        }
+        assertThat(coll.size(), equalTo(10));
+    }
+
+    @Test
+    public void add2() {
+        CircularBufferLong coll = new CircularBufferLong(10);
+        for (int i = 0; i < 11; i++) {
+            coll.addLong((long) i);
+        }
+        ListLong reference = CollectionNumbers.unmodifiableListLong(new long[] {1,2,3,4,5,6,7,8,9,10});
+        assertThat(coll, equalTo(reference));
+    }
+
+    @Test
+    public void add3() {
+        CircularBufferLong coll = new CircularBufferLong(10);
+        for (int i = 0; i < 5; i++) {
+            coll.addLong((long) i);
+        }
+        ListLong reference = CollectionNumbers.unmodifiableListLong(new long[] {0,1,2,3,4});
+        assertThat(coll, equalTo(reference));
+    }
+
+    @Test
+    public void add4() {
+        CircularBufferLong coll = new CircularBufferLong(3);
+        for (int i = 0; i < 5; i++) {
+            coll.addLong((long) i);
+        }
+        ListLong reference = CollectionNumbers.unmodifiableListLong(new long[] {2,3,4});
+        assertThat(coll, equalTo(reference));
+    }
+
+    @Test
+    public void add5() {
+        CircularBufferLong coll = new CircularBufferLong(25);
+        for (int i = 0; i < 5; i++) {
+            coll.addLong((long) i);
+        }
+        assertThat(coll.size(), equalTo(5));
+        assertThat(coll.getCurrentCapacity(), equalTo(10));
+        for (int i = 0; i < 5; i++) {
+            coll.addLong((long) i);
+        }
+        assertThat(coll.size(), equalTo(10));
+        assertThat(coll.getCurrentCapacity(), equalTo(20));
+        for (int i = 0; i < 10; i++) {
+            coll.addLong((long) i);
+        }
+        assertThat(coll.size(), equalTo(20));
+        assertThat(coll.getCurrentCapacity(), equalTo(25));
+    }
+
+    @Test
+    public void clear1() {
+        CircularBufferLong coll = new CircularBufferLong(10);
+        for (int i = 0; i < 5; i++) {
+            coll.addLong((long) i);
+        }
+        coll.clear();
+        assertThat(coll.size(), equalTo(0));
+    }
+
+    @Test
+    public void toArray1() {
+        CircularBufferLong coll = new CircularBufferLong(10);
+        for (int i = 0; i < 17; i++) {
+            coll.addLong((long) i);
+        }
+        long[] array = coll.toArray(new long[0]);
+        assertThat(array, equalTo(new long[] {7,8,9,10,11,12,13,14,15,16}));
+        long[] bigger = coll.toArray(new long[12]);
+        assertThat(coll, equalTo(CollectionNumbers.toListLong(bigger).subList(0, 10)));
+    }
+
+    @Test
+    public void toArray2() {
+        CircularBufferLong coll = new CircularBufferLong(10);
+        for (int i = 0; i < 5; i++) {
+            coll.addLong((long) i);
+        }
+        assertThat(coll.toArray(new long[5]), equalTo(new long[] {0,1,2,3,4}));
+    }
+
+    @Test
+    public void addAll1() {
+        int[][] capacities = {{10, 10}, {10, 25}, {3, 100}, {1, 7}};
+        int[] blockSizes = {1, 2, 6, 7, 8, 30};
+        for (int[] capacity : capacities) {
+            for (int blockSize : blockSizes) {
+                CircularBufferLong bulk = new CircularBufferLong(capacity[0], capacity[1]);
+                CircularBufferLong single = new CircularBufferLong(capacity[0], capacity[1]);
+                long[] values = new long[blockSize + 2];
+                int next = 0;
+                for (int block = 0; block < 20; block++) {
+                    for (int i = 0; i < blockSize; i++) {
+                        values[i + 1] = (long) next;
+                        single.addLong((long) next);
+                        next++;
+                    }
+                    if (block % 2 == 0) {
+                        bulk.addAll(values, 1, blockSize);
+                    } else {
+                        bulk.addAll(CollectionNumbers.toListLong(values).subList(1, blockSize + 1));
+                    }
+                    assertThat(bulk, equalTo(single));
+                    assertThat(bulk.getCurrentCapacity(), equalTo(single.getCurrentCapacity()));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void addAll2() {
+        CircularBufferLong coll = new CircularBufferLong(5);
+        coll.addAll(ListNumbers.linearList(0, 1, 4));
+        coll.addAll(coll);
+        assertThat(coll, equalTo(CollectionNumbers.unmodifiableListLong(new long[] {3,0,1,2,3})));
+        coll.addAll(ListNumbers.linearList(0, 1, 12));
+        assertThat(coll, equalTo(CollectionNumbers.unmodifiableListLong(new long[] {7,8,9,10,11})));
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void addAll3() {
+        CircularBufferLong coll = new CircularBufferLong(5);
+        coll.addAll(new long[3], 1, 3);
+    }
+}
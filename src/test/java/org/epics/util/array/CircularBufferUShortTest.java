@@ -0,0 +1,175 @@
+/**
+ * Copyright (C) 2010-14 diirt developers. See COPYRIGHT.TXT
+ * All rights reserved. Use is subject to license terms. See LICENSE.TXT
+ */
+package org.epics.util.array;
+
+import org.epics.util.array.CircularBufferUShort;
+import org.epics.util.array.ListUShort;
+import org.junit.Test;
+import static org.junit.Assert.*;
+import static org.hamcrest.Matchers.*;
+import static org.epics.util.array.FeatureTestListNumber.testList;
+import static org.epics.util.array.FeatureTestCollectionNumber.testIterationForAllTypes;
+
+/**
+ *
+ * @author carcassi
+ */
+public class CircularBufferUShortTest {
+
+    public CircularBufferUShortTest() {
+    }
+
+    @Test
+    public void iteration1() {
+        CircularBufferUShort coll = new CircularBufferUShort(15);
+        for (int i = 0; i < 10; i++) {
+            coll.addShort((short) 1);
+        }
+        testIterationForAllTypes(coll);
+        testList(coll);
+    }
+
+    @Test
+    public void add1() {
+        CircularBufferUShort coll = new CircularBufferUShort(10);
+        for (int i = 0; i < 5; i++) {
+            coll.addShort((short) 1);
+        }
+        assertThat(coll.size(), equalTo(5));
+        for (int i = 0; i < 5; i++) {
+            coll.addShort((short) 1);
+        }
+        assertThat(coll.size(), equalTo(10));
+        for (int i = 0; i < 5; i++) {
+            coll.addShort((short) 1);
+        }
+        assertThat(coll.size(), equalTo(10));
+    }
+
+    @Test
+    public void add2() {
+        CircularBufferUShort coll = new CircularBufferUShort(10);
+        for (int i = 0; i < 11; i++) {
+            coll.addShort((short) i);
+        }
+        ListUShort reference = CollectionNumbers.unmodifiableListUShort(new short[] {1,2,3,4,5,6,7,8,9,10});
+        assertThat(coll, equalTo(reference));
+    }
+
+    @Test
+    public void add3() {
+        CircularBufferUShort coll = new CircularBufferUShort(10);
+        for (int i = 0; i < 5; i++) {
+            coll.addShort((short) i);
+        }
+        ListUShort reference = CollectionNumbers.unmodifiableListUShort(new short[] {0,1,2,3,4});
+        assertThat(coll, equalTo(reference));
+    }
+
+    @Test
+    public void add4() {
+        CircularBufferUShort coll = new CircularBufferUShort(3);
+        for (int i = 0; i < 5; i++) {
+            coll.addShort((short) i);
+        }
+        ListUShort reference = CollectionNumbers.unmodifiableListUShort(new short[] {2,3,4});
+        assertThat(coll, equalTo(reference));
+    }
+
+    @Test
+    public void add5() {
+        CircularBufferUShort coll = new CircularBufferUShort(25);
+        for (int i = 0; i < 5; i++) {
+            coll.addShort((short) i);
+        }
+        assertThat(coll.size(), equalTo(5));
+        assertThat(coll.getCurrentCapacity(), equalTo(10));
+        for (int i = 0; i < 5; i++) {
+            coll.addShort((short) i);
+        }
+        assertThat(coll.size(), equalTo(10));
+        assertThat(coll.getCurrentCapacity(), equalTo(20));
+        for (int i = 0; i < 10; i++) {
+            coll.addShort((short) i);
+        }
+        assertThat(coll.size(), equalTo(20));
+        assertThat(coll.getCurrentCapacity(), equalTo(25));
+    }
+
+    @Test
+    public void clear1() {
+        CircularBufferUShort coll = new CircularBufferUShort(10);
+        for (int i = 0; i < 5; i++) {
+            coll.addShort((short) i);
+        }
+        coll.clear();
+        assertThat(coll.size(), equalTo(0));
+    }
+
+    @Test
+    public void toArray1() {
+        CircularBufferUShort coll = new CircularBufferUShort(10);
+        for (int i = 0; i < 17; i++) {
+            coll.addShort((short) i);
+        }
+        short[] array = coll.toArray(new short[0]);
+        assertThat(array, equalTo(new short[] {7,8,9,10,11,12,13,14,15,16}));
+        short[] bigger = coll.toArray(new short[12]);
+        assertThat(coll, equalTo(CollectionNumbers.toListUShort(bigger).subList(0, 10)));
+    }
+
+    @Test
+    public void toArray2() {
+        CircularBufferUShort coll = new CircularBufferUShort(10);
+        for (int i = 0; i < 5; i++) {
+            coll.addShort((short) i);
+        }
+        assertThat(coll.toArray(new short[5]), equalTo(new short[] {0,1,2,3,4}));
+    }
+
+    @Test
+    public void addAll1() {
+        int[][] capacities = {{10, 10}, {10, 25}, {3, 100}, {1, 7}};
+        int[] blockSizes = {1, 2, 6, 7, 8, 30};
+        for (int[] capacity : capacities) {
+            for (int blockSize : blockSizes) {
+                CircularBufferUShort bulk = new CircularBufferUShort(capacity[0], capacity[1]);
+                CircularBufferUShort single = new CircularBufferUShort(capacity[0], capacity[1]);
+                short[] values = new short[blockSize + 2];
+                int next = 0;
+                for (int block = 0; block < 20; block++) {
+                    for (int i = 0; i < blockSize; i++) {
+                        values[i + 1] = (short) next;
+                        single.addShort((short) next);
+                        next++;
+                    }
+                    if (block % 2 == 0) {
+                        bulk.addAll(values, 1, blockSize);
+                    } else {
+                        bulk.addAll(CollectionNumbers.toListUShort(values).subList(1, blockSize + 1));
+                    }
+                    assertThat(bulk, equalTo(single));
+                    assertThat(bulk.getCurrentCapacity(), equalTo(single.getCurrentCapacity()));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void addAll2() {
+        CircularBufferUShort coll = new CircularBufferUShort(5);
+        coll.addAll(ListNumbers.linearList(0, 1, 4));
+        coll.addAll(coll);
+        assertThat(coll, equalTo(CollectionNumbers.unmodifiableListUShort(new short[] {3,0,1,2,3})));
+        coll.addAll(ListNumbers.linearList(0, 1, 12));
+        assertThat(coll, equalTo(CollectionNumbers.unmodifiableListUShort(new short[] {7,8,9,10,11})));
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void addAll3() {
+        CircularBufferUShort coll = new CircularBufferUShort(5);
+        coll.addAll(new short[3], 1, 3);
+    }
+}
@@ -246,6 +246,81 @@ public class CollectionNumbersTest {
         CollectionNumbers.arrayCopy(coll, dst, 0);
     }
 
+    @Test
+    public void arrayCopyRange1(){
+        ListNumber list = toListInt(0, 1, 2, 3, 4, 5, 6, 7, 8, 9).subList(2, 8);
+        double[] dst = new double[8];
+        CollectionNumbers.arrayCopy(list, 1, dst, 2, 5);
+        assertThat(dst, equalTo(new double[] {0, 0, 3, 4, 5, 6, 7, 0}));
+        CollectionNumbers.arrayCopy(list, 6, dst, 8, 0);
+    }
+
+    @Test(expected=IndexOutOfBoundsException.class)
+    public void arrayCopyRange2(){
+        // The wrapped array has more elements than the sublist
+        ListNumber list = toListDouble(0, 1, 2, 3, 4, 5, 6, 7, 8, 9).subList(2, 8);
+        CollectionNumbers.arrayCopy(list, 2, new double[10], 0, 5);
+    }
+
+    @Test(expected=IndexOutOfBoundsException.class)
+    public void arrayCopyRange3(){
+        CollectionNumbers.arrayCopy(toListDouble(0, 1, 2), -1, new double[10], 0, 2);
+    }
+
+    @Test(expected=IndexOutOfBoundsException.class)
+    public void arrayCopyRange4(){
+        CollectionNumbers.arrayCopy(toListDouble(0, 1, 2), 0, new double[2], 1, 2);
+    }
+
+    @Test
+    public void arrayCopyRange5(){
+        // Raw bits for the unsigned types
+        byte[] bytes = new byte[4];
+        CollectionNumbers.arrayCopy(toListUByte(new byte[] {1, (byte) 200, 3, 4}).subList(1, 4), 0, bytes, 1, 3);
+        assertThat(bytes, equalTo(new byte[] {0, (byte) 200, 3, 4}));
+        CollectionNumbers.arrayCopy(toListInt(5, 6, 7), 1, bytes, 0, 2);
+        assertThat(bytes, equalTo(new byte[] {6, 7, 3, 4}));
+        short[] shorts = new short[3];
+        CollectionNumbers.arrayCopy(toListUShort(new short[] {1, (short) 60000, 3}), 1, shorts, 0, 2);
+        assertThat(shorts, equalTo(new short[] {(short) 60000, 3, 0}));
+        CollectionNumbers.arrayCopy(toListDouble(8, 9), 0, shorts, 1, 2);
+        assertThat(shorts, equalTo(new short[] {(short) 60000, 8, 9}));
+    }
+
+    @Test
+    public void arrayCopyRange7(){
+        int[] ints = new int[3];
+        CollectionNumbers.arrayCopy(toListUInt(1, -1, 3).subList(1, 3), 0, ints, 1, 2);
+        assertThat(ints, equalTo(new int[] {0, -1, 3}));
+        long[] longs = new long[2];
+        CollectionNumbers.arrayCopy(toListULong(1, -1, 3), 1, longs, 0, 2);
+        assertThat(longs, equalTo(new long[] {-1, 3}));
+        CollectionNumbers.arrayCopy(toListShort(new short[] {4, 5}), 0, longs, 0, 2);
+        assertThat(longs, equalTo(new long[] {4, 5}));
+        float[] floats = new float[2];
+        CollectionNumbers.arrayCopy(toListFloat(1.5f, 2.5f, 3.5f), 1, floats, 0, 2);
+        assertThat(floats, equalTo(new float[] {2.5f, 3.5f}));
+        CollectionNumbers.arrayCopy(toListDouble(0.25, 7), 0, floats, 0, 2);
+        assertThat(floats, equalTo(new float[] {0.25f, 7}));
+    }
+
+    @Test
+    public void arrayCopyRange8(){
+        // Views copy with their own bulk operation
+        ListNumber view = ListNumbers.listView(toListInt(0, 1, 2, 3, 4), unmodifiableListInt(4, 3, 0));
+        double[] dst = new double[3];
+        CollectionNumbers.arrayCopy(view, 1, dst, 0, 2);
+        assertThat(dst, equalTo(new double[] {3, 0, 0}));
+        ListNumber strided = ListNumbers.stride(toListDouble(0, 1, 2, 3, 4), 0, 2);
+        CollectionNumbers.arrayCopy(strided, 0, dst, 0, 3);
+        assertThat(dst, equalTo(new double[] {0, 2, 4}));
+    }
+
+    @Test(expected=IndexOutOfBoundsException.class)
+    public void arrayCopyRange6(){
+        CollectionNumbers.arrayCopy(toListShort(new short[] {1, 2, 3, 4}).subList(0, 2), 1, new short[4], 0, 2);
+    }
+
     @Test
     public void unmodifiableListOptimizations1(){
         assertThat(unmodifiableList((ListDouble) toListDouble(1, 2, 3)), instanceOf(ArrayDouble.class));
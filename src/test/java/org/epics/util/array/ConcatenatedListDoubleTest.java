@@ -74,4 +74,83 @@ public class ConcatenatedListDoubleTest extends FeatureTestListNumber {
         ListDouble concatenated = ListNumbers.concatenate(l1, l2, l3, l4, l5);
         assertThat(concatenated, equalTo(unmodifiableListDouble(1, 1, 2, 1, 2, 3, 1, 2, 3, 4, 1, 2, 3, 4, 5)));
     }
+
+    @Test
+    public void testConcatenation5() {
+        // Many lists of different sizes, some empty
+        ListNumber[] lists = new ListNumber[200];
+        int start = 0;
+        for (int i = 0; i < lists.length; i++) {
+            int size = i % 7;
+            lists[i] = size == 0 ? unmodifiableListDouble() : ListNumbers.linearList(start, 1, size);
+            start += size;
+        }
+        ListNumber concatenated = ListNumbers.concatenatePreservingType(lists);
+        assertThat(concatenated, instanceOf(ConcatenatedListDouble.class));
+        assertThat(concatenated, equalTo((ListNumber) ListNumbers.linearList(0, 1, start)));
+        for (int i = start - 1; i >= 0; i -= 13) {
+            assertThat(concatenated.getDouble(i), equalTo((double) i));
+        }
+    }
+
+    @Test
+    public void testConcatenation6() {
+        ListNumber concatenated = ListNumbers.concatenatePreservingType(unmodifiableListDouble(0, 1, 2),
+                toListInt(3, 4), unmodifiableListDouble(), toListShort(new short[] {5, 6, 7, 8}));
+        double[] array = new double[7];
+        arrayCopy(concatenated.subList(1, 8), array, 0);
+        assertThat(array, equalTo(new double[] {1, 2, 3, 4, 5, 6, 7}));
+        assertThat(concatenated.toArray(new double[0]), equalTo(new double[] {0, 1, 2, 3, 4, 5, 6, 7, 8}));
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testConcatenation7() {
+        ListDouble concatenated = ListNumbers.concatenate(unmodifiableListDouble(0, 1, 2), unmodifiableListDouble(3));
+        concatenated.getDouble(4);
+    }
+
+    @Test
+    public void testConcatenation8() {
+        // concatenate follows the lists as they grow
+        BufferDouble buffer = new BufferDouble();
+        buffer.addDouble(1);
+        ListDouble concatenated = ListNumbers.concatenate(unmodifiableListDouble(0), buffer);
+        buffer.addDouble(2);
+        assertThat(concatenated, equalTo(unmodifiableListDouble(0, 1, 2)));
+    }
+
+    @Test
+    public void concatenatePreservingType4() {
+        // The sizes are taken when the lists are concatenated
+        BufferDouble buffer = new BufferDouble();
+        buffer.addDouble(1);
+        ListNumber concatenated = ListNumbers.concatenatePreservingType(unmodifiableListDouble(0), buffer);
+        buffer.addDouble(2);
+        assertThat(concatenated, equalTo((ListNumber) unmodifiableListDouble(0, 1)));
+    }
+
+    @Test
+    public void concatenatePreservingType1() {
+        ListNumber concatenated = ListNumbers.concatenatePreservingType(toListShort(new short[] {0, 1}),
+                toListShort(new short[] {2, 3, 4}));
+        assertThat(concatenated, instanceOf(ListShort.class));
+        assertThat(concatenated, equalTo((ListNumber) toListShort(new short[] {0, 1, 2, 3, 4})));
+        assertThat(concatenated.toArray(new short[0]), equalTo(new short[] {0, 1, 2, 3, 4}));
+    }
+
+    @Test
+    public void concatenatePreservingType2() {
+        ListNumber concatenated = ListNumbers.concatenatePreservingType(toListUByte(new byte[] {-1}),
+                toListUByte(new byte[] {2}));
+        assertThat(concatenated, instanceOf(ListUByte.class));
+        assertThat(concatenated.getInt(0), equalTo(255));
+    }
+
+    @Test
+    public void concatenatePreservingType3() {
+        ListNumber concatenated = ListNumbers.concatenatePreservingType(toListShort(new short[] {0, 1}),
+                toListInt(2));
+        assertThat(concatenated, instanceOf(ListDouble.class));
+        assertThat(concatenated, equalTo((ListNumber) unmodifiableListDouble(0, 1, 2)));
+    }
 }
@@ -0,0 +1,42 @@
+/**
+ * Copyright (C) 2010-14 diirt developers. See COPYRIGHT.TXT
+ * All rights reserved. Use is subject to license terms. See LICENSE.TXT
+ */
+package org.epics.util.array;
+
+import static org.epics.util.array.CollectionNumbers.*;
+
+/**
+ *
+ * @author carcassi
+ */
+public class ConcatenatedListShortTest extends FeatureTestListNumber {
+
+    @Override
+    public ListNumber createConstantCollection() {
+        ArrayShort list1 = unmodifiableListShort(new short[] {1, 1, 1, 1, 1});
+        ArrayShort list2 = unmodifiableListShort(new short[] {1, 1, 1, 1, 1});
+        return ListNumbers.concatenatePreservingType(list1, list2);
+    }
+
+    @Override
+    public ListNumber createRampCollection() {
+        ArrayShort list1 = unmodifiableListShort(new short[] {0, 1, 2, 3, 4});
+        ArrayShort list2 = unmodifiableListShort(new short[] {5, 6, 7, 8, 9});
+        return ListNumbers.concatenatePreservingType(list1, list2);
+    }
+
+    @Override
+    public ListNumber createModifiableCollection() {
+        ArrayShort list1 = toListShort(new short[5]);
+        ArrayShort list2 = toListShort(new short[5]);
+        return ListNumbers.concatenatePreservingType(list1, list2);
+    }
+
+    @Override
+    public ListNumber createEmpty() {
+        ArrayShort list1 = toListShort(new short[0]);
+        ArrayShort list2 = toListShort(new short[0]);
+        return ListNumbers.concatenatePreservingType(list1, list2);
+    }
+}
@@ -0,0 +1,160 @@
+/**
+ * Copyright (C) 2010-14 diirt developers. See COPYRIGHT.TXT
+ * All rights reserved. Use is subject to license terms. See LICENSE.TXT
+ */
+package org.epics.util.array;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.Test;
+import static org.junit.Assert.*;
+import static org.hamcrest.Matchers.*;
+
+/**
+ *
+ * @author carcassi
+ */
+public class ConcurrentCircularBufferDoubleTest {
+
+    public ConcurrentCircularBufferDoubleTest() {
+    }
+
+    @Test
+    public void add1() {
+        ConcurrentCircularBufferDouble buffer = new ConcurrentCircularBufferDouble(10);
+        assertThat(buffer.size(), equalTo(0));
+        assertThat(buffer.snapshot().size(), equalTo(0));
+        for (int i = 0; i < 5; i++) {
+            buffer.addDouble(i);
+        }
+        assertThat(buffer.size(), equalTo(5));
+        assertThat(buffer.snapshot(), equalTo(CollectionNumbers.unmodifiableListDouble(0, 1, 2, 3, 4)));
+    }
+
+    @Test
+    public void add2() {
+        ConcurrentCircularBufferDouble buffer = new ConcurrentCircularBufferDouble(3);
+        for (int i = 0; i < 5; i++) {
+            buffer.addDouble(i);
+        }
+        assertThat(buffer.size(), equalTo(3));
+        assertThat(buffer.snapshot(), equalTo(CollectionNumbers.unmodifiableListDouble(2, 3, 4)));
+    }
+
+    @Test
+    public void addAll1() {
+        ConcurrentCircularBufferDouble buffer = new ConcurrentCircularBufferDouble(4);
+        buffer.addAll(new double[] {-1, 0, 1, 2, -1}, 1, 3);
+        assertThat(buffer.snapshot(), equalTo(CollectionNumbers.unmodifiableListDouble(0, 1, 2)));
+        buffer.addAll(new double[] {3, 4, 5, 6, 7, 8}, 0, 6);
+        assertThat(buffer.snapshot(), equalTo(CollectionNumbers.unmodifiableListDouble(5, 6, 7, 8)));
+        buffer.addDouble(9);
+        assertThat(buffer.snapshot(), equalTo(CollectionNumbers.unmodifiableListDouble(6, 7, 8, 9)));
+    }
+
+    @Test
+    public void clear1() {
+        ConcurrentCircularBufferDouble buffer = new ConcurrentCircularBufferDouble(4);
+        for (int i = 0; i < 6; i++) {
+            buffer.addDouble(i);
+        }
+        buffer.clear();
+        assertThat(buffer.size(), equalTo(0));
+        assertThat(buffer.snapshot().size(), equalTo(0));
+        buffer.addDouble(6);
+        assertThat(buffer.snapshot(), equalTo(CollectionNumbers.unmodifiableListDouble(6)));
+    }
+
+    @Test
+    public void snapshot1() {
+        ConcurrentCircularBufferDouble buffer = new ConcurrentCircularBufferDouble(5);
+        buffer.addDouble(1);
+        ArrayDouble snapshot = buffer.snapshot();
+        buffer.addDouble(2);
+        assertThat(snapshot, equalTo(CollectionNumbers.unmodifiableListDouble(1)));
+        assertThat(snapshot.isReadOnly(), equalTo(true));
+    }
+
+    @Test
+    public void concurrentReaders1() throws Exception {
+        // The writer adds consecutive numbers: every snapshot must
+        // contain consecutive numbers
+        final ConcurrentCircularBufferDouble buffer = new ConcurrentCircularBufferDouble(64);
+        final AtomicBoolean done = new AtomicBoolean();
+        final AtomicReference<String> error = new AtomicReference<>();
+        Thread[] readers = new Thread[3];
+        for (int n = 0; n < readers.length; n++) {
+            readers[n] = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    while (!done.get() && error.get() == null) {
+                        ArrayDouble snapshot = buffer.snapshot();
+                        for (int i = 1; i < snapshot.size(); i++) {
+                            if (snapshot.getDouble(i) != snapshot.getDouble(i - 1) + 1) {
+                                error.set("Inconsistent snapshot " + snapshot);
+                            }
+                        }
+                    }
+                }
+            });
+            readers[n].start();
+        }
+        double next = 0;
+        double[] block = new double[10];
+        for (int i = 0; i < 200000; i++) {
+            if (i % 2 == 0) {
+                buffer.addDouble(next++);
+            } else {
+                for (int j = 0; j < block.length; j++) {
+                    block[j] = next++;
+                }
+                buffer.addAll(block, 0, block.length);
+            }
+        }
+        done.set(true);
+        for (Thread reader : readers) {
+            reader.join();
+        }
+        assertThat(error.get(), nullValue());
+        assertThat(buffer.snapshot().getDouble(63), equalTo(next - 1));
+    }
+
+    @Test(timeout = 60000)
+    public void fullBufferWriter1() throws Exception {
+        // A writer that keeps overwriting a full buffer: the snapshots
+        // must return the valid newest values instead of retrying forever
+        final int capacity = 100000;
+        final ConcurrentCircularBufferDouble buffer = new ConcurrentCircularBufferDouble(capacity);
+        for (int i = 0; i < capacity; i++) {
+            buffer.addDouble(i);
+        }
+        final AtomicBoolean done = new AtomicBoolean();
+        Thread writer = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                double next = capacity;
+                while (!done.get()) {
+                    buffer.addDouble(next++);
+                }
+            }
+        });
+        writer.start();
+        try {
+            int nonEmpty = 0;
+            for (int n = 0; n < 20; n++) {
+                ArrayDouble snapshot = buffer.snapshot();
+                assertThat(snapshot.size(), lessThanOrEqualTo(capacity));
+                for (int i = 1; i < snapshot.size(); i++) {
+                    assertThat(snapshot.getDouble(i), equalTo(snapshot.getDouble(i - 1) + 1));
+                }
+                if (snapshot.size() != 0) {
+                    nonEmpty++;
+                }
+            }
+            assertThat(nonEmpty, greaterThan(0));
+        } finally {
+            done.set(true);
+            writer.join();
+        }
+    }
+}
@@ -0,0 +1,161 @@
+/**
+ * Copyright (C) 2010-14 diirt developers. See COPYRIGHT.TXT
+ * All rights reserved. Use is subject to license terms. See LICENSE.TXT
+ */
+package org.epics.util.array;
+
+import java.util.concurrent.ForkJoinPool;
+import org.junit.After;
+import org.junit.Test;
+import static org.junit.Assert.*;
+import static org.hamcrest.Matchers.*;
+import static org.epics.util.array.CollectionNumbers.*;
+
+/**
+ *
+ * @author carcassi
+ */
+public class DecimationTest {
+
+    public DecimationTest() {
+    }
+
+    @After
+    public void disable() {
+        ParallelExecution.disable();
+    }
+
+    @Test
+    public void minMax1() {
+        ListNumber data = toListDouble(3, 1, 4, 1, 5, 9, 2, 6, 5, 3);
+        Decimation.Buckets buckets = Decimation.minMax(data, 3);
+        assertThat(buckets.size(), equalTo(3));
+        assertThat(buckets.getMin(), equalTo((ListNumber) toListDouble(1, 1, 2)));
+        assertThat(buckets.getMax(), equalTo((ListNumber) toListDouble(4, 9, 6)));
+        assertThat(buckets.getFirst(), equalTo((ListNumber) toListDouble(3, 1, 2)));
+        assertThat(buckets.getLast(), equalTo((ListNumber) toListDouble(4, 9, 3)));
+        assertThat(buckets.getCount(), equalTo((ListNumber) toListInt(3, 3, 4)));
+    }
+
+    @Test
+    public void minMax2() {
+        // More buckets than elements and NaN values
+        ListNumber data = toListShort(new short[] {5, 7});
+        Decimation.Buckets buckets = Decimation.minMax(data, 4);
+        assertThat(buckets.getCount(), equalTo((ListNumber) toListInt(0, 1, 0, 1)));
+        assertThat(buckets.getMin().getDouble(0), equalTo(Double.NaN));
+        assertThat(buckets.getMin().getDouble(1), equalTo(5.0));
+        assertThat(buckets.getMax().getDouble(3), equalTo(7.0));
+
+        buckets = Decimation.minMax(toListDouble(Double.NaN, 2, Double.NaN, Double.NaN), 2);
+        assertThat(buckets.getMin(), equalTo((ListNumber) toListDouble(2, Double.NaN)));
+        assertThat(buckets.getFirst(), equalTo((ListNumber) toListDouble(Double.NaN, Double.NaN)));
+        assertThat(buckets.getLast(), equalTo((ListNumber) toListDouble(2, Double.NaN)));
+    }
+
+    @Test
+    public void minMax3() {
+        // Non-array lists go through the block copy
+        ListNumber data = ListNumbers.linearList(0, 1, 5000);
+        Decimation.Buckets buckets = Decimation.minMax(data, 2);
+        assertThat(buckets.getMin(), equalTo((ListNumber) toListDouble(0, 2500)));
+        assertThat(buckets.getMax(), equalTo((ListNumber) toListDouble(2499, 4999)));
+    }
+
+    @Test
+    public void minMaxX1() {
+        ListNumber x = toListDouble(0, 0.5, 1, 1.5, 2, 2.5, 3, 3.5, 4);
+        ListNumber y = toListDouble(0, 1, 2, 3, 4, 5, 6, 7, 8);
+        Decimation.Buckets buckets = Decimation.minMax(x, y, 1, 3, 2);
+        assertThat(buckets.getMin(), equalTo((ListNumber) toListDouble(2, 4)));
+        assertThat(buckets.getMax(), equalTo((ListNumber) toListDouble(3, 6)));
+        assertThat(buckets.getCount(), equalTo((ListNumber) toListInt(2, 3)));
+    }
+
+    @Test
+    public void minMaxX2() {
+        // Linear x gives the same buckets as the same values in an array
+        ListNumber linear = ListNumbers.linearListFromRange(-3, 7, 1001);
+        ListNumber array = toListDouble(linear.toArray(new double[0]));
+        ListNumber y = ListNumbers.linearList(0, 1, 1001);
+        double[][] ranges = {{-3, 7}, {0, 1}, {-10, 2.5}, {0.013, 0.017}, {6.99, 20}};
+        for (double[] range : ranges) {
+            Decimation.Buckets expected = Decimation.minMax(array, y, range[0], range[1], 37);
+            Decimation.Buckets actual = Decimation.minMax(linear, y, range[0], range[1], 37);
+            assertThat(actual.getCount(), equalTo((ListNumber) expected.getCount()));
+            assertThat(actual.getMin(), equalTo((ListNumber) expected.getMin()));
+            assertThat(actual.getMax(), equalTo((ListNumber) expected.getMax()));
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void minMaxX3() {
+        Decimation.minMax(toListDouble(1, 2), toListDouble(1, 2, 3), 0, 1, 2);
+    }
+
+    @Test
+    public void lttb1() {
+        ListNumber y = toListDouble(0, 1, 0, 0, 10, 0, 0, 1, 0, 5);
+        Decimation.Points points = Decimation.lttb(y, 4);
+        assertThat(points.getIndexes().getInt(0), equalTo(0));
+        assertThat(points.getIndexes().getInt(3), equalTo(9));
+        // The spike is selected
+        assertThat(points.getIndexes().getInt(1), equalTo(4));
+        assertThat(points.getY().getDouble(1), equalTo(10.0));
+        assertThat(points.getX().getDouble(1), equalTo(4.0));
+    }
+
+    @Test
+    public void lttb2() {
+        // Fewer points than requested: all returned
+        ListNumber x = toListDouble(1, 2, 4);
+        ListNumber y = toListDouble(5, 6, 7);
+        Decimation.Points points = Decimation.lttb(x, y, 10);
+        assertThat(points.getX(), equalTo((ListNumber) x));
+        assertThat(points.getY(), equalTo((ListNumber) y));
+        assertThat(points.getIndexes(), equalTo((ListNumber) toListInt(0, 1, 2)));
+    }
+
+    @Test
+    public void lttb3() {
+        // Linear x gives the same points as the same values in an array
+        ListNumber linear = ListNumbers.linearListFromRange(0, 10, 1000);
+        ListNumber array = toListDouble(linear.toArray(new double[0]));
+        double[] values = new double[1000];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = Math.sin(i * 0.05) + Math.sin(i * 1.3) * 0.2;
+        }
+        ListNumber y = toListDouble(values);
+        Decimation.Points expected = Decimation.lttb(array, y, 50);
+        Decimation.Points actual = Decimation.lttb(linear, y, 50);
+        assertThat(actual.getIndexes(), equalTo((ListNumber) expected.getIndexes()));
+        assertThat(actual.getIndexes().size(), equalTo(50));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void lttb4() {
+        Decimation.lttb(toListDouble(1, 2, 3, 4), 2);
+    }
+
+    @Test
+    public void parallelMatchesSequential() {
+        int size = 300_007;
+        double[] values = new double[size];
+        for (int i = 0; i < size; i++) {
+            values[i] = Math.sin(i) * 1e3 + i * 0.01;
+        }
+        ArrayDouble y = unmodifiableListDouble(values);
+        ListNumber x = ListNumbers.linearList(0, 0.5, size);
+        Decimation.Buckets buckets = Decimation.minMax(y, 800);
+        Decimation.Buckets bucketsX = Decimation.minMax(x, y, 1000, 100000, 800);
+        Decimation.Points points = Decimation.lttb(x, y, 800);
+
+        ParallelExecution.enable(new ForkJoinPool(4), 1000);
+        Decimation.Buckets parallelBuckets = Decimation.minMax(y, 800);
+        assertThat(parallelBuckets.getMin(), equalTo((ListNumber) buckets.getMin()));
+        assertThat(parallelBuckets.getMax(), equalTo((ListNumber) buckets.getMax()));
+        assertThat(parallelBuckets.getLast(), equalTo((ListNumber) buckets.getLast()));
+        assertThat(Decimation.minMax(x, y, 1000, 100000, 800).getMax(), equalTo((ListNumber) bucketsX.getMax()));
+        assertThat(Decimation.lttb(x, y, 800).getIndexes(), equalTo((ListNumber) points.getIndexes()));
+    }
+}
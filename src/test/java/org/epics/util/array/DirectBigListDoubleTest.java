@@ -0,0 +1,101 @@
+/**
+ * Copyright (C) 2010-14 diirt developers. See COPYRIGHT.TXT
+ * All rights reserved. Use is subject to license terms. See LICENSE.TXT
+ */
+package org.epics.util.array;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+import static org.hamcrest.Matchers.*;
+import static org.epics.util.array.FeatureTestListNumber.testList;
+import static org.epics.util.array.FeatureTestCollectionNumber.testIterationForAllTypes;
+
+/**
+ *
+ * @author carcassi
+ */
+public class DirectBigListDoubleTest {
+
+    public DirectBigListDoubleTest() {
+    }
+
+    @Test
+    public void window1() {
+        DirectBigListDouble list = new DirectBigListDouble(30, 4);
+        for (long i = 0; i < list.size(); i++) {
+            list.setDouble(i, 1);
+        }
+        ListNumber window = list.subList(7, 17);
+        testIterationForAllTypes(window);
+        testList(window);
+    }
+
+    @Test
+    public void setGet1() {
+        DirectBigListDouble list = new DirectBigListDouble(10, 4);
+        for (long i = 0; i < list.size(); i++) {
+            list.setDouble(i, i);
+        }
+        for (long i = 0; i < list.size(); i++) {
+            assertThat(list.getDouble(i), equalTo((double) i));
+        }
+        list.setInt(3, 7);
+        assertThat(list.getInt(3), equalTo(7));
+        assertThat(list.getByte(9), equalTo((byte) 9));
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void setGet2() {
+        DirectBigListDouble list = new DirectBigListDouble(10, 4);
+        list.getDouble(10);
+    }
+
+    @Test
+    public void copy1() {
+        DirectBigListDouble list = new DirectBigListDouble(21, 4);
+        double[] values = new double[25];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = i;
+        }
+        list.copyFrom(values, 2, 1, 20);
+        double[] copy = new double[22];
+        list.copyTo(0, copy, 1, 21);
+        assertThat(copy[1], equalTo(0.0));
+        for (int i = 2; i < copy.length; i++) {
+            assertThat(copy[i], equalTo((double) i));
+        }
+    }
+
+    @Test
+    public void setAll1() {
+        DirectBigListDouble list = new DirectBigListDouble(20, 4);
+        list.setAll(3, ListNumbers.linearList(0, 1, 10));
+        list.setAll(13, CollectionNumbers.toListInt(1, 2, 3, 4, 5, 6, 7));
+        ListDouble reference = CollectionNumbers.unmodifiableListDouble(0, 0, 0, 0, 1, 2, 3, 4, 5, 6, 7, 8, 9, 1, 2, 3, 4, 5, 6, 7);
+        assertThat(list.subList(0, 20), equalTo(reference));
+        ListDouble window = list.subList(2, 12);
+        window.setAll(0, CollectionNumbers.toListDouble(-1, -2));
+        assertThat(list.getDouble(3), equalTo(-2.0));
+        assertThat(window.subList(1, 3), equalTo(CollectionNumbers.unmodifiableListDouble(-2, 1)));
+    }
+
+    @Test
+    public void window2() {
+        DirectBigListDouble list = new DirectBigListDouble(20, 4);
+        list.setAll(0, ListNumbers.linearList(0, 1, 20));
+        double[] copy = new double[8];
+        CollectionNumbers.arrayCopy(list.subList(5, 13), copy, 0);
+        assertThat(copy, equalTo(new double[] {5, 6, 7, 8, 9, 10, 11, 12}));
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void window3() {
+        DirectBigListDouble list = new DirectBigListDouble(20, 4);
+        list.subList(5, 21);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void new1() {
+        new DirectBigListDouble(20, 3);
+    }
+}
@@ -0,0 +1,59 @@
+/**
+ * Copyright (C) 2010-14 diirt developers. See COPYRIGHT.TXT
+ * All rights reserved. Use is subject to license terms. See LICENSE.TXT
+ */
+package org.epics.util.array;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+import static org.hamcrest.Matchers.*;
+
+/**
+ *
+ * @author carcassi
+ */
+public class GrowthPolicyTest {
+
+    public GrowthPolicyTest() {
+    }
+
+    @Test
+    public void doubling1() {
+        GrowthPolicy policy = GrowthPolicy.doubling();
+        assertThat(policy.newCapacity(10, 11), equalTo(20));
+        assertThat(policy.newCapacity(10, 50), equalTo(50));
+        assertThat(policy.newCapacity(0, 1), equalTo(1));
+        assertThat(policy.newCapacity(Integer.MAX_VALUE / 2 + 1, Integer.MAX_VALUE / 2 + 2), equalTo(GrowthPolicy.MAX_ARRAY_SIZE));
+    }
+
+    @Test
+    public void fixedIncrement1() {
+        GrowthPolicy policy = GrowthPolicy.fixedIncrement(5);
+        assertThat(policy.newCapacity(10, 11), equalTo(15));
+        assertThat(policy.newCapacity(10, 30), equalTo(30));
+    }
+
+    @Test
+    public void capped1() {
+        GrowthPolicy policy = GrowthPolicy.capped(15);
+        assertThat(policy.newCapacity(5, 6), equalTo(10));
+        assertThat(policy.newCapacity(10, 11), equalTo(15));
+        assertThat(policy.newCapacity(10, 15), equalTo(15));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void capped2() {
+        GrowthPolicy.capped(15).newCapacity(15, 16);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void overflow1() {
+        // The size of the buffer plus the values added overflowed
+        GrowthPolicy.doubling().newCapacity(10, Integer.MAX_VALUE + 1);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void fixedIncrement2() {
+        GrowthPolicy.fixedIncrement(0);
+    }
+}
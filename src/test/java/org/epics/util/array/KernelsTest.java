@@ -0,0 +1,133 @@
+/**
+ * Copyright (C) 2010-14 diirt developers. See COPYRIGHT.TXT
+ * All rights reserved. Use is subject to license terms. See LICENSE.TXT
+ */
+package org.epics.util.array;
+
+import java.util.Random;
+import org.junit.Test;
+import static org.junit.Assert.*;
+import static org.hamcrest.Matchers.*;
+
+/**
+ * Checks the kernels against the plain loops. On JDK 17 the build also runs
+ * this test with the vector API enabled, and sets the
+ * {@code kernels.vectorized} property so that the vectorized version
+ * is known to be the one tested.
+ *
+ * @author carcassi
+ */
+public class KernelsTest {
+
+    public KernelsTest() {
+    }
+
+    // Shorter and longer than the minimum vector length, with and without a tail
+    private static final int[] LENGTHS = {0, 1, 7, 31, 32, 33, 64, 100, 1027};
+    private static final int[] OFFSETS = {0, 3};
+
+    private static double[] doubles(Random random, int length) {
+        double[] values = new double[length];
+        for (int i = 0; i < length; i++) {
+            values[i] = (random.nextDouble() - 0.5) * 1000;
+        }
+        return values;
+    }
+
+    @Test
+    public void isVectorized1() {
+        assertThat(Kernels.isVectorized(), equalTo(Boolean.getBoolean("kernels.vectorized")));
+    }
+
+    @Test
+    public void widen1() {
+        Random random = new Random(1);
+        for (int length : LENGTHS) {
+            for (int offset : OFFSETS) {
+                short[] shorts = new short[offset + length];
+                byte[] bytes = new byte[offset + length];
+                for (int i = 0; i < shorts.length; i++) {
+                    shorts[i] = (short) random.nextInt();
+                    bytes[i] = (byte) random.nextInt();
+                }
+                double[] expected = new double[offset + length];
+                double[] actual = new double[offset + length];
+                ScalarKernels.widen(shorts, offset, expected, offset, length);
+                Kernels.widen(shorts, offset, actual, offset, length);
+                assertArrayEquals(expected, actual, 0.0);
+                ScalarKernels.widenUnsigned(shorts, offset, expected, offset, length);
+                Kernels.widenUnsigned(shorts, offset, actual, offset, length);
+                assertArrayEquals(expected, actual, 0.0);
+                ScalarKernels.widen(bytes, offset, expected, 0, length);
+                Kernels.widen(bytes, offset, actual, 0, length);
+                assertArrayEquals(expected, actual, 0.0);
+                ScalarKernels.widenUnsigned(bytes, 0, expected, offset, length);
+                Kernels.widenUnsigned(bytes, 0, actual, offset, length);
+                assertArrayEquals(expected, actual, 0.0);
+            }
+        }
+    }
+
+    @Test
+    public void elementWise1() {
+        Random random = new Random(2);
+        for (int length : LENGTHS) {
+            for (int offset : OFFSETS) {
+                double[] src1 = doubles(random, offset + length);
+                double[] src2 = doubles(random, length);
+                double[] expected = new double[offset + length];
+                double[] actual = new double[offset + length];
+                ScalarKernels.add(src1, offset, 2.5, expected, 0, length);
+                Kernels.add(src1, offset, 2.5, actual, 0, length);
+                assertArrayEquals(expected, actual, 0.0);
+                ScalarKernels.rescale(src1, offset, 0.1, -3, expected, offset, length);
+                Kernels.rescale(src1, offset, 0.1, -3, actual, offset, length);
+                assertArrayEquals(expected, actual, 0.0);
+                ScalarKernels.add(src1, offset, src2, 0, expected, offset, length);
+                Kernels.add(src1, offset, src2, 0, actual, offset, length);
+                assertArrayEquals(expected, actual, 0.0);
+                ScalarKernels.subtract(src2, 0, src1, offset, expected, 0, length);
+                Kernels.subtract(src2, 0, src1, offset, actual, 0, length);
+                assertArrayEquals(expected, actual, 0.0);
+                ScalarKernels.multiply(src1, offset, src2, 0, expected, offset, length);
+                Kernels.multiply(src1, offset, src2, 0, actual, offset, length);
+                assertArrayEquals(expected, actual, 0.0);
+                ScalarKernels.divide(src1, offset, src2, 0, expected, offset, length);
+                Kernels.divide(src1, offset, src2, 0, actual, offset, length);
+                assertArrayEquals(expected, actual, 0.0);
+            }
+        }
+    }
+
+    @Test
+    public void reduce1() {
+        Random random = new Random(3);
+        for (int length : LENGTHS) {
+            for (int offset : OFFSETS) {
+                double[] values = doubles(random, offset + length);
+                // The vectorized sum adds in a different order
+                assertThat(Kernels.sum(values, offset, length), closeTo(ScalarKernels.sum(values, offset, length), 1e-9));
+                assertThat(Kernels.min(values, offset, length), equalTo(ScalarKernels.min(values, offset, length)));
+                assertThat(Kernels.max(values, offset, length), equalTo(ScalarKernels.max(values, offset, length)));
+            }
+        }
+    }
+
+    @Test
+    public void reduce2() {
+        // NaN and infinities anywhere, including the vector lanes
+        for (int position : new int[] {0, 5, 40, 99}) {
+            double[] values = new double[100];
+            for (int i = 0; i < values.length; i++) {
+                values[i] = i;
+            }
+            values[position] = Double.NEGATIVE_INFINITY;
+            assertThat(Kernels.min(values, 0, 100), equalTo(Double.NEGATIVE_INFINITY));
+            assertThat(Kernels.sum(values, 0, 100), equalTo(Double.NEGATIVE_INFINITY));
+            values[position] = Double.NaN;
+            assertThat(Kernels.min(values, 0, 100), equalTo(ScalarKernels.min(values, 0, 100)));
+            assertThat(Kernels.max(values, 0, 100), equalTo(ScalarKernels.max(values, 0, 100)));
+            assertThat(Kernels.sum(values, 0, 100), equalTo(Double.NaN));
+        }
+    }
+}
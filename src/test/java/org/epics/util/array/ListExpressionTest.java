@@ -0,0 +1,81 @@
+/**
+ * Copyright (C) 2010-14 diirt developers. See COPYRIGHT.TXT
+ * All rights reserved. Use is subject to license terms. See LICENSE.TXT
+ */
+package org.epics.util.array;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+import static org.hamcrest.Matchers.*;
+import static org.epics.util.array.CollectionNumbers.*;
+
+/**
+ *
+ * @author carcassi
+ */
+public class ListExpressionTest {
+
+    public ListExpressionTest() {
+    }
+
+    @Test
+    public void rescale1() {
+        ArrayDouble array1 = unmodifiableListDouble(0, 1, 2, 3, 4, 5);
+        ListDouble result = ListExpression.of(array1).rescale(2.5, -5.0).evaluate();
+        assertThat(result, equalTo(unmodifiableListDouble(-5.0, -2.5, 0, 2.5, 5.0, 7.5)));
+    }
+
+    @Test
+    public void sum1() {
+        ArrayDouble array1 = unmodifiableListDouble(0, 1, 2, 3, 4, 5);
+        ListDouble result = ListExpression.of(array1).add(ListExpression.of(array1).rescale(-1.0, 0.0)).evaluate();
+        assertThat(result, equalTo(unmodifiableListDouble(0, 0, 0, 0, 0, 0)));
+    }
+
+    @Test
+    public void mixedTypes1() {
+        ArrayShort array1 = unmodifiableListShort(new short[] {0, 1, 2, 3});
+        ArrayUByte array2 = unmodifiableListUByte(new byte[] {1, 2, (byte) 255, 4});
+        ListDouble result = ListExpression.of(array1).multiply(array2).add(1).evaluate();
+        assertThat(result, equalTo(unmodifiableListDouble(1, 3, 511, 13)));
+    }
+
+    @Test
+    public void chainMatchesListMath() {
+        int size = 3 * ListExpression.BLOCK_SIZE + 17;
+        double[] a = new double[size];
+        int[] b = new int[size];
+        float[] c = new float[size];
+        for (int i = 0; i < size; i++) {
+            a[i] = Math.sin(i);
+            b[i] = i % 13 - 6;
+            c[i] = i * 0.25f;
+        }
+        ListNumber listA = unmodifiableListDouble(a);
+        ListNumber listB = unmodifiableListInt(b);
+        ListNumber listC = unmodifiableListFloat(c);
+        ListDouble views = ListMath.pow(ListMath.rescale(ListMath.divide(ListMath.add(ListMath.multiply(listA, listB), listC), ListMath.add(listC, 1.0)), 3.0, 0.5), 2.0);
+        ListDouble result = ListExpression.of(listA).multiply(listB).add(listC)
+                .divide(ListExpression.of(listC).add(1.0)).rescale(3.0, 0.5).pow(2.0).evaluate();
+        assertThat(result, equalTo(views));
+    }
+
+    @Test
+    public void evaluateIntoArray() {
+        ArrayDouble array1 = unmodifiableListDouble(1, 2, 4);
+        double[] dest = new double[5];
+        ListExpression.of(array1).inverseRescale(4, 1).evaluate(dest, 2);
+        assertThat(dest, equalTo(new double[] {0, 0, 5, 3, 2}));
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void evaluateIntoArrayTooSmall() {
+        ArrayDouble array1 = unmodifiableListDouble(1, 2, 4);
+        ListExpression.of(array1).add(1).evaluate(new double[4], 2);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void differentSizes() {
+        ListExpression.of(unmodifiableListDouble(1, 2)).add(unmodifiableListDouble(1, 2, 3));
+    }
+}
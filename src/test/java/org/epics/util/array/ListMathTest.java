@@ -45,5 +45,143 @@ public class ListMathTest {
         ListDouble x = unmodifiableListDouble(0, 1.0, 0, -1.0, 0, 1, 0, -1);
         ListDouble y = unmodifiableListDouble(0, 0, 0, 0, 0, 0, 0, 0);
         List<ListNumber> res = ListMath.dft(x, y);
+        assertArrayEquals(new double[] {0, 0, 0, 0, 0, 0, 0, 0}, res.get(0).toArray(new double[8]), 1e-12);
+        assertArrayEquals(new double[] {0, 0, -0.5, 0, 0, 0, 0.5, 0}, res.get(1).toArray(new double[8]), 1e-12);
+    }
+
+    @Test
+    public void fftMatchesNaiveTransform() {
+        for (int n : new int[] {1, 2, 3, 4, 5, 7, 8, 12, 16, 31, 64, 100}) {
+            double[] re = new double[n];
+            double[] im = new double[n];
+            for (int i = 0; i < n; i++) {
+                re[i] = Math.sin(0.3 * i) + i % 3;
+                im[i] = Math.cos(1.7 * i);
+            }
+            List<ListNumber> res = ListMath.fft(toListDouble(re), toListDouble(im));
+            double[][] expected = naiveDft(re, im);
+            assertArrayEquals("Size " + n, expected[0], res.get(0).toArray(new double[n]), 1e-9 * n);
+            assertArrayEquals("Size " + n, expected[1], res.get(1).toArray(new double[n]), 1e-9 * n);
+        }
+    }
+
+    @Test
+    public void fftRealMatchesComplex() {
+        for (int n : new int[] {1, 2, 3, 4, 6, 9, 10, 16, 50, 128}) {
+            double[] re = new double[n];
+            for (int i = 0; i < n; i++) {
+                re[i] = Math.sin(0.3 * i) * i;
+            }
+            List<ListNumber> res = ListMath.fft(toListDouble(re));
+            double[][] expected = naiveDft(re, new double[n]);
+            assertArrayEquals("Size " + n, expected[0], res.get(0).toArray(new double[n]), 1e-9 * n);
+            assertArrayEquals("Size " + n, expected[1], res.get(1).toArray(new double[n]), 1e-9 * n);
+        }
+    }
+
+    @Test
+    public void inverseFft1() {
+        for (int n : new int[] {8, 10}) {
+            double[] re = new double[n];
+            double[] im = new double[n];
+            for (int i = 0; i < n; i++) {
+                re[i] = i;
+                im[i] = -i * 0.5;
+            }
+            List<ListNumber> res = ListMath.fft(toListDouble(re), toListDouble(im));
+            List<ListNumber> back = ListMath.inverseFft(res.get(0), res.get(1));
+            assertArrayEquals(re, back.get(0).toArray(new double[n]), 1e-12);
+            assertArrayEquals(im, back.get(1).toArray(new double[n]), 1e-12);
+        }
+    }
+
+    private static double[][] naiveDft(double[] re, double[] im) {
+        int n = re.length;
+        double[][] result = new double[2][n];
+        for (int k = 0; k < n; k++) {
+            for (int j = 0; j < n; j++) {
+                double angle = -2 * Math.PI * ((long) j * k % n) / n;
+                result[0][k] += re[j] * Math.cos(angle) - im[j] * Math.sin(angle);
+                result[1][k] += re[j] * Math.sin(angle) + im[j] * Math.cos(angle);
+            }
+        }
+        return result;
+    }
+
+    @Test
+    public void rescaleInto1() {
+        ArrayShort array1 = unmodifiableListShort(new short[] {0, 1, 2, 3, 4, 5});
+        ArrayDouble dest = toListDouble(new double[6]);
+        ArrayDouble result = ListMath.rescaleInto(array1, 2.5, -5.0, dest);
+        assertThat(result, sameInstance(dest));
+        assertThat(result, equalTo(unmodifiableListDouble(-5.0, -2.5, 0, 2.5, 5.0, 7.5)));
+    }
+
+    @Test
+    public void rescaleInto2() {
+        ArrayDouble array1 = unmodifiableListDouble(0, 1, 2);
+        double[] dest = new double[5];
+        ListMath.rescaleInto(array1, 2.0, 1.0, dest, 1);
+        assertThat(dest, equalTo(new double[] {0, 1, 3, 5, 0}));
+    }
+
+    @Test
+    public void addInto1() {
+        ArrayUShort array1 = unmodifiableListUShort(new short[] {1, 2, -1});
+        double[] dest = new double[3];
+        ListMath.addInto(array1, 1.0, dest, 0);
+        assertThat(dest, equalTo(new double[] {2, 3, 65536}));
+    }
+
+    @Test
+    public void binaryInto1() {
+        int size = 2500;
+        double[] a = new double[size];
+        int[] b = new int[size];
+        for (int i = 0; i < size; i++) {
+            a[i] = Math.cos(i);
+            b[i] = i % 7 + 1;
+        }
+        ArrayDouble listA = unmodifiableListDouble(a);
+        ArrayInteger listB = unmodifiableListInt(b);
+        ArrayDouble listBDouble = new ArrayDouble(listB);
+        ArrayDouble dest = toListDouble(new double[size]);
+        assertThat(ListMath.addInto(listA, listB, dest), equalTo(ListMath.add(listA, listB)));
+        assertThat(ListMath.subtractInto(listB, listA, dest), equalTo(ListMath.subtract(listB, listA)));
+        assertThat(ListMath.multiplyInto(listA, listBDouble, dest), equalTo(ListMath.multiply(listA, listB)));
+        assertThat(ListMath.divideInto(listA, listB, dest), equalTo(ListMath.divide(listA, listB)));
+    }
+
+    @Test
+    public void binaryIntoInPlace() {
+        ArrayDouble dest = toListDouble(1, 2, 3);
+        ListMath.multiplyInto(unmodifiableListInt(2, 3, 4), dest, dest);
+        assertThat(dest, equalTo(unmodifiableListDouble(2, 6, 12)));
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void intoReadOnly() {
+        ListMath.addInto(unmodifiableListDouble(1, 2), 1.0, unmodifiableListDouble(0, 0));
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void intoTooSmall() {
+        ListMath.addInto(unmodifiableListDouble(1, 2), unmodifiableListDouble(1, 2), new double[2], 1);
+    }
+
+    @Test
+    public void sumReduction1() {
+        assertThat(ListMath.sum(unmodifiableListDouble(1, 2, 3.5)), equalTo(6.5));
+        assertThat(ListMath.sum(unmodifiableListInt(1, 2, 3)), equalTo(6.0));
+        assertThat(ListMath.sum(unmodifiableListDouble()), equalTo(0.0));
+    }
+
+    @Test
+    public void minMax1() {
+        ArrayInteger data = unmodifiableListInt(3, -2, 7, 0);
+        assertThat(ListMath.min(data), equalTo(-2.0));
+        assertThat(ListMath.max(data), equalTo(7.0));
+        assertThat(ListMath.min(unmodifiableListDouble()), equalTo(Double.NaN));
+        assertThat(ListMath.max(unmodifiableListDouble(1, Double.NaN)), equalTo(Double.NaN));
     }
 }
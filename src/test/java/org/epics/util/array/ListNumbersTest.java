@@ -238,4 +238,194 @@ public class ListNumbersTest {
         assertThat(values, equalTo(unmodifiableListByte(new byte[] {5,3,1,4,2,0})));
         assertThat(sortedView, equalTo(unmodifiableListByte(new byte[] {5,4,3,2,1,0})));
     }
+
+    @Test
+    public void stride1() {
+        ArrayDouble values = unmodifiableListDouble(0,1,2,3,4,5,6,7,8,9);
+        ListNumber strided = ListNumbers.stride(values, 1, 3);
+        assertThat(strided, instanceOf(ListDouble.class));
+        assertThat(strided, equalTo((ListNumber) unmodifiableListDouble(1,4,7)));
+        assertThat(ListNumbers.stride(values, 0, 3), equalTo((ListNumber) unmodifiableListDouble(0,3,6,9)));
+        assertThat(ListNumbers.stride(values, 8, -4), equalTo((ListNumber) unmodifiableListDouble(8,4,0)));
+        assertThat(ListNumbers.stride(values, 10, 2).size(), equalTo(0));
+        assertThat(ListNumbers.stride(values, 2, 20), equalTo((ListNumber) unmodifiableListDouble(2)));
+    }
+
+    @Test
+    public void stride2() {
+        ArrayShort values = unmodifiableListShort(new short[] {0,1,2,3,4,5,6,7,8,9});
+        ListNumber strided = ListNumbers.stride(values.subList(1, 10), 0, 2);
+        assertThat(strided, instanceOf(ListShort.class));
+        assertThat(strided.toArray(new short[0]), equalTo(new short[] {1,3,5,7,9}));
+        double[] array = new double[3];
+        CollectionNumbers.arrayCopy(ListNumbers.stride(toListDouble(0,1,2,3,4,5,6,7,8,9).subList(2, 10), 1, 2).subList(1, 4), array, 0);
+        assertThat(array, equalTo(new double[] {5,7,9}));
+    }
+
+    @Test
+    public void stride3() {
+        ArrayInteger values = toListInt(0,1,2,3,4,5);
+        ListNumber strided = ListNumbers.stride(values, 1, 2);
+        strided.setInt(1, 10);
+        assertThat(values, equalTo(unmodifiableListInt(0,1,2,10,4,5)));
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void stride4() {
+        ListNumbers.stride(unmodifiableListDouble(0,1,2), 0, 0);
+    }
+
+    @Test(expected=IndexOutOfBoundsException.class)
+    public void stride5() {
+        ListNumbers.stride(unmodifiableListDouble(0,1,2), 3, -1);
+    }
+
+    @Test
+    public void reverse1() {
+        ListNumber reversed = ListNumbers.reverse(unmodifiableListByte(new byte[] {0,1,2,3}));
+        assertThat(reversed, instanceOf(ListByte.class));
+        assertThat(reversed, equalTo((ListNumber) unmodifiableListByte(new byte[] {3,2,1,0})));
+        assertThat(reversed.toArray(new byte[4]), equalTo(new byte[] {3,2,1,0}));
+        assertThat(ListNumbers.reverse(unmodifiableListDouble()).size(), equalTo(0));
+    }
+
+    @Test
+    public void column1() {
+        ArrayDouble matrix = unmodifiableListDouble(0,1,2,
+                                                   10,11,12,
+                                                   20,21,22,
+                                                   30,31,32);
+        assertThat(ListNumbers.column(matrix, 3, 0), equalTo((ListNumber) unmodifiableListDouble(0,10,20,30)));
+        assertThat(ListNumbers.column(matrix, 3, 2), equalTo((ListNumber) unmodifiableListDouble(2,12,22,32)));
+        assertThat(ListNumbers.column(unmodifiableListDouble(), 3, 2).size(), equalTo(0));
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void column2() {
+        ListNumbers.column(unmodifiableListDouble(0,1,2,3), 3, 0);
+    }
+
+    @Test
+    public void listView7() {
+        ArrayUShort values = unmodifiableListUShort(new short[] {5,3,1,-1,2,0});
+        ArrayInteger indexes = unmodifiableListInt(3,0,1,4,2,5);
+        ListNumber sortedView = ListNumbers.listView(values, indexes);
+        assertThat(sortedView, instanceOf(ListUShort.class));
+        assertThat(sortedView, equalTo((ListNumber) unmodifiableListUShort(new short[] {-1,5,3,2,1,0})));
+        assertThat(sortedView.getInt(0), equalTo(65535));
+    }
+
+    @Test
+    public void listView8() {
+        ArrayUByte values = unmodifiableListUByte(new byte[] {5,3,1,-1,2,0});
+        ArrayInteger indexes = unmodifiableListInt(3,0);
+        ListNumber view = ListNumbers.listView(values, indexes);
+        assertThat(view, instanceOf(ListUByte.class));
+        assertThat(view.getDouble(0), equalTo(255.0));
+        assertThat(ListNumbers.listView(unmodifiableListULong(1,2,3), indexes.subList(1, 2)), instanceOf(ListULong.class));
+        assertThat(ListNumbers.listView(unmodifiableListUInt(1,2,3,4), indexes).getLong(1), equalTo(1L));
+    }
+
+    @Test
+    public void listView9() {
+        ArrayDouble values = toListDouble(0,1,2,3,4,5);
+        ListNumber view = ListNumbers.listView(values, unmodifiableListInt(4,2,0));
+        view.setDouble(1, 10);
+        assertThat(values, equalTo(unmodifiableListDouble(0,1,10,3,4,5)));
+        assertThat(view.toArray(new double[0]), equalTo(new double[] {4,10,0}));
+    }
+
+    @Test
+    public void listView10() {
+        // All views copy to double[] with a gather
+        ListInteger indexes = unmodifiableListInt(4,2,0);
+        ListNumber[] lists = {unmodifiableListFloat(0,1,2,3,4),
+            unmodifiableListLong(0,1,2,3,4),
+            unmodifiableListInt(0,1,2,3,4),
+            unmodifiableListShort(new short[] {0,1,2,3,4}),
+            unmodifiableListByte(new byte[] {0,1,2,3,4}),
+            unmodifiableListULong(0,1,2,3,4),
+            unmodifiableListUInt(0,1,2,3,4),
+            unmodifiableListUShort(new short[] {0,1,2,3,4}),
+            unmodifiableListUByte(new byte[] {0,1,2,3,4})};
+        for (ListNumber list : lists) {
+            ListNumber view = ListNumbers.listView(list, indexes);
+            assertThat(view.toArray(new double[0]), equalTo(new double[] {4,2,0}));
+            assertThat(view.toArray(new double[4]), equalTo(new double[] {4,2,0,0}));
+            assertThat(view.toArray(new int[0]), equalTo(new int[] {4,2,0}));
+        }
+        ListNumber view = ListNumbers.listView(unmodifiableListUByte(new byte[] {0,-1}), unmodifiableListInt(1));
+        assertThat(view.toArray(new double[0]), equalTo(new double[] {255}));
+    }
+
+    @Test
+    public void gather1() {
+        ListInteger indexes = unmodifiableListInt(9,0,5,5,2);
+        ListNumber[] lists = {unmodifiableListDouble(0,1,2,3,4,5,6,7,8,9),
+            unmodifiableListFloat(0,1,2,3,4,5,6,7,8,9),
+            unmodifiableListLong(0,1,2,3,4,5,6,7,8,9),
+            unmodifiableListInt(0,1,2,3,4,5,6,7,8,9),
+            unmodifiableListShort(new short[] {0,1,2,3,4,5,6,7,8,9}),
+            unmodifiableListByte(new byte[] {0,1,2,3,4,5,6,7,8,9}),
+            unmodifiableListULong(0,1,2,3,4,5,6,7,8,9),
+            unmodifiableListUInt(0,1,2,3,4,5,6,7,8,9),
+            unmodifiableListUShort(new short[] {0,1,2,3,4,5,6,7,8,9}),
+            unmodifiableListUByte(new byte[] {0,1,2,3,4,5,6,7,8,9}),
+            ListNumbers.linearList(0, 1, 10),
+            unmodifiableListDouble(-1,0,1,2,3,4,5,6,7,8,9).subList(1, 11)};
+        for (ListNumber list : lists) {
+            double[] dest = new double[6];
+            ListNumbers.gather(list, indexes, dest, 1);
+            assertThat(dest, equalTo(new double[] {0,9,0,5,5,2}));
+        }
+    }
+
+    @Test
+    public void gather2() {
+        double[] dest = new double[2];
+        ListNumbers.gather(unmodifiableListUByte(new byte[] {0,-1}), unmodifiableListInt(1).subList(0, 1), dest, 1);
+        assertThat(dest, equalTo(new double[] {0,255}));
+    }
+
+    @Test(expected=IndexOutOfBoundsException.class)
+    public void gather3() {
+        // The index is inside the wrapped array, but outside the list
+        ArrayDouble values = toListDouble(0,1,2,3,4,5);
+        ListNumbers.gather(values.subList(0, 3), unmodifiableListInt(3), new double[1], 0);
+    }
+
+    @Test
+    public void scatter1() {
+        ListInteger indexes = unmodifiableListInt(4,0,2);
+        ListNumber[] lists = {toListDouble(new double[5]), toListFloat(new float[5]),
+            toListLong(new long[5]), toListInt(new int[5]), toListShort(new short[5]),
+            toListByte(new byte[5]), toListUShort(new short[5]), toListULong(new long[5]),
+            toListUInt(new int[5]), toListUByte(new byte[5])};
+        for (ListNumber list : lists) {
+            ListNumbers.scatter(list, indexes, new double[] {-1,1,2,3}, 1);
+            assertThat(list.getDouble(4), equalTo(1.0));
+            assertThat(list.getDouble(0), equalTo(2.0));
+            assertThat(list.getDouble(2), equalTo(3.0));
+            assertThat(list.getDouble(1), equalTo(0.0));
+        }
+    }
+
+    @Test
+    public void scatter3() {
+        // Unsigned lists are written with the same conversion as setDouble
+        ListInteger indexes = unmodifiableListInt(1);
+        ListNumber[] lists = {toListULong(new long[2]), toListUInt(new int[2]),
+            toListUShort(new short[2]), toListUByte(new byte[2])};
+        for (ListNumber list : lists) {
+            ListNumbers.scatter(list, indexes, new double[] {200}, 0);
+            list.setDouble(0, 200);
+            assertThat(list.getDouble(1), equalTo(200.0));
+            assertThat(list.getLong(1), equalTo(list.getLong(0)));
+        }
+    }
+
+    @Test(expected=UnsupportedOperationException.class)
+    public void scatter2() {
+        ListNumbers.scatter(unmodifiableListDouble(0,1,2), unmodifiableListInt(1), new double[] {5}, 0);
+    }
 }
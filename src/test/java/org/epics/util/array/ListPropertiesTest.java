@@ -0,0 +1,153 @@
+/**
+ * Copyright (C) 2010-14 diirt developers. See COPYRIGHT.TXT
+ * All rights reserved. Use is subject to license terms. See LICENSE.TXT
+ */
+package org.epics.util.array;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+import static org.hamcrest.Matchers.*;
+import static org.epics.util.array.CollectionNumbers.*;
+
+/**
+ *
+ * @author carcassi
+ */
+public class ListPropertiesTest {
+
+    public ListPropertiesTest() {
+    }
+
+    @Test
+    public void of1() {
+        ListProperties properties = ListProperties.of(toListDouble(3, Double.NaN, -1, Double.POSITIVE_INFINITY, 2));
+        assertThat(properties.getMinimum(), equalTo(-1.0));
+        assertThat(properties.getMaximum(), equalTo(Double.POSITIVE_INFINITY));
+        assertThat(properties.getFiniteMinimum(), equalTo(-1.0));
+        assertThat(properties.getFiniteMaximum(), equalTo(3.0));
+        assertThat(properties.hasNaN(), equalTo(true));
+        assertThat(properties.isNonDecreasing(), equalTo(false));
+        assertThat(properties.isNonIncreasing(), equalTo(false));
+        assertThat(properties.isLinear(), equalTo(false));
+    }
+
+    @Test
+    public void of2() {
+        ListProperties properties = ListProperties.of(toListUByte(new byte[] {1, 2, 3, (byte) 255}));
+        assertThat(properties.getMinimum(), equalTo(1.0));
+        assertThat(properties.getMaximum(), equalTo(255.0));
+        assertThat(properties.hasNaN(), equalTo(false));
+        assertThat(properties.isNonDecreasing(), equalTo(true));
+        assertThat(properties.isLinear(), equalTo(false));
+
+        properties = ListProperties.of(toListInt(9, 7, 5, 3));
+        assertThat(properties.isNonIncreasing(), equalTo(true));
+        assertThat(properties.isNonDecreasing(), equalTo(false));
+        assertThat(properties.isLinear(), equalTo(true));
+
+        properties = ListProperties.of(toListDouble(Double.NaN, Double.NaN));
+        assertThat(properties.getMinimum(), equalTo(Double.NaN));
+        assertThat(properties.getFiniteMaximum(), equalTo(Double.NaN));
+    }
+
+    @Test
+    public void cached1() {
+        // Only immutable arrays cache the properties
+        ArrayDouble readOnly = immutableListDouble(0, 1, 2, 3);
+        assertThat(ListProperties.isCached(readOnly), equalTo(true));
+        assertThat(ListProperties.of(readOnly), sameInstance(ListProperties.of(readOnly)));
+        assertThat(ListProperties.isCached(toListDouble(0, 1, 2, 3)), equalTo(false));
+        assertThat(ListProperties.isCached(ListNumbers.linearList(0, 1, 4)), equalTo(false));
+        assertThat(ListProperties.isCached(immutableListUShort(new short[] {1})), equalTo(true));
+        assertThat(ListProperties.isCached(readOnly.subList(1, 3)), equalTo(true));
+        BufferDouble buffer = new BufferDouble();
+        buffer.addDouble(1);
+        assertThat(ListProperties.isCached(buffer.toReadOnlyArray()), equalTo(true));
+    }
+
+    @Test
+    public void isCached1() {
+        // Answering does not compute the properties
+        ArrayDouble readOnly = immutableListDouble(0, 1, 2, 3);
+        assertThat(ListProperties.isCached(readOnly), equalTo(true));
+        assertThat(ListProperties.ifComputed(readOnly), nullValue());
+        ListProperties properties = ListProperties.of(readOnly);
+        assertThat(ListProperties.ifComputed(readOnly), sameInstance(properties));
+    }
+
+    @Test
+    public void cached4() {
+        // Wrapping an array that is still written does not cache
+        double[] values = {0, 1, 2, 3};
+        ArrayDouble readOnly = unmodifiableListDouble(values);
+        assertThat(ListProperties.isCached(readOnly), equalTo(false));
+        assertThat(ListNumbers.isLinear(readOnly), equalTo(true));
+        int hash = readOnly.hashCode();
+        values[3] = 5;
+        assertThat(ListNumbers.isLinear(readOnly), equalTo(false));
+        assertThat(readOnly.hashCode(), not(equalTo(hash)));
+        assertThat(ListProperties.isCached(ArrayDouble.of(values)), equalTo(false));
+    }
+
+    @Test
+    public void cached3() {
+        // A read-only view of a modifiable array must not cache:
+        // the array can change through the original list
+        ArrayDouble modifiable = toListDouble(0, 1, 2, 3);
+        ArrayDouble view = unmodifiableList(modifiable);
+        assertThat(ListProperties.isCached(view), equalTo(false));
+        int hash = view.hashCode();
+        assertThat(ListNumbers.isLinear(view), equalTo(true));
+        assertThat(ListProperties.of(view).getMaximum(), equalTo(3.0));
+        modifiable.setDouble(3, 5);
+        assertThat(view.hashCode(), not(equalTo(hash)));
+        assertThat(view.hashCode(), equalTo(modifiable.hashCode()));
+        assertThat(ListNumbers.isLinear(view), equalTo(false));
+        assertThat(ListProperties.of(view).getMaximum(), equalTo(5.0));
+
+        ArrayInteger ints = toListInt(1, 2, 3);
+        ArrayInteger intView = unmodifiableList(ints);
+        hash = intView.hashCode();
+        ints.setInt(0, 7);
+        assertThat(intView.hashCode(), not(equalTo(hash)));
+    }
+
+    @Test
+    public void cached2() {
+        // A modifiable array reflects the changes
+        ArrayDouble modifiable = toListDouble(0, 1, 2, 3);
+        assertThat(ListNumbers.isLinear(modifiable), equalTo(true));
+        int hash = modifiable.hashCode();
+        modifiable.setDouble(3, 5);
+        assertThat(ListNumbers.isLinear(modifiable), equalTo(false));
+        assertThat(modifiable.hashCode(), not(equalTo(hash)));
+        assertThat(ListProperties.of(modifiable).getMaximum(), equalTo(5.0));
+    }
+
+    @Test
+    public void hashCode1() {
+        double[] values = {0.5, 1, 2, Double.NaN};
+        ArrayDouble readOnly = immutableListDouble(values);
+        assertThat(readOnly.hashCode(), equalTo(toListDouble(values).hashCode()));
+        assertThat(readOnly.hashCode(), equalTo(readOnly.hashCode()));
+        assertThat(immutableListInt(0).hashCode(), equalTo(toListInt(0).hashCode()));
+        assertThat(immutableListULong(7, -1).hashCode(), equalTo(toListULong(7, -1).hashCode()));
+    }
+
+    @Test
+    public void consistency1() {
+        // The cached properties give the same results as the computation
+        ListNumber[] lists = {immutableListDouble(1),
+            immutableListDouble(0, 0.1, 0.2, 0.30000000000000004),
+            immutableListDouble(0, 0.1, 0.25),
+            immutableListDouble(5, 3, 4, 1),
+            immutableListFloat(1, 2, Float.NaN),
+            immutableListShort(new short[] {3, 2, 1})};
+        for (ListNumber list : lists) {
+            ListNumber copy = toListDouble(list.toArray(new double[0]));
+            assertThat(ListNumbers.isLinear(list), equalTo(ListNumbers.isLinear(copy)));
+            assertThat(ListNumbers.sortedView(list), equalTo((ListNumber) ListNumbers.sortedView(copy)));
+            assertThat(ListNumbers.sortedView(list).getIndexes(), equalTo(ListNumbers.sortedView(copy).getIndexes()));
+        }
+    }
+}
@@ -0,0 +1,120 @@
+/**
+ * Copyright (C) 2010-14 diirt developers. See COPYRIGHT.TXT
+ * All rights reserved. Use is subject to license terms. See LICENSE.TXT
+ */
+package org.epics.util.array;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+import static org.hamcrest.Matchers.*;
+import static org.epics.util.array.FeatureTestListNumber.testList;
+import static org.epics.util.array.FeatureTestCollectionNumber.testIterationForAllTypes;
+
+/**
+ *
+ * @author carcassi
+ */
+public class MultiProducerCircularBufferDoubleTest {
+
+    public MultiProducerCircularBufferDoubleTest() {
+    }
+
+    @Test
+    public void offer1() {
+        MultiProducerCircularBufferDouble buffer = new MultiProducerCircularBufferDouble(3);
+        assertThat(buffer.size(), equalTo(0));
+        assertThat(buffer.offer(1), equalTo(true));
+        assertThat(buffer.offer(2), equalTo(true));
+        assertThat(buffer.offer(3), equalTo(true));
+        assertThat(buffer.offer(4), equalTo(false));
+        assertThat(buffer, equalTo((ListDouble) CollectionNumbers.unmodifiableListDouble(1, 2, 3)));
+    }
+
+    @Test
+    public void remove1() {
+        MultiProducerCircularBufferDouble buffer = new MultiProducerCircularBufferDouble(3);
+        for (int i = 0; i < 3; i++) {
+            buffer.offer(i);
+        }
+        buffer.remove(2);
+        assertThat(buffer, equalTo((ListDouble) CollectionNumbers.unmodifiableListDouble(2)));
+        assertThat(buffer.offer(3), equalTo(true));
+        assertThat(buffer.offer(4), equalTo(true));
+        assertThat(buffer.offer(5), equalTo(false));
+        assertThat(buffer, equalTo((ListDouble) CollectionNumbers.unmodifiableListDouble(2, 3, 4)));
+    }
+
+    @Test
+    public void iteration1() {
+        MultiProducerCircularBufferDouble buffer = new MultiProducerCircularBufferDouble(15);
+        for (int i = 0; i < 12; i++) {
+            buffer.offer(1.0);
+        }
+        buffer.remove(2);
+        testIterationForAllTypes(buffer);
+        testList(buffer);
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void remove2() {
+        MultiProducerCircularBufferDouble buffer = new MultiProducerCircularBufferDouble(3);
+        buffer.offer(1);
+        buffer.remove(2);
+    }
+
+    @Test
+    public void drainTo1() {
+        MultiProducerCircularBufferDouble buffer = new MultiProducerCircularBufferDouble(4);
+        for (int i = 0; i < 4; i++) {
+            buffer.offer(i);
+        }
+        double[] dest = new double[4];
+        assertThat(buffer.drainTo(dest, 1), equalTo(3));
+        assertThat(dest, equalTo(new double[] {0, 0, 1, 2}));
+        assertThat(buffer.size(), equalTo(1));
+        assertThat(buffer.drainTo(dest, 0), equalTo(1));
+        assertThat(dest, equalTo(new double[] {3, 0, 1, 2}));
+        assertThat(buffer.drainTo(dest, 0), equalTo(0));
+    }
+
+    @Test
+    public void concurrentProducers1() throws Exception {
+        final int nProducers = 4;
+        final int nValues = 20000;
+        final MultiProducerCircularBufferDouble buffer = new MultiProducerCircularBufferDouble(128);
+        Thread[] producers = new Thread[nProducers];
+        for (int n = 0; n < nProducers; n++) {
+            final int producer = n;
+            producers[n] = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    for (int i = 0; i < nValues; i++) {
+                        while (!buffer.offer(producer * nValues + i)) {
+                            Thread.yield();
+                        }
+                    }
+                }
+            });
+            producers[n].start();
+        }
+
+        // Each producer's values must arrive once, and in order
+        int[] next = new int[nProducers];
+        double[] dest = new double[50];
+        int received = 0;
+        while (received < nProducers * nValues) {
+            int count = buffer.drainTo(dest, 0);
+            for (int i = 0; i < count; i++) {
+                int value = (int) dest[i];
+                int producer = value / nValues;
+                assertThat(value % nValues, equalTo(next[producer]));
+                next[producer]++;
+            }
+            received += count;
+        }
+        for (Thread producer : producers) {
+            producer.join();
+        }
+        assertThat(buffer.size(), equalTo(0));
+    }
+}
@@ -0,0 +1,112 @@
+/**
+ * Copyright (C) 2010-14 diirt developers. See COPYRIGHT.TXT
+ * All rights reserved. Use is subject to license terms. See LICENSE.TXT
+ */
+package org.epics.util.array;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.After;
+import org.junit.Test;
+import static org.junit.Assert.*;
+import static org.hamcrest.Matchers.*;
+import static org.epics.util.array.CollectionNumbers.*;
+
+/**
+ *
+ * @author carcassi
+ */
+public class ParallelExecutionTest {
+
+    public ParallelExecutionTest() {
+    }
+
+    @After
+    public void disable() {
+        ParallelExecution.disable();
+    }
+
+    private static ArrayDouble createData(int size) {
+        double[] data = new double[size];
+        for (int i = 0; i < size; i++) {
+            data[i] = Math.sin(i) * 1e6 + 1.0 / (i + 1);
+        }
+        return unmodifiableListDouble(data);
+    }
+
+    private static ArrayShort createShortData(int size) {
+        short[] data = new short[size];
+        for (int i = 0; i < size; i++) {
+            data[i] = (short) (i * 31);
+        }
+        return unmodifiableListShort(data);
+    }
+
+    @Test
+    public void settings() {
+        assertThat(ParallelExecution.isEnabled(), equalTo(false));
+        assertThat(ParallelExecution.getThreshold(), equalTo(-1));
+        ParallelExecution.enable(1000);
+        assertThat(ParallelExecution.isEnabled(), equalTo(true));
+        assertThat(ParallelExecution.getThreshold(), equalTo(1000));
+        ParallelExecution.disable();
+        assertThat(ParallelExecution.isEnabled(), equalTo(false));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void invalidThreshold() {
+        ParallelExecution.enable(0);
+    }
+
+    @Test
+    public void forEachRangeHugeSize() {
+        // The split must not overflow near Integer.MAX_VALUE
+        ParallelExecution.enable(new ForkJoinPool(4), 1000);
+        for (int granularity : new int[] {1, 4096, Integer.MAX_VALUE / 2 + 1}) {
+            final AtomicLong covered = new AtomicLong();
+            final AtomicInteger nRanges = new AtomicInteger();
+            final int expectedGranularity = granularity;
+            ParallelExecution.forEachRange(Integer.MAX_VALUE, granularity, true, (fromIndex, toIndex) -> {
+                // No-op task: only checks the range
+                assertThat(fromIndex, greaterThanOrEqualTo(0));
+                assertThat(toIndex, greaterThan(fromIndex));
+                assertThat(fromIndex % expectedGranularity, equalTo(0));
+                covered.addAndGet(toIndex - fromIndex);
+                nRanges.incrementAndGet();
+            });
+            assertThat(covered.get(), equalTo((long) Integer.MAX_VALUE));
+            assertThat(nRanges.get(), lessThanOrEqualTo(32));
+        }
+    }
+
+    @Test
+    public void elementWiseMatchesSequential() {
+        int size = 100_003;
+        ArrayDouble data1 = createData(size);
+        ArrayShort data2 = createShortData(size);
+        ListExpression expression = ListExpression.of(data1).multiply(data2).rescale(0.5, 3);
+        ArrayDouble expected = expression.evaluate();
+        ArrayDouble expectedSum = ListMath.addInto(data1, data2, toListDouble(new double[size]));
+        ArrayDouble expectedRescale = ListMath.rescaleInto(data2, 3, 1, toListDouble(new double[size]));
+
+        ParallelExecution.enable(new ForkJoinPool(4), 1000);
+        assertThat(expression.evaluate(), equalTo(expected));
+        assertThat(ListMath.addInto(data1, data2, toListDouble(new double[size])), equalTo(expectedSum));
+        assertThat(ListMath.rescaleInto(data2, 3, 1, toListDouble(new double[size])), equalTo(expectedRescale));
+    }
+
+    @Test
+    public void reductionsMatchSequential() {
+        int size = 250_001;
+        ArrayDouble data = createData(size);
+        double sum = ListMath.sum(data);
+        double min = ListMath.min(data);
+        double max = ListMath.max(data);
+
+        ParallelExecution.enable(new ForkJoinPool(4), 1000);
+        assertThat(ListMath.sum(data), equalTo(sum));
+        assertThat(ListMath.min(data), equalTo(min));
+        assertThat(ListMath.max(data), equalTo(max));
+    }
+}
@@ -0,0 +1,166 @@
+/**
+ * Copyright (C) 2010-14 diirt developers. See COPYRIGHT.TXT
+ * All rights reserved. Use is subject to license terms. See LICENSE.TXT
+ */
+package org.epics.util.stats;
+
+import java.util.concurrent.ForkJoinPool;
+import org.epics.util.array.ListByte;
+import org.epics.util.array.ListNumber;
+import org.epics.util.array.ListUShort;
+import org.epics.util.array.ParallelExecution;
+import org.junit.After;
+import org.junit.Test;
+import static org.junit.Assert.*;
+import static org.hamcrest.Matchers.*;
+import static org.epics.util.array.CollectionNumbers.*;
+
+/**
+ *
+ * @author carcassi
+ */
+public class HistogramTest {
+
+    public HistogramTest() {
+    }
+
+    @After
+    public void disable() {
+        ParallelExecution.disable();
+    }
+
+    @Test
+    public void add1() {
+        Histogram histogram = new Histogram(Range.of(0, 10), 5);
+        double[] values = {-1, 0, 1.99, 2, 5, 9.99, 10, 10.01, Double.NaN};
+        for (double value : values) {
+            histogram.add(value);
+        }
+        assertThat(histogram.getCounts(), equalTo((ListNumber) toListLong(2, 1, 1, 0, 2)));
+        assertThat(histogram.getUnderflow(), equalTo(1L));
+        assertThat(histogram.getOverflow(), equalTo(1L));
+        assertThat(histogram.getCount(4), equalTo(2L));
+        assertThat(histogram.getBinRange(1), equalTo(Range.of(2, 4)));
+        assertThat(histogram.getNBins(), equalTo(5));
+    }
+
+    @Test
+    public void addAll1() {
+        Histogram histogram = new Histogram(Range.of(0, 10), 5);
+        histogram.addAll(toListDouble(-1, 0, 1.99, 2, 5, 9.99, 10, 10.01, Double.NaN));
+        assertThat(histogram.getCounts(), equalTo((ListNumber) toListLong(2, 1, 1, 0, 2)));
+        assertThat(histogram.getUnderflow(), equalTo(1L));
+        assertThat(histogram.getOverflow(), equalTo(1L));
+    }
+
+    @Test
+    public void addAll2() {
+        // Lookup tables give the same result as the conversion to double
+        ListNumber[] lists = {toListUByte(new byte[] {0, 1, 50, 99, 100, (byte) 200, (byte) 255}),
+            toListByte(new byte[] {-128, -1, 0, 50, 99, 100, 127}),
+            toListUShort(new short[] {0, 50, 99, 100, (short) 40000, (short) 65535}),
+            toListShort(new short[] {-32768, -1, 0, 50, 100, 32767}),
+            toListInt(-5, 0, 50, 100, 1000)};
+        for (ListNumber list : lists) {
+            Histogram expected = new Histogram(Range.of(0, 100), 7);
+            for (int i = 0; i < list.size(); i++) {
+                expected.add(list.getDouble(i));
+            }
+            Histogram actual = new Histogram(Range.of(0, 100), 7);
+            actual.addAll(list);
+            actual.addAll(list);
+            expected.merge(expected);
+            assertThat(actual.getCounts(), equalTo((ListNumber) expected.getCounts()));
+            assertThat(actual.getUnderflow(), equalTo(expected.getUnderflow()));
+            assertThat(actual.getOverflow(), equalTo(expected.getOverflow()));
+        }
+    }
+
+    @Test
+    public void addAll3() {
+        // Lists that are not arrays are read through the getters
+        ListNumber ushorts = new ListUShort() {
+            @Override
+            public short getShort(int index) {
+                return (short) (index * 13000);
+            }
+
+            @Override
+            public int size() {
+                return 2000;
+            }
+        };
+        ListNumber bytes = new ListByte() {
+            @Override
+            public byte getByte(int index) {
+                return (byte) (index * 7);
+            }
+
+            @Override
+            public int size() {
+                return 3000;
+            }
+        };
+        for (ListNumber list : new ListNumber[] {ushorts, bytes}) {
+            Histogram expected = new Histogram(Range.of(-50, 40000), 9);
+            for (int i = 0; i < list.size(); i++) {
+                expected.add(list.getDouble(i));
+            }
+            Histogram actual = new Histogram(Range.of(-50, 40000), 9);
+            actual.addAll(list);
+            assertThat(actual.getCounts(), equalTo((ListNumber) expected.getCounts()));
+            assertThat(actual.getUnderflow(), equalTo(expected.getUnderflow()));
+            assertThat(actual.getOverflow(), equalTo(expected.getOverflow()));
+        }
+    }
+
+    @Test
+    public void merge1() {
+        Histogram histogram = new Histogram(Range.of(0, 4), 4);
+        histogram.addAll(toListDouble(0.5, 1.5));
+        Histogram other = new Histogram(Range.of(0, 4), 4);
+        other.addAll(toListDouble(1.5, 3.5, 5));
+        histogram.merge(other);
+        assertThat(histogram.getCounts(), equalTo((ListNumber) toListLong(1, 2, 0, 1)));
+        assertThat(histogram.getOverflow(), equalTo(1L));
+        histogram.clear();
+        assertThat(histogram.getCounts(), equalTo((ListNumber) toListLong(0, 0, 0, 0)));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void merge2() {
+        new Histogram(Range.of(0, 4), 4).merge(new Histogram(Range.of(0, 4), 5));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void new1() {
+        new Histogram(Range.undefined(), 4);
+    }
+
+    @Test
+    public void parallelMatchesSequential() {
+        int size = 1_000_003;
+        short[] frame = new short[size];
+        double[] values = new double[size];
+        for (int i = 0; i < size; i++) {
+            frame[i] = (short) (i * 7919);
+            values[i] = Math.sin(i) * 100;
+        }
+        ListNumber shorts = unmodifiableListUShort(frame);
+        ListNumber doubles = unmodifiableListDouble(values);
+        Histogram shortHistogram = new Histogram(Range.of(0, 65536), 100);
+        shortHistogram.addAll(shorts);
+        Histogram doubleHistogram = new Histogram(Range.of(-50, 50), 64);
+        doubleHistogram.addAll(doubles);
+
+        ParallelExecution.enable(new ForkJoinPool(4), 1000);
+        Histogram parallel = new Histogram(Range.of(0, 65536), 100);
+        parallel.addAll(shorts);
+        assertThat(parallel.getCounts(), equalTo((ListNumber) shortHistogram.getCounts()));
+        parallel = new Histogram(Range.of(-50, 50), 64);
+        parallel.addAll(doubles);
+        assertThat(parallel.getCounts(), equalTo((ListNumber) doubleHistogram.getCounts()));
+        assertThat(parallel.getUnderflow(), equalTo(doubleHistogram.getUnderflow()));
+        assertThat(parallel.getOverflow(), equalTo(doubleHistogram.getOverflow()));
+    }
+}
@@ -4,10 +4,18 @@
  */
 package org.epics.util.stats;
 
+import java.util.concurrent.ForkJoinPool;
+import org.epics.util.array.ArrayDouble;
+import org.epics.util.array.ListNumbers;
+import org.epics.util.array.ListProperties;
+import org.epics.util.array.ListUInteger;
+import org.epics.util.array.ParallelExecution;
+import org.junit.After;
 import org.junit.Test;
 import static org.junit.Assert.*;
 import static org.hamcrest.Matchers.*;
 import static org.epics.util.stats.Ranges.*;
+import static org.epics.util.array.CollectionNumbers.*;
 
 /**
  *
@@ -18,6 +26,11 @@ public class RangesTest {
     public RangesTest() {
     }
     
+    @After
+    public void disable() {
+        ParallelExecution.disable();
+    }
+    
     @Test
     public void range1() throws Exception {
         Range range = Range.of(0.0, 10.0);
@@ -109,4 +122,77 @@ public class RangesTest {
         Range range2 = Range.of(2.0, 14.0);
         assertThat(Ranges.overlap(range1, range2), equalTo(0.75));
     }
+    
+    @Test
+    public void rangeOfList1() {
+        assertThat(range(toListDouble(3, Double.NaN, -1, 7, 2)), equalTo(Range.of(-1, 7)));
+        assertThat(range(toListDouble(3, Double.NEGATIVE_INFINITY, 7)), equalTo(Range.of(Double.NEGATIVE_INFINITY, 7)));
+        assertThat(range(toListDouble(3, Double.NEGATIVE_INFINITY, 7), true), equalTo(Range.of(3, 7)));
+        assertThat(range(toListFloat(3, Float.NaN, Float.POSITIVE_INFINITY, -2), true), equalTo(Range.of(-2, 3)));
+        assertThat(range(toListDouble(Double.NaN, Double.NaN)), sameInstance(Range.undefined()));
+        assertThat(range(toListDouble()), sameInstance(Range.undefined()));
+    }
+    
+    @Test
+    public void rangeOfList2() {
+        assertThat(range(toListByte(new byte[] {5, -3, 100})), equalTo(Range.of(-3, 100)));
+        assertThat(range(toListUByte(new byte[] {5, -3, 100})), equalTo(Range.of(5, 253)));
+        assertThat(range(toListShort(new short[] {5, -300, 100})), equalTo(Range.of(-300, 100)));
+        assertThat(range(toListUShort(new short[] {5, -300, 100})), equalTo(Range.of(5, 65236)));
+        assertThat(range(toListInt(5, -3, 100)), equalTo(Range.of(-3, 100)));
+        assertThat(range(toListUInt(5, -1, 100)), equalTo(Range.of(5, 4294967295.0)));
+        assertThat(range(toListLong(5, -3, 100)), equalTo(Range.of(-3, 100)));
+        assertThat(range(toListULong(5, 3, 100)), equalTo(Range.of(3, 100)));
+    }
+    
+    @Test
+    public void rangeOfList5() {
+        // Lists that are not arrays are read through the getters
+        ListUInteger uints = new ListUInteger() {
+            @Override
+            public int getInt(int index) {
+                return index * 1_000_003;
+            }
+
+            @Override
+            public int size() {
+                return 5000;
+            }
+        };
+        assertThat(range(uints), equalTo(Range.of(0, 4294012882.0)));
+        assertThat(range(toListUInt(0, -1).subList(1, 2)), equalTo(Range.of(4294967295.0, 4294967295.0)));
+    }
+    
+    @Test
+    public void rangeOfList3() {
+        assertThat(range(ListNumbers.linearList(10, -0.5, 5)), equalTo(Range.of(8, 10)));
+        assertThat(range(ListNumbers.linearListFromRange(-1, 4, 11)), equalTo(Range.of(-1, 4)));
+    }
+    
+    @Test
+    public void rangeOfList4() {
+        // The properties are used if already computed, but not computed
+        ArrayDouble data = immutableListDouble(3, Double.NEGATIVE_INFINITY, -1, 7);
+        assertThat(range(data), equalTo(Range.of(Double.NEGATIVE_INFINITY, 7)));
+        assertThat(ListProperties.ifComputed(data), nullValue());
+        ListProperties properties = ListProperties.of(data);
+        assertThat(ListProperties.ifComputed(data), sameInstance(properties));
+        assertThat(range(data), equalTo(Range.of(Double.NEGATIVE_INFINITY, 7)));
+        assertThat(range(data, true), equalTo(Range.of(-1, 7)));
+    }
+    
+    @Test
+    public void rangeOfListParallel() {
+        int size = 1_000_003;
+        double[] values = new double[size];
+        for (int i = 0; i < size; i++) {
+            values[i] = (i % 1000 == 0) ? Double.NaN : Math.sin(i) * i;
+        }
+        values[size - 1] = Double.POSITIVE_INFINITY;
+        Range expected = range(toListDouble(values), true);
+        
+        ParallelExecution.enable(new ForkJoinPool(4), 1000);
+        assertThat(range(unmodifiableListDouble(values), true), equalTo(expected));
+        assertThat(range(unmodifiableListDouble(values)).getMaximum(), equalTo(Double.POSITIVE_INFINITY));
+    }
 }
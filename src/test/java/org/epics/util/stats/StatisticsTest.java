@@ -0,0 +1,145 @@
+/**
+ * Copyright (C) 2010-14 diirt developers. See COPYRIGHT.TXT
+ * All rights reserved. Use is subject to license terms. See LICENSE.TXT
+ */
+package org.epics.util.stats;
+
+import java.util.concurrent.ForkJoinPool;
+import org.epics.util.array.ListNumber;
+import org.epics.util.array.ListNumbers;
+import org.epics.util.array.ParallelExecution;
+import org.junit.After;
+import org.junit.Test;
+import static org.junit.Assert.*;
+import static org.hamcrest.Matchers.*;
+import static org.epics.util.array.CollectionNumbers.*;
+
+/**
+ *
+ * @author carcassi
+ */
+public class StatisticsTest {
+
+    public StatisticsTest() {
+    }
+
+    @After
+    public void disable() {
+        ParallelExecution.disable();
+    }
+
+    @Test
+    public void empty() {
+        Statistics statistics = new Statistics();
+        assertThat(statistics.getCount(), equalTo(0L));
+        assertThat(statistics.getMean(), equalTo(Double.NaN));
+        assertThat(statistics.getVariance(), equalTo(Double.NaN));
+        assertThat(statistics.getSampleVariance(), equalTo(Double.NaN));
+        assertThat(statistics.getRange(), sameInstance(Range.undefined()));
+    }
+
+    @Test
+    public void add1() {
+        Statistics statistics = new Statistics();
+        double[] values = {2, 4, 4, 4, 5, 5, 7, 9};
+        for (double value : values) {
+            statistics.add(value);
+        }
+        statistics.add(Double.NaN);
+        assertThat(statistics.getCount(), equalTo(8L));
+        assertThat(statistics.getMean(), equalTo(5.0));
+        assertThat(statistics.getVariance(), equalTo(4.0));
+        assertThat(statistics.getStdDev(), equalTo(2.0));
+        assertThat(statistics.getSampleVariance(), closeTo(32.0 / 7, 1e-12));
+        assertThat(statistics.getRange(), equalTo(Range.of(2, 9)));
+    }
+
+    @Test
+    public void addAll1() {
+        Statistics statistics = Statistics.of(toListDouble(2, 4, Double.NaN, 4, 4, 5, 5, 7, 9));
+        assertThat(statistics.getCount(), equalTo(8L));
+        assertThat(statistics.getMean(), equalTo(5.0));
+        assertThat(statistics.getVariance(), equalTo(4.0));
+        assertThat(statistics.getRange(), equalTo(Range.of(2, 9)));
+    }
+
+    @Test
+    public void addAll2() {
+        // Unsigned and integer lists are converted
+        Statistics statistics = Statistics.of(toListUByte(new byte[] {(byte) 255, 1}));
+        assertThat(statistics.getMean(), equalTo(128.0));
+        assertThat(statistics.getRange(), equalTo(Range.of(1, 255)));
+        statistics = Statistics.of(toListShort(new short[] {-3, 3}));
+        assertThat(statistics.getVariance(), equalTo(9.0));
+    }
+
+    @Test
+    public void addAll3() {
+        // Large offset: the naive sum of squares would lose all precision
+        int size = 10_000;
+        double[] values = new double[size];
+        for (int i = 0; i < size; i++) {
+            values[i] = 1e9 + (i % 2 == 0 ? -1 : 1);
+        }
+        Statistics statistics = Statistics.of(toListDouble(values));
+        assertThat(statistics.getMean(), equalTo(1e9));
+        assertThat(statistics.getVariance(), closeTo(1.0, 1e-9));
+    }
+
+    @Test
+    public void addAll4() {
+        // Same result with single adds, up to rounding
+        ListNumber data = ListNumbers.linearList(-5, 0.37, 5000);
+        Statistics bulk = Statistics.of(data);
+        Statistics single = new Statistics();
+        for (int i = 0; i < data.size(); i++) {
+            single.add(data.getDouble(i));
+        }
+        assertThat(bulk.getCount(), equalTo(single.getCount()));
+        assertThat(bulk.getMean(), closeTo(single.getMean(), 1e-9));
+        assertThat(bulk.getVariance(), closeTo(single.getVariance(), 1e-6));
+        assertThat(bulk.getRange(), equalTo(single.getRange()));
+    }
+
+    @Test
+    public void merge1() {
+        Statistics first = Statistics.of(toListDouble(2, 4, 4));
+        Statistics second = Statistics.of(toListDouble(4, 5, 5, 7, 9));
+        first.merge(second);
+        first.merge(new Statistics());
+        assertThat(first.getCount(), equalTo(8L));
+        assertThat(first.getMean(), equalTo(5.0));
+        assertThat(first.getVariance(), closeTo(4.0, 1e-12));
+        assertThat(first.getRange(), equalTo(Range.of(2, 9)));
+        assertThat(second.getCount(), equalTo(5L));
+
+        Statistics empty = new Statistics();
+        empty.merge(second);
+        assertThat(empty.getMean(), equalTo(second.getMean()));
+        empty.clear();
+        assertThat(empty.getCount(), equalTo(0L));
+    }
+
+    @Test
+    public void parallelMatchesSequential() {
+        int size = 1_000_003;
+        double[] values = new double[size];
+        for (int i = 0; i < size; i++) {
+            values[i] = Math.sin(i) * 1e3 + 1e6;
+        }
+        ListNumber data = unmodifiableListDouble(values);
+        Statistics sequential = Statistics.of(data);
+
+        ParallelExecution.enable(new ForkJoinPool(4), 1000);
+        Statistics parallel = Statistics.of(data);
+        // The partial results are merged by range, not by block
+        assertThat(parallel.getCount(), equalTo(sequential.getCount()));
+        assertThat(parallel.getMean(), closeTo(sequential.getMean(), 1e-12 * sequential.getMean()));
+        assertThat(parallel.getVariance(), closeTo(sequential.getVariance(), 1e-9 * sequential.getVariance()));
+        assertThat(parallel.getRange(), equalTo(sequential.getRange()));
+
+        // Same split, same order of the merges
+        assertThat(Statistics.of(data).getMean(), equalTo(parallel.getMean()));
+        assertThat(Statistics.of(data).getVariance(), equalTo(parallel.getVariance()));
+    }
+}
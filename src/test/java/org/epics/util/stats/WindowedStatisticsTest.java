@@ -0,0 +1,103 @@
+/**
+ * Copyright (C) 2010-14 diirt developers. See COPYRIGHT.TXT
+ * All rights reserved. Use is subject to license terms. See LICENSE.TXT
+ */
+package org.epics.util.stats;
+
+import java.util.Random;
+import org.epics.util.array.ListNumber;
+import org.junit.Test;
+import static org.junit.Assert.*;
+import static org.hamcrest.Matchers.*;
+import static org.epics.util.array.CollectionNumbers.*;
+
+/**
+ *
+ * @author carcassi
+ */
+public class WindowedStatisticsTest {
+
+    public WindowedStatisticsTest() {
+    }
+
+    @Test
+    public void addDouble1() {
+        WindowedStatistics statistics = new WindowedStatistics(3);
+        assertThat(statistics.getCount(), equalTo(0));
+        assertThat(statistics.getMean(), equalTo(Double.NaN));
+        assertThat(statistics.getRange(), sameInstance(Range.undefined()));
+        statistics.addDouble(5);
+        statistics.addDouble(1);
+        assertThat(statistics.getMean(), equalTo(3.0));
+        assertThat(statistics.getRange(), equalTo(Range.of(1, 5)));
+        statistics.addDouble(3);
+        statistics.addDouble(2);
+        assertThat(statistics.getWindow(), equalTo((ListNumber) toListDouble(1, 3, 2)));
+        assertThat(statistics.getCount(), equalTo(3));
+        assertThat(statistics.getMean(), closeTo(2.0, 1e-12));
+        assertThat(statistics.getVariance(), closeTo(2.0 / 3, 1e-12));
+        assertThat(statistics.getSampleVariance(), closeTo(1.0, 1e-12));
+        assertThat(statistics.getRange(), equalTo(Range.of(1, 3)));
+        statistics.addDouble(4);
+        statistics.addDouble(4);
+        assertThat(statistics.getRange(), equalTo(Range.of(2, 4)));
+    }
+
+    @Test
+    public void addDouble2() {
+        // NaN takes a place in the window but is not counted
+        WindowedStatistics statistics = new WindowedStatistics(2);
+        statistics.addDouble(Double.NaN);
+        assertThat(statistics.getCount(), equalTo(0));
+        assertThat(statistics.getRange(), sameInstance(Range.undefined()));
+        statistics.addDouble(7);
+        assertThat(statistics.getCount(), equalTo(1));
+        assertThat(statistics.getMean(), equalTo(7.0));
+        statistics.addDouble(Double.NaN);
+        statistics.addDouble(Double.NaN);
+        assertThat(statistics.getCount(), equalTo(0));
+        assertThat(statistics.getMean(), equalTo(Double.NaN));
+        statistics.addDouble(1);
+        assertThat(statistics.getRange(), equalTo(Range.of(1, 1)));
+    }
+
+    @Test
+    public void addDouble3() {
+        // Matches a full computation on each window
+        Random random = new Random(1);
+        WindowedStatistics statistics = new WindowedStatistics(50);
+        for (int i = 0; i < 2000; i++) {
+            statistics.addDouble(random.nextGaussian() * 10 + 1e4 + (i % 7 == 0 ? 100 : 0));
+            Statistics expected = Statistics.of(statistics.getWindow());
+            assertThat(statistics.getCount(), equalTo((int) expected.getCount()));
+            assertThat(statistics.getMean(), closeTo(expected.getMean(), 1e-8));
+            assertThat(statistics.getVariance(), closeTo(expected.getVariance(), 1e-6));
+            assertThat(statistics.getRange(), equalTo(expected.getRange()));
+        }
+    }
+
+    @Test
+    public void clear1() {
+        WindowedStatistics statistics = new WindowedStatistics(4);
+        statistics.addDouble(1);
+        statistics.addDouble(2);
+        statistics.clear();
+        assertThat(statistics.getCount(), equalTo(0));
+        assertThat(statistics.getWindow().size(), equalTo(0));
+        statistics.addDouble(9);
+        assertThat(statistics.getRange(), equalTo(Range.of(9, 9)));
+        assertThat(statistics.getMean(), equalTo(9.0));
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void getWindow1() {
+        WindowedStatistics statistics = new WindowedStatistics(4);
+        statistics.addDouble(1);
+        statistics.getWindow().setDouble(0, 2);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void new1() {
+        new WindowedStatistics(0);
+    }
+}